@@ -0,0 +1,96 @@
+package org.incogn1.servercontrol.benchmarks;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import dev.dejvokep.boostedyaml.YamlDocument;
+import dev.dejvokep.boostedyaml.settings.dumper.DumperSettings;
+import dev.dejvokep.boostedyaml.settings.general.GeneralSettings;
+import dev.dejvokep.boostedyaml.settings.loader.LoaderSettings;
+import dev.dejvokep.boostedyaml.settings.updater.UpdaterSettings;
+import org.incogn1.servercontrol.ServerControl;
+import org.incogn1.servercontrol.ServerManager;
+import org.incogn1.servercontrol.commands.CommandRateLimiter;
+import org.incogn1.servercontrol.groups.ServerGroupManager;
+import org.incogn1.servercontrol.metrics.MetricsRegistry;
+import org.incogn1.servercontrol.resources.ResourceSync;
+import org.incogn1.servercontrol.resources.translations.TranslationsManager;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Sets up the static state of the plugin the same way ServerControl
+ * does on startup, but against a stub proxy with a network of a given
+ * size and a temporary data directory.
+ */
+public final class BenchmarkEnvironment {
+
+    /** Permissions of the benchmark player, enough to pass every permission check */
+    private static final Set<String> ADMIN_PERMISSIONS = Set.of(
+        "servercontrol.base",
+        "servercontrol.info",
+        "servercontrol.list",
+        "servercontrol.start",
+        "servercontrol.join",
+        "servercontrol.run_as"
+    );
+
+    private BenchmarkEnvironment() {}
+
+    /**
+     * Initializes the plugin state.
+     *
+     * @param networkSize the amount of servers registered on the proxy
+     * @return a player with permission to use every command
+     */
+    public static Player setUp(int networkSize) throws IOException {
+        Path dataDirectory = Files.createTempDirectory("servercontrol-benchmarks");
+
+        ServerControl.logger = NOPLogger.NOP_LOGGER;
+        ServerControl.dataDirectory = dataDirectory;
+        ServerControl.metricsRegistry = new MetricsRegistry();
+
+        ResourceSync.sync();
+        ServerControl.config = YamlDocument.create(
+            new File(dataDirectory.toFile(), ServerControl.CONFIG_FILE),
+            Objects.requireNonNull(ServerControl.class.getResourceAsStream("/" + ServerControl.CONFIG_FILE)),
+            GeneralSettings.DEFAULT,
+            LoaderSettings.DEFAULT,
+            DumperSettings.DEFAULT,
+            UpdaterSettings.DEFAULT
+        );
+        ServerControl.translationsManager = new TranslationsManager("en");
+
+        Set<String> permissions = new HashSet<>(ADMIN_PERMISSIONS);
+        List<RegisteredServer> servers = new ArrayList<>();
+        for (int i = 0; i < networkSize; i++) {
+            String serverName = serverName(i);
+            servers.add(Stubs.registeredServer(serverName, 25566 + i));
+            permissions.add("servercontrol.start." + serverName);
+            permissions.add("servercontrol.join." + serverName);
+        }
+
+        Player player = Stubs.player("BenchmarkPlayer", permissions);
+        ServerControl.proxy = Stubs.proxyServer(servers, List.of(player));
+        ServerControl.serverManager = new ServerManager();
+        ServerControl.serverGroupManager = new ServerGroupManager(Map.of(), 0.8, 20);
+        ServerControl.commandRateLimiter = new CommandRateLimiter(false, Map.of(), 0);
+
+        return player;
+    }
+
+    /**
+     * @param index the index of the server in the network
+     * @return the name of the server, grouped like a real network
+     *         (lobby-1, survival-2, minigames-3, ...)
+     */
+    public static String serverName(int index) {
+        String[] groups = { "lobby", "survival", "creative", "minigames" };
+
+        return groups[index % groups.length] + "-" + index;
+    }
+}
@@ -0,0 +1,74 @@
+package org.incogn1.servercontrol.benchmarks;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
+import org.incogn1.servercontrol.commands.BaseCommand;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for /sc command handling. Suggestions and parsing (which
+ * checks the permissions of the nodes) run on every keystroke of a player
+ * typing a command that the client can not complete by itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int networkSize;
+
+    private final CommandDispatcher<CommandSource> dispatcher = new CommandDispatcher<>();
+
+    private Player player;
+
+    private String singleServerCommand;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        player = BenchmarkEnvironment.setUp(networkSize);
+        dispatcher.getRoot().addChild(new BaseCommand().createBrigadierCommand().getNode());
+
+        singleServerCommand = "servercontrol start " + BenchmarkEnvironment.serverName(networkSize - 1);
+    }
+
+    @Benchmark
+    public Suggestions suggestSubcommand() {
+        return dispatcher.getCompletionSuggestions(dispatcher.parse("servercontrol st", player)).join();
+    }
+
+    @Benchmark
+    public Suggestions suggestServer() {
+        return dispatcher.getCompletionSuggestions(dispatcher.parse("servercontrol start surv", player)).join();
+    }
+
+    @Benchmark
+    public ParseResults<CommandSource> parseSingleServer() {
+        return dispatcher.parse(singleServerCommand, player);
+    }
+
+    @Benchmark
+    public ParseResults<CommandSource> parseServerPattern() {
+        return dispatcher.parse("servercontrol start lobby-*", player);
+    }
+
+    @Benchmark
+    public int helpMainMenu() throws CommandSyntaxException {
+        return dispatcher.execute("servercontrol help", player);
+    }
+
+    @Benchmark
+    public int helpCommandMenu() throws CommandSyntaxException {
+        return dispatcher.execute("servercontrol help start", player);
+    }
+}
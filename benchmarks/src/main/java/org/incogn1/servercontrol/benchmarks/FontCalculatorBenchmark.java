@@ -0,0 +1,37 @@
+package org.incogn1.servercontrol.benchmarks;
+
+import org.incogn1.servercontrol.resources.MinecraftFontCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for wrapping text to the width of the chat,
+ * done for every line of the help menu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FontCalculatorBenchmark {
+
+    private static final String SENTENCE = "Runs the startup script for the given server, if one has been defined. ";
+
+    /** The amount of times the sentence is repeated */
+    @Param({ "1", "10", "100" })
+    public int sentences;
+
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        text = SENTENCE.repeat(sentences).trim();
+    }
+
+    @Benchmark
+    public String[] splitTextByWidth() {
+        return MinecraftFontCalculator.splitTextByWidth(text, 206);
+    }
+}
@@ -0,0 +1,103 @@
+package org.incogn1.servercontrol.benchmarks;
+
+import org.incogn1.servercontrol.concurrent.PluginExecutors;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what boots cost while they are in flight, with the blocking
+ * work on platform threads or on virtual threads.
+ * <p>
+ * Every operation starts the given amount of simulated boots on the
+ * plugin's blocking executor. Each boot waits for its script and then
+ * polls a few times, like ServerManager does. While all boots are
+ * waiting, the platform threads alive (including the carrier threads of
+ * virtual threads) and the heap used per boot are reported as extra
+ * counters. The time per operation includes forced garbage collections
+ * and is not meaningful on its own.
+ * <p>
+ * Virtual threads are only used on Java 21+ with a plugin jar built by
+ * JDK 21 or newer, the usedVirtualThreads counter shows whether they were.
+ * Note that the stack of a platform thread lives outside the heap, so
+ * for platform threads the heap per boot understates their cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InFlightBootBenchmark {
+
+    @Param({ "1", "100", "1000" })
+    public int concurrentBoots;
+
+    @Param({ "false", "true" })
+    public boolean virtualThreads;
+
+    private PluginExecutors executors;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long platformThreads;
+        public long heapBytesPerBoot;
+        public long usedVirtualThreads;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        executors = new PluginExecutors(virtualThreads);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        executors.shutdown();
+    }
+
+    @Benchmark
+    public void inFlightBoots(Footprint footprint) throws InterruptedException {
+        CountDownLatch waiting = new CountDownLatch(concurrentBoots);
+        CountDownLatch scriptsExited = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(concurrentBoots);
+
+        long heapBefore = getUsedHeap();
+
+        for (int i = 0; i < concurrentBoots; i++) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    // Wait for the startup script
+                    waiting.countDown();
+                    scriptsExited.await();
+
+                    // Poll until the server is online
+                    for (int poll = 0; poll < 3; poll++) {
+                        Thread.sleep(1);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finished.countDown();
+                }
+            }, executors.blocking());
+        }
+
+        waiting.await();
+        footprint.platformThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+        footprint.heapBytesPerBoot = Math.max(0, getUsedHeap() - heapBefore) / concurrentBoots;
+        footprint.usedVirtualThreads = executors.isVirtual() ? 1 : 0;
+
+        scriptsExited.countDown();
+        finished.await();
+    }
+
+    private static long getUsedHeap() {
+        System.gc();
+
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,62 @@
+package org.incogn1.servercontrol.benchmarks;
+
+import com.velocitypowered.api.proxy.Player;
+import org.incogn1.servercontrol.commands.CommandRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what the rate limiter adds to every /sc command, for players
+ * with budget left and for players that are out of budget. The budget of
+ * the players with budget left is large enough to never run out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private CommandRateLimiter rateLimiter;
+
+    private Player player;
+
+    private final String[] infoCommand = { "info", "lobby-0" };
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        player = BenchmarkEnvironment.setUp(10);
+        rateLimiter = new CommandRateLimiter(
+            true,
+            Map.of(
+                "info", new CommandRateLimiter.Budget(1_000_000, 1_000_000_000),
+                "start", new CommandRateLimiter.Budget(1, 0.001)
+            ),
+            600_000
+        );
+    }
+
+    @Benchmark
+    public long acquireWithBudget() {
+        return rateLimiter.tryAcquire(player, "info");
+    }
+
+    @Benchmark
+    public long acquireOutOfBudget() {
+        return rateLimiter.tryAcquire(player, "start");
+    }
+
+    @Benchmark
+    public long acquireUnlimitedCommand() {
+        return rateLimiter.tryAcquire(player, "list");
+    }
+
+    @Benchmark
+    public void coalesceCheck() {
+        rateLimiter.finish(rateLimiter.begin(player, player, infoCommand));
+    }
+}
@@ -0,0 +1,41 @@
+package org.incogn1.servercontrol.benchmarks;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import org.incogn1.servercontrol.ServerControl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for looking up servers, done by nearly every command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServerManagerBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int networkSize;
+
+    private String existingServer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkEnvironment.setUp(networkSize);
+        existingServer = BenchmarkEnvironment.serverName(networkSize / 2);
+    }
+
+    @Benchmark
+    public RegisteredServer getExistingServer() {
+        return ServerControl.serverManager.getServer(existingServer);
+    }
+
+    @Benchmark
+    public RegisteredServer getMissingServer() {
+        return ServerControl.serverManager.getServer("missing");
+    }
+}
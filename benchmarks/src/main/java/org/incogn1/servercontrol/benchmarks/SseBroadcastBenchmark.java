@@ -0,0 +1,220 @@
+package org.incogn1.servercontrol.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import org.incogn1.servercontrol.rest.SseBroadcaster;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes until every subscriber of the control API's
+ * event stream has received a batch of events.
+ * <p>
+ * Every iteration connects the given amount of raw socket subscribers to
+ * an HttpServer set up like the one of RestApiServer. An operation
+ * broadcasts the events and ends once every subscriber has read all of
+ * them. The subscribers are read by the benchmark thread through a single
+ * selector, so the client side does not need a thread per connection.
+ * <p>
+ * Every subscriber uses a file descriptor on both ends, so the larger
+ * amounts need a raised open file limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SseBroadcastBenchmark {
+
+    private static final int EVENTS_PER_OPERATION = 20;
+
+    /** Same as the default api.threads in the config */
+    private static final int THREADS = 4;
+
+    /** Time without any subscriber receiving anything after which the operation fails */
+    private static final long STALL_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final String EVENT_DATA = "{\"server\":\"lobby\",\"state\":\"ONLINE\"}";
+
+    @Param({ "100", "1000", "6000" })
+    public int subscribers;
+
+    private SseBroadcaster broadcaster;
+    private ExecutorService executor;
+    private HttpServer server;
+    private Selector selector;
+    private final List<SocketChannel> channels = new ArrayList<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    /** Amount of events every subscriber has received once the current operation is done */
+    private int expectedEvents;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException, InterruptedException {
+        broadcaster = new SseBroadcaster(subscribers, THREADS);
+        executor = Executors.newFixedThreadPool(THREADS);
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/api/events", exchange -> {
+            if (!broadcaster.subscribe(exchange)) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+
+        selector = Selector.open();
+        byte[] request = "GET /api/events HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < subscribers; i++) {
+            SocketChannel channel = SocketChannel.open(server.getAddress());
+            channel.write(ByteBuffer.wrap(request));
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new EventCounter());
+            channels.add(channel);
+        }
+
+        long deadline = System.nanoTime() + STALL_TIMEOUT_NANOS;
+        while (broadcaster.getSubscriberCount() < subscribers) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Only " + broadcaster.getSubscriberCount() + " of " + subscribers + " subscribers connected");
+            }
+            Thread.sleep(10);
+        }
+
+        expectedEvents = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        broadcaster.stop();
+        server.stop(0);
+        executor.shutdownNow();
+
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+        channels.clear();
+        selector.close();
+    }
+
+    @Benchmark
+    public void broadcast() throws IOException {
+        expectedEvents += EVENTS_PER_OPERATION;
+        for (int i = 0; i < EVENTS_PER_OPERATION; i++) {
+            broadcaster.broadcast("boot_state", EVENT_DATA);
+        }
+
+        int waiting = subscribers;
+        long lastProgress = System.nanoTime();
+        while (waiting > 0) {
+            if (System.nanoTime() - lastProgress > STALL_TIMEOUT_NANOS) {
+                throw new IllegalStateException(waiting + " subscribers stopped receiving events");
+            }
+
+            selector.select(100);
+            for (SelectionKey key : selector.selectedKeys()) {
+                EventCounter counter = (EventCounter) key.attachment();
+                boolean wasWaiting = counter.events < expectedEvents;
+
+                readBuffer.clear();
+                if (((SocketChannel) key.channel()).read(readBuffer) < 0) {
+                    throw new IllegalStateException("A subscriber was disconnected");
+                }
+                readBuffer.flip();
+                counter.feed(readBuffer);
+                lastProgress = System.nanoTime();
+
+                if (wasWaiting && counter.events >= expectedEvents) {
+                    waiting--;
+                }
+            }
+            selector.selectedKeys().clear();
+        }
+    }
+
+    /**
+     * Counts the events in a chunked event stream response, read in
+     * arbitrary pieces. Keep-alive comments and the retry field are not
+     * counted, as they do not start with "event".
+     */
+    private static final class EventCounter {
+
+        private enum State { HEADERS, CHUNK_SIZE, CHUNK_DATA, CHUNK_END }
+
+        private State state = State.HEADERS;
+        private int headerEndMatched;
+        private long chunkSize;
+        private long chunkRemaining;
+        private int chunkEndRemaining;
+
+        private boolean frameStart = true;
+        private byte previous;
+
+        int events;
+
+        void feed(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+
+                switch (state) {
+                    case HEADERS -> {
+                        headerEndMatched = b == "\r\n\r\n".charAt(headerEndMatched) ? headerEndMatched + 1 : (b == '\r' ? 1 : 0);
+                        if (headerEndMatched == 4) {
+                            state = State.CHUNK_SIZE;
+                        }
+                    }
+                    case CHUNK_SIZE -> {
+                        if (b == '\n') {
+                            chunkRemaining = chunkSize;
+                            chunkSize = 0;
+                            state = chunkRemaining > 0 ? State.CHUNK_DATA : State.CHUNK_END;
+                            chunkEndRemaining = 2;
+                        } else if (Character.digit(b, 16) >= 0) {
+                            chunkSize = chunkSize * 16 + Character.digit(b, 16);
+                        }
+                    }
+                    case CHUNK_DATA -> {
+                        countPayload(b);
+                        if (--chunkRemaining == 0) {
+                            state = State.CHUNK_END;
+                            chunkEndRemaining = 2;
+                        }
+                    }
+                    case CHUNK_END -> {
+                        if (--chunkEndRemaining == 0) {
+                            state = State.CHUNK_SIZE;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void countPayload(byte b) {
+            if (frameStart) {
+                if (b == 'e') {
+                    events++;
+                }
+                frameStart = false;
+            }
+
+            if (b == '\n' && previous == '\n') {
+                frameStart = true;
+            }
+            previous = b;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.incogn1.servercontrol.benchmarks;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.util.*;
+
+/**
+ * Lightweight stand-ins for the Velocity API, implementing only what
+ * the benchmarked code paths use. Any other method returns a default
+ * value (null, false or 0).
+ */
+public final class Stubs {
+
+    private Stubs() {}
+
+    /**
+     * @param servers the servers registered on the proxy
+     * @param players the players online on the proxy
+     * @return a ProxyServer knowing only the given servers and players
+     */
+    public static ProxyServer proxyServer(List<RegisteredServer> servers, List<Player> players) {
+        Map<String, RegisteredServer> serversByName = new HashMap<>();
+        for (RegisteredServer server : servers) {
+            serversByName.put(server.getServerInfo().getName(), server);
+        }
+        Collection<RegisteredServer> allServers = Collections.unmodifiableCollection(servers);
+
+        Map<String, Player> playersByName = new HashMap<>();
+        for (Player player : players) {
+            playersByName.put(player.getUsername(), player);
+        }
+        Collection<Player> allPlayers = Collections.unmodifiableCollection(players);
+
+        return stub(ProxyServer.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getAllServers" -> allServers;
+            case "getServer" -> Optional.ofNullable(serversByName.get((String) args[0]));
+            case "getAllPlayers" -> allPlayers;
+            case "getPlayer" -> args[0] instanceof String name
+                ? Optional.ofNullable(playersByName.get(name))
+                : Optional.empty();
+            case "getPlayerCount" -> allPlayers.size();
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    /**
+     * @param name the name of the server
+     * @param port the port the server is registered on
+     * @return a RegisteredServer without any connected players
+     */
+    public static RegisteredServer registeredServer(String name, int port) {
+        ServerInfo serverInfo = new ServerInfo(name, InetSocketAddress.createUnresolved("localhost", port));
+
+        return stub(RegisteredServer.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getServerInfo" -> serverInfo;
+            case "getPlayersConnected" -> List.of();
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    /**
+     * @param name the username of the player
+     * @param permissions the permissions granted to the player
+     * @return a Player that has exactly the given permissions
+     */
+    public static Player player(String name, Set<String> permissions) {
+        UUID uniqueId = UUID.nameUUIDFromBytes(name.getBytes());
+
+        return stub(Player.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getUsername" -> name;
+            case "getUniqueId" -> uniqueId;
+            case "hasPermission" -> permissions.contains((String) args[0]);
+            case "getCurrentServer" -> Optional.empty();
+            default -> defaultValue(method.getReturnType());
+        });
+    }
+
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[]{ type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + "Stub";
+                default:
+                    return handler.invoke(proxy, method, args);
+            }
+        }));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+
+        // Default value of a primitive, e.g. 0 or false
+        if (type.isPrimitive() && type != void.class) {
+            return Array.get(Array.newInstance(type, 1), 0);
+        }
+
+        return null;
+    }
+}
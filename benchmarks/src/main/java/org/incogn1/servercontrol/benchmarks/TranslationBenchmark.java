@@ -0,0 +1,46 @@
+package org.incogn1.servercontrol.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import org.incogn1.servercontrol.ServerControl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for translating messages, done for every message
+ * sent to a player.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TranslationBenchmark {
+
+    private final Map<String, String> variables = Map.of(
+        "server", "survival-1"
+    );
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkEnvironment.setUp(1);
+    }
+
+    @Benchmark
+    public Component translateWithoutVariables() {
+        return ServerControl.translationsManager.translateAsMiniMessage("commands.cancel_join.cancelled_delayed_join");
+    }
+
+    @Benchmark
+    public Component translateWithVariables() {
+        return ServerControl.translationsManager.translateAsMiniMessage("server_startup.starting", variables);
+    }
+
+    @Benchmark
+    public Component translateMissing() {
+        return ServerControl.translationsManager.translateAsMiniMessage("missing.translation", variables);
+    }
+}
@@ -0,0 +1,500 @@
+package org.incogn1.servercontrol;
+
+import com.google.inject.Inject;
+import com.velocitypowered.api.command.CommandManager;
+import com.velocitypowered.api.command.CommandMeta;
+import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.plugin.Plugin;
+import com.velocitypowered.api.plugin.PluginContainer;
+import com.velocitypowered.api.plugin.annotation.DataDirectory;
+import com.velocitypowered.api.proxy.ProxyServer;
+import dev.dejvokep.boostedyaml.YamlDocument;
+import dev.dejvokep.boostedyaml.dvs.versioning.BasicVersioning;
+import dev.dejvokep.boostedyaml.route.Route;
+import dev.dejvokep.boostedyaml.settings.dumper.DumperSettings;
+import dev.dejvokep.boostedyaml.settings.general.GeneralSettings;
+import dev.dejvokep.boostedyaml.settings.loader.LoaderSettings;
+import dev.dejvokep.boostedyaml.settings.updater.UpdaterSettings;
+import org.bstats.velocity.Metrics;
+import org.incogn1.servercontrol.api.ServerControlProvider;
+import org.incogn1.servercontrol.boot.BootAdmissionController;
+import org.incogn1.servercontrol.boot.BootCircuitBreaker;
+import org.incogn1.servercontrol.boot.BootProgressDisplay;
+import org.incogn1.servercontrol.commands.BaseCommand;
+import org.incogn1.servercontrol.commands.CommandRateLimiter;
+import org.incogn1.servercontrol.concurrent.PluginExecutors;
+import org.incogn1.servercontrol.coordination.*;
+import org.incogn1.servercontrol.events.AutoStartListener;
+import org.incogn1.servercontrol.events.CrashRecoveryListener;
+import org.incogn1.servercontrol.groups.ServerGroupManager;
+import org.incogn1.servercontrol.health.HealthMonitor;
+import org.incogn1.servercontrol.health.ServerStatusCache;
+import org.incogn1.servercontrol.jfr.ProfilingManager;
+import org.incogn1.servercontrol.metrics.MetricsRegistry;
+import org.incogn1.servercontrol.metrics.PrometheusExporter;
+import org.incogn1.servercontrol.probe.ProbeEngine;
+import org.incogn1.servercontrol.provisioning.InstanceProvisioner;
+import org.incogn1.servercontrol.provisioning.PortPool;
+import org.incogn1.servercontrol.provisioning.TemplateCopier;
+import org.incogn1.servercontrol.resources.ResourceSync;
+import org.incogn1.servercontrol.rest.RestApiServer;
+import org.incogn1.servercontrol.scripts.ScriptManager;
+import org.incogn1.servercontrol.stop.ServerStopper;
+import org.incogn1.servercontrol.service.ServerControlApiService;
+import org.incogn1.servercontrol.trace.BootTracer;
+import org.incogn1.servercontrol.resources.translations.TranslationsManager;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.file.*;
+import java.util.*;
+
+@Plugin(
+        id = "servercontrol",
+        name = "ServerControl",
+        version = "1.0.0-SNAPSHOT",
+        url = "https://github.com/incogn1/Server-Control",
+        authors = {"Incogn1"}
+)
+public class ServerControl {
+
+    public static String PLUGIN_NAME = "ServerControl";
+    public static String PLUGIN_VERSION = "1.0.0-SNAPSHOT";
+    public static String[] PLUGIN_AUTHORS = {"Incogn1"};
+
+    public static String CONFIG_FILE = "config.yml";
+    public static String SCRIPTS_DIR = "scripts";
+    public static String STATE_JOURNAL_FILE = "state/journal.log";
+    public static String PID_FILES_DIR = "state/pids";
+    public static String RECORDINGS_DIR = "recordings";
+    public static String TRACE_EXPORT_FILE = "traces/boot-traces.jsonl";
+
+    public static Logger logger;
+    public static ProxyServer proxy;
+    public static YamlDocument config;
+    public static Path dataDirectory;
+
+    public static ScriptManager scriptManager;
+    public static TranslationsManager translationsManager;
+    public static ServerManager serverManager;
+    public static ProbeEngine probeEngine;
+    public static BootAdmissionController bootAdmissionController;
+    public static BootCircuitBreaker bootCircuitBreaker;
+    public static BootCoordinator bootCoordinator;
+    public static MetricsRegistry metricsRegistry;
+    public static PluginExecutors pluginExecutors;
+    public static PrometheusExporter prometheusExporter;
+    public static ProfilingManager profilingManager;
+    public static BootTracer bootTracer;
+    public static ServerStatusCache serverStatusCache;
+    public static HealthMonitor healthMonitor;
+    public static ServerStopper serverStopper;
+    public static ServerGroupManager serverGroupManager;
+    public static InstanceProvisioner instanceProvisioner;
+    public static CommandRateLimiter commandRateLimiter;
+    public static RestApiServer restApiServer;
+    public static BootProgressDisplay bootProgressDisplay;
+
+    private final Metrics.Factory metricsFactory;
+    private static int BSTATS_PLUGIN_ID = 23295;
+
+    @Inject
+    public ServerControl(ProxyServer proxy, Logger logger, Metrics.Factory metricsFactory, @DataDirectory Path dataDirectory) {
+        ServerControl.logger = logger;
+        ServerControl.proxy = proxy;
+        ServerControl.dataDirectory = dataDirectory;
+        this.metricsFactory = metricsFactory;
+
+        // Sync resources
+        logger.debug("Syncing resources");
+        try {
+            ResourceSync.sync();
+        } catch (Exception e) {
+            logErrorMessage("Failed to sync resources! Shutting down plugin.", e);
+            shutDown();
+        }
+
+        // Load config values
+        logger.debug("Loading config");
+        try {
+            config = YamlDocument.create(
+                    new File(dataDirectory.toFile(), CONFIG_FILE),
+                    Objects.requireNonNull(getClass().getResourceAsStream("/" + CONFIG_FILE)),
+                    GeneralSettings.DEFAULT,
+                    LoaderSettings.builder()
+                            .setAutoUpdate(true)
+                            .build(),
+                    DumperSettings.DEFAULT,
+                    UpdaterSettings.builder()
+                            .setVersioning(new BasicVersioning("file-version"))
+                            .setOptionSorting(UpdaterSettings.OptionSorting.SORT_BY_DEFAULTS)
+                            .build()
+            );
+
+            config.update();
+            config.save();
+        } catch (Exception e) {
+            logErrorMessage("Failed to load plugin config! Shutting down plugin.", e);
+            shutDown();
+        }
+
+        // Init PluginExecutors
+        logger.debug("Initializing PluginExecutors");
+        ServerControl.pluginExecutors = new PluginExecutors(config.getBoolean(Route.from("threading", "virtual-threads")));
+        logger.debug("Blocking work runs on {} threads", pluginExecutors.isVirtual() ? "virtual" : "platform");
+
+        // Init MetricsRegistry
+        logger.debug("Initializing MetricsRegistry");
+        ServerControl.metricsRegistry = new MetricsRegistry();
+
+        // Init ProfilingManager
+        logger.debug("Initializing ProfilingManager");
+        ServerControl.profilingManager = new ProfilingManager(dataDirectory.resolve(RECORDINGS_DIR));
+
+        // Init BootTracer
+        logger.debug("Initializing BootTracer");
+        ServerControl.bootTracer = new BootTracer(
+                config.getInt(Route.from("tracing", "capacity")),
+                config.getBoolean(Route.from("tracing", "export")) ? dataDirectory.resolve(TRACE_EXPORT_FILE) : null
+        );
+
+        // Init ScriptManager
+        logger.debug("Initializing ScriptManager");
+        ServerControl.scriptManager = new ScriptManager();
+
+        // Init TranslationsManager
+        logger.debug("Initializing TranslationsManager");
+        String locale = config.getString(Route.from("language"));
+        try {
+            ServerControl.translationsManager = new TranslationsManager(locale);
+        } catch (FileNotFoundException e) {
+            logger.error("Language file {}.json could not be found, please create the language file or change the language setting in the config! Shutting down plugin.", locale);
+            shutDown();
+        } catch (Exception e) {
+            logErrorMessage("Failed to load translations! Shutting down plugin.", e);
+            shutDown();
+        }
+
+        // Init ProbeEngine
+        logger.debug("Initializing ProbeEngine");
+        try {
+            ServerControl.probeEngine = new ProbeEngine(
+                    config.getInt(Route.from("probe", "min-concurrency")),
+                    config.getInt(Route.from("probe", "max-concurrency"))
+            );
+        } catch (Exception e) {
+            logErrorMessage("Failed to start the probe engine! Shutting down plugin.", e);
+            shutDown();
+        }
+
+        // Init BootAdmissionController
+        logger.debug("Initializing BootAdmissionController");
+        ServerControl.bootAdmissionController = new BootAdmissionController();
+
+        // Init BootCircuitBreaker
+        logger.debug("Initializing BootCircuitBreaker");
+        ServerControl.bootCircuitBreaker = new BootCircuitBreaker(
+                config.getBoolean(Route.from("circuit-breaker", "enabled")),
+                config.getInt(Route.from("circuit-breaker", "failure-threshold")),
+                config.getLong(Route.from("circuit-breaker", "window")) * 1000,
+                config.getLong(Route.from("circuit-breaker", "base-backoff")) * 1000,
+                config.getLong(Route.from("circuit-breaker", "max-backoff")) * 1000
+        );
+
+        // Init BootCoordinator
+        logger.debug("Initializing BootCoordinator");
+        String proxyId = config.getString(Route.from("coordination", "proxy-id"));
+        if (proxyId == null || proxyId.isEmpty()) {
+            proxyId = UUID.randomUUID().toString();
+        }
+        long leaseMillis = config.getLong(Route.from("coordination", "lease-time")) * 1000;
+        ServerControl.bootCoordinator = new BootCoordinator(createCoordinationBackend(), proxyId, leaseMillis);
+
+        // Init ServerStatusCache
+        logger.debug("Initializing ServerStatusCache");
+        ServerControl.serverStatusCache = new ServerStatusCache(config.getLong(Route.from("status-cache", "max-age")));
+
+        // Init ServerManager
+        logger.debug("Initializing ServerManager");
+        ServerControl.serverManager = new ServerManager();
+
+        // Init InstanceProvisioner
+        logger.debug("Initializing InstanceProvisioner");
+        int[] portRange = PortPool.parseRange(config.getString(Route.from("provisioning", "ports")));
+        ServerControl.instanceProvisioner = new InstanceProvisioner(
+                dataDirectory.resolve(config.getString(Route.from("provisioning", "templates-directory"))),
+                dataDirectory.resolve(config.getString(Route.from("provisioning", "instances-directory"))),
+                config.getString(Route.from("provisioning", "startup-script")),
+                config.getString(Route.from("provisioning", "stop-script")),
+                config.getBoolean(Route.from("provisioning", "delete-on-stop")),
+                new TemplateCopier(
+                        config.getStringList(Route.from("provisioning", "read-only")),
+                        config.getBoolean(Route.from("provisioning", "reflink")),
+                        config.getInt(Route.from("provisioning", "copy-threads"))
+                ),
+                new PortPool(config.getString(Route.from("provisioning", "host")), portRange[0], portRange[1])
+        );
+
+        // Init ServerStopper
+        logger.debug("Initializing ServerStopper");
+        ServerControl.serverStopper = new ServerStopper(
+                config.getString(Route.from("server-stop", "fallback-server")),
+                config.getInt(Route.from("server-stop", "drain-batch-size")),
+                config.getLong(Route.from("server-stop", "drain-batch-interval")),
+                config.getLong(Route.from("server-stop", "drain-timeout")) * 1000,
+                config.getLong(Route.from("server-stop", "stop-timeout")) * 1000
+        );
+
+        // Init HealthMonitor
+        logger.debug("Initializing HealthMonitor");
+        ServerControl.healthMonitor = new HealthMonitor(
+                config.getBoolean(Route.from("health-monitor", "enabled")),
+                config.getLong(Route.from("health-monitor", "interval")) * 1000,
+                config.getDouble(Route.from("health-monitor", "jitter")),
+                config.getInt(Route.from("health-monitor", "max-concurrency")),
+                config.getLong(Route.from("health-monitor", "timeout"))
+        );
+
+        // Init ServerGroupManager
+        logger.debug("Initializing ServerGroupManager");
+        Map<String, List<String>> groupMembers = new LinkedHashMap<>();
+        config.getOptionalSection(Route.from("server-groups", "groups")).ifPresent(section -> {
+            for (String groupName : section.getRoutesAsStrings(false)) {
+                groupMembers.put(groupName, section.getStringList(Route.from(groupName)));
+            }
+        });
+        ServerControl.serverGroupManager = new ServerGroupManager(
+                groupMembers,
+                config.getDouble(Route.from("server-groups", "fill-threshold")),
+                config.getInt(Route.from("server-groups", "default-max-players"))
+        );
+
+        // Init CommandRateLimiter
+        logger.debug("Initializing CommandRateLimiter");
+        Map<String, CommandRateLimiter.Budget> budgets = new LinkedHashMap<>();
+        config.getOptionalSection(Route.from("rate-limit", "commands")).ifPresent(section -> {
+            for (String command : section.getRoutesAsStrings(false)) {
+                budgets.put(command, new CommandRateLimiter.Budget(
+                        section.getInt(Route.from(command, "burst")),
+                        section.getDouble(Route.from(command, "per-second"))
+                ));
+            }
+        });
+        ServerControl.commandRateLimiter = new CommandRateLimiter(
+                config.getBoolean(Route.from("rate-limit", "enabled")),
+                budgets,
+                config.getLong(Route.from("rate-limit", "idle-eviction")) * 1000
+        );
+
+        // Init BootProgressDisplay
+        logger.debug("Initializing BootProgressDisplay");
+        ServerControl.bootProgressDisplay = new BootProgressDisplay(
+                BootProgressDisplay.parseMode(config.getString(Route.from("boot-progress", "display"))),
+                config.getLong(Route.from("boot-progress", "update-interval")),
+                config.getInt(Route.from("boot-progress", "estimate-samples"))
+        );
+
+        // Register the API for other plugins
+        ServerControlProvider.register(new ServerControlApiService());
+
+        // Register gauges and start the metrics endpoint
+        registerGauges();
+        if (config.getBoolean(Route.from("metrics", "enabled"))) {
+            logger.debug("Starting PrometheusExporter");
+            try {
+                ServerControl.prometheusExporter = new PrometheusExporter(
+                        metricsRegistry,
+                        config.getString(Route.from("metrics", "bind-address")),
+                        config.getInt(Route.from("metrics", "port")),
+                        config.getString(Route.from("metrics", "path"))
+                );
+            } catch (Exception e) {
+                logErrorMessage("Failed to start the metrics endpoint! Metrics will not be exported.", e);
+            }
+        }
+
+        // Start the control API
+        if (config.getBoolean(Route.from("api", "enabled"))) {
+            String token = config.getString(Route.from("api", "token"));
+            if (token == null || token.isBlank()) {
+                logger.error("The control API is enabled but no api.token is set in the config, the API will not be started.");
+            } else {
+                logger.debug("Starting RestApiServer");
+                try {
+                    ServerControl.restApiServer = new RestApiServer(
+                            config.getString(Route.from("api", "bind-address")),
+                            config.getInt(Route.from("api", "port")),
+                            token,
+                            config.getInt(Route.from("api", "threads")),
+                            config.getInt(Route.from("api", "max-event-subscribers"))
+                    );
+                } catch (Exception e) {
+                    logErrorMessage("Failed to start the control API!", e);
+                }
+            }
+        }
+    }
+
+    @Subscribe
+    public void onProxyInitialization(ProxyInitializeEvent event) {
+
+        logger.debug("Registering commands...");
+
+        // Register base command
+        CommandManager commandManager = proxy.getCommandManager();
+        CommandMeta commandMeta = commandManager.metaBuilder("servercontrol")
+                .aliases("sc")
+                .plugin(this)
+                .build();
+        commandManager.register(commandMeta, new BaseCommand().createBrigadierCommand());
+
+        // Start offline servers on connection attempts
+        if (config.getBoolean(Route.from("auto-start", "enabled"))) {
+            logger.debug("Registering AutoStartListener");
+            proxy.getEventManager().register(this, new AutoStartListener(
+                    config.getStringList(Route.from("auto-start", "servers")),
+                    config.getString(Route.from("auto-start", "fallback-server"))
+            ));
+        }
+
+        // Restart servers that crash while players are on them
+        if (config.getBoolean(Route.from("crash-recovery", "enabled"))) {
+            logger.debug("Registering CrashRecoveryListener");
+            proxy.getEventManager().register(this, new CrashRecoveryListener(
+                    config.getStringList(Route.from("crash-recovery", "servers")),
+                    config.getString(Route.from("crash-recovery", "fallback-server")),
+                    config.getLong(Route.from("crash-recovery", "detection-window"))
+            ));
+        }
+
+        // Hold connections to servers that are being stopped
+        proxy.getEventManager().register(this, serverStopper);
+
+        // Restore boot state and queues from before the last restart
+        serverManager.restoreState();
+
+        logger.info("ServerControl plugin initialized!");
+
+        // Initialize bStats metrics
+        metricsFactory.make(this, BSTATS_PLUGIN_ID);
+    }
+
+    @Subscribe
+    public void onProxyShutdown(ProxyShutdownEvent event) {
+        ServerControlProvider.register(null);
+        profilingManager.stopActiveRecording();
+        serverManager.closeStateJournal();
+        bootCoordinator.shutdown();
+
+        if (prometheusExporter != null) {
+            prometheusExporter.stop();
+        }
+
+        if (restApiServer != null) {
+            restApiServer.stop();
+        }
+
+        serverManager.closeStateChanges();
+        bootProgressDisplay.shutdown();
+        healthMonitor.shutdown();
+        instanceProvisioner.shutdown();
+
+        if (probeEngine != null) {
+            probeEngine.shutdown();
+        }
+
+        pluginExecutors.shutdown();
+    }
+
+    /**
+     * Registers the gauges that are read from the plugin's state
+     * whenever the metrics are exported.
+     */
+    private void registerGauges() {
+        metricsRegistry.gauge(
+                "servercontrol_boot_queue_length",
+                "Server boots waiting to be admitted",
+                () -> bootAdmissionController.getQueueLength()
+        );
+        metricsRegistry.gauge(
+                "servercontrol_active_boots",
+                "Server boots admitted and running",
+                () -> bootAdmissionController.getActiveBootsAmount()
+        );
+        metricsRegistry.gauge(
+                "servercontrol_booting_servers",
+                "Servers in boot-up process, including queued boots and boots run by other proxies",
+                () -> serverManager.getBootingServersAmount()
+        );
+        metricsRegistry.gauge(
+                "servercontrol_delayed_joins",
+                "Players waiting to join a server once it is online",
+                () -> serverManager.getDelayedJoinsAmount()
+        );
+        metricsRegistry.gauge(
+                "servercontrol_listening_sources",
+                "Sources waiting for boot notifications",
+                () -> serverManager.getListeningSourcesAmount()
+        );
+    }
+
+    /**
+     * Creates the coordination backend selected in the config. Falls back
+     * to the single proxy backend if the selected one can not be used.
+     *
+     * @return the coordination backend
+     */
+    private CoordinationBackend createCoordinationBackend() {
+        String backend = config.getString(Route.from("coordination", "backend"));
+
+        switch (backend.toLowerCase()) {
+            case "file":
+                try {
+                    return new FileCoordinationBackend(
+                            dataDirectory.resolve(config.getString(Route.from("coordination", "file", "directory"))),
+                            config.getLong(Route.from("coordination", "file", "poll-interval"))
+                    );
+                } catch (Exception e) {
+                    logErrorMessage("Failed to open the coordination directory! Servers will be started without coordination.", e);
+                    return new LocalCoordinationBackend();
+                }
+            case "redis":
+                return new RedisCoordinationBackend(
+                        config.getString(Route.from("coordination", "redis", "host")),
+                        config.getInt(Route.from("coordination", "redis", "port")),
+                        config.getString(Route.from("coordination", "redis", "password")),
+                        config.getString(Route.from("coordination", "redis", "key-prefix")),
+                        config.getInt(Route.from("coordination", "redis", "timeout"))
+                );
+            case "none":
+                return new LocalCoordinationBackend();
+            default:
+                logger.error("Unknown coordination backend {}, servers will be started without coordination.", backend);
+                return new LocalCoordinationBackend();
+        }
+    }
+
+    private void shutDown() {
+        Optional<PluginContainer> container = proxy.getPluginManager().getPlugin("servercontrol");
+        container.ifPresent(pluginContainer -> pluginContainer.getExecutorService().shutdown());
+    }
+
+    private void logErrorMessage(String msg, Exception e) {
+        String exceptionMsg = e.getMessage();
+
+        StringBuilder stackTraceStr = new StringBuilder();
+        StackTraceElement[] stackTraceElements = e.getStackTrace();
+        for (int i = 0; i < stackTraceElements.length; i++) {
+            stackTraceStr
+                    .append("\n  - [")
+                    .append(i + 1)
+                    .append("] ")
+                    .append(stackTraceElements[i]);
+        }
+
+        logger.error("{}\n\n Exception: \n  - {}\n\n StackTrace: {}\n", msg, exceptionMsg, stackTraceStr);
+    }
+}
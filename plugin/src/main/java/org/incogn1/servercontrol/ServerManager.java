@@ -0,0 +1,1617 @@
+package org.incogn1.servercontrol;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerPing;
+import dev.dejvokep.boostedyaml.route.Route;
+import net.kyori.adventure.text.Component;
+import org.incogn1.servercontrol.api.BootState;
+import org.incogn1.servercontrol.api.event.*;
+import org.incogn1.servercontrol.boot.CircuitOpenException;
+import org.incogn1.servercontrol.coordination.BootLease;
+import org.incogn1.servercontrol.jfr.BootStateEvent;
+import org.incogn1.servercontrol.jfr.DelayedJoinDispatchEvent;
+import org.incogn1.servercontrol.jfr.PingEvent;
+import org.incogn1.servercontrol.metrics.Counter;
+import org.incogn1.servercontrol.metrics.LatencyRecorder;
+import org.incogn1.servercontrol.persistence.StateJournal;
+import org.incogn1.servercontrol.probe.ProbeResult;
+import org.incogn1.servercontrol.provisioning.InstanceProvisioner;
+import org.incogn1.servercontrol.scripts.MissingScriptException;
+import org.incogn1.servercontrol.scripts.ProcessTreeWatcher;
+import org.incogn1.servercontrol.trace.BootTrace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+public class ServerManager {
+
+    /** Id used for the console (and any other non-player source) in the listening sources list */
+    private static final UUID CONSOLE_ID = new UUID(0, 0);
+
+    /** List of servers in boot-up process */
+    private final Set<String> bootingServers = Collections.synchronizedSet(new HashSet<>());
+
+    /** List of servers in boot-up process whose startup script has already been run */
+    private final Set<String> startedBoots = ConcurrentHashMap.newKeySet();
+
+    /** Futures of servers in boot-up process, completed with whether the server came online */
+    private final Map<String, CompletableFuture<Boolean>> bootCompletions = new ConcurrentHashMap<>();
+
+    /** List of players (by UUID) waiting to join a specific server, in order of joining the list */
+    private final Map<UUID, String> waitingPlayers = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /** List of sources (by UUID) listening for notifications about a specific server's boot-up process */
+    private final Map<UUID, String> listeningSources = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /** Journal the state above is persisted to, or null if persistence is disabled */
+    private StateJournal stateJournal;
+
+    /** Boots restored from the journal that have not been resumed yet, with whether their startup script had been run */
+    private final Map<String, Boolean> pendingResumes = new ConcurrentHashMap<>();
+
+    /** Watchers of the processes launched by the startup scripts of servers in boot-up process */
+    private final Map<String, ProcessTreeWatcher> processWatchers = new ConcurrentHashMap<>();
+
+    /** Start times (System.nanoTime) of servers in boot-up process */
+    private final Map<String, Long> bootStartTimes = new ConcurrentHashMap<>();
+
+    /** Ping metrics per server, kept so recording a ping does not allocate */
+    private final Map<String, LatencyRecorder> pingLatencies = new ConcurrentHashMap<>();
+    private final Map<String, Counter> pingFailures = new ConcurrentHashMap<>();
+
+    /** Publishes every boot state change to subscribed plugins */
+    private final SubmissionPublisher<ServerStateChange> stateChanges = new SubmissionPublisher<>();
+
+    /**
+     * Generates a map of all the RegisteredServer instances on the network
+     * with their name as the key.
+     *
+     * @return a map of server name to RegisteredServer instance
+     */
+    public Map<String, RegisteredServer> getServers() {
+        Map<String, RegisteredServer> servers = new HashMap<>();
+
+        // Add all registered servers to map with their name as keys
+        Collection<RegisteredServer> registeredServers = proxy.getAllServers();
+        for (RegisteredServer server : registeredServers) {
+            servers.put(server.getServerInfo().getName(), server);
+        }
+
+        return servers;
+    }
+
+    /**
+     * Gets the RegisteredServer instance for the given name.
+     *
+     * @param serverName the name of the server
+     * @return the RegisteredServer with the given name or null
+     *         if no server with that name was found
+     */
+    public RegisteredServer getServer(String serverName) {
+        Map<String, RegisteredServer> servers = getServers();
+
+        return servers.get(serverName);
+    }
+
+    /**
+     * Gets the names of all servers matching the given pattern. The
+     * pattern may contain the glob wildcards '*' (any amount of
+     * characters) and '?' (a single character).
+     *
+     * @param pattern the server name or glob pattern
+     * @return the sorted names of all matching servers
+     */
+    public List<String> getServerNamesMatching(String pattern) {
+        List<String> matches = new ArrayList<>();
+
+        // No wildcards -> plain lookup
+        if (!pattern.contains("*") && !pattern.contains("?")) {
+            if (getServer(pattern) != null) {
+                matches.add(pattern);
+            }
+            return matches;
+        }
+
+        Pattern compiledPattern = compileGlob(pattern);
+        for (String serverName : getServers().keySet()) {
+            if (compiledPattern.matcher(serverName).matches()) {
+                matches.add(serverName);
+            }
+        }
+        Collections.sort(matches);
+
+        return matches;
+    }
+
+    /**
+     * Compiles a server name glob pattern, in which '*' matches any
+     * amount of characters and '?' a single character.
+     *
+     * @param pattern the server name or glob pattern
+     * @return the equivalent regular expression
+     */
+    public static Pattern compileGlob(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (char character : pattern.toCharArray()) {
+            switch (character) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(character)));
+            }
+        }
+
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Gets the servers that need to be online before the given server
+     * can be started, as configured in the depends-on section.
+     *
+     * @param serverName the name of the server
+     * @return the names of the servers it depends on, can be empty
+     */
+    public List<String> getServerDependencies(String serverName) {
+        return config.getOptionalStringList(Route.from("server-startup", "depends-on", serverName)).orElse(List.of());
+    }
+
+    /**
+     * Checks if the server is online, either with the probe engine
+     * or by sending a ping (depending on the config).
+     *
+     * @param server the RegisteredServer instance to check
+     * @return true if online, else false
+     */
+    public boolean getServerOnlineState(RegisteredServer server) {
+        String serverName = server.getServerInfo().getName();
+
+        if (config.getBoolean(Route.from("probe", "enabled"))) {
+            ProbeResult result = probeServer(server);
+            recordProbe(server, result);
+
+            return result.isOnline();
+        }
+
+        return sendPing(server, 0).join() != null;
+    }
+
+    /**
+     * Pings the server for its details, recording the outcome just like
+     * getServerOnlineState does. If the probe engine is enabled, the server
+     * is probed first and only pinged if the probe found it online, so an
+     * offline server does not hold up the caller until the ping times out.
+     *
+     * @param server the RegisteredServer instance to ping
+     * @param timeoutMillis the time after which the ping counts as failed
+     * @return a CompletableFuture that returns the answer of the server,
+     *         or null if it is offline. It never completes exceptionally.
+     */
+    public CompletableFuture<ServerPing> pingServer(RegisteredServer server, long timeoutMillis) {
+        if (!config.getBoolean(Route.from("probe", "enabled"))) {
+            return sendPing(server, timeoutMillis);
+        }
+
+        boolean handshake = config.getBoolean(Route.from("probe", "handshake"));
+        long timeout = config.getLong(Route.from("probe", "timeout"));
+
+        return probeEngine.probe(server.getServerInfo().getAddress(), handshake, timeout).thenCompose(result -> {
+            // Guard - Offline servers have no details to ping for
+            if (!result.isOnline()) {
+                recordProbe(server, result);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return sendPing(server, timeoutMillis);
+        });
+    }
+
+    /**
+     * Sends a ping to the server and records its outcome.
+     *
+     * @param server the RegisteredServer instance to ping
+     * @param timeoutMillis the time after which the ping counts as failed, or 0 to wait for Velocity's own timeout
+     * @return a CompletableFuture that returns the answer of the server,
+     *         or null if it is offline. It never completes exceptionally.
+     */
+    private CompletableFuture<ServerPing> sendPing(RegisteredServer server, long timeoutMillis) {
+        String serverName = server.getServerInfo().getName();
+        long startNanos = System.nanoTime();
+
+        CompletableFuture<ServerPing> ping;
+        try {
+            ping = server.ping();
+            if (timeoutMillis > 0) {
+                ping = ping.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            ping = CompletableFuture.failedFuture(e);
+        }
+
+        return ping.handle((answer, e) -> {
+            long roundTripNanos = System.nanoTime() - startNanos;
+            recordPing(serverName, answer != null, roundTripNanos);
+            commitPingEvent(server, "ping", answer != null ? "ONLINE" : "FAILED", roundTripNanos);
+            serverStatusCache.update(serverName, answer != null);
+
+            return answer;
+        });
+    }
+
+    /**
+     * Records the outcome of a probe.
+     *
+     * @param server the probed server
+     * @param result the result of the probe
+     */
+    private void recordProbe(RegisteredServer server, ProbeResult result) {
+        String serverName = server.getServerInfo().getName();
+        recordPing(serverName, result.isOnline(), result.roundTripNanos());
+        commitPingEvent(server, "probe", result.status().name(), result.roundTripNanos());
+        serverStatusCache.update(serverName, result.isOnline());
+    }
+
+    /**
+     * Commits a flight recorder event for a ping, if enabled.
+     *
+     * @param server the pinged server
+     * @param method "probe" or "ping"
+     * @param result the outcome of the ping
+     * @param roundTripNanos the time taken by the ping
+     */
+    private void commitPingEvent(RegisteredServer server, String method, String result, long roundTripNanos) {
+        PingEvent event = new PingEvent();
+        if (event.shouldCommit()) {
+            event.server = server.getServerInfo().getName();
+            event.address = String.valueOf(server.getServerInfo().getAddress());
+            event.method = method;
+            event.result = result;
+            event.roundTrip = roundTripNanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * @param nanos a duration in nanoseconds
+     * @return the duration in milliseconds, e.g. "12.3 ms"
+     */
+    private static String formatMillis(long nanos) {
+        return String.format("%.1f ms", nanos / 1_000_000d);
+    }
+
+    /**
+     * Commits a flight recorder event for a boot state change (if enabled),
+     * publishes the change to the subscribers of getStateChanges and fires
+     * the matching Velocity event.
+     *
+     * @param serverName the name of the server
+     * @param state the new state of the boot
+     */
+    private void publishBootState(String serverName, BootState state) {
+        publishBootState(serverName, state, null);
+    }
+
+    /**
+     * Commits a flight recorder event for a boot state change (if enabled),
+     * publishes the change to the subscribers of getStateChanges and fires
+     * the matching Velocity event.
+     *
+     * @param serverName the name of the server
+     * @param state the new state of the boot
+     * @param exitCode the exit code of the startup script, only for SCRIPT_EXITED
+     */
+    private void publishBootState(String serverName, BootState state, Integer exitCode) {
+        BootStateEvent event = new BootStateEvent();
+        if (event.shouldCommit()) {
+            event.server = serverName;
+            event.state = state.name();
+            event.commit();
+        }
+
+        // Subscribers that have not requested more items miss this change instead of blocking the boot
+        if (!stateChanges.isClosed()) {
+            stateChanges.offer(new ServerStateChange(serverName, state, Instant.now(), exitCode), (subscriber, change) -> false);
+        }
+
+        Object velocityEvent = switch (state) {
+            case REQUESTED -> new ServerBootRequestedEvent(serverName);
+            case SCRIPT_EXITED -> new ServerBootScriptExitedEvent(serverName, exitCode);
+            case ONLINE -> new ServerReadyEvent(serverName);
+            case FAILED -> new ServerBootFailedEvent(serverName);
+            default -> null;
+        };
+        if (velocityEvent != null) {
+            proxy.getEventManager().fireAndForget(velocityEvent);
+        }
+    }
+
+    /**
+     * Gets a stream of all boot state changes, so plugins can follow the
+     * boot-up process of servers instead of polling them. Every subscriber
+     * has a buffer of Flow.defaultBufferSize() changes; changes published
+     * while it is full are not delivered to that subscriber.
+     *
+     * @return the publisher of boot state changes
+     */
+    public Flow.Publisher<ServerStateChange> getStateChanges() {
+        return stateChanges;
+    }
+
+    /**
+     * Completes the stream of boot state changes. Used when the proxy shuts down.
+     */
+    public void closeStateChanges() {
+        stateChanges.close();
+    }
+
+    /**
+     * Records the round trip time of a successful ping,
+     * or counts a failed one.
+     *
+     * @param serverName the name of the pinged server
+     * @param online whether the server answered
+     * @param roundTripNanos the time taken by the ping
+     */
+    private void recordPing(String serverName, boolean online, long roundTripNanos) {
+        if (online) {
+            LatencyRecorder latency = pingLatencies.get(serverName);
+            if (latency == null) {
+                latency = metricsRegistry.latency(
+                    "servercontrol_ping_seconds",
+                    "Round trip time of successful server pings",
+                    "server", serverName
+                );
+                pingLatencies.put(serverName, latency);
+            }
+
+            latency.record(roundTripNanos);
+        } else {
+            Counter failures = pingFailures.get(serverName);
+            if (failures == null) {
+                failures = metricsRegistry.counter(
+                    "servercontrol_ping_failures_total",
+                    "Server pings that got no answer",
+                    "server", serverName
+                );
+                pingFailures.put(serverName, failures);
+            }
+
+            failures.increment();
+        }
+    }
+
+    /**
+     * Checks if the server is online, either with the probe engine
+     * or by sending a ping (depending on the config).
+     *
+     * @param serverName the name of the server to check
+     * @return true if online, else false
+     */
+    public boolean getServerOnlineState(String serverName) {
+        RegisteredServer server = getServer(serverName);
+
+        return getServerOnlineState(server);
+    }
+
+    /**
+     * Probes the server with the probe engine, using the probe
+     * settings from the config.
+     *
+     * @param server the RegisteredServer instance to probe
+     * @return the result of the probe
+     */
+    public ProbeResult probeServer(RegisteredServer server) {
+        boolean handshake = config.getBoolean(Route.from("probe", "handshake"));
+        long timeout = config.getLong(Route.from("probe", "timeout"));
+
+        return probeEngine.probe(server.getServerInfo().getAddress(), handshake, timeout).join();
+    }
+
+    /**
+     * Checks if the server is currently booting up.
+     *
+     * @param server the RegisteredServer instance to check
+     * @return true if booting, else false
+     */
+    public boolean getServerBootingState(RegisteredServer server) {
+        String serverName = server.getServerInfo().getName();
+
+        return getServerBootingState(serverName);
+    }
+
+    /**
+     * Checks if the server is currently booting up.
+     *
+     * @param serverName the name of the server to check
+     * @return true if booting, else false
+     */
+    public boolean getServerBootingState(String serverName) {
+        return bootingServers.contains(serverName);
+    }
+
+    /**
+     * Runs the startup script for the specified server. If the exit code of
+     * the script is 0, players added to the queue with setDelayedPlayerJoin
+     * will be connected to the server.
+     * <p>
+     * The script only runs once the boot has been admitted by the boot
+     * admission controller. If the boot has to wait, the listening sources
+     * and waiting players are told their position in the boot queue.
+     * <p>
+     * If another proxy holds the boot lock of the server, no script is
+     * run. Instead, this proxy waits for that boot to finish.
+     *
+     * @param serverName the name of the server to start
+     * @return a CompletableFuture that returns the exit code of the script as an integer,
+     *         or null if the server is already booting up or being stopped
+     *
+     * @throws MissingScriptException if the startup script for the server does not exist
+     * @throws CircuitOpenException if the server failed to boot too often recently
+     */
+    public CompletableFuture<Integer> startServer(String serverName) throws MissingScriptException, CircuitOpenException, IOException {
+
+        // Guard - Server should not already be booting up. The slot is claimed right away,
+        // so concurrent callers can not both pass while the checks below are running.
+        if (!bootingServers.add(serverName)) {
+            return null;
+        }
+
+        // Guard - Server should not be stopping, a restart starts it once it is offline
+        if (serverStopper.isStopping(serverName)) {
+            bootingServers.remove(serverName);
+            return null;
+        }
+
+        // Guard - Server should not be failing to boot over and over
+        try {
+            bootCircuitBreaker.checkBoot(serverName);
+        } catch (CircuitOpenException e) {
+            bootingServers.remove(serverName);
+            removeListeningSources(serverName);
+            cancelDelayedJoins(serverName);
+
+            throw e;
+        }
+
+        // Determine the path to the script
+        Path scriptPath = getServerStartupScriptPath(serverName);
+
+        // Guard - Script file must exist
+        if (!Files.exists(dataDirectory.resolve(scriptPath))) {
+            bootingServers.remove(serverName);
+            removeListeningSources(serverName);
+            cancelDelayedJoins(serverName);
+
+            throw new MissingScriptException();
+        }
+
+        Optional<BootLease> lease;
+        try {
+            lease = bootCoordinator.acquire(serverName);
+        } catch (RuntimeException e) {
+            bootingServers.remove(serverName);
+
+            throw e;
+        }
+
+        // Guard - Another proxy may already be booting the server
+        if (lease.isEmpty()) {
+            return followRemoteBoot(serverName);
+        }
+
+        bootCompletions.put(serverName, new CompletableFuture<>());
+        bootStartTimes.put(serverName, System.nanoTime());
+        appendToJournal("BOOT_REQUESTED", serverName);
+        publishBootState(serverName, BootState.REQUESTED);
+        bootTracer.begin(serverName);
+        bootTracer.addStep(serverName, BootTrace.StepType.REQUESTED, "");
+
+        // Admitted immediately -> run script right away
+        CompletableFuture<Void> admission = bootAdmissionController.requestAdmission(serverName);
+        if (admission.isDone()) {
+            bootTracer.addStep(serverName, BootTrace.StepType.ADMITTED, "");
+            return runStartupScript(serverName, scriptPath, false);
+        }
+        publishBootState(serverName, BootState.QUEUED);
+        bootTracer.addStep(serverName, BootTrace.StepType.QUEUED, "position " + bootAdmissionController.getQueuePosition(serverName));
+
+        // Queued -> run script once admitted
+        return admission.thenCompose(ignore -> {
+            bootTracer.addStep(serverName, BootTrace.StepType.ADMITTED, "");
+            notifyListeningSourcesStarting(serverName);
+
+            try {
+                return runStartupScript(serverName, scriptPath, true);
+            } catch (MissingScriptException | IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    /**
+     * Waits for a boot run by another proxy, so the listening sources
+     * and waiting players on this proxy are still handled once the
+     * server comes online (or fails to).
+     *
+     * @param serverName the name of the server being booted by another proxy
+     * @return a CompletableFuture that returns 0 once the boot has finished
+     */
+    private CompletableFuture<Integer> followRemoteBoot(String serverName) {
+        bootCompletions.put(serverName, new CompletableFuture<>());
+        bootStartTimes.put(serverName, System.nanoTime());
+        appendToJournal("BOOT_REQUESTED", serverName);
+
+        logger.info("Server {} is already being started by another proxy, waiting for it to come online.", serverName);
+        publishBootState(serverName, BootState.FOLLOWING_REMOTE);
+        bootTracer.begin(serverName);
+        bootTracer.addStep(serverName, BootTrace.StepType.FOLLOWING_REMOTE, "");
+
+        return CompletableFuture.supplyAsync(() -> {
+            boolean online = false;
+            try {
+                online = handleStartupScriptExitCode(0, serverName);
+            } finally {
+                finishBoot(serverName, online);
+            }
+
+            return 0;
+        }, pluginExecutors.blocking());
+    }
+
+    /**
+     * Runs the startup script of an admitted boot and makes sure the
+     * boot is cleaned up once the startup process has finished.
+     *
+     * @param serverName the name of the server to start
+     * @param scriptPath the path to the startup script
+     * @param queued whether the boot waited in the boot queue. Nobody is
+     *               waiting for the exception of a queued boot, so the
+     *               interested sources are told about a failure instead.
+     * @return a CompletableFuture that returns the exit code of the script as an integer
+     *
+     * @throws MissingScriptException if the startup script for the server does not exist
+     */
+    private CompletableFuture<Integer> runStartupScript(String serverName, Path scriptPath, boolean queued) throws MissingScriptException, IOException {
+        try {
+            // Tell the script which server it starts and with which fencing token
+            Map<String, String> environment = new HashMap<>();
+            environment.put("SERVERCONTROL_SERVER", serverName);
+
+            InstanceProvisioner.Instance instance = instanceProvisioner.getInstance(serverName);
+            if (instance != null) {
+                environment.put("SERVERCONTROL_PORT", String.valueOf(instance.port()));
+            }
+            bootCoordinator.getLease(serverName).ifPresent(lease ->
+                environment.put("SERVERCONTROL_FENCING_TOKEN", String.valueOf(lease.token()))
+            );
+
+            // Watch the processes the script launches, so a crash during the boot is noticed early
+            ProcessTreeWatcher processWatcher = null;
+            if (config.getBoolean(Route.from("process-watch", "enabled"))) {
+                Path pidFile = getPidFilePath(serverName);
+                Files.createDirectories(pidFile.getParent());
+
+                processWatcher = new ProcessTreeWatcher(pidFile);
+                processWatcher.deletePidFile();
+                processWatchers.put(serverName, processWatcher);
+                environment.put("SERVERCONTROL_PIDFILE", pidFile.toAbsolutePath().toString());
+            }
+
+            // Run startup script
+            CompletableFuture<Integer> future = scriptManager.runScript(
+                scriptPath,
+                environment,
+                processWatcher != null ? processWatcher::watch : process -> {}
+            );
+            startedBoots.add(serverName);
+            appendToJournal("BOOT_STARTED", serverName);
+            publishBootState(serverName, BootState.STARTED);
+            bootTracer.addStep(serverName, BootTrace.StepType.SCRIPT_SPAWNED, scriptPath.toString());
+
+            // Add method to handle exit code when script finishes executing
+            future.thenAccept(exitCode -> {
+                bootTracer.addStep(serverName, BootTrace.StepType.SCRIPT_EXITED, "exit code " + exitCode);
+                publishBootState(serverName, BootState.SCRIPT_EXITED, exitCode);
+
+                boolean online = false;
+                try {
+                    online = handleStartupScriptExitCode(exitCode, serverName);
+                } finally {
+                    finishBoot(serverName, online);
+                }
+            });
+
+            return future;
+        } catch (MissingScriptException e) {
+            finishBoot(serverName, false);
+
+            if (queued) {
+                notifyInterestedSourcesFailed(serverName, "server_startup.no_script_defined");
+            }
+            removeListeningSources(serverName);
+            cancelDelayedJoins(serverName);
+
+            throw e;
+        } catch (IOException e) {
+            finishBoot(serverName, false);
+
+            if (queued) {
+                notifyInterestedSourcesFailed(serverName, "server_startup.unknown_error");
+            }
+            removeListeningSources(serverName);
+            cancelDelayedJoins(serverName);
+
+            // Send error message for debugging
+            logger.error("Startup script for {} failed to execute due to IOException. See error details below. \n{}", serverName, e.getMessage());
+
+            throw e;
+        }
+    }
+
+    /**
+     * Removes the server from the boot-up process, frees its boot slot,
+     * releases its boot lock and completes the future returned by awaitBoot.
+     *
+     * @param serverName the name of the server
+     * @param online whether the server came online
+     */
+    private void finishBoot(String serverName, boolean online) {
+        bootingServers.remove(serverName);
+        startedBoots.remove(serverName);
+        processWatchers.remove(serverName);
+        bootAdmissionController.release(serverName);
+        bootCoordinator.finish(serverName, online);
+        appendToJournal("BOOT_FINISHED", serverName);
+        publishBootState(serverName, online ? BootState.ONLINE : BootState.FAILED);
+        bootTracer.finish(serverName, online);
+        bootCircuitBreaker.recordOutcome(serverName, online);
+
+        Long startNanos = bootStartTimes.remove(serverName);
+        if (startNanos != null) {
+            metricsRegistry.latency(
+                "servercontrol_boot_duration_seconds",
+                "Time from requesting a server boot until it came online or failed",
+                "server", serverName,
+                "outcome", online ? "online" : "failed"
+            ).recordSince(startNanos);
+
+            if (online) {
+                bootProgressDisplay.recordBootDuration(serverName, System.nanoTime() - startNanos);
+            }
+        }
+        metricsRegistry.counter(
+            "servercontrol_boots_total",
+            "Finished server boots",
+            "server", serverName,
+            "outcome", online ? "online" : "failed"
+        ).increment();
+
+        CompletableFuture<Boolean> completion = bootCompletions.remove(serverName);
+        if (completion != null) {
+            completion.complete(online);
+        }
+    }
+
+    /**
+     * Gets a future for the outcome of the current boot-up process of
+     * the given server.
+     *
+     * @param serverName the name of the server
+     * @return a CompletableFuture that returns true once the server has
+     *         come online, or false if the boot failed. Returns null if
+     *         the server is not booting up.
+     */
+    public CompletableFuture<Boolean> awaitBoot(String serverName) {
+        return bootCompletions.get(serverName);
+    }
+
+    /**
+     * Runs code depending on the exit code of a server startup script.
+     * <p>
+     * If the exit code is non-zero (e.g. an error occurred) the listening sources
+     * are notified and delayed joins are cancelled.
+     * <p>
+     * If the exit code is 0, a polling process is started to detect when the
+     * server comes online within the network. Once the server is online, listening
+     * sources are notified and delayed joins are executed. However, if the server
+     * has yet to startup after the timeout specified in the plugin's config has ended,
+     * again listening sources are notified about this and delayed joins are cancelled.
+     *
+     * @param exitCode the exit code returned by the script
+     * @param serverName the name of the server
+     * @return true if the server came online, else false
+     */
+    public boolean handleStartupScriptExitCode(int exitCode, String serverName) {
+
+        // ---
+        // Case A - Non-successful script execution -> Notify user, cancel delayed joins & log exit code
+        // ---
+        if (exitCode != 0) {
+            notifyListeningSources(serverName, false);
+            removeListeningSources(serverName);
+            cancelDelayedJoins(serverName);
+
+            // Send error message for debugging
+            logger.error("Startup script for {} failed with code {}.", serverName, exitCode);
+
+            return false;
+        }
+
+        // ---
+        // Case B - Successful script execution -> Use polling to check when server has come online
+        // ---
+
+        // Get timeout from config
+        long timeoutConfigSeconds = getStartupTimeout(serverName);
+        long timeout = System.currentTimeMillis() + timeoutConfigSeconds * 1000;
+
+        // Get polling delay from config
+        long pollingDelay = config.getLong(Route.from("server-startup", "polling-delay")) * 1000;
+
+        // Time the server gets to come online after the processes launched by the script have exited
+        long exitGraceMillis = config.getLong(Route.from("process-watch", "exit-grace")) * 1000;
+        long processesExitedAt = -1;
+
+        // Initiate polling process
+        while (System.currentTimeMillis() < timeout) {
+
+            // Server came online
+            long pollStartNanos = System.nanoTime();
+            boolean isOnline = getServerOnlineState(serverName);
+            bootTracer.addStep(
+                serverName,
+                BootTrace.StepType.POLL,
+                (isOnline ? "online" : "offline") + " in " + formatMillis(System.nanoTime() - pollStartNanos)
+            );
+
+            if (isOnline) {
+                notifyListeningSources(serverName, true);
+                removeListeningSources(serverName);
+                doDelayedJoins(serverName);
+
+                return true;
+            }
+
+            // Launched processes exited -> the server will not come online, unless it detached from them
+            ProcessTreeWatcher processWatcher = processWatchers.get(serverName);
+            if (processWatcher != null && processWatcher.hasExited()) {
+                if (processesExitedAt < 0) {
+                    processesExitedAt = System.currentTimeMillis();
+                    bootTracer.addStep(serverName, BootTrace.StepType.PROCESS_EXITED, "");
+                } else if (System.currentTimeMillis() - processesExitedAt >= exitGraceMillis) {
+                    notifyListeningSources(serverName, false);
+                    removeListeningSources(serverName);
+                    cancelDelayedJoins(serverName);
+
+                    logger.error("The processes launched by the startup script of {} have exited and the server did not come online within {} seconds after. Considering the startup process as a failure.", serverName, exitGraceMillis / 1000);
+
+                    return false;
+                }
+            }
+
+            // Server not yet online -> wait for the next poll, unless another proxy reports on the boot first
+            long waitMillis = processesExitedAt < 0 ? pollingDelay : Math.min(pollingDelay, exitGraceMillis);
+            Boolean readySignal = null;
+            try {
+                readySignal = bootCoordinator.awaitReadySignal(serverName, waitMillis);
+            } catch (InterruptedException e) {
+                // Send error message for debugging
+                logger.error("The server startup polling process for server {} was momentarily interrupted. If you only see this message once, you can ignore it. Error: {}", serverName, e.getMessage());
+            }
+
+            if (readySignal != null) {
+                bootTracer.addStep(serverName, BootTrace.StepType.REMOTE_READY, readySignal ? "online" : "failed");
+            }
+
+            // Boot run by another proxy failed
+            if (Boolean.FALSE.equals(readySignal)) {
+                notifyListeningSources(serverName, false);
+                removeListeningSources(serverName);
+                cancelDelayedJoins(serverName);
+
+                logger.error("Another proxy reported that the startup process for server {} failed.", serverName);
+
+                return false;
+            }
+        }
+
+        // Server did not come online within given timeout window
+        notifyListeningSources(serverName, false);
+        removeListeningSources(serverName);
+        cancelDelayedJoins(serverName);
+
+        // Send error message for debugging
+        logger.error("The server {} took more than {} seconds to come online. Considering the startup process as a failure. If the server needs more time to start, consider changing the startup timeout for this server in the config file.", serverName, timeoutConfigSeconds);
+
+        return false;
+    }
+
+    /**
+     * Gets the maximum time to wait for the server to come online after
+     * running its startup script, as configured in the server-startup section.
+     *
+     * @param serverName the name of the server
+     * @return the timeout in seconds
+     */
+    public long getStartupTimeout(String serverName) {
+        Optional<Long> serverSpecificConfigTimeout = config.getOptionalLong(Route.from("server-startup", "server-specific-timeouts", serverName));
+        long globalConfigTimeout = config.getLong(Route.from("server-startup", "global-timeout"));
+
+        return serverSpecificConfigTimeout.orElse(globalConfigTimeout);
+    }
+
+    /**
+     * Container method for {@link #startServer(String)}. Functionality
+     * is extended by notifying given source about booting process state.
+     *
+     * @param serverName the name of the server to start
+     * @param source the CommandSource that should receive notifications
+     */
+    public void startServerWithNotify(String serverName, CommandSource source) {
+        startServerWithNotify(serverName, source, null);
+    }
+
+    /**
+     * Same as {@link #startServerWithNotify(String, CommandSource)}, but
+     * sends the given message instead of the default one when the server
+     * starts booting up (or is booting up already).
+     *
+     * @param serverName the name of the server to start
+     * @param source the CommandSource that should receive notifications
+     * @param startingMessage the message to send once the server is
+     *                        booting up, or null for the default message
+     */
+    public void startServerWithNotify(String serverName, CommandSource source, Component startingMessage) {
+
+        // Guard - Server should not be stopping
+        if (serverStopper.isStopping(serverName)) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_stop.start_stopping",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+
+            return;
+        }
+
+        // Subscribe user to notifications
+        setSourceNotifications(source, serverName);
+
+        // Guard - Server should not already be booting up
+        if (bootingServers.contains(serverName)) {
+            sendBootStateMessage(source, serverName, startingMessage);
+
+            return;
+        }
+
+        try {
+            startServer(serverName);
+
+            // Queued boots have notified the source of their position when they were queued
+            if (bootAdmissionController.getQueuePosition(serverName) == 0) {
+                sendBootStateMessage(source, serverName, startingMessage);
+            }
+        } catch (MissingScriptException e) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_startup.no_script_defined",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+        } catch (CircuitOpenException e) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_startup.circuit_open",
+                    Map.of(
+                        "server", serverName,
+                        "seconds", String.valueOf(Math.max(1, e.getRetryAfterMillis() / 1000))
+                    )
+                )
+            );
+        } catch (IOException e) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_startup.unknown_error",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+        }
+    }
+
+    /**
+     * Tells the source whether the server is booting up or
+     * still waiting in the boot queue.
+     *
+     * @param source the source to notify
+     * @param serverName the name of the server
+     * @param startingMessage the message to send if the server is booting
+     *                        up, or null for the default message
+     */
+    private void sendBootStateMessage(CommandSource source, String serverName, Component startingMessage) {
+        int queuePosition = bootAdmissionController.getQueuePosition(serverName);
+
+        if (queuePosition > 0) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_startup.queued",
+                    Map.of(
+                        "server", serverName,
+                        "position", String.valueOf(queuePosition)
+                    )
+                )
+            );
+        } else if (startingMessage != null) {
+            source.sendMessage(startingMessage);
+        } else {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_startup.starting",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+        }
+    }
+
+    /**
+     * Sends the position of the server in the boot queue to every source
+     * listening to the server and every player waiting to join it.
+     *
+     * @param serverName the name of the queued server
+     * @param position the 1-based position in the boot queue
+     */
+    public void notifyBootQueuePosition(String serverName, int position) {
+        for (CommandSource source : getInterestedSources(serverName)) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_startup.queued",
+                    Map.of(
+                        "server", serverName,
+                        "position", String.valueOf(position)
+                    )
+                )
+            );
+        }
+    }
+
+    /**
+     * Tells every source listening to the server and every player
+     * waiting to join it that the server has left the boot queue
+     * and is now booting up.
+     *
+     * @param serverName the name of the server
+     */
+    private void notifyListeningSourcesStarting(String serverName) {
+        for (CommandSource source : getInterestedSources(serverName)) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_startup.starting",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+        }
+    }
+
+    /**
+     * Tells every source listening to the server and every player
+     * waiting to join it that the server could not be started.
+     *
+     * @param serverName the name of the server
+     * @param translationKey the key of the message to send
+     */
+    private void notifyInterestedSourcesFailed(String serverName, String translationKey) {
+        for (CommandSource source : getInterestedSources(serverName)) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    translationKey,
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+        }
+    }
+
+    /**
+     * Collects the sources listening to the server and the players
+     * waiting to join it, without duplicates.
+     *
+     * @param serverName the name of the server
+     * @return the set of sources
+     */
+    private Set<CommandSource> getInterestedSources(String serverName) {
+        Set<CommandSource> sources = new LinkedHashSet<>();
+
+        for (UUID sourceId : getIdsForServer(listeningSources, serverName)) {
+            getSource(sourceId).ifPresent(sources::add);
+        }
+        for (UUID playerId : getIdsForServer(waitingPlayers, serverName)) {
+            proxy.getPlayer(playerId).ifPresent(sources::add);
+        }
+
+        return sources;
+    }
+
+    /**
+     * Returns the path to the startup script for the given server
+     *
+     * @param serverName the name of the server
+     * @return a Path to the startup script relative to the
+     *         'scripts' directory, or the absolute path to the
+     *         startup script inside a provisioned instance.
+     */
+    public Path getServerStartupScriptPath(String serverName) {
+        InstanceProvisioner.Instance instance = instanceProvisioner.getInstance(serverName);
+        if (instance != null) {
+            return instanceProvisioner.getStartupScriptPath(instance);
+        }
+
+        String scriptFilePattern = config.getString(Route.from("server-startup", "script-pattern"));
+        String scriptFile = scriptFilePattern.replaceAll("%server%", serverName);
+
+        return Paths.get(SCRIPTS_DIR, scriptFile);
+    }
+
+    /**
+     * Returns the path of the file the startup script of the given
+     * server can write the pid of the server to.
+     *
+     * @param serverName the name of the server
+     * @return the absolute path to the pid file
+     */
+    public Path getPidFilePath(String serverName) {
+        return dataDirectory.resolve(PID_FILES_DIR).resolve(serverName + ".pid");
+    }
+
+    /**
+     * Adds a player to the delayed join list of the specified server.
+     * When the server is successfully started using startServer(), the
+     * player will automatically be connected to that server.
+     * <p>
+     * If the player was already in a delayed join list for a different
+     * server, that entry will be removed. The list is keyed by the UUID
+     * of the player, so a player that reconnects keeps their place.
+     * <p>
+     * The player is notified if they are added to the delayed join list.
+     *
+     * @param player the player to be added to the queue
+     * @param serverName the name of the server to queue for
+     */
+    public void setDelayedPlayerJoin(Player player, String serverName) {
+        setDelayedPlayerJoins(List.of(player), serverName);
+    }
+
+    /**
+     * Adds several players to the delayed join list of the specified
+     * server at once, see {@link #setDelayedPlayerJoin(Player, String)}.
+     * The players are added while holding the lock of the list, so the
+     * delayed joins of a server that comes online in the meantime either
+     * include all of them or none.
+     *
+     * @param players the players to be added to the queue
+     * @param serverName the name of the server to queue for
+     */
+    public void setDelayedPlayerJoins(Collection<Player> players, String serverName) {
+        List<Player> addedPlayers = new ArrayList<>();
+
+        synchronized (waitingPlayers) {
+            for (Player player : players) {
+                UUID playerId = player.getUniqueId();
+
+                if (!Objects.equals(waitingPlayers.put(playerId, serverName), serverName)) {
+                    addedPlayers.add(player);
+                }
+                appendToJournal("JOIN_SET", playerId.toString(), serverName);
+            }
+        }
+
+        // Notify outside the lock
+        for (Player player : addedPlayers) {
+            player.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_startup.added_to_join_list",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+        }
+    }
+
+    /**
+     * Removes the players entry in the delayed join list.
+     *
+     * @param player the player to be removed from the queue
+     */
+    public void cancelDelayedPlayerJoin(Player player) {
+        UUID playerId = player.getUniqueId();
+
+        if (waitingPlayers.remove(playerId) != null) {
+            appendToJournal("JOIN_CANCEL", playerId.toString());
+        }
+    }
+
+    /**
+     * @return the amount of servers currently booting up
+     */
+    public int getBootingServersAmount() {
+        return bootingServers.size();
+    }
+
+    /**
+     * @return the amount of players waiting to join any server
+     */
+    public int getDelayedJoinsAmount() {
+        return waitingPlayers.size();
+    }
+
+    /**
+     * @return the amount of sources listening for boot notifications
+     */
+    public int getListeningSourcesAmount() {
+        return listeningSources.size();
+    }
+
+    /**
+     * Counts the players in the delayed join list of the given server.
+     *
+     * @param serverName the name of the server
+     * @return the amount of players waiting to join the server
+     */
+    public int getDelayedJoinsAmount(String serverName) {
+        return getIdsForServer(waitingPlayers, serverName).size();
+    }
+
+    /**
+     * Groups the players in the delayed join list by the server they
+     * are waiting for.
+     *
+     * @return a copy of the player ids per server, in list order
+     */
+    public Map<String, List<UUID>> getDelayedJoinsByServer() {
+        Map<String, List<UUID>> playersByServer = new HashMap<>();
+
+        synchronized (waitingPlayers) {
+            waitingPlayers.forEach((playerId, serverName) ->
+                playersByServer.computeIfAbsent(serverName, name -> new ArrayList<>()).add(playerId)
+            );
+        }
+
+        return playersByServer;
+    }
+
+    /**
+     * @param serverName the name of the server
+     * @return the time (System.nanoTime) the current boot of the server
+     *         was requested, or -1 if it is not booting up
+     */
+    public long getBootStartNanos(String serverName) {
+        Long startNanos = bootStartTimes.get(serverName);
+
+        return startNanos != null ? startNanos : -1;
+    }
+
+    /**
+     * Makes sure that any players waiting in the delayed join list for
+     * the given server are connected to it. Players that are not online
+     * anymore are removed from the list.
+     *
+     * @param serverName the server for which to handle delayed joins
+     */
+    private void doDelayedJoins(String serverName) {
+        RegisteredServer server = getServer(serverName);
+
+        // Guard - Server must still be registered
+        if (server == null) {
+            cancelDelayedJoins(serverName);
+            return;
+        }
+
+        DelayedJoinDispatchEvent event = new DelayedJoinDispatchEvent();
+        event.begin();
+
+        List<UUID> playerIds = getIdsForServer(waitingPlayers, serverName);
+        List<Player> connectedPlayers = new ArrayList<>();
+        for (UUID playerId : playerIds) {
+            waitingPlayers.remove(playerId);
+            appendToJournal("JOIN_CANCEL", playerId.toString());
+
+            // Guard - Player must still be online
+            Optional<Player> player = proxy.getPlayer(playerId);
+            if (player.isEmpty()) {
+                continue;
+            }
+            connectedPlayers.add(player.get());
+
+            // Notify player
+            player.get().sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "connecting_to_server",
+                    Map.of(
+                        "server",
+                        serverName
+                    )
+                )
+            );
+
+            // Connect player to server
+            long connectStartNanos = System.nanoTime();
+            String username = player.get().getUsername();
+            CompletableFuture<Boolean> connection = player.get().createConnectionRequest(server).connectWithIndication();
+
+            BootTrace trace = bootTracer.getActive(serverName);
+            if (trace != null) {
+                trace.trackPending(connection.whenComplete((connected, throwable) -> trace.addStep(
+                    BootTrace.StepType.JOIN_CONNECT,
+                    username + " " + (Boolean.TRUE.equals(connected) ? "connected" : "failed") + " in " + formatMillis(System.nanoTime() - connectStartNanos)
+                )));
+            }
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.server = serverName;
+            event.waitingPlayers = playerIds.size();
+            event.connectedPlayers = connectedPlayers.size();
+            event.commit();
+        }
+
+        if (!connectedPlayers.isEmpty()) {
+            proxy.getEventManager().fireAndForget(new DelayedJoinDispatchedEvent(serverName, connectedPlayers));
+        }
+    }
+
+    /**
+     * Removes delayed join list entries of players waiting for the given server.
+     *
+     * @param serverName the server for which to cancel delayed joins
+     */
+    public void cancelDelayedJoins(String serverName) {
+        for (UUID playerId : getIdsForServer(waitingPlayers, serverName)) {
+            waitingPlayers.remove(playerId);
+            appendToJournal("JOIN_CANCEL", playerId.toString());
+        }
+    }
+
+    /**
+     * Adds a source to the listening sources list of the specified server
+     * When the server startup script finishes (either by fail or success),
+     * the source will automatically be notified about the status.
+     * <p>
+     * If the source was already in a listening sources list for a different
+     * server, that entry will be removed.
+     *
+     * @param source the source to be sent notifications
+     * @param serverName the name of the server whose notifications to listen to
+     */
+    public void setSourceNotifications(CommandSource source, String serverName) {
+        UUID sourceId = getSourceId(source);
+
+        listeningSources.put(sourceId, serverName);
+        appendToJournal("LISTEN_SET", sourceId.toString(), serverName);
+    }
+
+    /**
+     * Removes the sources entry in the listening sources list.
+     *
+     * @param source the source to be removed from the list
+     */
+    public void cancelSourceNotifications(CommandSource source) {
+        UUID sourceId = getSourceId(source);
+
+        if (listeningSources.remove(sourceId) != null) {
+            appendToJournal("LISTEN_CANCEL", sourceId.toString());
+        }
+    }
+
+    /**
+     * Sends a notification to every player listening to a specific server
+     * boot-up process, telling whether the startup has succeeded or not.
+     *
+     * @param serverName the name of the server
+     * @param success whether the startup has succeeded or not
+     */
+    private void notifyListeningSources(String serverName, boolean success) {
+        for (UUID sourceId : getIdsForServer(listeningSources, serverName)) {
+            Optional<CommandSource> source = getSource(sourceId);
+
+            // Guard - Source must still be online
+            if (source.isEmpty()) {
+                continue;
+            }
+
+            // Notify source
+            if (success) {
+                source.get().sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        "server_startup.script_result.success",
+                        Map.of(
+                            "server",
+                            serverName
+                        )
+                    )
+                );
+            } else {
+                source.get().sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        "server_startup.script_result.unknown_error",
+                        Map.of(
+                            "server",
+                            serverName
+                        )
+                    )
+                );
+            }
+        }
+    }
+
+    /**
+     * Removes sources, listening to the given server, from the listening sources list.
+     *
+     * @param serverName the server for which to cancel delayed joins
+     */
+    private void removeListeningSources(String serverName) {
+        for (UUID sourceId : getIdsForServer(listeningSources, serverName)) {
+            listeningSources.remove(sourceId);
+            appendToJournal("LISTEN_CANCEL", sourceId.toString());
+        }
+    }
+
+    /**
+     * Collects the ids in a delayed join or listening sources list
+     * that belong to the given server.
+     *
+     * @param list the list to search
+     * @param serverName the name of the server
+     * @return a copy of the matching ids, in list order
+     */
+    private List<UUID> getIdsForServer(Map<UUID, String> list, String serverName) {
+        List<UUID> ids = new ArrayList<>();
+
+        synchronized (list) {
+            list.forEach((id, name) -> {
+                if (name.equals(serverName)) {
+                    ids.add(id);
+                }
+            });
+        }
+
+        return ids;
+    }
+
+    /**
+     * @param source the source to get the id for
+     * @return the UUID of the player, or CONSOLE_ID for any other source
+     */
+    private UUID getSourceId(CommandSource source) {
+        return source instanceof Player player ? player.getUniqueId() : CONSOLE_ID;
+    }
+
+    /**
+     * @param sourceId the id of the source, as returned by getSourceId
+     * @return the matching source, or empty if the player is not online
+     */
+    private Optional<CommandSource> getSource(UUID sourceId) {
+        if (CONSOLE_ID.equals(sourceId)) {
+            return Optional.of(proxy.getConsoleCommandSource());
+        }
+
+        return proxy.getPlayer(sourceId).map(CommandSource.class::cast);
+    }
+
+    // -----
+    //  State persistence
+    // -----
+
+    /**
+     * Opens the state journal and restores the boot-up processes, delayed
+     * joins and listening sources that were active when the proxy stopped.
+     * <p>
+     * Boots whose startup script had already been run continue polling for
+     * the server to come online, boots that were still waiting for admission
+     * are requested again.
+     */
+    public void restoreState() {
+        if (!config.getBoolean(Route.from("persistence", "enabled"))) {
+            return;
+        }
+
+        Set<String> requestedBoots = new LinkedHashSet<>();
+        Set<String> runningBoots = new LinkedHashSet<>();
+
+        try {
+            stateJournal = new StateJournal(
+                dataDirectory.resolve(STATE_JOURNAL_FILE),
+                config.getInt(Route.from("persistence", "compaction-threshold")),
+                this::getStateSnapshot
+            );
+
+            for (StateJournal.Record record : stateJournal.replay()) {
+                applyJournalRecord(record, requestedBoots, runningBoots);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to open the state journal, boot state and delayed joins will not be persisted. {}", e.getMessage());
+            stateJournal = null;
+            return;
+        }
+
+        stateJournal.start();
+
+        // Drop entries for servers that are no longer booting
+        Set<String> restoredBoots = new HashSet<>(requestedBoots);
+        restoredBoots.addAll(runningBoots);
+        synchronized (waitingPlayers) {
+            waitingPlayers.values().removeIf(serverName -> !restoredBoots.contains(serverName));
+        }
+        synchronized (listeningSources) {
+            listeningSources.values().removeIf(serverName -> !restoredBoots.contains(serverName));
+        }
+
+        // The boots are resumed asynchronously, keep them in the compacted journal until then
+        for (String serverName : restoredBoots) {
+            pendingResumes.put(serverName, runningBoots.contains(serverName));
+        }
+
+        stateJournal.compact();
+
+        if (!restoredBoots.isEmpty()) {
+            logger.info("Resuming the boot-up process of {} server(s) from before the restart.", restoredBoots.size());
+        }
+
+        for (String serverName : restoredBoots) {
+            CompletableFuture.runAsync(() -> resumeBoot(serverName, runningBoots.contains(serverName)), pluginExecutors.blocking());
+        }
+    }
+
+    /**
+     * Writes every pending journal record to disk and closes the journal.
+     */
+    public void closeStateJournal() {
+        if (stateJournal != null) {
+            stateJournal.close();
+        }
+    }
+
+    /**
+     * Continues the boot-up process of a server restored from the journal.
+     *
+     * @param serverName the name of the server
+     * @param scriptStarted whether the startup script had already been run
+     */
+    private void resumeBoot(String serverName, boolean scriptStarted) {
+
+        // Guard - Server must still be registered
+        if (getServer(serverName) == null) {
+            pendingResumes.remove(serverName);
+            removeListeningSources(serverName);
+            cancelDelayedJoins(serverName);
+            appendToJournal("BOOT_FINISHED", serverName);
+            return;
+        }
+
+        // Startup script not run yet -> request the boot again
+        if (!scriptStarted) {
+            try {
+                startServer(serverName);
+            } catch (MissingScriptException | CircuitOpenException | IOException e) {
+                logger.error("Could not resume the boot-up process of server {}.", serverName);
+                appendToJournal("BOOT_FINISHED", serverName);
+            } finally {
+                pendingResumes.remove(serverName);
+            }
+            return;
+        }
+
+        // Startup script already run -> continue polling, holding the boot lock again if it is free
+        if (config.getBoolean(Route.from("process-watch", "enabled")) && Files.exists(getPidFilePath(serverName))) {
+            processWatchers.put(serverName, new ProcessTreeWatcher(getPidFilePath(serverName)));
+        }
+        bootCoordinator.acquire(serverName);
+        bootingServers.add(serverName);
+        startedBoots.add(serverName);
+        pendingResumes.remove(serverName);
+        bootCompletions.put(serverName, new CompletableFuture<>());
+        bootAdmissionController.admit(serverName);
+        publishBootState(serverName, BootState.RESUMED);
+        bootTracer.begin(serverName);
+        bootTracer.addStep(serverName, BootTrace.StepType.RESUMED, "");
+
+        boolean online = false;
+        try {
+            online = handleStartupScriptExitCode(0, serverName);
+        } finally {
+            finishBoot(serverName, online);
+        }
+    }
+
+    /**
+     * Applies a single journal record to the in-memory state.
+     */
+    private void applyJournalRecord(StateJournal.Record record, Set<String> requestedBoots, Set<String> runningBoots) {
+        String[] fields = record.fields();
+
+        try {
+            switch (record.type()) {
+                case "JOIN_SET" -> waitingPlayers.put(UUID.fromString(fields[0]), fields[1]);
+                case "JOIN_CANCEL" -> waitingPlayers.remove(UUID.fromString(fields[0]));
+                case "LISTEN_SET" -> listeningSources.put(UUID.fromString(fields[0]), fields[1]);
+                case "LISTEN_CANCEL" -> listeningSources.remove(UUID.fromString(fields[0]));
+                case "BOOT_REQUESTED" -> requestedBoots.add(fields[0]);
+                case "BOOT_STARTED" -> {
+                    requestedBoots.remove(fields[0]);
+                    runningBoots.add(fields[0]);
+                }
+                case "BOOT_FINISHED" -> {
+                    requestedBoots.remove(fields[0]);
+                    runningBoots.remove(fields[0]);
+                }
+                default -> logger.warn("Skipping unknown state journal record type {}.", record.type());
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            logger.warn("Skipping malformed state journal record of type {}.", record.type());
+        }
+    }
+
+    /**
+     * Creates the records that describe the current state, used
+     * to compact the journal.
+     *
+     * @return the list of records
+     */
+    private List<StateJournal.Record> getStateSnapshot() {
+        List<StateJournal.Record> records = new ArrayList<>();
+
+        Set<String> boots = new LinkedHashSet<>(pendingResumes.keySet());
+        synchronized (bootingServers) {
+            boots.addAll(bootingServers);
+        }
+        for (String serverName : boots) {
+            records.add(new StateJournal.Record("BOOT_REQUESTED", serverName));
+            if (startedBoots.contains(serverName) || pendingResumes.getOrDefault(serverName, false)) {
+                records.add(new StateJournal.Record("BOOT_STARTED", serverName));
+            }
+        }
+        synchronized (waitingPlayers) {
+            waitingPlayers.forEach((playerId, serverName) -> records.add(new StateJournal.Record("JOIN_SET", playerId.toString(), serverName)));
+        }
+        synchronized (listeningSources) {
+            listeningSources.forEach((sourceId, serverName) -> records.add(new StateJournal.Record("LISTEN_SET", sourceId.toString(), serverName)));
+        }
+
+        return records;
+    }
+
+    /**
+     * Queues a record for the state journal, if persistence is enabled.
+     *
+     * @param type the type of the record
+     * @param fields the fields of the record
+     */
+    private void appendToJournal(String type, String... fields) {
+        if (stateJournal != null) {
+            stateJournal.append(type, fields);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package org.incogn1.servercontrol.boot;
+
+import dev.dejvokep.boostedyaml.route.Route;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Decides when a requested server boot may actually run its startup
+ * script.
+ * <p>
+ * The amount of concurrent boots is limited by a configured maximum and,
+ * as long as at least one other boot is running, by the live resource
+ * usage of the host. Boots that have to wait are queued and admitted in
+ * order of demand: the server with the most players waiting for it goes
+ * first, servers with equal demand go in order of request.
+ */
+public class BootAdmissionController {
+
+    private final HostResourceMonitor hostResourceMonitor = new HostResourceMonitor();
+
+    /** Servers that have been admitted and have not finished booting yet */
+    private final Set<String> activeBoots = new HashSet<>();
+
+    /** Boot requests waiting to be admitted */
+    private final List<BootRequest> queue = new ArrayList<>();
+
+    /** Whether a delayed re-check of the queue has been scheduled */
+    private boolean recheckScheduled = false;
+
+    private long requestCounter = 0;
+
+    /**
+     * Requests permission to boot the given server. If the boot has to
+     * wait, the sources listening to the server and the players waiting
+     * for it are sent its queue position before this returns.
+     *
+     * @param serverName the name of the server to boot
+     * @return a CompletableFuture that completes once the boot has
+     *         been admitted. It is already completed if the boot
+     *         could be admitted immediately.
+     */
+    public CompletableFuture<Void> requestAdmission(String serverName) {
+        BootRequest request;
+        synchronized (this) {
+            request = new BootRequest(serverName, requestCounter++, new CompletableFuture<>());
+            queue.add(request);
+        }
+
+        dispatch();
+
+        // Still queued -> tell the new request (and any it overtook) its position
+        if (!request.future.isDone()) {
+            notifyQueuePositions();
+        }
+
+        return request.future;
+    }
+
+    /**
+     * Marks the boot of the given server as running without queueing
+     * it, e.g. for a boot that was already running before a restart.
+     *
+     * @param serverName the name of the server
+     */
+    public synchronized void admit(String serverName) {
+        activeBoots.add(serverName);
+    }
+
+    /**
+     * Marks the boot of the given server as finished, freeing up its
+     * slot for the next queued boot.
+     *
+     * @param serverName the name of the server that finished booting
+     */
+    public void release(String serverName) {
+        synchronized (this) {
+            activeBoots.remove(serverName);
+        }
+
+        dispatch();
+    }
+
+    /**
+     * Gets the position of the server in the boot queue.
+     *
+     * @param serverName the name of the server
+     * @return the 1-based position in the queue, or 0 if the
+     *         server is not queued
+     */
+    public int getQueuePosition(String serverName) {
+        Map<String, Integer> demand = getDemand();
+
+        List<BootRequest> ordered;
+        synchronized (this) {
+            ordered = getOrderedQueue(demand);
+        }
+
+        for (int i = 0; i < ordered.size(); i++) {
+            if (ordered.get(i).serverName.equals(serverName)) {
+                return i + 1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * @return the amount of boots that are currently running
+     */
+    public synchronized int getActiveBootsAmount() {
+        return activeBoots.size();
+    }
+
+    /**
+     * @return the amount of boots waiting to be admitted
+     */
+    public synchronized int getQueueLength() {
+        return queue.size();
+    }
+
+    /**
+     * Admits as many queued boots as the limits allow. The host snapshot
+     * and the demand are read before taking the lock, as they read /proc
+     * and the delayed join list. The futures of admitted boots are
+     * completed outside the lock.
+     */
+    private void dispatch() {
+        HostResourceMonitor.Snapshot snapshot = hostResourceMonitor.getSnapshot();
+        Map<String, Integer> demand = getDemand();
+
+        List<BootRequest> admitted = new ArrayList<>();
+
+        synchronized (this) {
+            while (!queue.isEmpty()) {
+                String blockReason = getBlockReason(snapshot);
+                if (blockReason != null) {
+                    logger.debug("Holding back {} queued server boot(s): {}", queue.size(), blockReason);
+                    scheduleRecheck();
+                    break;
+                }
+
+                BootRequest request = getOrderedQueue(demand).get(0);
+                queue.remove(request);
+                activeBoots.add(request.serverName);
+                admitted.add(request);
+            }
+        }
+
+        for (BootRequest request : admitted) {
+            request.future.complete(null);
+        }
+
+        if (!admitted.isEmpty()) {
+            notifyQueuePositions();
+        }
+    }
+
+    /**
+     * Checks the limits for admitting another boot.
+     *
+     * @param snapshot a recent reading of the host's resources
+     * @return a description of the limit that prevents another boot
+     *         from being admitted, or null if it can be admitted
+     */
+    private String getBlockReason(HostResourceMonitor.Snapshot snapshot) {
+        int maxConcurrentBoots = config.getInt(Route.from("boot-admission", "max-concurrent-boots"));
+        if (maxConcurrentBoots > 0 && activeBoots.size() >= maxConcurrentBoots) {
+            return "maximum of " + maxConcurrentBoots + " concurrent boots reached";
+        }
+
+        // Host signals only limit concurrency, a single boot is always allowed
+        if (activeBoots.isEmpty()) {
+            return null;
+        }
+
+        long minAvailableMemory = config.getLong(Route.from("boot-admission", "min-available-memory"));
+        if (minAvailableMemory > 0 && snapshot.availableMemoryMb() >= 0 && snapshot.availableMemoryMb() < minAvailableMemory) {
+            return "only " + snapshot.availableMemoryMb() + " MB of memory available";
+        }
+
+        double maxLoadPerCore = config.getDouble(Route.from("boot-admission", "max-load-per-core"));
+        if (maxLoadPerCore > 0 && snapshot.loadPerCore() > maxLoadPerCore) {
+            return String.format("load per core is %.2f", snapshot.loadPerCore());
+        }
+
+        double maxCpuPressure = config.getDouble(Route.from("boot-admission", "max-cpu-pressure"));
+        if (maxCpuPressure > 0 && snapshot.cpuPressure() > maxCpuPressure) {
+            return String.format("CPU pressure is %.2f%%", snapshot.cpuPressure());
+        }
+
+        double maxIoPressure = config.getDouble(Route.from("boot-admission", "max-io-pressure"));
+        if (maxIoPressure > 0 && snapshot.ioPressure() > maxIoPressure) {
+            return String.format("IO pressure is %.2f%%", snapshot.ioPressure());
+        }
+
+        double maxMemoryPressure = config.getDouble(Route.from("boot-admission", "max-memory-pressure"));
+        if (maxMemoryPressure > 0 && snapshot.memoryPressure() > maxMemoryPressure) {
+            return String.format("memory pressure is %.2f%%", snapshot.memoryPressure());
+        }
+
+        return null;
+    }
+
+    /**
+     * Schedules a delayed dispatch, so boots held back by host signals
+     * are admitted once the host has calmed down, even if no other boot
+     * finishes in the meantime.
+     */
+    private void scheduleRecheck() {
+        if (recheckScheduled) {
+            return;
+        }
+        recheckScheduled = true;
+
+        long recheckDelay = config.getLong(Route.from("boot-admission", "recheck-delay"));
+        CompletableFuture.runAsync(() -> {
+            synchronized (this) {
+                recheckScheduled = false;
+            }
+            dispatch();
+        }, CompletableFuture.delayedExecutor(recheckDelay, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Sends every queued server's waiting players and listening sources
+     * their new queue position.
+     */
+    private void notifyQueuePositions() {
+        Map<String, Integer> demand = getDemand();
+
+        List<BootRequest> ordered;
+        synchronized (this) {
+            ordered = getOrderedQueue(demand);
+        }
+
+        for (int i = 0; i < ordered.size(); i++) {
+            BootRequest request = ordered.get(i);
+            int position = i + 1;
+
+            if (request.lastNotifiedPosition != position) {
+                request.lastNotifiedPosition = position;
+                serverManager.notifyBootQueuePosition(request.serverName, position);
+            }
+        }
+    }
+
+    /**
+     * Counts the players waiting for every queued server. Must be called
+     * without holding the lock, as it takes the lock of the delayed join
+     * list.
+     *
+     * @return the amount of waiting players by server name
+     */
+    private Map<String, Integer> getDemand() {
+        List<String> serverNames = new ArrayList<>();
+        synchronized (this) {
+            for (BootRequest request : queue) {
+                serverNames.add(request.serverName);
+            }
+        }
+
+        Map<String, Integer> demand = new HashMap<>();
+        for (String serverName : serverNames) {
+            demand.put(serverName, serverManager.getDelayedJoinsAmount(serverName));
+        }
+
+        return demand;
+    }
+
+    /**
+     * @param demand the amount of waiting players by server name,
+     *               servers queued since it was counted have none
+     * @return the queue ordered by demand (most waiting players
+     *         first), then by order of request
+     */
+    private List<BootRequest> getOrderedQueue(Map<String, Integer> demand) {
+        List<BootRequest> ordered = new ArrayList<>(queue);
+
+        ordered.sort(
+            Comparator.comparingInt((BootRequest request) -> demand.getOrDefault(request.serverName, 0)).reversed()
+                .thenComparingLong(request -> request.sequence)
+        );
+
+        return ordered;
+    }
+
+    private static final class BootRequest {
+        final String serverName;
+        final long sequence;
+        final CompletableFuture<Void> future;
+
+        int lastNotifiedPosition = 0;
+
+        BootRequest(String serverName, long sequence, CompletableFuture<Void> future) {
+            this.serverName = serverName;
+            this.sequence = sequence;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.incogn1.servercontrol.boot;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.incogn1.servercontrol.ServerControl.logger;
+
+/**
+ * Stops servers that keep failing to boot from being started over and
+ * over, e.g. because of a corrupt world or a broken plugin.
+ * <p>
+ * The failed boots of every server are counted in a sliding window. Once
+ * the threshold is reached, the circuit of the server opens and starts are
+ * rejected right away. After a backoff the circuit is half-open and a
+ * single boot is let through: if it succeeds the circuit closes again, if
+ * it fails the circuit opens with twice the backoff, up to the maximum.
+ * Admins can close a circuit by hand with /sc reset.
+ */
+public class BootCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long windowMillis;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * @param enabled whether to reject starts at all
+     * @param failureThreshold the amount of failed boots within the window that opens the circuit
+     * @param windowMillis the time in which failed boots are counted
+     * @param baseBackoffMillis the time the circuit stays open the first time
+     * @param maxBackoffMillis the maximum time the circuit stays open
+     */
+    public BootCircuitBreaker(boolean enabled, int failureThreshold, long windowMillis, long baseBackoffMillis, long maxBackoffMillis) {
+        this.enabled = enabled;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.windowMillis = windowMillis;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = Math.max(baseBackoffMillis, maxBackoffMillis);
+    }
+
+    /**
+     * Checks whether the server may be started.
+     *
+     * @param serverName the name of the server
+     *
+     * @throws CircuitOpenException if the circuit of the server is open
+     */
+    public void checkBoot(String serverName) throws CircuitOpenException {
+        Circuit circuit = circuits.get(serverName);
+
+        // Guard - No failures recorded
+        if (!enabled || circuit == null) {
+            return;
+        }
+
+        synchronized (circuit) {
+            long remainingMillis = circuit.openUntil - System.currentTimeMillis();
+            if (circuit.openings > 0 && remainingMillis > 0) {
+                throw new CircuitOpenException(serverName, remainingMillis);
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of a finished boot.
+     *
+     * @param serverName the name of the server
+     * @param online whether the server came online
+     */
+    public void recordOutcome(String serverName, boolean online) {
+
+        // Success -> forget previous failures
+        if (online) {
+            Circuit circuit = circuits.remove(serverName);
+            if (circuit != null && circuit.openings > 0) {
+                logger.info("Server {} came online again, it can be started as usual.", serverName);
+            }
+            return;
+        }
+
+        // Guard - Failures only matter while enabled
+        if (!enabled) {
+            return;
+        }
+
+        Circuit circuit = circuits.computeIfAbsent(serverName, name -> new Circuit());
+        synchronized (circuit) {
+            long now = System.currentTimeMillis();
+
+            // Trial boot of a half-open circuit failed -> open again, for longer
+            if (circuit.openings > 0) {
+                open(serverName, circuit, now);
+                return;
+            }
+
+            circuit.failures.addLast(now);
+            while (!circuit.failures.isEmpty() && circuit.failures.peekFirst() < now - windowMillis) {
+                circuit.failures.removeFirst();
+            }
+
+            if (circuit.failures.size() >= failureThreshold) {
+                open(serverName, circuit, now);
+            }
+        }
+    }
+
+    /**
+     * Closes the circuit of a server and forgets its failed boots.
+     *
+     * @param serverName the name of the server
+     * @return true if the circuit was open or half-open
+     */
+    public boolean reset(String serverName) {
+        Circuit circuit = circuits.remove(serverName);
+
+        return circuit != null && circuit.openings > 0;
+    }
+
+    /**
+     * @param serverName the name of the server
+     * @return the current state of the circuit of the server
+     */
+    public State getState(String serverName) {
+        Circuit circuit = circuits.get(serverName);
+        if (circuit == null) {
+            return State.CLOSED;
+        }
+
+        synchronized (circuit) {
+            if (circuit.openings == 0) {
+                return State.CLOSED;
+            }
+
+            return circuit.openUntil > System.currentTimeMillis() ? State.OPEN : State.HALF_OPEN;
+        }
+    }
+
+    private void open(String serverName, Circuit circuit, long now) {
+        circuit.openings++;
+        circuit.failures.clear();
+
+        // Double the backoff with every opening, without overflowing
+        long backoffMillis = baseBackoffMillis << Math.min(circuit.openings - 1, 30);
+        if (backoffMillis <= 0 || backoffMillis > maxBackoffMillis) {
+            backoffMillis = maxBackoffMillis;
+        }
+        circuit.openUntil = now + backoffMillis;
+
+        logger.warn("Server {} failed to boot too often, starts are rejected for {} seconds. Use /sc reset {} to allow starts again.", serverName, backoffMillis / 1000, serverName);
+    }
+
+    /**
+     * The failure history of a single server.
+     */
+    private static class Circuit {
+
+        /** Times (in milliseconds) of the failed boots within the window, oldest first */
+        private final Deque<Long> failures = new ArrayDeque<>();
+
+        /** The amount of times the circuit has opened since the last successful boot */
+        private int openings;
+
+        /** The time (in milliseconds) until which starts are rejected */
+        private long openUntil;
+    }
+}
@@ -0,0 +1,297 @@
+package org.incogn1.servercontrol.boot;
+
+import com.velocitypowered.api.proxy.Player;
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Shows players in a delayed join list how the boot of their server is
+ * progressing, with the elapsed time and an estimate based on the most
+ * recent successful boots of that server.
+ * <p>
+ * A single ticker updates every display. Each tick, the progress of every
+ * booting server with waiting players is rendered once and shared by all
+ * of its waiters: one boss bar per server that is shown to each of them,
+ * or one action bar component that is sent to each of them.
+ */
+public class BootProgressDisplay {
+
+    public enum Mode {
+        BOSSBAR,
+        ACTIONBAR,
+        NONE
+    }
+
+    /** Progress shown while a boot takes longer than its estimate, so the bar never looks finished */
+    private static final float MAX_PROGRESS = 0.99f;
+
+    private final Mode mode;
+    private final int etaSamples;
+
+    /** Durations (in nanoseconds) of the most recent successful boots per server, oldest first */
+    private final Map<String, Deque<Long>> recentBootDurations = new ConcurrentHashMap<>();
+
+    /** Boss bar per server, only used by the ticker thread */
+    private final Map<String, BossBar> bossBars = new HashMap<>();
+
+    /** The server whose boss bar each player is shown, only used by the ticker thread */
+    private final Map<UUID, String> bossBarViewers = new HashMap<>();
+
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * Starts updating the displays, unless the mode is NONE.
+     *
+     * @param mode where to show the progress
+     * @param intervalMillis the time between two updates
+     * @param etaSamples the amount of recent boots the estimate is based on
+     */
+    public BootProgressDisplay(Mode mode, long intervalMillis, int etaSamples) {
+        this.mode = mode;
+        this.etaSamples = Math.max(1, etaSamples);
+
+        if (mode == Mode.NONE) {
+            this.ticker = null;
+            return;
+        }
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ServerControl-BootProgress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(50, intervalMillis);
+        ticker.scheduleAtFixedRate(this::tickSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Parses the display mode from the config.
+     *
+     * @param value the configured value, e.g. "bossbar"
+     * @return the matching mode, or NONE if the value is unknown
+     */
+    public static Mode parseMode(String value) {
+        try {
+            return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            logger.error("Unknown boot progress display {}, boot progress will not be shown.", value);
+            return Mode.NONE;
+        }
+    }
+
+    /**
+     * Remembers how long a successful boot took, for the estimate of
+     * the next boots of the server.
+     *
+     * @param serverName the name of the server
+     * @param durationNanos the time from requesting the boot until the server was online
+     */
+    public void recordBootDuration(String serverName, long durationNanos) {
+        Deque<Long> durations = recentBootDurations.computeIfAbsent(serverName, name -> new ArrayDeque<>());
+
+        synchronized (durations) {
+            durations.addLast(durationNanos);
+            while (durations.size() > etaSamples) {
+                durations.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * @param serverName the name of the server
+     * @return the average duration of its recent successful boots in
+     *         nanoseconds, or -1 if none have been recorded yet
+     */
+    public long getEstimatedBootNanos(String serverName) {
+        Deque<Long> durations = recentBootDurations.get(serverName);
+        if (durations == null) {
+            return -1;
+        }
+
+        synchronized (durations) {
+            if (durations.isEmpty()) {
+                return -1;
+            }
+
+            long total = 0;
+            for (long duration : durations) {
+                total += duration;
+            }
+            return total / durations.size();
+        }
+    }
+
+    /**
+     * Stops updating the displays and hides every boss bar.
+     */
+    public void shutdown() {
+        if (ticker == null) {
+            return;
+        }
+
+        ticker.shutdownNow();
+        try {
+            ticker.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException ignore) {}
+
+        bossBarViewers.keySet().forEach(this::hideBossBar);
+        bossBarViewers.clear();
+        bossBars.clear();
+    }
+
+    /**
+     * A failing tick would cancel the ticker, so errors are only logged.
+     */
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (Exception e) {
+            logger.error("Failed to update the boot progress displays. {}", e.getMessage());
+        }
+    }
+
+    private void tick() {
+        Map<String, List<UUID>> waitingPlayers = serverManager.getDelayedJoinsByServer();
+        Set<UUID> shownBossBar = new HashSet<>();
+        long now = System.nanoTime();
+
+        for (Map.Entry<String, List<UUID>> entry : waitingPlayers.entrySet()) {
+            String serverName = entry.getKey();
+
+            // Guard - Server must be booting on this proxy
+            long startNanos = serverManager.getBootStartNanos(serverName);
+            if (startNanos < 0) {
+                continue;
+            }
+
+            long elapsedNanos = now - startNanos;
+            long estimateNanos = getEstimatedBootNanos(serverName);
+            Component text = render(serverName, elapsedNanos, estimateNanos);
+
+            if (mode == Mode.ACTIONBAR) {
+                for (UUID playerId : entry.getValue()) {
+                    proxy.getPlayer(playerId).ifPresent(player -> player.sendActionBar(text));
+                }
+                continue;
+            }
+
+            // Estimate unknown -> fill the bar over the startup timeout instead
+            long fullNanos = estimateNanos > 0 ? estimateNanos : TimeUnit.SECONDS.toNanos(serverManager.getStartupTimeout(serverName));
+            float progress = fullNanos > 0 ? Math.min(MAX_PROGRESS, (float) elapsedNanos / fullNanos) : 0;
+
+            BossBar bossBar = bossBars.get(serverName);
+            if (bossBar == null) {
+                bossBar = BossBar.bossBar(text, progress, BossBar.Color.YELLOW, BossBar.Overlay.PROGRESS);
+                bossBars.put(serverName, bossBar);
+            } else {
+                bossBar.name(text);
+                bossBar.progress(progress);
+            }
+
+            for (UUID playerId : entry.getValue()) {
+                Optional<Player> player = proxy.getPlayer(playerId);
+                if (player.isEmpty()) {
+                    continue;
+                }
+                shownBossBar.add(playerId);
+
+                // Already shown this bar, it updates by itself
+                String shownServer = bossBarViewers.get(playerId);
+                if (serverName.equals(shownServer)) {
+                    continue;
+                }
+
+                if (shownServer != null) {
+                    hideBossBar(playerId);
+                }
+                player.get().showBossBar(bossBar);
+                bossBarViewers.put(playerId, serverName);
+            }
+        }
+
+        // Hide the bars of players that are not waiting anymore
+        Iterator<UUID> viewers = bossBarViewers.keySet().iterator();
+        while (viewers.hasNext()) {
+            UUID playerId = viewers.next();
+            if (!shownBossBar.contains(playerId)) {
+                hideBossBar(playerId);
+                viewers.remove();
+            }
+        }
+        bossBars.keySet().retainAll(bossBarViewers.values());
+    }
+
+    /**
+     * Renders the progress text of a boot.
+     *
+     * @param serverName the name of the server
+     * @param elapsedNanos the time since the boot was requested
+     * @param estimateNanos the estimated boot duration, or -1 if unknown
+     * @return the text to show
+     */
+    private Component render(String serverName, long elapsedNanos, long estimateNanos) {
+        int queuePosition = bootAdmissionController.getQueuePosition(serverName);
+
+        if (queuePosition > 0) {
+            return translationsManager.translateAsMiniMessage(
+                "server_startup.progress.queued",
+                Map.of(
+                    "server", serverName,
+                    "position", String.valueOf(queuePosition),
+                    "elapsed", formatDuration(elapsedNanos)
+                )
+            );
+        }
+
+        if (estimateNanos <= 0) {
+            return translationsManager.translateAsMiniMessage(
+                "server_startup.progress.booting_no_estimate",
+                Map.of(
+                    "server", serverName,
+                    "elapsed", formatDuration(elapsedNanos)
+                )
+            );
+        }
+
+        return translationsManager.translateAsMiniMessage(
+            "server_startup.progress.booting",
+            Map.of(
+                "server", serverName,
+                "elapsed", formatDuration(elapsedNanos),
+                "estimate", formatDuration(estimateNanos)
+            )
+        );
+    }
+
+    /**
+     * @param playerId the player to hide their boss bar from
+     */
+    private void hideBossBar(UUID playerId) {
+        BossBar bossBar = bossBars.get(bossBarViewers.get(playerId));
+        if (bossBar != null) {
+            proxy.getPlayer(playerId).ifPresent(player -> player.hideBossBar(bossBar));
+        }
+    }
+
+    /**
+     * @param nanos a duration in nanoseconds
+     * @return the duration in minutes and seconds, e.g. "1m 05s" or "42s"
+     */
+    private static String formatDuration(long nanos) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(Math.max(0, nanos));
+
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+
+        return String.format("%dm %02ds", seconds / 60, seconds % 60);
+    }
+}
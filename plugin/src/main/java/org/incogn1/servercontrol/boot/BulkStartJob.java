@@ -0,0 +1,421 @@
+package org.incogn1.servercontrol.boot;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
+import dev.dejvokep.boostedyaml.route.Route;
+import org.incogn1.servercontrol.scripts.MissingScriptException;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Starts a set of servers, respecting the depends-on configuration.
+ * <p>
+ * The requested servers and all their (transitive) dependencies form a
+ * dependency graph. Servers whose dependencies are all online are started
+ * in parallel, up to the configured concurrency. A server only starts once
+ * all of its dependencies have come online, and is skipped if one of them
+ * fails.
+ * <p>
+ * Instead of one notification per server, the source receives a single
+ * progress summary that is updated as servers finish.
+ */
+public class BulkStartJob {
+
+    public enum State {
+        WAITING,
+        BOOTING,
+        ONLINE,
+        FAILED,
+        SKIPPED
+    }
+
+    private final CommandSource source;
+
+    /** Server -> servers it depends on, only containing servers in this job */
+    private final Map<String, List<String>> dependencies;
+
+    /** Current state of every server in this job */
+    private final Map<String, State> states = new LinkedHashMap<>();
+
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private BulkStartJob(CommandSource source, Map<String, List<String>> dependencies) {
+        this.source = source;
+        this.dependencies = dependencies;
+
+        for (String serverName : dependencies.keySet()) {
+            states.put(serverName, State.WAITING);
+        }
+    }
+
+    /**
+     * Creates a job for the given servers, adding all of their
+     * (transitive) dependencies.
+     *
+     * @param source the source that receives progress updates, or null
+     *        to run the job without messages
+     * @param serverNames the servers to start
+     * @return the planned job
+     *
+     * @throws DependencyException if a dependency is not registered
+     *         or the dependencies contain a cycle
+     */
+    public static BulkStartJob plan(CommandSource source, Collection<String> serverNames) throws DependencyException {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+
+        // Collect servers and their dependencies
+        Deque<String> toVisit = new ArrayDeque<>(serverNames);
+        while (!toVisit.isEmpty()) {
+            String serverName = toVisit.poll();
+            if (dependencies.containsKey(serverName)) {
+                continue;
+            }
+
+            List<String> serverDependencies = serverManager.getServerDependencies(serverName);
+            for (String dependency : serverDependencies) {
+                if (serverManager.getServer(dependency) == null) {
+                    throw new DependencyException(
+                        translationsManager.translate(
+                            "commands.start.bulk.unknown_dependency",
+                            Map.of(
+                                "server", serverName,
+                                "dependency", dependency
+                            )
+                        )
+                    );
+                }
+                toVisit.add(dependency);
+            }
+
+            dependencies.put(serverName, serverDependencies);
+        }
+
+        List<String> cycle = findCycle(dependencies);
+        if (cycle != null) {
+            throw new DependencyException(
+                translationsManager.translate(
+                    "commands.start.bulk.dependency_cycle",
+                    Map.of(
+                        "servers", String.join(" -> ", cycle)
+                    )
+                )
+            );
+        }
+
+        return new BulkStartJob(source, dependencies);
+    }
+
+    /**
+     * Checks which servers are already online and starts the rest.
+     *
+     * @return a CompletableFuture that completes once every server
+     *         in the job has either come online, failed or been skipped
+     */
+    public CompletableFuture<Void> run() {
+        if (source != null) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.start.bulk.planned",
+                    Map.of(
+                        "count", String.valueOf(states.size())
+                    )
+                )
+            );
+        }
+
+        // Check online state of all servers in parallel
+        Map<String, CompletableFuture<Boolean>> onlineChecks = new HashMap<>();
+        for (String serverName : dependencies.keySet()) {
+            onlineChecks.put(serverName, CompletableFuture.supplyAsync(() -> serverManager.getServerOnlineState(serverName), pluginExecutors.blocking()));
+        }
+
+        CompletableFuture.allOf(onlineChecks.values().toArray(new CompletableFuture[0])).thenRun(() -> {
+            synchronized (this) {
+                onlineChecks.forEach((serverName, check) -> {
+                    if (check.join()) {
+                        states.put(serverName, State.ONLINE);
+                    }
+                });
+            }
+
+            startReadyServers();
+            checkFinished();
+        });
+
+        return completion;
+    }
+
+    /**
+     * Starts every waiting server whose dependencies are all online,
+     * as long as the concurrency limit allows it.
+     */
+    private void startReadyServers() {
+        int maxParallel = config.getInt(Route.from("server-startup", "bulk-start-concurrency"));
+        List<String> toStart = new ArrayList<>();
+
+        synchronized (this) {
+            long booting = states.values().stream().filter(state -> state == State.BOOTING).count();
+
+            for (Map.Entry<String, State> entry : states.entrySet()) {
+                if (maxParallel > 0 && booting >= maxParallel) {
+                    break;
+                }
+
+                String serverName = entry.getKey();
+                if (entry.getValue() != State.WAITING) {
+                    continue;
+                }
+
+                boolean ready = dependencies.get(serverName).stream()
+                    .allMatch(dependency -> states.get(dependency) == State.ONLINE);
+
+                if (ready) {
+                    entry.setValue(State.BOOTING);
+                    toStart.add(serverName);
+                    booting++;
+                }
+            }
+        }
+
+        for (String serverName : toStart) {
+            startServer(serverName);
+        }
+
+        sendProgress();
+    }
+
+    /**
+     * Starts a single server and registers the handling of its outcome.
+     *
+     * @param serverName the name of the server
+     */
+    private void startServer(String serverName) {
+        try {
+            serverManager.startServer(serverName);
+        } catch (MissingScriptException e) {
+            logger.warn("Bulk start: no startup script defined for server {}.", serverName);
+            onServerFinished(serverName, false);
+            return;
+        } catch (CircuitOpenException e) {
+            logger.warn("Bulk start: server {} failed to boot too often recently, not starting it.", serverName);
+            onServerFinished(serverName, false);
+            return;
+        } catch (IOException e) {
+            onServerFinished(serverName, false);
+            return;
+        }
+
+        // Also covers servers that were already booting outside of this job
+        CompletableFuture<Boolean> boot = serverManager.awaitBoot(serverName);
+        if (boot == null) {
+            onServerFinished(serverName, serverManager.getServerOnlineState(serverName));
+            return;
+        }
+
+        boot.thenAccept(online -> onServerFinished(serverName, online));
+    }
+
+    /**
+     * Updates the state of a finished server, skips its dependents if
+     * it failed and starts whatever has become ready.
+     *
+     * @param serverName the name of the server
+     * @param online whether the server came online
+     */
+    private void onServerFinished(String serverName, boolean online) {
+        synchronized (this) {
+            states.put(serverName, online ? State.ONLINE : State.FAILED);
+
+            if (!online) {
+                skipDependents(serverName);
+            }
+        }
+
+        startReadyServers();
+        checkFinished();
+    }
+
+    /**
+     * Sends the summary and completes the job if no server is
+     * waiting or booting anymore.
+     */
+    private void checkFinished() {
+        boolean finished;
+        synchronized (this) {
+            finished = states.values().stream().noneMatch(state -> state == State.WAITING || state == State.BOOTING);
+        }
+
+        // Only the first caller gets to send the summary
+        if (finished && completion.complete(null)) {
+            sendSummary();
+        }
+    }
+
+    /**
+     * Marks every waiting server that (transitively) depends on the
+     * given server as skipped.
+     *
+     * @param serverName the name of the failed server
+     */
+    private void skipDependents(String serverName) {
+        for (Map.Entry<String, List<String>> entry : dependencies.entrySet()) {
+            String dependent = entry.getKey();
+
+            if (entry.getValue().contains(serverName) && states.get(dependent) == State.WAITING) {
+                states.put(dependent, State.SKIPPED);
+                skipDependents(dependent);
+            }
+        }
+    }
+
+    /**
+     * Sends the current progress to the source. Players get it in their
+     * action bar so it replaces the previous update, other sources
+     * get a chat message.
+     */
+    private void sendProgress() {
+
+        // Guard - Job may run without a source
+        if (source == null) {
+            return;
+        }
+
+        Map<String, String> counts = getStateCounts();
+
+        if (source instanceof Player player) {
+            player.sendActionBar(
+                translationsManager.translateAsMiniMessage("commands.start.bulk.progress", counts)
+            );
+        } else {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.start.bulk.progress", counts)
+            );
+        }
+    }
+
+    /**
+     * Sends the final summary to the source.
+     */
+    private void sendSummary() {
+
+        // Guard - Job may run without a source
+        if (source == null) {
+            return;
+        }
+
+        Map<String, String> variables = new HashMap<>(getStateCounts());
+
+        List<String> failedServers = new ArrayList<>();
+        synchronized (this) {
+            states.forEach((serverName, state) -> {
+                if (state == State.FAILED || state == State.SKIPPED) {
+                    failedServers.add(serverName);
+                }
+            });
+        }
+        variables.put("failed_servers", failedServers.isEmpty() ? "-" : String.join(", ", failedServers));
+
+        source.sendMessage(
+            translationsManager.translateAsMiniMessage("commands.start.bulk.finished", variables)
+        );
+    }
+
+    /**
+     * @return a copy of the current state of every server in this job
+     */
+    public synchronized Map<String, State> getStates() {
+        return new LinkedHashMap<>(states);
+    }
+
+    /**
+     * @return a CompletableFuture that completes once the job has finished
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * @return the amount of servers per state, as translation variables
+     */
+    private synchronized Map<String, String> getStateCounts() {
+        Map<String, String> counts = new HashMap<>();
+        for (State state : State.values()) {
+            long count = states.values().stream().filter(value -> value == state).count();
+            counts.put(state.name().toLowerCase(), String.valueOf(count));
+        }
+        counts.put("total", String.valueOf(states.size()));
+
+        return counts;
+    }
+
+    /**
+     * Searches the dependency graph for a cycle.
+     *
+     * @param dependencies server -> servers it depends on
+     * @return the servers forming a cycle (first server repeated at the
+     *         end), or null if the graph is acyclic
+     */
+    private static List<String> findCycle(Map<String, List<String>> dependencies) {
+        Set<String> visited = new HashSet<>();
+        Deque<String> path = new ArrayDeque<>();
+
+        for (String serverName : dependencies.keySet()) {
+            List<String> cycle = findCycle(serverName, dependencies, visited, path);
+            if (cycle != null) {
+                return cycle;
+            }
+        }
+
+        return null;
+    }
+
+    private static List<String> findCycle(String serverName, Map<String, List<String>> dependencies, Set<String> visited, Deque<String> path) {
+        if (path.contains(serverName)) {
+            List<String> cycle = new ArrayList<>();
+            Iterator<String> iterator = path.descendingIterator();
+            boolean inCycle = false;
+            while (iterator.hasNext()) {
+                String pathServer = iterator.next();
+                if (pathServer.equals(serverName)) {
+                    inCycle = true;
+                }
+                if (inCycle) {
+                    cycle.add(pathServer);
+                }
+            }
+            cycle.add(serverName);
+
+            return cycle;
+        }
+
+        if (!visited.add(serverName)) {
+            return null;
+        }
+
+        path.push(serverName);
+        for (String dependency : dependencies.getOrDefault(serverName, List.of())) {
+            List<String> cycle = findCycle(dependency, dependencies, visited, path);
+            if (cycle != null) {
+                return cycle;
+            }
+        }
+        path.pop();
+
+        return null;
+    }
+
+    /**
+     * Thrown when the dependencies of a bulk start cannot be resolved.
+     * The message is already translated and can be shown to the user.
+     */
+    public static class DependencyException extends Exception {
+
+        public DependencyException(String message) {
+            super(message);
+        }
+    }
+}
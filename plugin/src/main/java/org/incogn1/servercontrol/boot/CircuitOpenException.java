@@ -0,0 +1,26 @@
+package org.incogn1.servercontrol.boot;
+
+/**
+ * Thrown when a server may not be started because its boots have
+ * failed too often, see {@link BootCircuitBreaker}.
+ */
+public class CircuitOpenException extends Exception {
+
+    private final long retryAfterMillis;
+
+    /**
+     * @param serverName the name of the server
+     * @param retryAfterMillis the time until the next boot attempt is allowed
+     */
+    public CircuitOpenException(String serverName, long retryAfterMillis) {
+        super("Server " + serverName + " failed to boot too often, retry in " + (retryAfterMillis / 1000) + " seconds");
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * @return the time (in milliseconds) until the next boot attempt is allowed
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,126 @@
+package org.incogn1.servercontrol.boot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Reads live resource usage of the host from the Linux /proc filesystem.
+ * <p>
+ * Values that cannot be read (e.g. on other operating systems or kernels
+ * without PSI support) are reported as -1, so they can be ignored.
+ */
+public class HostResourceMonitor {
+
+    private static final Path MEMINFO_PATH = Paths.get("/proc/meminfo");
+    private static final Path LOADAVG_PATH = Paths.get("/proc/loadavg");
+    private static final Path CPU_PRESSURE_PATH = Paths.get("/proc/pressure/cpu");
+    private static final Path IO_PRESSURE_PATH = Paths.get("/proc/pressure/io");
+    private static final Path MEMORY_PRESSURE_PATH = Paths.get("/proc/pressure/memory");
+
+    /** Readings younger than this are reused instead of reading /proc again */
+    private static final long SNAPSHOT_MAX_AGE_MILLIS = 1000;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * A point in time reading of the host's resources.
+     *
+     * @param availableMemoryMb the MemAvailable value in megabytes
+     * @param loadPerCore the 1 minute load average divided by the amount of cores
+     * @param cpuPressure the 10 second average of the CPU 'some' pressure, in percent
+     * @param ioPressure the 10 second average of the IO 'some' pressure, in percent
+     * @param memoryPressure the 10 second average of the memory 'some' pressure, in percent
+     * @param timestamp the time the reading was taken, in milliseconds
+     */
+    public record Snapshot(
+            long availableMemoryMb,
+            double loadPerCore,
+            double cpuPressure,
+            double ioPressure,
+            double memoryPressure,
+            long timestamp) {
+    }
+
+    /**
+     * Returns a recent reading of the host's resources.
+     *
+     * @return the Snapshot, at most one second old
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        long now = System.currentTimeMillis();
+
+        if (current == null || now - current.timestamp() > SNAPSHOT_MAX_AGE_MILLIS) {
+            current = new Snapshot(
+                readAvailableMemoryMb(),
+                readLoadPerCore(),
+                readPressure(CPU_PRESSURE_PATH),
+                readPressure(IO_PRESSURE_PATH),
+                readPressure(MEMORY_PRESSURE_PATH),
+                now
+            );
+            snapshot = current;
+        }
+
+        return current;
+    }
+
+    /**
+     * @return the MemAvailable value from /proc/meminfo in megabytes, or -1
+     */
+    private long readAvailableMemoryMb() {
+        try {
+            for (String line : Files.readAllLines(MEMINFO_PATH)) {
+                if (line.startsWith("MemAvailable:")) {
+                    String[] parts = line.trim().split("\\s+");
+                    return Long.parseLong(parts[1]) / 1024;
+                }
+            }
+        } catch (IOException | RuntimeException ignore) {}
+
+        return -1;
+    }
+
+    /**
+     * @return the 1 minute load average from /proc/loadavg divided
+     *         by the amount of available cores, or -1
+     */
+    private double readLoadPerCore() {
+        try {
+            String[] parts = Files.readString(LOADAVG_PATH).trim().split("\\s+");
+            return Double.parseDouble(parts[0]) / Runtime.getRuntime().availableProcessors();
+        } catch (IOException | RuntimeException ignore) {}
+
+        return -1;
+    }
+
+    /**
+     * Reads the avg10 value of the 'some' line of a PSI file.
+     * <p>
+     * Example line: some avg10=1.23 avg60=0.80 avg300=0.20 total=123456
+     *
+     * @param path the path to the pressure file
+     * @return the avg10 value in percent, or -1
+     */
+    private double readPressure(Path path) {
+        try {
+            List<String> lines = Files.readAllLines(path);
+            for (String line : lines) {
+                if (!line.startsWith("some")) {
+                    continue;
+                }
+
+                for (String field : line.split("\\s+")) {
+                    if (field.startsWith("avg10=")) {
+                        return Double.parseDouble(field.substring("avg10=".length()));
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException ignore) {}
+
+        return -1;
+    }
+}
@@ -0,0 +1,329 @@
+package org.incogn1.servercontrol.commands;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
+import dev.dejvokep.boostedyaml.route.Route;
+import org.incogn1.servercontrol.commands.subcommands.HelpCommand;
+import org.incogn1.servercontrol.commands.subcommands.*;
+import org.incogn1.servercontrol.jfr.CommandExecutionEvent;
+import org.incogn1.servercontrol.metrics.LatencyRecorder;
+
+import java.util.*;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * The /sc command.
+ * <p>
+ * The subcommands are registered as a Brigadier command tree, so clients
+ * parse the command and check its structure themselves. The permission of
+ * every subcommand is a requirement of its node, which is evaluated when
+ * the tree is sent to a player instead of on every keystroke. Arguments
+ * that depend on the values of earlier arguments (such as the permission
+ * for a specific server) are checked once when the command is executed.
+ */
+public class BaseCommand {
+
+    private final Map<String, SimpleCommandWithHelpMenuData> commands;
+
+    private final SuggestionIndex suggestionIndex;
+
+    private final boolean usePermissions;
+
+    /** Latency recorders per subcommand, looked up once so recording does not allocate */
+    private final Map<String, LatencyRecorder> executeLatencies = new HashMap<>();
+
+    public BaseCommand() {
+        this.commands = new LinkedHashMap<>();
+
+        // Add all commands to map
+        commands.put("help", null); // Just here for ordering purposes, replaced later
+        commands.put("list", new ListCommand());
+        commands.put("status", new StatusCommand());
+        commands.put("info", new InfoCommand());
+        commands.put("start", new StartCommand());
+        commands.put("stop", new StopCommand());
+        commands.put("restart", new RestartCommand());
+        commands.put("provision", new ProvisionCommand());
+        commands.put("join", new JoinCommand());
+        commands.put("cancel_join", new CancelJoinCommand());
+        commands.put("run_as", new RunAsCommand(this));
+        commands.put("profile", new ProfileCommand());
+        commands.put("trace", new TraceCommand());
+        commands.put("reset", new ResetCommand());
+
+        // Help command
+        commands.replace("help", new HelpCommand(commands));
+
+        this.suggestionIndex = new SuggestionIndex(commands.keySet());
+        this.usePermissions = config.getBoolean(Route.from("use-permissions"));
+
+        // Metrics - "none" for the base command, "unknown" for unknown subcommands
+        List<String> metricLabels = new ArrayList<>(commands.keySet());
+        metricLabels.add("none");
+        metricLabels.add("unknown");
+        for (String command : metricLabels) {
+            executeLatencies.put(command, metricsRegistry.latency(
+                "servercontrol_command_execute_seconds",
+                "Time taken to execute a /sc subcommand",
+                "command", command
+            ));
+        }
+    }
+
+    /**
+     * Builds the command tree of /sc.
+     *
+     * @return the command to register with the proxy
+     */
+    public BrigadierCommand createBrigadierCommand() {
+        LiteralArgumentBuilder<CommandSource> root = BrigadierCommand.literalArgumentBuilder("servercontrol")
+            .requires(source -> !usePermissions || source.hasPermission("servercontrol.base"))
+            .executes(context -> execute(context.getSource(), context.getSource(), new String[0]));
+
+        for (LiteralArgumentBuilder<CommandSource> node : buildSubcommandNodes(
+            (context, arguments) -> execute(context.getSource(), context.getSource(), arguments),
+            Set.of()
+        )) {
+            root.then(node);
+        }
+
+        // Anything that is not a subcommand, literals take precedence over this argument
+        root.then(
+            BrigadierCommand.requiredArgumentBuilder("subcommand", StringArgumentType.greedyString())
+                .executes(context -> execute(
+                    context.getSource(),
+                    context.getSource(),
+                    StringArgumentType.getString(context, "subcommand").split(" +")
+                ))
+        );
+
+        return new BrigadierCommand(root);
+    }
+
+    /**
+     * Builds the nodes of the subcommands. The runner is given the name of
+     * the subcommand followed by its arguments.
+     *
+     * @param runner runs the subcommands
+     * @param excluded the names of the subcommands to leave out
+     * @return a literal node per subcommand
+     */
+    public List<LiteralArgumentBuilder<CommandSource>> buildSubcommandNodes(SubcommandRunner runner, Set<String> excluded) {
+        List<LiteralArgumentBuilder<CommandSource>> nodes = new ArrayList<>();
+
+        commands.forEach((name, command) -> {
+
+            // Guard - Left out by the caller
+            if (excluded.contains(name)) {
+                return;
+            }
+
+            SubcommandRunner subcommandRunner = (context, arguments) -> {
+                String[] args = new String[arguments.length + 1];
+                args[0] = name;
+                System.arraycopy(arguments, 0, args, 1, arguments.length);
+
+                return runner.run(context, args);
+            };
+
+            LiteralArgumentBuilder<CommandSource> node = BrigadierCommand.literalArgumentBuilder(name)
+                .requires(source -> !usePermissions || command.hasPermission(new SubcommandInvocation(source, new String[]{ name })))
+                .executes(context -> subcommandRunner.run(context));
+
+            command.addArguments(node, subcommandRunner, suggestionIndex);
+            nodes.add(node);
+        });
+
+        return nodes;
+    }
+
+    /**
+     * Executes a subcommand.
+     *
+     * @param issuer the source that issued the command, whose permissions are checked
+     * @param source the source to execute the command as
+     * @param args the name of the subcommand followed by its arguments,
+     *             or no arguments at all for the base command
+     * @return the result of the command
+     */
+    public int execute(CommandSource issuer, CommandSource source, String[] args) {
+        return execute(issuer, source, null, args);
+    }
+
+    /**
+     * Executes a subcommand as several players at once. Permissions and
+     * rate limits are checked once for the whole batch, see {@link BatchCommand}.
+     *
+     * @param issuer the source that issued the command, whose permissions are checked
+     * @param players the players to execute the command as
+     * @param args the name of the subcommand followed by its arguments,
+     *             or no arguments at all for the base command
+     * @return the result of the command
+     */
+    public int execute(CommandSource issuer, List<Player> players, String[] args) {
+        return execute(issuer, issuer, players, args);
+    }
+
+    /**
+     * @param source the source to execute the command as, or the issuer
+     *               when executing for a batch of players
+     * @param players the players of the batch, null for a single source
+     */
+    private int execute(CommandSource issuer, CommandSource source, List<Player> players, String[] args) {
+        CommandExecutionEvent event = new CommandExecutionEvent();
+        event.begin();
+
+        long startNanos = System.nanoTime();
+        try {
+            executeSubcommand(issuer, source, players, args);
+        } finally {
+            getLatencyRecorder(executeLatencies, args).recordSince(startNanos);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.subcommand = args.length > 0 ? args[0] : "";
+                event.arguments = String.join(" ", args);
+                if (players != null) {
+                    event.source = players.size() + " players";
+                } else {
+                    event.source = source instanceof Player player ? player.getUsername() : "console";
+                }
+                event.commit();
+            }
+        }
+
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private void executeSubcommand(CommandSource issuer, CommandSource source, List<Player> players, String[] args) {
+
+        // Base command
+        if (args.length == 0) {
+            String authors = String.join(", ", PLUGIN_AUTHORS);
+
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.base.no_sub_command",
+                    Map.of(
+                        "plugin", PLUGIN_NAME,
+                        "version", PLUGIN_VERSION,
+                        "authors", authors
+                    )
+                )
+            );
+
+            return;
+        }
+
+        String command = args[0];
+
+        // Guard - Subcommand must exist
+        if (!commands.containsKey(command)) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.base.unknown_sub_command",
+                    Map.of(
+                        "command", command
+                    )
+                )
+            );
+            return;
+        }
+
+        SimpleCommandWithHelpMenuData subcommand = commands.get(command);
+
+        // Guard - Permissions for the given arguments, the node only checked the subcommand itself
+        if (usePermissions && !subcommand.hasPermission(new SubcommandInvocation(issuer, args))) {
+            issuer.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.base.no_permission",
+                    Map.of(
+                        "command", "/sc " + String.join(" ", args)
+                    )
+                )
+            );
+            return;
+        }
+
+        CommandRateLimiter.ExecutionKey executionKey = commandRateLimiter.begin(issuer, source, args);
+
+        // Guard - The same command is still executing, drop this one
+        if (executionKey == null) {
+            issuer.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.base.already_executing",
+                    Map.of(
+                        "command", "/sc " + command
+                    )
+                )
+            );
+            return;
+        }
+
+        try {
+            long retryMillis = commandRateLimiter.tryAcquire(issuer, command);
+
+            // Guard - Issuer must have budget left for the subcommand
+            if (retryMillis > 0) {
+                issuer.sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        "commands.base.rate_limited",
+                        Map.of(
+                            "command", "/sc " + command,
+                            "seconds", String.valueOf((retryMillis + 999) / 1000)
+                        )
+                    )
+                );
+                return;
+            }
+
+            // Single source
+            if (players == null) {
+                subcommand.execute(new SubcommandInvocation(source, args));
+                return;
+            }
+
+            // Batch -> once for all players if the subcommand supports it, otherwise per player
+            if (subcommand instanceof BatchCommand batchCommand) {
+                batchCommand.executeBatch(issuer, players, args);
+                return;
+            }
+
+            for (Player player : players) {
+                subcommand.execute(new SubcommandInvocation(player, args));
+            }
+
+            issuer.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.run_as.batch_success",
+                    Map.of(
+                        "command", "/sc " + String.join(" ", args),
+                        "players", String.valueOf(players.size())
+                    )
+                )
+            );
+        } finally {
+            commandRateLimiter.finish(executionKey);
+        }
+    }
+
+    /**
+     * @param recorders the recorders to pick from
+     * @param args the arguments of the invocation
+     * @return the recorder for the subcommand in the arguments
+     */
+    private LatencyRecorder getLatencyRecorder(Map<String, LatencyRecorder> recorders, String[] args) {
+        if (args.length == 0) {
+            return recorders.get("none");
+        }
+
+        LatencyRecorder recorder = recorders.get(args[0]);
+
+        return recorder != null ? recorder : recorders.get("unknown");
+    }
+}
@@ -0,0 +1,28 @@
+package org.incogn1.servercontrol.commands;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
+
+import java.util.List;
+
+/**
+ * A subcommand that can be executed for many players at once, e.g. by
+ * /sc run_as with a selector. Work that does not depend on the player
+ * (such as pinging or starting the server) is done once for the whole
+ * batch, and the issuer gets a single summary instead of a message per
+ * player.
+ * <p>
+ * Subcommands that do not implement this are executed once per player.
+ */
+public interface BatchCommand {
+
+    /**
+     * Executes the command as every given player. Permissions have been
+     * checked for the issuer already.
+     *
+     * @param issuer the source that issued the command, receives the summary
+     * @param players the players to execute the command as
+     * @param args the name of the subcommand followed by its arguments
+     */
+    void executeBatch(CommandSource issuer, List<Player> players, String[] args);
+}
@@ -0,0 +1,273 @@
+package org.incogn1.servercontrol.commands;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
+import org.incogn1.servercontrol.metrics.Counter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.incogn1.servercontrol.ServerControl.metricsRegistry;
+
+/**
+ * Limits how often players can use the subcommands that ping servers or
+ * start them (see rate-limit in the config), so a player with a macro
+ * cannot flood the network with pings and startup scripts.
+ * <p>
+ * Every player has a token bucket per limited subcommand. A bucket is kept
+ * as a single theoretical arrival time (GCRA): every use moves it ahead by
+ * the time it takes to refill one use, and a use is allowed as long as it
+ * does not run further ahead of the current time than the burst allows.
+ * The arrival times are updated with a compare-and-set, so checking the
+ * budget takes no locks and allocates nothing once the player has buckets.
+ * Bypass permissions are only checked for players that are out of budget.
+ * <p>
+ * Repeated commands of a player are coalesced: while one is executing,
+ * the same subcommand with the same arguments for the same target is
+ * dropped instead of pinging the server again. This allocates a key for
+ * every tracked command.
+ * <p>
+ * The buckets of players that have not used a limited subcommand for the
+ * idle time are evicted by the first command after each sweep interval.
+ * An idle bucket is full, so evicting it does not change the budget.
+ * The console and other non-player sources are never limited.
+ */
+public class CommandRateLimiter {
+
+    /**
+     * The budget of a subcommand.
+     *
+     * @param burst the amount of uses allowed right away
+     * @param perSecond the amount of uses refilled every second
+     */
+    public record Budget(int burst, double perSecond) {
+    }
+
+    /**
+     * A command that is executing.
+     *
+     * @param issuer the id of the player that issued the command
+     * @param target the id of the player the command is executed as,
+     *               or null if it is not executed as a player
+     * @param command the index of the subcommand
+     * @param arguments the arguments of the subcommand, lowercased and separated by single spaces
+     */
+    public record ExecutionKey(UUID issuer, UUID target, int command, String arguments) {
+    }
+
+    /** Returned by {@link #begin(CommandSource, CommandSource, String[])} for commands that are not tracked */
+    public static final ExecutionKey UNTRACKED = new ExecutionKey(null, null, -1, "");
+
+    /** Index of each limited subcommand in the bucket arrays */
+    private final Map<String, Integer> commandIndexes = new HashMap<>();
+
+    /** The time it takes to refill a single use, per subcommand */
+    private final long[] refillNanos;
+
+    /** The furthest the arrival time may be ahead of the current time, per subcommand */
+    private final long[] toleranceNanos;
+
+    private final Counter[] limitedCounters;
+    private final Counter[] coalescedCounters;
+
+    private final boolean enabled;
+
+    private final long idleNanos;
+
+    /** The theoretical arrival times of the buckets of every player */
+    private final Map<UUID, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+
+    /** Commands that are executing */
+    private final Set<ExecutionKey> executing = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong nextSweepNanos;
+
+    /**
+     * @param enabled whether to limit the subcommands at all
+     * @param budgets the budgets of the limited subcommands by name
+     * @param idleMillis the time after which the buckets of a player that
+     *                   stopped using the subcommands are evicted
+     */
+    public CommandRateLimiter(boolean enabled, Map<String, Budget> budgets, long idleMillis) {
+        this.enabled = enabled && !budgets.isEmpty();
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1000, idleMillis));
+        this.nextSweepNanos = new AtomicLong(System.nanoTime() + idleNanos);
+
+        this.refillNanos = new long[budgets.size()];
+        this.toleranceNanos = new long[budgets.size()];
+        this.limitedCounters = new Counter[budgets.size()];
+        this.coalescedCounters = new Counter[budgets.size()];
+
+        int index = 0;
+        for (Map.Entry<String, Budget> entry : budgets.entrySet()) {
+            Budget budget = entry.getValue();
+
+            commandIndexes.put(entry.getKey(), index);
+            refillNanos[index] = (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(0.001, budget.perSecond()));
+            toleranceNanos[index] = refillNanos[index] * Math.max(1, budget.burst());
+
+            limitedCounters[index] = metricsRegistry.counter(
+                "servercontrol_command_rate_limited_total",
+                "Amount of /sc subcommands rejected because the player was out of budget",
+                "command", entry.getKey()
+            );
+            coalescedCounters[index] = metricsRegistry.counter(
+                "servercontrol_command_coalesced_total",
+                "Amount of /sc subcommands dropped because the same command was still executing",
+                "command", entry.getKey()
+            );
+
+            index++;
+        }
+    }
+
+    /**
+     * Takes a use from the budget of the source for the subcommand.
+     *
+     * @param source the source that issued the command
+     * @param command the name of the subcommand
+     * @return 0 if the command may run, otherwise the time (in
+     *         milliseconds) until the source has budget again
+     */
+    public long tryAcquire(CommandSource source, String command) {
+
+        // Guard - Only players using limited subcommands
+        if (!enabled || !(source instanceof Player player)) {
+            return 0;
+        }
+
+        Integer index = commandIndexes.get(command);
+        if (index == null) {
+            return 0;
+        }
+
+        long now = System.nanoTime();
+        sweepIfDue(now);
+
+        AtomicLongArray arrivalTimes = buckets.computeIfAbsent(player.getUniqueId(), id -> newBuckets(now));
+
+        while (true) {
+            long arrivalTime = arrivalTimes.get(index);
+            long nextArrivalTime = Math.max(arrivalTime - now, 0) + now + refillNanos[index];
+            long ahead = nextArrivalTime - now;
+
+            // Out of budget
+            if (ahead > toleranceNanos[index]) {
+                if (hasBypass(source, command)) {
+                    return 0;
+                }
+
+                limitedCounters[index].increment();
+                return TimeUnit.NANOSECONDS.toMillis(ahead - toleranceNanos[index]) + 1;
+            }
+
+            if (arrivalTimes.compareAndSet(index, arrivalTime, nextArrivalTime)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Marks a command of the source as executing, unless the same
+     * subcommand with the same arguments is executing already for the
+     * same target.
+     *
+     * @param issuer the source that issued the command
+     * @param source the source the command is executed as
+     * @param args the name of the subcommand followed by its arguments
+     * @return the key to pass to {@link #finish(ExecutionKey)} once the
+     *         command has executed ({@link #UNTRACKED} if the command is not
+     *         tracked), or null if the same command is executing and this
+     *         one should be dropped
+     */
+    public ExecutionKey begin(CommandSource issuer, CommandSource source, String[] args) {
+
+        // Guard - Only players using limited subcommands
+        if (!enabled || !(issuer instanceof Player player) || args.length == 0) {
+            return UNTRACKED;
+        }
+
+        Integer index = commandIndexes.get(args[0]);
+        if (index == null) {
+            return UNTRACKED;
+        }
+
+        // The same command run for another player with run_as is not the same request
+        UUID target = source instanceof Player targetPlayer ? targetPlayer.getUniqueId() : null;
+        ExecutionKey key = new ExecutionKey(player.getUniqueId(), target, index, normalizeArguments(args));
+
+        if (!executing.add(key)) {
+            coalescedCounters[index].increment();
+            return null;
+        }
+
+        return key;
+    }
+
+    /**
+     * @param key the key returned by {@link #begin(CommandSource, CommandSource, String[])}
+     */
+    public void finish(ExecutionKey key) {
+        if (key != UNTRACKED) {
+            executing.remove(key);
+        }
+    }
+
+    /**
+     * @param args the name of the subcommand followed by its arguments
+     * @return the arguments after the name, lowercased like server and
+     *         player names are matched, separated by single spaces
+     */
+    private static String normalizeArguments(String[] args) {
+        StringJoiner arguments = new StringJoiner(" ");
+        for (int i = 1; i < args.length; i++) {
+            if (!args[i].isBlank()) {
+                arguments.add(args[i].trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        return arguments.toString();
+    }
+
+    private AtomicLongArray newBuckets(long now) {
+        AtomicLongArray arrivalTimes = new AtomicLongArray(refillNanos.length);
+        for (int i = 0; i < refillNanos.length; i++) {
+            arrivalTimes.set(i, now);
+        }
+
+        return arrivalTimes;
+    }
+
+    private boolean hasBypass(CommandSource source, String command) {
+        return source.hasPermission("servercontrol.rate_limit.bypass")
+            || source.hasPermission("servercontrol.rate_limit.bypass." + command);
+    }
+
+    /**
+     * Evicts the buckets that have been full for the idle time. Only the
+     * thread that moves the next sweep time ahead sweeps.
+     */
+    private void sweepIfDue(long now) {
+        long nextSweep = nextSweepNanos.get();
+
+        // Guard - Not due yet, or another thread is sweeping
+        if (now - nextSweep < 0 || !nextSweepNanos.compareAndSet(nextSweep, now + idleNanos)) {
+            return;
+        }
+
+        buckets.entrySet().removeIf(entry -> isIdle(entry.getValue(), now));
+    }
+
+    private boolean isIdle(AtomicLongArray arrivalTimes, long now) {
+        for (int i = 0; i < arrivalTimes.length(); i++) {
+            if (now - arrivalTimes.get(i) < idleNanos) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
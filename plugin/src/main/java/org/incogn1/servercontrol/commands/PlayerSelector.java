@@ -0,0 +1,114 @@
+package org.incogn1.servercontrol.commands;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+
+import java.util.*;
+
+import static org.incogn1.servercontrol.ServerControl.proxy;
+
+/**
+ * Resolves the players /sc run_as is run for.
+ * <p>
+ * A selection is a comma separated list of player names and selectors:
+ * <ul>
+ *     <li>@all - every player on the proxy</li>
+ *     <li>@server:[name] - every player on the given server</li>
+ *     <li>@perm:[node] - every player with the given permission</li>
+ * </ul>
+ * Names and servers are looked up in the indexes the proxy keeps anyway
+ * (players by name, players per server), so a selection never walks all
+ * players unless it uses @all or @perm. A player selected more than once
+ * is only included once.
+ */
+public final class PlayerSelector {
+
+    public static final String ALL = "@all";
+    public static final String SERVER_PREFIX = "@server:";
+    public static final String PERMISSION_PREFIX = "@perm:";
+
+    /**
+     * The players of a selection.
+     *
+     * @param players the selected players, in the order they were selected
+     * @param unresolved the first entry of the selection that is not an
+     *                   online player, an existing server or a selector,
+     *                   null if every entry was resolved
+     */
+    public record Result(List<Player> players, String unresolved) {
+    }
+
+    private PlayerSelector() {}
+
+    /**
+     * @param argument the argument given to run_as
+     * @return true if the argument selects players with selectors or a
+     *         list, false if it is the name of a single player
+     */
+    public static boolean isSelection(String argument) {
+        return argument.startsWith("@") || argument.contains(",");
+    }
+
+    /**
+     * @param selection the selection to resolve
+     * @return the selected players
+     */
+    public static Result resolve(String selection) {
+        Map<UUID, Player> players = new LinkedHashMap<>();
+
+        for (String entry : selection.split(",")) {
+
+            // Guard - Skip empty entries of e.g. "a,,b"
+            if (entry.isEmpty()) {
+                continue;
+            }
+
+            Collection<Player> selected = resolveEntry(entry);
+            if (selected == null) {
+                return new Result(List.copyOf(players.values()), entry);
+            }
+
+            for (Player player : selected) {
+                players.putIfAbsent(player.getUniqueId(), player);
+            }
+        }
+
+        return new Result(List.copyOf(players.values()), null);
+    }
+
+    /**
+     * @param entry a single entry of a selection
+     * @return the players of the entry, or null if the entry can not be resolved
+     */
+    private static Collection<Player> resolveEntry(String entry) {
+        if (entry.equals(ALL)) {
+            return proxy.getAllPlayers();
+        }
+
+        if (entry.startsWith(SERVER_PREFIX)) {
+            return proxy.getServer(entry.substring(SERVER_PREFIX.length()))
+                .map(RegisteredServer::getPlayersConnected)
+                .orElse(null);
+        }
+
+        if (entry.startsWith(PERMISSION_PREFIX)) {
+            String permission = entry.substring(PERMISSION_PREFIX.length());
+
+            // Guard - Permission must be given
+            if (permission.isEmpty()) {
+                return null;
+            }
+
+            return proxy.getAllPlayers().stream()
+                .filter(player -> player.hasPermission(permission))
+                .toList();
+        }
+
+        // Guard - Unknown selector
+        if (entry.startsWith("@")) {
+            return null;
+        }
+
+        return proxy.getPlayer(entry).map(List::of).orElse(null);
+    }
+}
@@ -0,0 +1,25 @@
+package org.incogn1.servercontrol.commands;
+
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.command.SimpleCommand;
+import org.jetbrains.annotations.NotNull;
+
+public interface SimpleCommandWithHelpMenuData extends SimpleCommand {
+    @NotNull
+    HelpMenuData getHelpMenuData();
+
+    /**
+     * Adds the arguments of the command to its node in the /sc command
+     * tree. Every argument node that completes the command should execute
+     * it through the runner, with the values of the arguments parsed up
+     * to that node. The literal node itself already executes the command
+     * without arguments.
+     *
+     * @param node the literal node of the command
+     * @param runner runs the command with the given arguments
+     * @param suggestions the suggestion providers to use for the arguments
+     */
+    default void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+    }
+}
@@ -0,0 +1,19 @@
+package org.incogn1.servercontrol.commands;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.command.SimpleCommand;
+
+/**
+ * The invocation a subcommand is executed with, built from the values
+ * parsed by the command tree.
+ *
+ * @param source the source the subcommand is executed as
+ * @param arguments the name of the subcommand followed by its arguments
+ */
+public record SubcommandInvocation(CommandSource source, String[] arguments) implements SimpleCommand.Invocation {
+
+    @Override
+    public String alias() {
+        return "servercontrol";
+    }
+}
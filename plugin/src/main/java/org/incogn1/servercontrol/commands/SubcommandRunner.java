@@ -0,0 +1,18 @@
+package org.incogn1.servercontrol.commands;
+
+import com.mojang.brigadier.context.CommandContext;
+import com.velocitypowered.api.command.CommandSource;
+
+/**
+ * Runs a subcommand from a node of the /sc command tree.
+ */
+@FunctionalInterface
+public interface SubcommandRunner {
+
+    /**
+     * @param context the context of the parsed command
+     * @param arguments the arguments after the name of the subcommand
+     * @return the result of the command, see {@link com.mojang.brigadier.Command}
+     */
+    int run(CommandContext<CommandSource> context, String... arguments);
+}
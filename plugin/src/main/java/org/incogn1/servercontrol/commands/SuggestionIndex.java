@@ -0,0 +1,288 @@
+package org.incogn1.servercontrol.commands;
+
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import org.incogn1.servercontrol.metrics.LatencyRecorder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * The suggestion providers of the /sc command tree.
+ * <p>
+ * Suggestions are looked up in sorted snapshots of the names that can be
+ * suggested, so a keystroke costs a binary search instead of a walk over
+ * every registered server or a listing of the templates directory.
+ * Server and template names are re-read at most once per refresh interval,
+ * as servers are registered and templates added while the proxy runs.
+ * Group names do not change until the proxy restarts.
+ */
+public class SuggestionIndex {
+
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private static final String GROUP_PREFIX = "group:";
+
+    /**
+     * Sorted names, taken at a point in time.
+     *
+     * @param names the sorted names
+     * @param takenNanos when the names were read
+     */
+    private record Snapshot(String[] names, long takenNanos) {
+    }
+
+    /** Null until first read */
+    private volatile Snapshot serverNames;
+
+    private volatile Snapshot templateNames;
+
+    private final String[] groupTargets;
+
+    private final String[] subcommandNames;
+
+    private final Map<String, LatencyRecorder> suggestLatencies = new HashMap<>();
+
+    /**
+     * @param subcommandNames the names of all subcommands
+     */
+    public SuggestionIndex(Collection<String> subcommandNames) {
+        this.subcommandNames = sorted(subcommandNames);
+        this.groupTargets = sorted(serverGroupManager.getGroupNames().stream().map(name -> GROUP_PREFIX + name).toList());
+
+        for (String suggestions : List.of("servers", "server_list", "join_targets", "templates", "players", "player_selection", "subcommands", "values")) {
+            suggestLatencies.put(suggestions, metricsRegistry.latency(
+                "servercontrol_command_suggest_seconds",
+                "Time taken to compute suggestions for a /sc argument",
+                "suggestions", suggestions
+            ));
+        }
+    }
+
+    /**
+     * @return suggests the names of registered servers
+     */
+    public SuggestionProvider<CommandSource> servers() {
+        return timed("servers", builder -> suggestPrefixed(builder, builder.getRemaining(), getServerNames()));
+    }
+
+    /**
+     * Suggests the names of registered servers for the last word of a
+     * space separated list of servers.
+     *
+     * @return the provider
+     */
+    public SuggestionProvider<CommandSource> serverList() {
+        return timed("server_list", builder -> {
+            String remaining = builder.getRemaining();
+            int lastWordStart = remaining.lastIndexOf(' ') + 1;
+
+            SuggestionsBuilder lastWord = builder.createOffset(builder.getStart() + lastWordStart);
+            suggestPrefixed(lastWord, remaining.substring(lastWordStart), getServerNames());
+            builder.add(lastWord);
+        });
+    }
+
+    /**
+     * Suggests the names of registered servers and of the groups, prefixed
+     * with "group:", for the first word of the argument.
+     *
+     * @return the provider
+     */
+    public SuggestionProvider<CommandSource> joinTargets() {
+        return timed("join_targets", builder -> {
+            String remaining = builder.getRemaining();
+
+            // Guard - Only the target itself is suggested
+            if (remaining.contains(" ")) {
+                return;
+            }
+
+            suggestPrefixed(builder, remaining, getServerNames());
+            suggestPrefixed(builder, remaining, groupTargets);
+        });
+    }
+
+    /**
+     * @return suggests the names of the provisioning templates
+     */
+    public SuggestionProvider<CommandSource> templates() {
+        return timed("templates", builder -> suggestPrefixed(builder, builder.getRemaining(), getTemplateNames()));
+    }
+
+    /**
+     * @return suggests the names of the players online on the proxy
+     */
+    public SuggestionProvider<CommandSource> players() {
+        return timed("players", builder -> {
+            String remaining = builder.getRemainingLowerCase();
+
+            for (Player player : proxy.getAllPlayers()) {
+                if (player.getUsername().toLowerCase(Locale.ROOT).startsWith(remaining)) {
+                    builder.suggest(player.getUsername());
+                }
+            }
+        });
+    }
+
+    /**
+     * Suggests the selectors and player names for the last entry of a
+     * comma separated selection (see {@link PlayerSelector}), and the
+     * subcommands once the selection is complete.
+     *
+     * @return the provider
+     */
+    public SuggestionProvider<CommandSource> playerSelection() {
+        return timed("player_selection", builder -> {
+            String remaining = builder.getRemaining();
+            int selectionEnd = remaining.indexOf(' ');
+
+            // Selection complete -> suggest the subcommand
+            if (selectionEnd >= 0) {
+                String subcommand = remaining.substring(selectionEnd + 1);
+
+                // Guard - Only the subcommand itself is suggested
+                if (subcommand.contains(" ")) {
+                    return;
+                }
+
+                SuggestionsBuilder subcommandBuilder = builder.createOffset(builder.getStart() + selectionEnd + 1);
+                suggestPrefixed(subcommandBuilder, subcommand, subcommandNames);
+                builder.add(subcommandBuilder);
+                return;
+            }
+
+            int entryStart = remaining.lastIndexOf(',') + 1;
+            String entry = remaining.substring(entryStart);
+            SuggestionsBuilder entryBuilder = builder.createOffset(builder.getStart() + entryStart);
+
+            for (String selector : List.of(PlayerSelector.ALL, PlayerSelector.SERVER_PREFIX, PlayerSelector.PERMISSION_PREFIX)) {
+                if (selector.startsWith(entry) && !selector.equals(entry)) {
+                    entryBuilder.suggest(selector);
+                }
+            }
+
+            // Servers -> suggest after the prefix, the names are sorted without it
+            if (entry.startsWith(PlayerSelector.SERVER_PREFIX)) {
+                SuggestionsBuilder serverBuilder = builder.createOffset(
+                    builder.getStart() + entryStart + PlayerSelector.SERVER_PREFIX.length()
+                );
+                suggestPrefixed(serverBuilder, entry.substring(PlayerSelector.SERVER_PREFIX.length()), getServerNames());
+                builder.add(serverBuilder);
+            }
+
+            // Players -> unless a selector is being typed
+            if (!entry.startsWith("@")) {
+                String lowerCaseEntry = entry.toLowerCase(Locale.ROOT);
+
+                for (Player player : proxy.getAllPlayers()) {
+                    if (player.getUsername().toLowerCase(Locale.ROOT).startsWith(lowerCaseEntry)) {
+                        entryBuilder.suggest(player.getUsername());
+                    }
+                }
+            }
+
+            builder.add(entryBuilder);
+        });
+    }
+
+    /**
+     * @return suggests the names of the subcommands
+     */
+    public SuggestionProvider<CommandSource> subcommands() {
+        return timed("subcommands", builder -> suggestPrefixed(builder, builder.getRemaining(), subcommandNames));
+    }
+
+    /**
+     * Suggests fixed values, only while nothing has been typed yet.
+     *
+     * @param values the values to suggest
+     * @return the provider
+     */
+    public SuggestionProvider<CommandSource> values(String... values) {
+        return timed("values", builder -> {
+            if (builder.getRemaining().isEmpty()) {
+                for (String value : values) {
+                    builder.suggest(value);
+                }
+            }
+        });
+    }
+
+    private SuggestionProvider<CommandSource> timed(String suggestions, Consumer<SuggestionsBuilder> suggester) {
+        LatencyRecorder recorder = suggestLatencies.get(suggestions);
+
+        return (context, builder) -> {
+            long startNanos = System.nanoTime();
+            try {
+                suggester.accept(builder);
+                return builder.buildFuture();
+            } finally {
+                recorder.recordSince(startNanos);
+            }
+        };
+    }
+
+    private String[] getServerNames() {
+        Snapshot snapshot = serverNames;
+
+        if (isStale(snapshot)) {
+            snapshot = refresh(() -> proxy.getAllServers().stream()
+                .map(RegisteredServer::getServerInfo)
+                .map(ServerInfo::getName)
+                .toList());
+            serverNames = snapshot;
+        }
+
+        return snapshot.names();
+    }
+
+    private String[] getTemplateNames() {
+        Snapshot snapshot = templateNames;
+
+        if (isStale(snapshot)) {
+            snapshot = refresh(instanceProvisioner::getTemplateNames);
+            templateNames = snapshot;
+        }
+
+        return snapshot.names();
+    }
+
+    private boolean isStale(Snapshot snapshot) {
+        return snapshot == null || System.nanoTime() - snapshot.takenNanos() > REFRESH_INTERVAL_NANOS;
+    }
+
+    private Snapshot refresh(Supplier<Collection<String>> names) {
+        return new Snapshot(sorted(names.get()), System.nanoTime());
+    }
+
+    private static String[] sorted(Collection<String> names) {
+        String[] sortedNames = names.toArray(new String[0]);
+        Arrays.sort(sortedNames);
+
+        return sortedNames;
+    }
+
+    /**
+     * Suggests the names starting with the prefix, which are found with a
+     * binary search as the names are sorted.
+     */
+    private static void suggestPrefixed(SuggestionsBuilder builder, String prefix, String[] sortedNames) {
+        int index = Arrays.binarySearch(sortedNames, prefix);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        for (; index < sortedNames.length && sortedNames[index].startsWith(prefix); index++) {
+            builder.suggest(sortedNames[index]);
+        }
+    }
+}
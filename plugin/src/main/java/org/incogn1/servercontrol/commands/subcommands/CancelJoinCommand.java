@@ -2,10 +2,14 @@ package org.incogn1.servercontrol.commands.subcommands;
 
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.proxy.Player;
+import org.incogn1.servercontrol.commands.BatchCommand;
 import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
 import org.incogn1.servercontrol.commands.HelpMenuData;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.incogn1.servercontrol.ServerControl.serverManager;
 import static org.incogn1.servercontrol.ServerControl.translationsManager;
 
@@ -14,7 +18,7 @@ import static org.incogn1.servercontrol.ServerControl.translationsManager;
  * <p>
  * Cancels any delayed join that the player might have active.
  */
-public class CancelJoinCommand implements SimpleCommandWithHelpMenuData {
+public class CancelJoinCommand implements SimpleCommandWithHelpMenuData, BatchCommand {
 
     @Override
     public void execute(Invocation invocation) {
@@ -39,6 +43,27 @@ public class CancelJoinCommand implements SimpleCommandWithHelpMenuData {
         );
     }
 
+    @Override
+    public void executeBatch(CommandSource issuer, List<Player> players, String[] args) {
+        for (Player player : players) {
+            serverManager.cancelDelayedPlayerJoin(player);
+            serverManager.cancelSourceNotifications(player);
+
+            player.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.cancel_join.cancelled_delayed_join")
+            );
+        }
+
+        issuer.sendMessage(
+            translationsManager.translateAsMiniMessage(
+                "commands.cancel_join.batch_cancelled",
+                Map.of(
+                    "players", String.valueOf(players.size())
+                )
+            )
+        );
+    }
+
     @Override
     public boolean hasPermission(final Invocation invocation) {
         return invocation.source().hasPermission("servercontrol.join");
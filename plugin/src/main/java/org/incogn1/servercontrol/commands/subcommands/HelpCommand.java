@@ -1,9 +1,15 @@
 package org.incogn1.servercontrol.commands.subcommands;
 
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
 import com.velocitypowered.api.command.CommandSource;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
+import org.incogn1.servercontrol.commands.SubcommandRunner;
+import org.incogn1.servercontrol.commands.SuggestionIndex;
 import org.incogn1.servercontrol.commands.HelpMenuData;
 import org.jetbrains.annotations.NotNull;
 
@@ -90,6 +96,23 @@ public class HelpCommand implements SimpleCommandWithHelpMenuData {
         return invocation.source().hasPermission("servercontrol.base");
     }
 
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("page_or_command", StringArgumentType.word())
+                .suggests(suggestions.subcommands())
+                .executes(context -> runner.run(context, StringArgumentType.getString(context, "page_or_command")))
+                .then(
+                    BrigadierCommand.requiredArgumentBuilder("page", IntegerArgumentType.integer(1))
+                        .executes(context -> runner.run(
+                            context,
+                            StringArgumentType.getString(context, "page_or_command"),
+                            String.valueOf(IntegerArgumentType.getInteger(context, "page"))
+                        ))
+                )
+        );
+    }
+
     @Override
     public @NotNull HelpMenuData getHelpMenuData() {
         return new HelpMenuData(
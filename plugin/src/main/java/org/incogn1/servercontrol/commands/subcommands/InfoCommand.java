@@ -1,15 +1,18 @@
 package org.incogn1.servercontrol.commands.subcommands;
 
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
+import org.incogn1.servercontrol.commands.SubcommandRunner;
+import org.incogn1.servercontrol.commands.SuggestionIndex;
 import org.incogn1.servercontrol.commands.HelpMenuData;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 
 import static org.incogn1.servercontrol.ServerControl.*;
@@ -80,25 +83,12 @@ public class InfoCommand implements SimpleCommandWithHelpMenuData {
     }
 
     @Override
-    public List<String> suggest(final Invocation invocation) {
-        List<String> suggestions = new ArrayList<>();
-        String[] args = invocation.arguments();
-
-        // Selecting server
-        if (args.length == 2) {
-            String serverArg = args[1];
-
-            serverManager.getServers().forEach((name, server) -> {
-                if (name.startsWith(serverArg)) {
-                    suggestions.add(name);
-                }
-            });
-
-            return suggestions;
-        }
-
-        // No suggestions
-        return suggestions;
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("server", StringArgumentType.word())
+                .suggests(suggestions.servers())
+                .executes(context -> runner.run(context, StringArgumentType.getString(context, "server")))
+        );
     }
 
     @Override
@@ -0,0 +1,326 @@
+package org.incogn1.servercontrol.commands.subcommands;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import org.incogn1.servercontrol.commands.BatchCommand;
+import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
+import org.incogn1.servercontrol.commands.SubcommandRunner;
+import org.incogn1.servercontrol.commands.SuggestionIndex;
+import org.incogn1.servercontrol.commands.HelpMenuData;
+import org.incogn1.servercontrol.groups.ServerGroup;
+import org.incogn1.servercontrol.groups.ServerGroupManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Command: join
+ * <p>
+ * When called, pings the server to see if it is online.
+ * <p>
+ * If the server is already online, the player that executed
+ * the command will be sent to the server.
+ * <p>
+ * If the server is offline, the server will first be started
+ * using the start.bat specified in the plugin's config. A
+ * separate thread will be started that watches for the server
+ * to start. After the server has successfully started, the
+ * player will be sent to it (unless they have used this command
+ * to join another server in the meantime).
+ * <p>
+ * Instead of a server, a group can be joined with group:[name]. The
+ * player is then sent to the best suited online member of the group
+ * without pinging, see {@link ServerGroupManager}. Players joining with
+ * the same party key are sent to the same member where possible.
+ */
+public class JoinCommand implements SimpleCommandWithHelpMenuData, BatchCommand {
+
+    private static final String GROUP_PREFIX = "group:";
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+
+        // Guard - Only players can use command
+        if (!(source instanceof Player player)) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.requires_player_source")
+            );
+            return;
+        }
+
+        String[] args = invocation.arguments();
+
+        // Guard - Missing server argument
+        if (args.length <= 1) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.start.missing_server_arg")
+            );
+            return;
+        }
+
+        String serverName = args[1];
+
+        // ---
+        // Group - Select a member, online members are joined without pinging
+        // ---
+        if (serverName.startsWith(GROUP_PREFIX)) {
+            String groupName = serverName.substring(GROUP_PREFIX.length());
+
+            // Guard - Group must exist
+            ServerGroup group = serverGroupManager.getGroup(groupName);
+            if (group == null) {
+                source.sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        "commands.join.group_not_found",
+                        Map.of(
+                            "group", groupName
+                        )
+                    )
+                );
+                return;
+            }
+
+            String partyKey = args.length >= 3 ? args[2] : player.getUniqueId().toString();
+            ServerGroupManager.Selection selection = serverGroupManager.select(group, partyKey);
+
+            // Guard - A member must be available
+            if (selection == null) {
+                source.sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        "commands.join.group_unavailable",
+                        Map.of(
+                            "group", groupName
+                        )
+                    )
+                );
+                return;
+            }
+
+            if (selection.online()) {
+                player.createConnectionRequest(serverManager.getServer(selection.serverName())).connectWithIndication();
+                return;
+            }
+
+            // No member online -> join the selected member like a regular server
+            serverName = selection.serverName();
+        }
+
+        // Guard - Server must exist
+        RegisteredServer server = serverManager.getServer(serverName);
+        if (server == null) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.start.server_not_found",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+            return;
+        }
+
+        // Guard - Server is being stopped, players are only held for a restart
+        if (serverStopper.isStopping(serverName)) {
+            serverStopper.holdForServer(player, serverName);
+            return;
+        }
+
+        boolean isOnline = serverManager.getServerOnlineState(serverName);
+
+        // ---
+        // Case A - Server is online -> Immediate join
+        // ---
+        if (isOnline) {
+            player.createConnectionRequest(server).connectWithIndication();
+            return;
+        }
+
+        // ---
+        // Case B - Server is offline -> Startup request + delayed join
+        // ---
+
+        // Set delayed player join
+        serverManager.setDelayedPlayerJoin(player, serverName);
+
+        // Run startup script
+        serverManager.startServerWithNotify(serverName, source);
+    }
+
+    /**
+     * Joins every player of a run_as selection to the same server, with a
+     * single ping and at most a single boot. A batch joining a group is
+     * kept together, like a party.
+     */
+    @Override
+    public void executeBatch(CommandSource issuer, List<Player> players, String[] args) {
+
+        // Guard - Missing server argument
+        if (args.length <= 1) {
+            issuer.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.start.missing_server_arg")
+            );
+            return;
+        }
+
+        String serverName = args[1];
+
+        // Group - Select a single member for the whole batch
+        if (serverName.startsWith(GROUP_PREFIX)) {
+            String groupName = serverName.substring(GROUP_PREFIX.length());
+
+            // Guard - Group must exist
+            ServerGroup group = serverGroupManager.getGroup(groupName);
+            if (group == null) {
+                issuer.sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        "commands.join.group_not_found",
+                        Map.of(
+                            "group", groupName
+                        )
+                    )
+                );
+                return;
+            }
+
+            String partyKey = args.length >= 3 ? args[2] : players.get(0).getUniqueId().toString();
+            ServerGroupManager.Selection selection = serverGroupManager.select(group, partyKey);
+
+            // Guard - A member must be available
+            if (selection == null) {
+                issuer.sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        "commands.join.group_unavailable",
+                        Map.of(
+                            "group", groupName
+                        )
+                    )
+                );
+                return;
+            }
+
+            if (selection.online()) {
+                connectAll(issuer, players, selection.serverName());
+                return;
+            }
+
+            // No member online -> join the selected member like a regular server
+            serverName = selection.serverName();
+        }
+
+        // Guard - Server must exist
+        RegisteredServer server = serverManager.getServer(serverName);
+        if (server == null) {
+            issuer.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.start.server_not_found",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+            return;
+        }
+
+        // Guard - Server is being stopped, players are only held for a restart
+        if (serverStopper.isStopping(serverName)) {
+            for (Player player : players) {
+                serverStopper.holdForServer(player, serverName);
+            }
+            return;
+        }
+
+        // Server is online -> Immediate join
+        if (serverManager.getServerOnlineState(serverName)) {
+            connectAll(issuer, players, serverName);
+            return;
+        }
+
+        // Server is offline -> Startup request + delayed join for all players
+        serverManager.setDelayedPlayerJoins(players, serverName);
+
+        // The summary replaces the boot state message, a queued boot or a failure is reported instead
+        serverManager.startServerWithNotify(
+            serverName,
+            issuer,
+            translationsManager.translateAsMiniMessage(
+                "commands.join.batch_waiting",
+                Map.of(
+                    "server", serverName,
+                    "players", String.valueOf(players.size())
+                )
+            )
+        );
+    }
+
+    private void connectAll(CommandSource issuer, List<Player> players, String serverName) {
+        RegisteredServer server = serverManager.getServer(serverName);
+        for (Player player : players) {
+            player.createConnectionRequest(server).connectWithIndication();
+        }
+
+        issuer.sendMessage(
+            translationsManager.translateAsMiniMessage(
+                "commands.join.batch_connecting",
+                Map.of(
+                    "server", serverName,
+                    "players", String.valueOf(players.size())
+                )
+            )
+        );
+    }
+
+    @Override
+    public boolean hasPermission(final Invocation invocation) {
+        String[] args = invocation.arguments();
+
+        // Need at least the 'start' permission
+        if (!invocation.source().hasPermission("servercontrol.join")) {
+            return false;
+        }
+
+        // Also need permission for specific server (if the given server exists)
+        if (args.length >= 2) {
+            String serverArg = args[1];
+
+            // Groups need permission for the group instead of for each member
+            if (serverArg.startsWith(GROUP_PREFIX)) {
+                return invocation.source().hasPermission("servercontrol.join.group." + serverArg.substring(GROUP_PREFIX.length()));
+            }
+
+            if (serverManager.getServer(serverArg) != null) {
+                return invocation.source().hasPermission("servercontrol.join." + serverArg);
+            } else {
+                return true;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        // Greedy, as the ':' of group targets is not allowed in single words
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("target", StringArgumentType.greedyString())
+                .suggests(suggestions.joinTargets())
+                .executes(context -> runner.run(context, StringArgumentType.getString(context, "target").split(" +")))
+        );
+    }
+
+    @Override
+    public @NotNull HelpMenuData getHelpMenuData() {
+        return new HelpMenuData(
+            "Join",
+            "/sc join [server] [party]",
+            new String[]{ "server", "party" },
+            new String[]{ "[server]", "[party]" }
+        );
+    }
+}
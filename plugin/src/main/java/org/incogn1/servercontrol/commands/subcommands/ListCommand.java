@@ -3,17 +3,20 @@ package org.incogn1.servercontrol.commands.subcommands;
 import com.velocitypowered.api.command.CommandSource;
 import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
 import org.incogn1.servercontrol.commands.HelpMenuData;
+import org.incogn1.servercontrol.health.HealthMonitor;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Map;
 
+import static org.incogn1.servercontrol.ServerControl.healthMonitor;
 import static org.incogn1.servercontrol.ServerControl.serverManager;
 import static org.incogn1.servercontrol.ServerControl.translationsManager;
 
 /**
  * Command: list
  * <p>
- * Returns a list of all servers on the network.
+ * Returns a list of all servers on the network, coloured by
+ * their state as last seen by the health monitor.
  */
 public class ListCommand implements SimpleCommandWithHelpMenuData {
 
@@ -21,15 +24,21 @@ public class ListCommand implements SimpleCommandWithHelpMenuData {
     public void execute(Invocation invocation) {
         CommandSource source = invocation.source();
 
-        // Generate list of servers with /sc join [server] as click command
+        // Generate list of servers with /sc info [server] as click command
         StringBuilder serverList = new StringBuilder();
         for (String serverName : serverManager.getServers().keySet()) {
+            String color = getStateColor(healthMonitor.getState(serverName));
+
             serverList
                 .append("<click:run_command:'/sc info ")
                 .append(serverName)
-                .append("'><aqua>")
+                .append("'><")
+                .append(color)
+                .append(">")
                 .append(serverName)
-                .append("</aqua></click>")
+                .append("</")
+                .append(color)
+                .append("></click>")
                 .append(", ");
         }
         serverList.delete(serverList.length() - 2, serverList.length());
@@ -50,6 +59,16 @@ public class ListCommand implements SimpleCommandWithHelpMenuData {
         return invocation.source().hasPermission("servercontrol.list");
     }
 
+    private String getStateColor(HealthMonitor.State state) {
+        return switch (state) {
+            case ONLINE -> "green";
+            case OFFLINE -> "red";
+            case BOOTING -> "gold";
+            case BLOCKED -> "dark_red";
+            case UNKNOWN -> "aqua";
+        };
+    }
+
     @Override
     public @NotNull HelpMenuData getHelpMenuData() {
         return new HelpMenuData(
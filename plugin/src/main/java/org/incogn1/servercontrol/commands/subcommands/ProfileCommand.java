@@ -0,0 +1,168 @@
+package org.incogn1.servercontrol.commands.subcommands;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import dev.dejvokep.boostedyaml.route.Route;
+import org.incogn1.servercontrol.commands.HelpMenuData;
+import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
+import org.incogn1.servercontrol.commands.SubcommandRunner;
+import org.incogn1.servercontrol.commands.SuggestionIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Command: profile
+ * <p>
+ * Takes a flight recording of the proxy for a given amount of
+ * seconds, including the ServerControl events.
+ */
+public class ProfileCommand implements SimpleCommandWithHelpMenuData {
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+        String[] args = invocation.arguments();
+
+        // Guard - Missing seconds argument
+        if (args.length <= 1) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.profile.missing_seconds_arg")
+            );
+            return;
+        }
+
+        // Guard - Seconds must be a positive number
+        long seconds;
+        try {
+            seconds = Long.parseLong(args[1]);
+        } catch (NumberFormatException e) {
+            seconds = -1;
+        }
+        if (seconds <= 0) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.profile.invalid_seconds_arg",
+                    Map.of(
+                        "arg", args[1]
+                    )
+                )
+            );
+            return;
+        }
+
+        // Guard - Recording must not exceed the configured maximum
+        long maxDuration = config.getLong(Route.from("profiling", "max-duration"));
+        if (seconds > maxDuration) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.profile.too_long",
+                    Map.of(
+                        "max", String.valueOf(maxDuration)
+                    )
+                )
+            );
+            return;
+        }
+
+        // Guard - JVM must support flight recordings
+        if (!profilingManager.isAvailable()) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.profile.unavailable")
+            );
+            return;
+        }
+
+        // Guard - Only one recording at a time
+        if (profilingManager.isRecording()) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.profile.already_running")
+            );
+            return;
+        }
+
+        Path path;
+        try {
+            path = profilingManager.start(
+                seconds,
+                config.getString(Route.from("profiling", "configuration")),
+                finishedPath -> sendFinishedMessage(source, finishedPath)
+            );
+        } catch (IllegalStateException e) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.profile.already_running")
+            );
+            return;
+        } catch (Exception e) {
+            logger.error("Failed to start a flight recording. {}", e.getMessage());
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.profile.failed")
+            );
+            return;
+        }
+
+        source.sendMessage(
+            translationsManager.translateAsMiniMessage(
+                "commands.profile.started",
+                Map.of(
+                    "seconds", String.valueOf(seconds),
+                    "file", dataDirectory.relativize(path).toString()
+                )
+            )
+        );
+    }
+
+    @Override
+    public boolean hasPermission(final Invocation invocation) {
+        return invocation.source().hasPermission("servercontrol.profile");
+    }
+
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("seconds", IntegerArgumentType.integer(1))
+                .suggests(suggestions.values("30", "60", "300"))
+                .executes(context -> runner.run(context, String.valueOf(IntegerArgumentType.getInteger(context, "seconds"))))
+        );
+    }
+
+    @Override
+    public @NotNull HelpMenuData getHelpMenuData() {
+        return new HelpMenuData(
+            "Profile",
+            "/sc profile [seconds]",
+            new String[]{ "seconds" },
+            new String[]{ "[seconds]" }
+        );
+    }
+
+    /**
+     * Tells the source that the recording has been written, or that
+     * writing it failed.
+     *
+     * @param source the source that started the recording
+     * @param path the path of the recording, or null if writing it failed
+     */
+    private void sendFinishedMessage(CommandSource source, Path path) {
+        if (path == null) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.profile.failed")
+            );
+            return;
+        }
+
+        source.sendMessage(
+            translationsManager.translateAsMiniMessage(
+                "commands.profile.finished",
+                Map.of(
+                    "file", dataDirectory.relativize(path).toString()
+                )
+            )
+        );
+    }
+}
@@ -0,0 +1,132 @@
+package org.incogn1.servercontrol.commands.subcommands;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
+import org.incogn1.servercontrol.commands.SubcommandRunner;
+import org.incogn1.servercontrol.commands.SuggestionIndex;
+import org.incogn1.servercontrol.commands.HelpMenuData;
+import org.incogn1.servercontrol.provisioning.InstanceProvisioner;
+import org.incogn1.servercontrol.provisioning.ProvisioningException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Command: provision
+ * <p>
+ * Creates a new server from a template (see provisioning in the config),
+ * registers it with the proxy and starts it. The source is notified once
+ * the copy has finished and again once the server is online.
+ */
+public class ProvisionCommand implements SimpleCommandWithHelpMenuData {
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+
+        String[] args = invocation.arguments();
+
+        // Guard - Missing template argument
+        if (args.length <= 1) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.provision.missing_template_arg")
+            );
+            return;
+        }
+
+        String template = args[1];
+
+        // Guard - Template must exist
+        if (!instanceProvisioner.templateExists(template)) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.provision.template_not_found",
+                    Map.of(
+                        "template", template
+                    )
+                )
+            );
+            return;
+        }
+
+        long startMillis = System.currentTimeMillis();
+
+        CompletableFuture<InstanceProvisioner.Instance> provisioning;
+        try {
+            provisioning = instanceProvisioner.provision(template);
+        } catch (ProvisioningException e) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.provision.no_free_port")
+            );
+            return;
+        }
+
+        source.sendMessage(
+            translationsManager.translateAsMiniMessage(
+                "commands.provision.provisioning",
+                Map.of(
+                    "template", template
+                )
+            )
+        );
+
+        provisioning.whenComplete((instance, e) -> {
+
+            // Guard - Copy must succeed
+            if (e != null) {
+                source.sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        "commands.provision.failed",
+                        Map.of(
+                            "template", template
+                        )
+                    )
+                );
+                return;
+            }
+
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.provision.provisioned",
+                    Map.of(
+                        "server", instance.serverName(),
+                        "port", String.valueOf(instance.port()),
+                        "seconds", String.format("%.1f", (System.currentTimeMillis() - startMillis) / 1000.0)
+                    )
+                )
+            );
+
+            serverManager.startServerWithNotify(instance.serverName(), source);
+        });
+    }
+
+    @Override
+    public boolean hasPermission(final Invocation invocation) {
+        return invocation.source().hasPermission("servercontrol.provision");
+    }
+
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("template", StringArgumentType.word())
+                .suggests(suggestions.templates())
+                .executes(context -> runner.run(context, StringArgumentType.getString(context, "template")))
+        );
+    }
+
+    @Override
+    public @NotNull HelpMenuData getHelpMenuData() {
+        return new HelpMenuData(
+            "Provision",
+            "/sc provision [template]",
+            new String[]{ "template" },
+            new String[]{ "[template]" }
+        );
+    }
+}
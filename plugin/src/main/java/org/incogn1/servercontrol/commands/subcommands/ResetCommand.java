@@ -0,0 +1,89 @@
+package org.incogn1.servercontrol.commands.subcommands;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
+import org.incogn1.servercontrol.commands.SubcommandRunner;
+import org.incogn1.servercontrol.commands.SuggestionIndex;
+import org.incogn1.servercontrol.commands.HelpMenuData;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Command: reset
+ * <p>
+ * Closes the circuit breaker of a server that failed to boot too
+ * often, so it can be started again right away.
+ */
+public class ResetCommand implements SimpleCommandWithHelpMenuData {
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+
+        String[] args = invocation.arguments();
+
+        // Guard - Missing server argument
+        if (args.length <= 1) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.reset.missing_server_arg")
+            );
+            return;
+        }
+
+        String serverName = args[1];
+
+        // Guard - Server must exist
+        if (serverManager.getServer(serverName) == null) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.reset.server_not_found",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+            return;
+        }
+
+        boolean wasOpen = bootCircuitBreaker.reset(serverName);
+
+        source.sendMessage(
+            translationsManager.translateAsMiniMessage(
+                wasOpen ? "commands.reset.reset" : "commands.reset.not_blocked",
+                Map.of(
+                    "server", serverName
+                )
+            )
+        );
+    }
+
+    @Override
+    public boolean hasPermission(final Invocation invocation) {
+        return invocation.source().hasPermission("servercontrol.reset");
+    }
+
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("server", StringArgumentType.word())
+                .suggests(suggestions.servers())
+                .executes(context -> runner.run(context, StringArgumentType.getString(context, "server")))
+        );
+    }
+
+    @Override
+    public @NotNull HelpMenuData getHelpMenuData() {
+        return new HelpMenuData(
+            "Reset",
+            "/sc reset [server]",
+            new String[]{ "server" },
+            new String[]{ "[server]" }
+        );
+    }
+}
@@ -0,0 +1,101 @@
+package org.incogn1.servercontrol.commands.subcommands;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
+import org.incogn1.servercontrol.commands.SubcommandRunner;
+import org.incogn1.servercontrol.commands.SuggestionIndex;
+import org.incogn1.servercontrol.commands.HelpMenuData;
+import org.incogn1.servercontrol.stop.ServerStopper;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Command: restart
+ * <p>
+ * Moves the players on a server to the fallback server in batches,
+ * stops the server with its stop script and starts it again. The
+ * moved players and the players waiting to join the server are sent
+ * to it once it is online again.
+ */
+public class RestartCommand implements SimpleCommandWithHelpMenuData {
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+
+        String[] args = invocation.arguments();
+
+        // Guard - Missing server argument
+        if (args.length <= 1) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.restart.missing_server_arg")
+            );
+            return;
+        }
+
+        String serverName = args[1];
+
+        // Guard - Server must exist
+        if (serverManager.getServer(serverName) == null) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.restart.server_not_found",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+            return;
+        }
+
+        serverStopper.stop(serverName, ServerStopper.Mode.RESTART, source);
+    }
+
+    @Override
+    public boolean hasPermission(final Invocation invocation) {
+        String[] args = invocation.arguments();
+
+        // Need at least the 'restart' permission
+        if (!invocation.source().hasPermission("servercontrol.restart")) {
+            return false;
+        }
+
+        // Also need permission for specific server (if the given server exists)
+        if (args.length >= 2) {
+            String serverArg = args[1];
+
+            if (serverManager.getServer(serverArg) != null) {
+                return invocation.source().hasPermission("servercontrol.restart." + serverArg);
+            } else {
+                return true;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("server", StringArgumentType.word())
+                .suggests(suggestions.servers())
+                .executes(context -> runner.run(context, StringArgumentType.getString(context, "server")))
+        );
+    }
+
+    @Override
+    public @NotNull HelpMenuData getHelpMenuData() {
+        return new HelpMenuData(
+            "Restart",
+            "/sc restart [server]",
+            new String[]{ "server" },
+            new String[]{ "[server]" }
+        );
+    }
+}
@@ -0,0 +1,164 @@
+package org.incogn1.servercontrol.commands.subcommands;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
+import org.incogn1.servercontrol.commands.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+import static org.incogn1.servercontrol.ServerControl.translationsManager;
+
+/**
+ * Command: run_as
+ * <p>
+ * Runs the command as another user.
+ * <p>
+ * Instead of a single player, a selection of players can be given (see
+ * {@link PlayerSelector}), e.g. "@server:lobby" or "Steve,Alex". The
+ * command is then run once for all selected players, see {@link BatchCommand}.
+ */
+public class RunAsCommand implements SimpleCommandWithHelpMenuData {
+
+    private final BaseCommand baseCommand;
+
+    public RunAsCommand(BaseCommand baseCommand) {
+        this.baseCommand = baseCommand;
+    }
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+        String[] args = invocation.arguments();
+
+        // Guard - Player argument must be given
+        if (args.length <= 1) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.run_as.missing_player_arg")
+            );
+            return;
+        }
+
+        String playerName = args[1];
+
+        // Change arguments to execute as player
+        String[] proxyArgs = args.length > 2 ? Arrays.copyOfRange(args, 2, args.length) : new String[0];
+
+        // Selection -> run once for all selected players
+        if (PlayerSelector.isSelection(playerName)) {
+            executeForSelection(source, playerName, proxyArgs);
+            return;
+        }
+
+        Optional<Player> player = proxy.getPlayer(args[1]);
+
+        // Guard - Player must exist
+        if (player.isEmpty()) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.run_as.player_not_found",
+                    Map.of(
+                        "player", playerName
+                    )
+                )
+            );
+            return;
+        }
+
+        source.sendMessage(
+            translationsManager.translateAsMiniMessage(
+                "commands.run_as.success",
+                Map.of(
+                    "command", "/sc " + String.join(" ", proxyArgs),
+                    "player", playerName
+                )
+            )
+        );
+
+        // Run base command as player, with the permissions of the source
+        baseCommand.execute(source, player.get(), proxyArgs);
+    }
+
+    private void executeForSelection(CommandSource source, String selection, String[] proxyArgs) {
+        PlayerSelector.Result result = PlayerSelector.resolve(selection);
+
+        // Guard - Every entry of the selection must resolve
+        if (result.unresolved() != null) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.run_as.invalid_selection",
+                    Map.of(
+                        "selection", result.unresolved()
+                    )
+                )
+            );
+            return;
+        }
+
+        // Guard - At least one player must be selected
+        if (result.players().isEmpty()) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.run_as.no_players_selected",
+                    Map.of(
+                        "selection", selection
+                    )
+                )
+            );
+            return;
+        }
+
+        // Run base command as the players, with the permissions of the source
+        baseCommand.execute(source, result.players(), proxyArgs);
+    }
+
+    @Override
+    public boolean hasPermission(final Invocation invocation) {
+        return invocation.source().hasPermission("servercontrol.run_as");
+    }
+
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        RequiredArgumentBuilder<CommandSource, String> playerArgument = BrigadierCommand.requiredArgumentBuilder("player", StringArgumentType.word())
+            .suggests(suggestions.players())
+            .executes(context -> runner.run(context, StringArgumentType.getString(context, "player")));
+
+        // The subcommands to run, parsed like any other subcommand but executed through run_as
+        for (LiteralArgumentBuilder<CommandSource> subcommandNode : baseCommand.buildSubcommandNodes(
+            (context, arguments) -> {
+                String[] args = new String[arguments.length + 1];
+                args[0] = StringArgumentType.getString(context, "player");
+                System.arraycopy(arguments, 0, args, 1, arguments.length);
+
+                return runner.run(context, args);
+            },
+            Set.of("run_as")
+        )) {
+            playerArgument.then(subcommandNode);
+        }
+
+        node.then(playerArgument);
+
+        // Selectors and lists, which are not allowed in a single word
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("targets", StringArgumentType.greedyString())
+                .suggests(suggestions.playerSelection())
+                .executes(context -> runner.run(context, StringArgumentType.getString(context, "targets").split(" +")))
+        );
+    }
+
+    @Override
+    public @NotNull HelpMenuData getHelpMenuData() {
+        return new HelpMenuData(
+            "Run As",
+            "/sc run_as [player|selection] [command]",
+            new String[]{ "player", "command" },
+            new String[]{ "[player|selection]", "[command]" }
+        );
+    }
+}
@@ -0,0 +1,211 @@
+package org.incogn1.servercontrol.commands.subcommands;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import org.incogn1.servercontrol.boot.BulkStartJob;
+import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
+import org.incogn1.servercontrol.commands.SubcommandRunner;
+import org.incogn1.servercontrol.commands.SuggestionIndex;
+import org.incogn1.servercontrol.commands.HelpMenuData;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Command: start
+ * <p>
+ * When called, pings the server to see if it is online.
+ * <p>
+ * If the server is already online, nothing happens.
+ * <p>
+ * If the server is offline, the server will be started.
+ * <p>
+ * When multiple servers or a glob pattern (e.g. hub-*) are given, or
+ * the server depends on other servers, all servers are started as a
+ * bulk start that respects the depends-on config.
+ */
+public class StartCommand implements SimpleCommandWithHelpMenuData {
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+
+        String[] args = invocation.arguments();
+
+        // Guard - Missing server argument
+        if (args.length <= 1) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.start.missing_server_arg")
+            );
+            return;
+        }
+
+        // Multiple servers, patterns or dependencies -> Bulk start
+        if (isBulkStart(args)) {
+            executeBulkStart(source, Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        String serverName = args[1];
+
+        // Guard - Server must exist
+        RegisteredServer server = serverManager.getServer(serverName);
+        if (server == null) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.start.server_not_found",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+            return;
+        }
+
+        boolean isOnline = serverManager.getServerOnlineState(server);
+
+        // Guard - Server cannot already be online
+        if (isOnline) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.start.server_already_online",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+
+            return;
+        }
+
+        // Run startup script
+        serverManager.startServerWithNotify(serverName, source);
+    }
+
+    /**
+     * Checks whether the arguments require a bulk start.
+     *
+     * @param args the command arguments
+     * @return true if multiple servers, a pattern or a server with
+     *         dependencies was given
+     */
+    private boolean isBulkStart(String[] args) {
+        if (args.length > 2) {
+            return true;
+        }
+
+        String serverArg = args[1];
+
+        return serverArg.contains("*")
+            || serverArg.contains("?")
+            || !serverManager.getServerDependencies(serverArg).isEmpty();
+    }
+
+    /**
+     * Resolves the given server names and patterns and starts
+     * them as a single bulk start.
+     *
+     * @param source the source that executed the command
+     * @param serverArgs the server names and patterns
+     */
+    private void executeBulkStart(CommandSource source, String[] serverArgs) {
+        Set<String> serverNames = new LinkedHashSet<>();
+
+        for (String serverArg : serverArgs) {
+            List<String> matches = serverManager.getServerNamesMatching(serverArg);
+
+            // Guard - Every argument must match at least one server
+            if (matches.isEmpty()) {
+                source.sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        "commands.start.server_not_found",
+                        Map.of(
+                            "server", serverArg
+                        )
+                    )
+                );
+                return;
+            }
+
+            serverNames.addAll(matches);
+        }
+
+        BulkStartJob job;
+        try {
+            job = BulkStartJob.plan(source, serverNames);
+        } catch (BulkStartJob.DependencyException e) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.start.bulk.dependency_error", Map.of("error", e.getMessage()))
+            );
+            return;
+        }
+
+        job.run();
+    }
+
+    @Override
+    public boolean hasPermission(final Invocation invocation) {
+        String[] args = invocation.arguments();
+
+        // Need at least the 'start' permission
+        if (!invocation.source().hasPermission("servercontrol.start")) {
+            return false;
+        }
+
+        // Also need permission for every specific server (if the given servers exist)
+        Set<String> serverNames = new LinkedHashSet<>();
+        for (int i = 1; i < args.length; i++) {
+            serverNames.addAll(serverManager.getServerNamesMatching(args[i]));
+        }
+
+        for (String serverName : getPlannedServerNames(serverNames)) {
+            if (!invocation.source().hasPermission("servercontrol.start." + serverName)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the servers a start of the given servers would actually start,
+     * which includes their (transitive) dependencies.
+     *
+     * @param serverNames the servers given to the command
+     * @return the given servers and their dependencies, or only the given
+     *         servers if the dependencies are invalid (the start reports
+     *         the error itself)
+     */
+    private Collection<String> getPlannedServerNames(Set<String> serverNames) {
+        try {
+            return BulkStartJob.plan(null, serverNames).getStates().keySet();
+        } catch (BulkStartJob.DependencyException e) {
+            return serverNames;
+        }
+    }
+
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        // Greedy, as several servers and glob patterns can be given
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("servers", StringArgumentType.greedyString())
+                .suggests(suggestions.serverList())
+                .executes(context -> runner.run(context, StringArgumentType.getString(context, "servers").split(" +")))
+        );
+    }
+
+    @Override
+    public @NotNull HelpMenuData getHelpMenuData() {
+        return new HelpMenuData(
+            "Start",
+            "/sc start [servers]",
+            new String[]{ "servers" },
+            new String[]{ "[servers]" }
+        );
+    }
+}
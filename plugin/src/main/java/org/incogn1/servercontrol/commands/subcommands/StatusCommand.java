@@ -0,0 +1,303 @@
+package org.incogn1.servercontrol.commands.subcommands;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
+import org.incogn1.servercontrol.commands.SubcommandRunner;
+import org.incogn1.servercontrol.commands.SuggestionIndex;
+import org.incogn1.servercontrol.commands.HelpMenuData;
+import org.incogn1.servercontrol.health.HealthMonitor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+import static org.incogn1.servercontrol.resources.MinecraftFontCalculator.*;
+
+/**
+ * Command: status
+ * <p>
+ * Shows a table of all servers with their state, player count, ping
+ * and version, as last seen by the health monitor. Nothing is pinged,
+ * so the table is shown right away regardless of the amount of servers.
+ */
+public class StatusCommand implements SimpleCommandWithHelpMenuData {
+
+    private final int ROWS_PER_PAGE = 10;
+
+    /** Space between two columns */
+    private final int COLUMN_GAP_PX = 8;
+
+    /** Maximum widths of the columns with free text, longer values are cut off */
+    private final int MAX_SERVER_WIDTH_PX = 100;
+    private final int MAX_VERSION_WIDTH_PX = 70;
+
+    private final int SPACE_WIDTH_PX = CharacterDetails.SPACE.getWidth();
+    private final int BOLD_SPACE_WIDTH_PX = SPACE_WIDTH_PX + 1;
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+        String[] args = invocation.arguments();
+
+        // Guard - Health monitor must be running
+        if (!healthMonitor.isEnabled()) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.status.monitor_disabled")
+            );
+            return;
+        }
+
+        int pageIndex = 0;
+        if (args.length >= 2) {
+            try {
+                pageIndex = Integer.parseInt(args[1]) - 1;
+            } catch (NumberFormatException e) {
+                source.sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        "commands.status.invalid_page_arg",
+                        Map.of(
+                            "arg", args[1]
+                        )
+                    )
+                );
+                return;
+            }
+        }
+
+        List<String> serverNames = new ArrayList<>(serverManager.getServers().keySet());
+        Collections.sort(serverNames);
+
+        int pagesAmount = Math.max(1, (serverNames.size() + ROWS_PER_PAGE - 1) / ROWS_PER_PAGE);
+        pageIndex = Math.max(0, Math.min(pageIndex, pagesAmount - 1));
+
+        List<String> pageServers = serverNames.subList(
+            pageIndex * ROWS_PER_PAGE,
+            Math.min(serverNames.size(), (pageIndex + 1) * ROWS_PER_PAGE)
+        );
+
+        source.sendMessage(
+            MiniMessage.miniMessage().deserialize(genTable(serverNames, pageServers, pageIndex, pagesAmount))
+        );
+    }
+
+    @Override
+    public boolean hasPermission(final Invocation invocation) {
+        return invocation.source().hasPermission("servercontrol.status");
+    }
+
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("page", IntegerArgumentType.integer(1))
+                .executes(context -> runner.run(context, String.valueOf(IntegerArgumentType.getInteger(context, "page"))))
+        );
+    }
+
+    @Override
+    public @NotNull HelpMenuData getHelpMenuData() {
+        return new HelpMenuData(
+            "Status",
+            "/sc status [page]",
+            new String[]{ "page" },
+            new String[]{ "[page]" }
+        );
+    }
+
+    // -----
+    //  Table generation code
+    // -----
+
+    /**
+     * Generates the status table for a page of servers.
+     *
+     * @param serverNames the names of all servers, for the summary
+     * @param pageServers the names of the servers on the page
+     * @param pageIndex the index of the page
+     * @param pagesAmount the amount of pages
+     * @return the table as MiniMessage text
+     */
+    private String genTable(List<String> serverNames, List<String> pageServers, int pageIndex, int pagesAmount) {
+
+        // Summary of the whole network
+        int onlineAmount = 0;
+        int playersAmount = 0;
+        for (String serverName : serverNames) {
+            HealthMonitor.ServerHealth health = healthMonitor.get(serverName);
+            if (health != null && health.online()) {
+                onlineAmount++;
+                playersAmount += Math.max(0, health.playersOnline());
+            }
+        }
+
+        // Cell texts, without formatting
+        String[] headers = {
+            translationsManager.translate("commands.status.columns.server"),
+            translationsManager.translate("commands.status.columns.state"),
+            translationsManager.translate("commands.status.columns.players"),
+            translationsManager.translate("commands.status.columns.ping"),
+            translationsManager.translate("commands.status.columns.version")
+        };
+        List<String[]> rows = new ArrayList<>();
+        for (String serverName : pageServers) {
+            rows.add(genRow(serverName));
+        }
+
+        // Column widths fit the widest cell on the page
+        int[] columnWidths = new int[headers.length];
+        for (int column = 0; column < headers.length; column++) {
+            columnWidths[column] = CharacterDetails.getWordWidth(headers[column]);
+            for (String[] row : rows) {
+                columnWidths[column] = Math.max(columnWidths[column], CharacterDetails.getWordWidth(row[column]));
+            }
+        }
+
+        StringBuilder table = new StringBuilder();
+        table.append("<gray>-----</gray> <b>").append(translationsManager.translate("commands.status.title")).append("</b> <gray>-----</gray>\n");
+        table.append(translationsManager.translate(
+            "commands.status.summary",
+            Map.of(
+                "online", String.valueOf(onlineAmount),
+                "total", String.valueOf(serverNames.size()),
+                "players", String.valueOf(playersAmount)
+            )
+        )).append("\n");
+
+        // Header line
+        for (int column = 0; column < headers.length; column++) {
+            table.append("<gray><u>").append(headers[column]).append("</u></gray>");
+            appendPadding(table, headers[column], columnWidths, column);
+        }
+        table.append("\n");
+
+        // Server lines
+        for (int i = 0; i < rows.size(); i++) {
+            String serverName = pageServers.get(i);
+            String[] row = rows.get(i);
+            HealthMonitor.ServerHealth health = healthMonitor.get(serverName);
+            String motd = health != null ? health.motd() : "";
+
+            for (int column = 0; column < row.length; column++) {
+                String cell = MiniMessage.miniMessage().escapeTags(row[column]);
+
+                if (column == 0) {
+                    cell = "<click:run_command:'/sc info " + serverName + "'>"
+                        + (motd.isEmpty() ? "" : "<hover:show_text:'" + MiniMessage.miniMessage().escapeTags(motd).replace("'", "\\'") + "'>")
+                        + "<aqua>" + cell + "</aqua>"
+                        + (motd.isEmpty() ? "" : "</hover>")
+                        + "</click>";
+                } else if (column == 1) {
+                    cell = getStateColor(healthMonitor.getState(serverName)) + cell + "</color>";
+                } else {
+                    cell = "<white>" + cell + "</white>";
+                }
+
+                table.append(cell);
+                appendPadding(table, row[column], columnWidths, column);
+            }
+            table.append("\n");
+        }
+
+        table.append(genFooter(pageIndex, pagesAmount));
+
+        return table.toString();
+    }
+
+    /**
+     * @param serverName the name of the server
+     * @return the unformatted cells of the row of the server
+     */
+    private String[] genRow(String serverName) {
+        HealthMonitor.ServerHealth health = healthMonitor.get(serverName);
+        HealthMonitor.State state = healthMonitor.getState(serverName);
+
+        String players = "-";
+        String ping = "-";
+        String version = "-";
+        if (health != null && health.online()) {
+            players = health.playersOnline() < 0 ? "?" : health.playersOnline() + "/" + health.maxPlayers();
+            ping = health.latencyMillis() + " ms";
+            version = health.version().isEmpty() ? "-" : health.version();
+        }
+
+        return new String[]{
+            cutToWidth(serverName, MAX_SERVER_WIDTH_PX),
+            translationsManager.translate("commands.status.states." + state.name().toLowerCase()),
+            players,
+            ping,
+            cutToWidth(version, MAX_VERSION_WIDTH_PX)
+        };
+    }
+
+    /**
+     * Pads a cell to the width of its column plus the gap. Spaces are
+     * 4px wide and bold spaces 5px, so combining them reaches the exact
+     * width for any gap of 12px or more.
+     *
+     * @param table the table to append the padding to
+     * @param cell the unformatted text of the cell
+     * @param columnWidths the widths of all columns
+     * @param column the index of the column of the cell
+     */
+    private void appendPadding(StringBuilder table, String cell, int[] columnWidths, int column) {
+
+        // Guard - Last column needs no padding
+        if (column == columnWidths.length - 1) {
+            return;
+        }
+
+        int gap = columnWidths[column] - CharacterDetails.getWordWidth(cell) + COLUMN_GAP_PX;
+
+        int boldSpaces = 0;
+        while (gap % SPACE_WIDTH_PX != 0 && gap >= BOLD_SPACE_WIDTH_PX) {
+            gap -= BOLD_SPACE_WIDTH_PX;
+            boldSpaces++;
+        }
+        int spaces = (gap + SPACE_WIDTH_PX / 2) / SPACE_WIDTH_PX;
+
+        table.append(" ".repeat(spaces));
+        if (boldSpaces > 0) {
+            table.append("<b>").append(" ".repeat(boldSpaces)).append("</b>");
+        }
+    }
+
+    /**
+     * @param text the text to cut
+     * @param maxWidth the maximum width in pixels
+     * @return the text, cut off with ".." if it is wider than the maximum width
+     */
+    private String cutToWidth(String text, int maxWidth) {
+        if (CharacterDetails.getWordWidth(text) <= maxWidth) {
+            return text;
+        }
+
+        String ellipsis = "..";
+        return splitStringByWidth(text, maxWidth - CharacterDetails.getWordWidth(ellipsis))[0] + ellipsis;
+    }
+
+    private String getStateColor(HealthMonitor.State state) {
+        return switch (state) {
+            case ONLINE -> "<color:green>";
+            case OFFLINE -> "<color:red>";
+            case BOOTING -> "<color:gold>";
+            case BLOCKED -> "<color:dark_red>";
+            case UNKNOWN -> "<color:gray>";
+        };
+    }
+
+    /**
+     * @param pageIndex the index of the shown page
+     * @param pagesAmount the amount of pages
+     * @return the footer, with page navigation if there are multiple pages
+     */
+    private String genFooter(int pageIndex, int pagesAmount) {
+        String prevCommand = pageIndex > 0 ? "<click:run_command:'/sc status " + pageIndex + "'><white><<</white></click>" : "<<";
+        String nextCommand = pageIndex + 1 < pagesAmount ? "<click:run_command:'/sc status " + (pageIndex + 2) + "'><white>>></white></click>" : ">>";
+        String navCommands = pagesAmount > 1 ? " " + prevCommand + " " + (pageIndex + 1) + " / " + pagesAmount + " " + nextCommand + " " : "----------";
+
+        return "<gray>-------------" + navCommands + "-------------</gray>";
+    }
+}
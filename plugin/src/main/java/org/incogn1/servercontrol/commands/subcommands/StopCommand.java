@@ -1,27 +1,27 @@
 package org.incogn1.servercontrol.commands.subcommands;
 
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
 import com.velocitypowered.api.command.CommandSource;
-import com.velocitypowered.api.proxy.server.RegisteredServer;
 import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
+import org.incogn1.servercontrol.commands.SubcommandRunner;
+import org.incogn1.servercontrol.commands.SuggestionIndex;
 import org.incogn1.servercontrol.commands.HelpMenuData;
+import org.incogn1.servercontrol.stop.ServerStopper;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 
 import static org.incogn1.servercontrol.ServerControl.*;
 
 /**
- * Command: start
+ * Command: stop
  * <p>
- * When called, pings the server to see if it is online.
- * <p>
- * If the server is already online, nothing happens.
- * <p>
- * If the server is offline, the server will be started.
+ * Moves the players on a server to the fallback server in batches,
+ * then stops the server with its stop script.
  */
-public class StartCommand implements SimpleCommandWithHelpMenuData {
+public class StopCommand implements SimpleCommandWithHelpMenuData {
 
     @Override
     public void execute(Invocation invocation) {
@@ -32,7 +32,7 @@ public class StartCommand implements SimpleCommandWithHelpMenuData {
         // Guard - Missing server argument
         if (args.length <= 1) {
             source.sendMessage(
-                translationsManager.translateAsMiniMessage("commands.start.missing_server_arg")
+                translationsManager.translateAsMiniMessage("commands.stop.missing_server_arg")
             );
             return;
         }
@@ -40,45 +40,27 @@ public class StartCommand implements SimpleCommandWithHelpMenuData {
         String serverName = args[1];
 
         // Guard - Server must exist
-        RegisteredServer server = serverManager.getServer(serverName);
-        if (server == null) {
-            source.sendMessage(
-                translationsManager.translateAsMiniMessage(
-                    "commands.start.server_not_found",
-                    Map.of(
-                        "server", serverName
-                    )
-                )
-            );
-            return;
-        }
-
-        boolean isOnline = serverManager.getServerOnlineState(server);
-
-        // Guard - Server cannot already be online
-        if (isOnline) {
+        if (serverManager.getServer(serverName) == null) {
             source.sendMessage(
                 translationsManager.translateAsMiniMessage(
-                    "commands.start.server_already_online",
+                    "commands.stop.server_not_found",
                     Map.of(
                         "server", serverName
                     )
                 )
             );
-
             return;
         }
 
-        // Run startup script
-        serverManager.startServerWithNotify(serverName, source);
+        serverStopper.stop(serverName, ServerStopper.Mode.STOP, source);
     }
 
     @Override
     public boolean hasPermission(final Invocation invocation) {
         String[] args = invocation.arguments();
 
-        // Need at least the 'start' permission
-        if (!invocation.source().hasPermission("servercontrol.start")) {
+        // Need at least the 'stop' permission
+        if (!invocation.source().hasPermission("servercontrol.stop")) {
             return false;
         }
 
@@ -87,7 +69,7 @@ public class StartCommand implements SimpleCommandWithHelpMenuData {
             String serverArg = args[1];
 
             if (serverManager.getServer(serverArg) != null) {
-                return invocation.source().hasPermission("servercontrol.start." + serverArg);
+                return invocation.source().hasPermission("servercontrol.stop." + serverArg);
             } else {
                 return true;
             }
@@ -97,32 +79,19 @@ public class StartCommand implements SimpleCommandWithHelpMenuData {
     }
 
     @Override
-    public List<String> suggest(final Invocation invocation) {
-        List<String> suggestions = new ArrayList<>();
-        String[] args = invocation.arguments();
-
-        // Selecting server
-        if (args.length == 2) {
-            String serverArg = args[1];
-
-            serverManager.getServers().forEach((name, server) -> {
-                if (name.startsWith(serverArg)) {
-                    suggestions.add(name);
-                }
-            });
-
-            return suggestions;
-        }
-
-        // No suggestions
-        return suggestions;
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("server", StringArgumentType.word())
+                .suggests(suggestions.servers())
+                .executes(context -> runner.run(context, StringArgumentType.getString(context, "server")))
+        );
     }
 
     @Override
     public @NotNull HelpMenuData getHelpMenuData() {
         return new HelpMenuData(
-            "Start",
-            "/sc start [server]",
+            "Stop",
+            "/sc stop [server]",
             new String[]{ "server" },
             new String[]{ "[server]" }
         );
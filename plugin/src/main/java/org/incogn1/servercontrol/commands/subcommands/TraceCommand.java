@@ -0,0 +1,183 @@
+package org.incogn1.servercontrol.commands.subcommands;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.velocitypowered.api.command.BrigadierCommand;
+import com.velocitypowered.api.command.CommandSource;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.incogn1.servercontrol.commands.HelpMenuData;
+import org.incogn1.servercontrol.commands.SimpleCommandWithHelpMenuData;
+import org.incogn1.servercontrol.commands.SubcommandRunner;
+import org.incogn1.servercontrol.commands.SuggestionIndex;
+import org.incogn1.servercontrol.trace.BootTrace;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Command: trace
+ * <p>
+ * Shows the timelines of the most recent boots of a server.
+ */
+public class TraceCommand implements SimpleCommandWithHelpMenuData {
+
+    /** Maximum amount of traces shown at once */
+    private static final int MAX_TRACES = 5;
+
+    private static final DateTimeFormatter START_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+        .withZone(ZoneId.systemDefault());
+
+    @Override
+    public void execute(Invocation invocation) {
+        CommandSource source = invocation.source();
+        String[] args = invocation.arguments();
+
+        // Guard - Missing server argument
+        if (args.length <= 1) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage("commands.trace.missing_server_arg")
+            );
+            return;
+        }
+
+        String serverName = args[1];
+
+        // Guard - Amount must be a positive number
+        int amount = 1;
+        if (args.length >= 3) {
+            try {
+                amount = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                amount = -1;
+            }
+
+            if (amount <= 0) {
+                source.sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        "commands.trace.invalid_amount_arg",
+                        Map.of(
+                            "arg", args[2]
+                        )
+                    )
+                );
+                return;
+            }
+        }
+
+        // Guard - Server must have been traced
+        List<BootTrace> traces = bootTracer.getRecent(serverName, Math.min(amount, MAX_TRACES));
+        if (traces.isEmpty()) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "commands.trace.no_traces",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+            return;
+        }
+
+        for (BootTrace trace : traces) {
+            source.sendMessage(
+                MiniMessage.miniMessage().deserialize(renderTrace(trace))
+            );
+        }
+    }
+
+    @Override
+    public boolean hasPermission(final Invocation invocation) {
+        return invocation.source().hasPermission("servercontrol.trace");
+    }
+
+    @Override
+    public void addArguments(LiteralArgumentBuilder<CommandSource> node, SubcommandRunner runner, SuggestionIndex suggestions) {
+        node.then(
+            BrigadierCommand.requiredArgumentBuilder("server", StringArgumentType.word())
+                .suggests(suggestions.servers())
+                .executes(context -> runner.run(context, StringArgumentType.getString(context, "server")))
+                .then(
+                    BrigadierCommand.requiredArgumentBuilder("amount", IntegerArgumentType.integer(1))
+                        .executes(context -> runner.run(
+                            context,
+                            StringArgumentType.getString(context, "server"),
+                            String.valueOf(IntegerArgumentType.getInteger(context, "amount"))
+                        ))
+                )
+        );
+    }
+
+    @Override
+    public @NotNull HelpMenuData getHelpMenuData() {
+        return new HelpMenuData(
+            "Trace",
+            "/sc trace [server] [amount]",
+            new String[]{ "server", "amount" },
+            new String[]{ "[server]", "[amount]" }
+        );
+    }
+
+    /**
+     * Renders a trace as a compact timeline, one line per step.
+     *
+     * @param trace the trace to render
+     * @return the timeline as a MiniMessage string
+     */
+    private String renderTrace(BootTrace trace) {
+        Boolean outcome = trace.getOutcome();
+        String outcomeText = outcome == null
+            ? "<gold>in progress</gold>"
+            : outcome ? "<green>online</green>" : "<red>failed</red>";
+
+        StringBuilder timeline = new StringBuilder()
+            .append("\n<gray>---</gray> <b>Boot trace</b> <gray>---</gray>\n")
+            .append("<gray>server: '<aqua>").append(escape(trace.getServerName())).append("</aqua>'</gray>\n")
+            .append("<gray>requested: ").append(START_TIME_FORMAT.format(trace.getStartTime())).append("</gray>\n")
+            .append("<gray>outcome: ").append(outcomeText).append("</gray>\n");
+
+        long previousOffset = 0;
+        for (BootTrace.Step step : trace.getSteps()) {
+            timeline
+                .append("<gray>+").append(formatSeconds(step.offsetNanos()))
+                .append(" <dark_gray>(+").append(formatSeconds(step.offsetNanos() - previousOffset)).append(")</dark_gray></gray> ")
+                .append(getStepColor(step.type())).append(step.type().name().toLowerCase()).append("</color>");
+
+            if (!step.detail().isEmpty()) {
+                timeline.append(" <gray>").append(escape(step.detail())).append("</gray>");
+            }
+
+            timeline.append('\n');
+            previousOffset = step.offsetNanos();
+        }
+
+        if (trace.getDroppedSteps() > 0) {
+            timeline.append("<gray><i>").append(trace.getDroppedSteps()).append(" more step(s) not kept</i></gray>\n");
+        }
+
+        return timeline.toString();
+    }
+
+    private String getStepColor(BootTrace.StepType type) {
+        return switch (type) {
+            case ONLINE -> "<color:green>";
+            case FAILED -> "<color:red>";
+            case PROCESS_EXITED -> "<color:gold>";
+            case POLL, JOIN_CONNECT -> "<color:white>";
+            default -> "<color:aqua>";
+        };
+    }
+
+    private static String formatSeconds(long nanos) {
+        return String.format("%.3fs", nanos / 1_000_000_000d);
+    }
+
+    private static String escape(String text) {
+        return MiniMessage.miniMessage().escapeTags(text);
+    }
+}
@@ -0,0 +1,81 @@
+package org.incogn1.servercontrol.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the blocking work of the plugin: waiting for startup scripts,
+ * reading their output and polling booting servers.
+ * <p>
+ * On Java 21 or newer (and when enabled in the config) this work runs on
+ * virtual threads, so a waiting boot only costs a small amount of heap
+ * instead of a platform thread. On older versions it runs on a cached
+ * pool of platform threads, keeping it off the common pool.
+ */
+public class PluginExecutors {
+
+    private static final String THREAD_NAME_PREFIX = "ServerControl-Blocking-";
+
+    private final boolean virtual;
+    private final ExecutorService blocking;
+
+    /**
+     * @param useVirtualThreads whether to use virtual threads if
+     *        the Java version supports them
+     */
+    public PluginExecutors(boolean useVirtualThreads) {
+        this.virtual = useVirtualThreads && VirtualThreads.isSupported();
+
+        if (virtual) {
+            this.blocking = VirtualThreads.newExecutor(THREAD_NAME_PREFIX);
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.blocking = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @return the executor for work that blocks, e.g. waiting for a process
+     *         or sleeping between polls
+     */
+    public Executor blocking() {
+        return blocking;
+    }
+
+    /**
+     * Starts a long-running task on its own (virtual or daemon) thread.
+     *
+     * @param name the name of the thread
+     * @param task the task to run
+     */
+    public void startThread(String name, Runnable task) {
+        if (virtual) {
+            VirtualThreads.start(name, task);
+            return;
+        }
+
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return whether the blocking work runs on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Stops accepting new work. Work already running is not interrupted.
+     */
+    public void shutdown() {
+        blocking.shutdown();
+    }
+}
@@ -0,0 +1,38 @@
+package org.incogn1.servercontrol.concurrent;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads. This is the Java 17 version, which reports
+ * them as unsupported. The multi-release jar contains a Java 21 version
+ * (src/main/java21) that replaces this class on newer versions.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * @return whether virtual threads can be used
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * @param namePrefix the prefix of the thread names, followed by a counter
+     * @return an executor that runs every task on a new virtual thread
+     */
+    static ExecutorService newExecutor(String namePrefix) {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+    }
+
+    /**
+     * Starts the task on a new virtual thread.
+     *
+     * @param name the name of the thread
+     * @param task the task to run
+     */
+    static void start(String name, Runnable task) {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+    }
+}
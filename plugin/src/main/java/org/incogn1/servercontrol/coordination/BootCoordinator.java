@@ -0,0 +1,210 @@
+package org.incogn1.servercontrol.coordination;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.incogn1.servercontrol.ServerControl.logger;
+
+/**
+ * Makes sure only one proxy boots a given server at a time, using the
+ * boot locks of a {@link CoordinationBackend}.
+ * <p>
+ * Held locks are renewed in the background until the boot finishes. When
+ * it does, the other proxies are notified so players waiting on them can
+ * be sent to the server without waiting for their next poll.
+ * <p>
+ * If the backend can not be reached, boots are allowed anyway (fail open),
+ * since a duplicate boot attempt is less harmful than no boot at all.
+ */
+public class BootCoordinator {
+
+    private final CoordinationBackend backend;
+    private final String proxyId;
+    private final long leaseMillis;
+
+    private final ScheduledExecutorService renewalExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ServerControl-LeaseRenewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Locks held by this proxy, by server name */
+    private final Map<String, BootLease> leases = new ConcurrentHashMap<>();
+
+    /** Renewal tasks of the held locks, by server name */
+    private final Map<String, ScheduledFuture<?>> renewals = new ConcurrentHashMap<>();
+
+    /** Highest fencing token seen per server, used to ignore outdated notifications */
+    private final Map<String, Long> latestTokens = new ConcurrentHashMap<>();
+
+    /** Notifications from other proxies, by server name, completed with whether the server came online */
+    private final Map<String, CompletableFuture<Boolean>> readySignals = new ConcurrentHashMap<>();
+
+    /**
+     * @param backend the backend shared with the other proxies
+     * @param proxyId the unique id of this proxy
+     * @param leaseMillis the time after which a lock expires if this proxy stops renewing it
+     */
+    public BootCoordinator(CoordinationBackend backend, String proxyId, long leaseMillis) {
+        this.backend = backend;
+        this.proxyId = proxyId;
+        this.leaseMillis = leaseMillis;
+
+        try {
+            backend.subscribeReady(this::onRemoteReady);
+        } catch (IOException e) {
+            logger.warn("Could not subscribe to boot notifications from other proxies, falling back to polling only. {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Tries to acquire the boot lock of a server. While held, the lock
+     * is renewed in the background.
+     *
+     * @param serverName the name of the server
+     * @return the lease if this proxy may boot the server, or empty if
+     *         another proxy is already booting it
+     */
+    public Optional<BootLease> acquire(String serverName) {
+
+        // Forget notifications of earlier boots
+        readySignals.remove(serverName);
+
+        long token;
+        try {
+            token = backend.tryAcquire(serverName, proxyId, leaseMillis);
+        } catch (IOException e) {
+            logger.warn("Could not reach the coordination backend, starting server {} without a boot lock. {}", serverName, e.getMessage());
+            token = 0;
+        }
+
+        // Guard - Lock must not be held by another proxy
+        if (token < 0) {
+            return Optional.empty();
+        }
+
+        BootLease lease = new BootLease(serverName, proxyId, token);
+        leases.put(serverName, lease);
+        latestTokens.merge(serverName, token, Math::max);
+
+        // Token 0 means no lock was acquired, so there is nothing to renew
+        if (token > 0 && backend.requiresRenewal()) {
+            long renewalInterval = Math.max(1, leaseMillis / 3);
+            renewals.put(serverName, renewalExecutor.scheduleAtFixedRate(
+                () -> renew(lease), renewalInterval, renewalInterval, TimeUnit.MILLISECONDS
+            ));
+        }
+
+        return Optional.of(lease);
+    }
+
+    /**
+     * Gets the lock held by this proxy for the given server.
+     *
+     * @param serverName the name of the server
+     * @return the lease, or empty if this proxy does not hold the lock
+     */
+    public Optional<BootLease> getLease(String serverName) {
+        return Optional.ofNullable(leases.get(serverName));
+    }
+
+    /**
+     * Notifies the other proxies that the boot of a server has finished
+     * and releases its lock. Does nothing if this proxy does not hold
+     * the lock.
+     *
+     * @param serverName the name of the server
+     * @param online whether the server came online
+     */
+    public void finish(String serverName, boolean online) {
+        BootLease lease = leases.remove(serverName);
+
+        // Guard - Lock must be held by this proxy
+        if (lease == null) {
+            return;
+        }
+
+        ScheduledFuture<?> renewal = renewals.remove(serverName);
+        if (renewal != null) {
+            renewal.cancel(false);
+        }
+
+        // Guard - No lock was acquired
+        if (lease.token() == 0) {
+            return;
+        }
+
+        try {
+            backend.publishReady(serverName, lease.token(), online);
+            backend.release(serverName, proxyId, lease.token());
+        } catch (IOException e) {
+            logger.warn("Could not release the boot lock of server {}, it will expire on its own. {}", serverName, e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for another proxy to report that it finished booting the
+     * given server.
+     *
+     * @param serverName the name of the server
+     * @param timeoutMillis the maximum time to wait
+     * @return true if the server came online, false if the boot failed,
+     *         or null if no notification arrived in time
+     */
+    public Boolean awaitReadySignal(String serverName, long timeoutMillis) throws InterruptedException {
+        CompletableFuture<Boolean> signal = readySignals.computeIfAbsent(serverName, ignore -> new CompletableFuture<>());
+
+        try {
+            Boolean online = signal.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            readySignals.remove(serverName, signal);
+
+            return online;
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stops renewing locks and closes the backend. Held locks
+     * expire on their own.
+     */
+    public void shutdown() {
+        renewalExecutor.shutdownNow();
+        backend.close();
+    }
+
+    private void renew(BootLease lease) {
+        try {
+            if (!backend.renew(lease.serverName(), proxyId, lease.token(), leaseMillis)) {
+                logger.warn("Lost the boot lock of server {}, another proxy may start it as well.", lease.serverName());
+
+                ScheduledFuture<?> renewal = renewals.remove(lease.serverName());
+                if (renewal != null) {
+                    renewal.cancel(false);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not renew the boot lock of server {}. {}", lease.serverName(), e.getMessage());
+        }
+    }
+
+    private void onRemoteReady(String serverName, long token, boolean online) {
+
+        // Guard - Ignore notifications for our own boots
+        BootLease lease = leases.get(serverName);
+        if (lease != null && lease.token() == token) {
+            return;
+        }
+
+        // Guard - Ignore notifications of boots older than one we already know about
+        long latestToken = latestTokens.getOrDefault(serverName, 0L);
+        if (token < latestToken) {
+            return;
+        }
+        latestTokens.put(serverName, token);
+
+        readySignals.computeIfAbsent(serverName, ignore -> new CompletableFuture<>()).complete(online);
+    }
+}
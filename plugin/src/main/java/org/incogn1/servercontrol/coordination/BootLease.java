@@ -0,0 +1,14 @@
+package org.incogn1.servercontrol.coordination;
+
+/**
+ * A boot lock held by this proxy.
+ *
+ * @param serverName the name of the server being booted
+ * @param ownerId the id of this proxy
+ * @param token the fencing token of the lock
+ */
+public record BootLease(
+        String serverName,
+        String ownerId,
+        long token) {
+}
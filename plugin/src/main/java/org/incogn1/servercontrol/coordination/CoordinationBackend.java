@@ -0,0 +1,83 @@
+package org.incogn1.servercontrol.coordination;
+
+import java.io.IOException;
+
+/**
+ * Storage shared between all proxies in front of the same backend servers,
+ * used to make sure only one proxy starts a given server at a time.
+ * <p>
+ * Boot locks are leases: they expire on their own if the proxy holding
+ * them stops renewing them (e.g. because it crashed). Every successful
+ * acquisition returns a fencing token that is higher than every token
+ * previously handed out for the same server, so stale lock holders and
+ * outdated notifications can be recognized.
+ */
+public interface CoordinationBackend {
+
+    /**
+     * Tries to acquire the boot lock of a server.
+     *
+     * @param serverName the name of the server
+     * @param ownerId the id of this proxy
+     * @param leaseMillis the time after which the lock expires if it is not renewed
+     * @return the fencing token of the acquired lock, or -1 if another
+     *         proxy holds the lock
+     */
+    long tryAcquire(String serverName, String ownerId, long leaseMillis) throws IOException;
+
+    /**
+     * Extends the lease of a held boot lock.
+     *
+     * @param serverName the name of the server
+     * @param ownerId the id of this proxy
+     * @param token the fencing token returned when acquiring the lock
+     * @param leaseMillis the new time after which the lock expires
+     * @return true if the lock was still held and has been renewed
+     */
+    boolean renew(String serverName, String ownerId, long token, long leaseMillis) throws IOException;
+
+    /**
+     * @return true if held locks expire unless they are renewed, false
+     *         if {@link #renew} does not need to be called
+     */
+    default boolean requiresRenewal() {
+        return true;
+    }
+
+    /**
+     * Releases a held boot lock. Does nothing if the lock is not
+     * held with the given token anymore.
+     *
+     * @param serverName the name of the server
+     * @param ownerId the id of this proxy
+     * @param token the fencing token returned when acquiring the lock
+     */
+    void release(String serverName, String ownerId, long token) throws IOException;
+
+    /**
+     * Tells every other proxy that a boot has finished.
+     *
+     * @param serverName the name of the server
+     * @param token the fencing token of the boot
+     * @param online whether the server came online
+     */
+    void publishReady(String serverName, long token, boolean online) throws IOException;
+
+    /**
+     * Registers the listener for boots finished by other proxies.
+     * Only a single listener is supported.
+     *
+     * @param listener the listener to call
+     */
+    void subscribeReady(ReadyListener listener) throws IOException;
+
+    /**
+     * Stops background work and closes connections.
+     */
+    void close();
+
+    @FunctionalInterface
+    interface ReadyListener {
+        void onReady(String serverName, long token, boolean online);
+    }
+}
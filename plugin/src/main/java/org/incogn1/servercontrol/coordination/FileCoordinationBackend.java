@@ -0,0 +1,246 @@
+package org.incogn1.servercontrol.coordination;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.incogn1.servercontrol.ServerControl.logger;
+
+/**
+ * Coordinates proxies through a directory that all of them can access,
+ * e.g. a network share.
+ * <p>
+ * Every boot lock is a file containing the owner, the fencing token and
+ * the expiry time. All changes are made while holding an OS file lock on
+ * a shared mutex file, so reading and updating a lock file is atomic
+ * across proxies. Boot notifications are appended to a shared log file,
+ * which every proxy tails.
+ * <p>
+ * Lease expiry uses the wall clock, so the clocks of the hosts
+ * running the proxies should be synchronized.
+ */
+public class FileCoordinationBackend implements CoordinationBackend {
+
+    private static final String MUTEX_FILE = "coordination.lock";
+    private static final String LOCKS_DIR = "locks";
+    private static final String READY_LOG_FILE = "ready.log";
+
+    /** The ready log is cleared once it grows beyond this size */
+    private static final long MAX_READY_LOG_SIZE = 1024 * 1024;
+
+    private final Path directory;
+    private final long pollIntervalMillis;
+
+    private volatile Thread watcherThread;
+
+    /**
+     * @param directory the shared directory
+     * @param pollIntervalMillis how often to check the ready log for new notifications
+     */
+    public FileCoordinationBackend(Path directory, long pollIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.pollIntervalMillis = pollIntervalMillis;
+
+        Files.createDirectories(directory.resolve(LOCKS_DIR));
+    }
+
+    @Override
+    public synchronized long tryAcquire(String serverName, String ownerId, long leaseMillis) throws IOException {
+        try (FileLock ignored = lockMutex()) {
+            LockState state = readLockState(serverName);
+            long now = System.currentTimeMillis();
+
+            // Guard - Lock must not be held by another proxy
+            if (state != null && !state.ownerId.equals(ownerId) && state.expiresAt > now) {
+                return -1;
+            }
+
+            long token = (state == null ? 0 : state.token) + 1;
+            writeLockState(serverName, new LockState(ownerId, token, now + leaseMillis));
+
+            return token;
+        }
+    }
+
+    @Override
+    public synchronized boolean renew(String serverName, String ownerId, long token, long leaseMillis) throws IOException {
+        try (FileLock ignored = lockMutex()) {
+            LockState state = readLockState(serverName);
+
+            // Guard - Lock must still be ours
+            if (state == null || !state.ownerId.equals(ownerId) || state.token != token) {
+                return false;
+            }
+
+            writeLockState(serverName, new LockState(ownerId, token, System.currentTimeMillis() + leaseMillis));
+
+            return true;
+        }
+    }
+
+    @Override
+    public synchronized void release(String serverName, String ownerId, long token) throws IOException {
+        try (FileLock ignored = lockMutex()) {
+            LockState state = readLockState(serverName);
+
+            // Guard - Lock must still be ours
+            if (state == null || !state.ownerId.equals(ownerId) || state.token != token) {
+                return;
+            }
+
+            // Keep the token, so the next one handed out is higher
+            writeLockState(serverName, new LockState(ownerId, token, 0));
+        }
+    }
+
+    @Override
+    public synchronized void publishReady(String serverName, long token, boolean online) throws IOException {
+        try (FileLock ignored = lockMutex()) {
+            Path readyLog = directory.resolve(READY_LOG_FILE);
+
+            if (Files.exists(readyLog) && Files.size(readyLog) > MAX_READY_LOG_SIZE) {
+                Files.write(readyLog, new byte[0], StandardOpenOption.TRUNCATE_EXISTING);
+            }
+
+            String line = serverName + "\t" + token + "\t" + online + "\n";
+            Files.writeString(readyLog, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    @Override
+    public void subscribeReady(ReadyListener listener) throws IOException {
+        Path readyLog = directory.resolve(READY_LOG_FILE);
+        long startOffset = Files.exists(readyLog) ? Files.size(readyLog) : 0;
+
+        watcherThread = new Thread(() -> watchReadyLog(readyLog, startOffset, listener), "ServerControl-CoordinationWatcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    @Override
+    public void close() {
+        Thread thread = watcherThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Tails the ready log, calling the listener for every new line.
+     */
+    private void watchReadyLog(Path readyLog, long startOffset, ReadyListener listener) {
+        long offset = startOffset;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(pollIntervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                if (!Files.exists(readyLog)) {
+                    continue;
+                }
+
+                // Log has been cleared, start from the beginning
+                long size = Files.size(readyLog);
+                if (size < offset) {
+                    offset = 0;
+                }
+                if (size == offset) {
+                    continue;
+                }
+
+                try (RandomAccessFile file = new RandomAccessFile(readyLog.toFile(), "r")) {
+                    file.seek(offset);
+
+                    String line;
+                    while ((line = file.readLine()) != null) {
+                        String[] fields = line.split("\t");
+                        if (fields.length == 3) {
+                            listener.onReady(fields[0], Long.parseLong(fields[1]), Boolean.parseBoolean(fields[2]));
+                        }
+                    }
+
+                    offset = file.getFilePointer();
+                }
+            } catch (IOException | NumberFormatException e) {
+                logger.warn("Failed to read boot notifications from the coordination directory. {}", e.getMessage());
+            }
+        }
+    }
+
+    private FileLock lockMutex() throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(MUTEX_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+        try {
+            return new ChannelClosingLock(channel, channel.lock());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private LockState readLockState(String serverName) throws IOException {
+        Path lockFile = getLockFile(serverName);
+
+        if (!Files.exists(lockFile)) {
+            return null;
+        }
+
+        String[] fields = Files.readString(lockFile, StandardCharsets.UTF_8).trim().split("\t");
+        if (fields.length != 3) {
+            return null;
+        }
+
+        try {
+            return new LockState(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void writeLockState(String serverName, LockState state) throws IOException {
+        Files.writeString(getLockFile(serverName), state.ownerId + "\t" + state.token + "\t" + state.expiresAt, StandardCharsets.UTF_8);
+    }
+
+    private Path getLockFile(String serverName) {
+        return directory.resolve(LOCKS_DIR).resolve(serverName.replaceAll("[^A-Za-z0-9._-]", "_") + ".lock");
+    }
+
+    private record LockState(String ownerId, long token, long expiresAt) {
+    }
+
+    /**
+     * FileLock wrapper that also closes the channel when released,
+     * so the mutex can be used in try-with-resources.
+     */
+    private static final class ChannelClosingLock extends FileLock {
+        private final FileLock lock;
+
+        ChannelClosingLock(FileChannel channel, FileLock lock) {
+            super(channel, lock.position(), lock.size(), lock.isShared());
+            this.lock = lock;
+        }
+
+        @Override
+        public boolean isValid() {
+            return lock.isValid();
+        }
+
+        @Override
+        public void release() throws IOException {
+            try {
+                lock.release();
+            } finally {
+                channel().close();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.incogn1.servercontrol.coordination;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backend for a single proxy. Every lock is granted, as ServerManager
+ * already prevents duplicate boots within one proxy. The locks never
+ * expire, so they are not renewed.
+ */
+public class LocalCoordinationBackend implements CoordinationBackend {
+
+    private final AtomicLong tokenCounter = new AtomicLong();
+
+    @Override
+    public long tryAcquire(String serverName, String ownerId, long leaseMillis) {
+        return tokenCounter.incrementAndGet();
+    }
+
+    @Override
+    public boolean renew(String serverName, String ownerId, long token, long leaseMillis) {
+        return true;
+    }
+
+    @Override
+    public boolean requiresRenewal() {
+        return false;
+    }
+
+    @Override
+    public void release(String serverName, String ownerId, long token) {}
+
+    @Override
+    public void publishReady(String serverName, long token, boolean online) {}
+
+    @Override
+    public void subscribeReady(ReadyListener listener) {}
+
+    @Override
+    public void close() {}
+}
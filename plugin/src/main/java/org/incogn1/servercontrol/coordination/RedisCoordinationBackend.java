@@ -0,0 +1,200 @@
+package org.incogn1.servercontrol.coordination;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+
+import static org.incogn1.servercontrol.ServerControl.logger;
+
+/**
+ * Coordinates proxies through a Redis (or Redis protocol compatible)
+ * server.
+ * <p>
+ * Fencing tokens come from an INCR counter per server, boot locks are
+ * keys set with NX and a millisecond expiry, and renewing or releasing
+ * a lock is done with a script that first checks the lock is still
+ * held with the same token. Boot notifications use pub/sub.
+ * <p>
+ * Commands that get no reply within the timeout fail like an unreachable
+ * server, so a hanging Redis server can not hold up a boot.
+ */
+public class RedisCoordinationBackend implements CoordinationBackend {
+
+    private static final String RENEW_SCRIPT =
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end";
+
+    private static final String RELEASE_SCRIPT =
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    /** Time to wait before reconnecting the subscription after a failure */
+    private static final long RESUBSCRIBE_DELAY_MILLIS = 5000;
+
+    private final String host;
+    private final int port;
+    private final String password;
+    private final String keyPrefix;
+    private final int timeoutMillis;
+
+    /** Connection for regular commands, guarded by this */
+    private RespConnection connection;
+
+    private volatile boolean running = true;
+    private volatile RespConnection subscriptionConnection;
+
+    /**
+     * @param host the host of the Redis server
+     * @param port the port of the Redis server
+     * @param password the password, or null/empty for none
+     * @param keyPrefix the prefix of all keys and channels
+     * @param timeoutMillis the maximum time to wait for the reply to a command
+     */
+    public RedisCoordinationBackend(String host, int port, String password, String keyPrefix, int timeoutMillis) {
+        this.host = host;
+        this.port = port;
+        this.password = password;
+        this.keyPrefix = keyPrefix;
+        this.timeoutMillis = Math.max(1, timeoutMillis);
+    }
+
+    @Override
+    public long tryAcquire(String serverName, String ownerId, long leaseMillis) throws IOException {
+        long token = (Long) command("INCR", keyPrefix + "token:" + serverName);
+
+        Object reply = command(
+            "SET", keyPrefix + "lock:" + serverName, ownerId + ":" + token,
+            "NX", "PX", String.valueOf(leaseMillis)
+        );
+
+        return "OK".equals(reply) ? token : -1;
+    }
+
+    @Override
+    public boolean renew(String serverName, String ownerId, long token, long leaseMillis) throws IOException {
+        Object reply = command(
+            "EVAL", RENEW_SCRIPT, "1", keyPrefix + "lock:" + serverName,
+            ownerId + ":" + token, String.valueOf(leaseMillis)
+        );
+
+        return Long.valueOf(1).equals(reply);
+    }
+
+    @Override
+    public void release(String serverName, String ownerId, long token) throws IOException {
+        command(
+            "EVAL", RELEASE_SCRIPT, "1", keyPrefix + "lock:" + serverName,
+            ownerId + ":" + token
+        );
+    }
+
+    @Override
+    public void publishReady(String serverName, long token, boolean online) throws IOException {
+        command("PUBLISH", keyPrefix + "ready", serverName + "\t" + token + "\t" + online);
+    }
+
+    @Override
+    public void subscribeReady(ReadyListener listener) {
+        Thread thread = new Thread(() -> runSubscription(listener), "ServerControl-CoordinationSubscriber");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+
+        closeQuietly(connection);
+        connection = null;
+        closeQuietly(subscriptionConnection);
+    }
+
+    /**
+     * Sends a command on the shared connection, reconnecting once
+     * if the connection turns out to be broken.
+     */
+    private synchronized Object command(String... args) throws IOException {
+        try {
+            return getConnection().command(args);
+        } catch (SocketTimeoutException e) {
+
+            // No reply -> treat as unreachable, the late reply would end up as the reply to the next command
+            discardConnection();
+            throw new IOException("No reply from the Redis server within " + timeoutMillis + " ms", e);
+        } catch (IOException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith("Redis error")) {
+                throw e;
+            }
+
+            // Connection broken -> retry once on a new connection
+            discardConnection();
+
+            try {
+                return getConnection().command(args);
+            } catch (IOException retryException) {
+                discardConnection();
+                throw retryException;
+            }
+        }
+    }
+
+    private RespConnection getConnection() throws IOException {
+        if (connection == null) {
+            connection = new RespConnection(host, port, password, timeoutMillis);
+        }
+
+        return connection;
+    }
+
+    private void discardConnection() {
+        closeQuietly(connection);
+        connection = null;
+    }
+
+    /**
+     * Keeps a subscription to the ready channel open, reconnecting
+     * after failures, and passes every message to the listener.
+     */
+    private void runSubscription(ReadyListener listener) {
+        while (running) {
+            try (RespConnection subscription = new RespConnection(host, port, password, 0)) {
+                subscriptionConnection = subscription;
+                subscription.send("SUBSCRIBE", keyPrefix + "ready");
+
+                while (running) {
+                    Object reply = subscription.readReply();
+
+                    // Guard - Only handle published messages: ["message", channel, payload]
+                    if (!(reply instanceof List<?> message) || message.size() != 3 || !"message".equals(message.get(0))) {
+                        continue;
+                    }
+
+                    String[] fields = String.valueOf(message.get(2)).split("\t");
+                    if (fields.length == 3) {
+                        listener.onReady(fields[0], Long.parseLong(fields[1]), Boolean.parseBoolean(fields[2]));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+
+                logger.warn("Lost the subscription for boot notifications from other proxies, reconnecting. {}", e.getMessage());
+            }
+
+            try {
+                Thread.sleep(RESUBSCRIBE_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void closeQuietly(RespConnection connection) {
+        if (connection == null) {
+            return;
+        }
+
+        try {
+            connection.close();
+        } catch (IOException ignore) {}
+    }
+}
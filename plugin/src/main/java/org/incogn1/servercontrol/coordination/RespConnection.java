@@ -0,0 +1,145 @@
+package org.incogn1.servercontrol.coordination;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A minimal blocking client for the Redis serialization protocol (RESP2),
+ * supporting just enough to send commands and read their replies.
+ * <p>
+ * Replies are returned as: String (simple and bulk strings), Long
+ * (integers), List (arrays) or null (null bulk strings and arrays).
+ * Error replies are thrown as IOException. A reply that does not arrive
+ * within the read timeout is thrown as SocketTimeoutException, after which
+ * the connection must not be used anymore, as the late reply would be read
+ * as the reply to the next command.
+ */
+class RespConnection implements Closeable {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    private final Socket socket;
+    private final BufferedInputStream input;
+    private final BufferedOutputStream output;
+
+    /**
+     * @param host the host of the server
+     * @param port the port of the server
+     * @param password the password to authenticate with, or null/empty for none
+     * @param readTimeoutMillis the maximum time to wait for a reply, or 0
+     *                          to wait forever (e.g. for a subscription)
+     */
+    RespConnection(String host, int port, String password, int readTimeoutMillis) throws IOException {
+        this.socket = new Socket();
+        this.socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+        this.socket.setTcpNoDelay(true);
+        this.socket.setSoTimeout(readTimeoutMillis);
+        this.input = new BufferedInputStream(socket.getInputStream());
+        this.output = new BufferedOutputStream(socket.getOutputStream());
+
+        if (password != null && !password.isEmpty()) {
+            command("AUTH", password);
+        }
+    }
+
+    /**
+     * Sends a command and waits for its reply.
+     *
+     * @param args the command name followed by its arguments
+     * @return the reply
+     */
+    Object command(String... args) throws IOException {
+        send(args);
+
+        return readReply();
+    }
+
+    /**
+     * Sends a command without reading a reply.
+     *
+     * @param args the command name followed by its arguments
+     */
+    void send(String... args) throws IOException {
+        output.write(('*' + String.valueOf(args.length) + "\r\n").getBytes(StandardCharsets.UTF_8));
+        for (String arg : args) {
+            byte[] bytes = arg.getBytes(StandardCharsets.UTF_8);
+            output.write(('$' + String.valueOf(bytes.length) + "\r\n").getBytes(StandardCharsets.UTF_8));
+            output.write(bytes);
+            output.write('\r');
+            output.write('\n');
+        }
+        output.flush();
+    }
+
+    /**
+     * Reads a single reply.
+     *
+     * @return the reply
+     */
+    Object readReply() throws IOException {
+        int type = input.read();
+        if (type == -1) {
+            throw new EOFException("Connection closed");
+        }
+
+        String line = readLine();
+        switch (type) {
+            case '+':
+                return line;
+            case '-':
+                throw new IOException("Redis error: " + line);
+            case ':':
+                return Long.parseLong(line);
+            case '$': {
+                int length = Integer.parseInt(line);
+                if (length < 0) {
+                    return null;
+                }
+
+                byte[] bytes = input.readNBytes(length);
+                readLine(); // Trailing CRLF
+
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            case '*': {
+                int length = Integer.parseInt(line);
+                if (length < 0) {
+                    return null;
+                }
+
+                List<Object> elements = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    elements.add(readReply());
+                }
+
+                return elements;
+            }
+            default:
+                throw new IOException("Unknown RESP reply type: " + (char) type);
+        }
+    }
+
+    private String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        int current;
+        while ((current = input.read()) != -1) {
+            if (current == '\r') {
+                input.read(); // '\n'
+                break;
+            }
+            line.write(current);
+        }
+
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,169 @@
+package org.incogn1.servercontrol.events;
+
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.player.PlayerChooseInitialServerEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.event.player.ServerPreConnectEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import org.incogn1.servercontrol.health.ServerStatusCache;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Starts offline servers when players try to connect to them, no matter
+ * if the connection comes from /server, a server selector or another
+ * plugin, as long as the server is in the auto-start list of the config.
+ * <p>
+ * Instead of letting the connection fail, the player is added to the
+ * delayed join list and the server is started, just like /sc join does.
+ * The online state is read from the ServerStatusCache, so connection
+ * attempts do not cause extra pings while the known state is recent.
+ */
+public class AutoStartListener {
+
+    private final ServerNameMatcher autoStartServers;
+
+    private final String fallbackServerName;
+
+    /**
+     * @param serverPatterns the names or glob patterns of the servers to start automatically
+     * @param fallbackServerName the server to send players to while the server they
+     *                           logged in to is starting, or null/empty to not redirect them
+     */
+    public AutoStartListener(List<String> serverPatterns, String fallbackServerName) {
+        this.autoStartServers = new ServerNameMatcher(serverPatterns);
+        this.fallbackServerName = fallbackServerName;
+    }
+
+    /**
+     * Sends players whose initial server is offline to the fallback
+     * server and starts their initial server.
+     */
+    @Subscribe(priority = PostOrder.LATE)
+    public void onPlayerChooseInitialServer(PlayerChooseInitialServerEvent event) {
+        Optional<RegisteredServer> initialServer = event.getInitialServer();
+
+        // Guard - Must have an initial server to start
+        if (initialServer.isEmpty()) {
+            return;
+        }
+
+        String serverName = initialServer.get().getServerInfo().getName();
+
+        // Guard - Server must be offline and started automatically
+        if (!autoStartServers.matches(serverName) || isOnline(serverName)) {
+            return;
+        }
+
+        // Guard - Without a fallback the login would fail anyway, so let Velocity handle it
+        RegisteredServer fallbackServer = getFallbackServer(serverName);
+        if (fallbackServer == null) {
+            return;
+        }
+
+        event.setInitialServer(fallbackServer);
+        holdForServer(event.getPlayer(), serverName);
+    }
+
+    /**
+     * Denies connections to offline servers and starts them instead.
+     */
+    @Subscribe(priority = PostOrder.LATE)
+    public void onServerPreConnect(ServerPreConnectEvent event) {
+
+        // Guard - Another plugin may have denied the connection already
+        if (!event.getResult().isAllowed()) {
+            return;
+        }
+
+        RegisteredServer target = event.getResult().getServer().orElse(event.getOriginalServer());
+        String serverName = target.getServerInfo().getName();
+
+        // Guard - Server must be offline and started automatically
+        if (!autoStartServers.matches(serverName) || isOnline(serverName)) {
+            return;
+        }
+
+        Player player = event.getPlayer();
+
+        // Denying the first connection of a player would disconnect them
+        if (player.getCurrentServer().isEmpty()) {
+            RegisteredServer fallbackServer = getFallbackServer(serverName);
+            if (fallbackServer == null) {
+                return;
+            }
+
+            event.setResult(ServerPreConnectEvent.ServerResult.allowed(fallbackServer));
+        } else {
+            event.setResult(ServerPreConnectEvent.ServerResult.denied());
+        }
+
+        holdForServer(player, serverName);
+    }
+
+    /**
+     * A successful connection proves the server is online, so the
+     * cache is updated without a ping.
+     */
+    @Subscribe
+    public void onServerConnected(ServerConnectedEvent event) {
+        serverStatusCache.update(event.getServer().getServerInfo().getName(), true);
+    }
+
+    /**
+     * Adds the player to the delayed join list of the server and starts it.
+     *
+     * @param player the player trying to connect
+     * @param serverName the name of the offline server
+     */
+    private void holdForServer(Player player, String serverName) {
+        serverManager.setDelayedPlayerJoin(player, serverName);
+        serverManager.startServerWithNotify(serverName, player);
+    }
+
+    /**
+     * Checks the online state using the cache. Only a missing or stale
+     * offline state is checked again, and at most once per server at a
+     * time, so retrying players do not cause a ping per attempt.
+     * <p>
+     * Servers that are booting up are offline until their boot has
+     * finished. The delayed joins are connected after the boot has
+     * seen the server online, so those connections are let through.
+     *
+     * @param serverName the name of the server
+     * @return true if the server is (or recently was) online
+     */
+    private boolean isOnline(String serverName) {
+        ServerStatusCache.Status status = serverStatusCache.get(serverName);
+        if (status != null && status.online()) {
+            return true;
+        }
+
+        // Booting -> the boot polls the server already
+        if (serverManager.getServerBootingState(serverName)) {
+            return false;
+        }
+
+        ServerStatusCache.Status freshStatus = serverStatusCache.getFresh(serverName).join();
+
+        return freshStatus != null && freshStatus.online();
+    }
+
+    /**
+     * @param serverName the name of the server being started
+     * @return the fallback server, or null if none is configured, it does
+     *         not exist or it is the server being started
+     */
+    private RegisteredServer getFallbackServer(String serverName) {
+        if (fallbackServerName == null || fallbackServerName.isEmpty() || fallbackServerName.equals(serverName)) {
+            return null;
+        }
+
+        return serverManager.getServer(fallbackServerName);
+    }
+}
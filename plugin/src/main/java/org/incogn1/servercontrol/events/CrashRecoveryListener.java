@@ -0,0 +1,225 @@
+package org.incogn1.servercontrol.events;
+
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.player.KickedFromServerEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import org.incogn1.servercontrol.boot.CircuitOpenException;
+import org.incogn1.servercontrol.scripts.MissingScriptException;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Restarts servers that crash while players are on them.
+ * <p>
+ * A crashing server drops its connections without sending a kick reason.
+ * Velocity then passes no reason, or its own "unexpected disconnect"
+ * reason when failover on unexpected kicks is enabled. Players losing
+ * their connection like that are sent to the fallback server and
+ * collected per server for a short detection window. Once the window has
+ * passed, the server is checked a single time. If it is offline, all
+ * collected players are added to its delayed join list at once and the
+ * server is started once, so they reconnect together after one boot
+ * instead of all running /sc join at the same time.
+ * <p>
+ * Kicks with a reason sent by the server (bans, whitelists, a regular
+ * /stop) are left alone.
+ */
+public class CrashRecoveryListener {
+
+    /** The reason Velocity passes for a backend connection that closed unexpectedly */
+    private static final String UNEXPECTED_DISCONNECT_KEY = "velocity.error.unexpected-disconnect";
+
+    private final ServerNameMatcher recoveredServers;
+
+    private final String fallbackServerName;
+
+    private final long detectionWindowMillis;
+
+    /** Players that lost their connection per server, collected until the detection window has passed */
+    private final Map<String, Set<UUID>> incidents = new ConcurrentHashMap<>();
+
+    /**
+     * @param serverPatterns the names or glob patterns of the servers to restart after a crash
+     * @param fallbackServerName the server to send players to while their server restarts,
+     *                           or null/empty to let Velocity pick one
+     * @param detectionWindowMillis the time to collect disconnected players before checking the server
+     */
+    public CrashRecoveryListener(List<String> serverPatterns, String fallbackServerName, long detectionWindowMillis) {
+        this.recoveredServers = new ServerNameMatcher(serverPatterns);
+        this.fallbackServerName = fallbackServerName;
+        this.detectionWindowMillis = detectionWindowMillis;
+    }
+
+    @Subscribe(priority = PostOrder.LATE)
+    public void onKickedFromServer(KickedFromServerEvent event) {
+
+        // Guard - Only players that were playing on the server, not failed connection attempts
+        if (event.kickedDuringServerConnect()) {
+            return;
+        }
+
+        // Guard - Kicks with a reason were sent by the server on purpose
+        if (event.getServerKickReason().filter(reason -> !isUnexpectedDisconnect(reason)).isPresent()) {
+            return;
+        }
+
+        String serverName = event.getServer().getServerInfo().getName();
+
+        // Guard - Server must be recovered automatically
+        if (!recoveredServers.matches(serverName)) {
+            return;
+        }
+
+        RegisteredServer fallbackServer = getFallbackServer(serverName);
+        if (fallbackServer != null) {
+            event.setResult(KickedFromServerEvent.RedirectPlayer.create(
+                fallbackServer,
+                translationsManager.translateAsMiniMessage(
+                    "crash_recovery.connection_lost",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            ));
+        }
+
+        addToIncident(serverName, event.getPlayer());
+    }
+
+    /**
+     * @param reason the kick reason of the event
+     * @return true if the reason was made up by Velocity for a connection
+     *         that closed unexpectedly, rather than sent by the server
+     */
+    private static boolean isUnexpectedDisconnect(Component reason) {
+        return reason instanceof TranslatableComponent translatable
+            && translatable.key().equals(UNEXPECTED_DISCONNECT_KEY);
+    }
+
+    /**
+     * Collects the player for the current incident of the server, starting
+     * a new incident (and its detection window) if there is none.
+     *
+     * @param serverName the name of the server the player lost their connection to
+     * @param player the player
+     */
+    private void addToIncident(String serverName, Player player) {
+        incidents.compute(serverName, (name, players) -> {
+            if (players == null) {
+                players = ConcurrentHashMap.newKeySet();
+
+                CompletableFuture.delayedExecutor(detectionWindowMillis, TimeUnit.MILLISECONDS, pluginExecutors.blocking())
+                    .execute(() -> evaluateIncident(serverName));
+            }
+
+            players.add(player.getUniqueId());
+            return players;
+        });
+    }
+
+    /**
+     * Checks whether the server of an incident went down, and restarts it if so.
+     *
+     * @param serverName the name of the server
+     */
+    private void evaluateIncident(String serverName) {
+        Set<UUID> playerIds = incidents.remove(serverName);
+
+        // Guard - Incident must have players
+        if (playerIds == null || playerIds.isEmpty()) {
+            return;
+        }
+
+        boolean online;
+        try {
+            online = serverStatusCache.refresh(serverName).join();
+        } catch (Exception e) {
+            online = false;
+        }
+
+        // Guard - Server still up -> players lost their connection for another reason
+        if (online) {
+            return;
+        }
+
+        recover(serverName, playerIds);
+    }
+
+    /**
+     * Adds the players of an incident to the delayed join list of the
+     * server and starts it, unless it is already booting up.
+     *
+     * @param serverName the name of the crashed server
+     * @param playerIds the players that were on the server
+     */
+    private void recover(String serverName, Set<UUID> playerIds) {
+        List<Player> players = new ArrayList<>();
+        for (UUID playerId : playerIds) {
+            proxy.getPlayer(playerId).ifPresent(players::add);
+        }
+
+        logger.warn("Server {} went down with {} player(s) on it, restarting it.", serverName, playerIds.size());
+
+        for (Player player : players) {
+            serverManager.setDelayedPlayerJoin(player, serverName);
+        }
+
+        // Already booting -> players join once that boot has finished
+        if (serverManager.getServerBootingState(serverName)) {
+            return;
+        }
+
+        try {
+            serverManager.startServer(serverName);
+        } catch (MissingScriptException e) {
+            logger.error("Could not restart server {} after it went down, no startup script is defined for it.", serverName);
+            notifyRestartFailed(serverName, players);
+        } catch (CircuitOpenException e) {
+            logger.error("Not restarting server {} after it went down, it failed to boot too often recently.", serverName);
+            notifyRestartFailed(serverName, players);
+        } catch (IOException e) {
+            logger.error("Could not restart server {} after it went down. {}", serverName, e.getMessage());
+            notifyRestartFailed(serverName, players);
+        }
+    }
+
+    /**
+     * @param serverName the name of the server that could not be restarted
+     * @param players the players that were waiting for it
+     */
+    private void notifyRestartFailed(String serverName, List<Player> players) {
+        for (Player player : players) {
+            player.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_startup.unknown_error",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+        }
+    }
+
+    /**
+     * @param serverName the name of the crashed server
+     * @return the fallback server, or null if none is configured, it does
+     *         not exist or it is the crashed server
+     */
+    private RegisteredServer getFallbackServer(String serverName) {
+        if (fallbackServerName == null || fallbackServerName.isEmpty() || fallbackServerName.equals(serverName)) {
+            return null;
+        }
+
+        return serverManager.getServer(fallbackServerName);
+    }
+}
@@ -0,0 +1,45 @@
+package org.incogn1.servercontrol.events;
+
+import org.incogn1.servercontrol.ServerManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Checks server names against a configured list of names and glob
+ * patterns. The outcome is remembered per server, so events that
+ * fire for every connection do not run the patterns each time.
+ */
+public class ServerNameMatcher {
+
+    private final List<Pattern> patterns = new ArrayList<>();
+
+    private final Map<String, Boolean> matches = new ConcurrentHashMap<>();
+
+    /**
+     * @param patterns the server names or glob patterns to match
+     */
+    public ServerNameMatcher(List<String> patterns) {
+        for (String pattern : patterns) {
+            this.patterns.add(ServerManager.compileGlob(pattern));
+        }
+    }
+
+    /**
+     * @param serverName the name of the server
+     * @return true if the server matches any of the patterns
+     */
+    public boolean matches(String serverName) {
+        return matches.computeIfAbsent(serverName, name -> {
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(name).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+}
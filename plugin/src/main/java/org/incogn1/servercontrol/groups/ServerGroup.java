@@ -0,0 +1,133 @@
+package org.incogn1.servercontrol.groups;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A named set of interchangeable servers, e.g. multiple lobbies.
+ * <p>
+ * The members are placed on a consistent hash ring, so players sharing
+ * a key (e.g. a party) are sent to the same member, and adding or
+ * removing a member only moves the keys of that member. To keep the
+ * load even, a member is skipped while it is fuller than its fair share
+ * (consistent hashing with bounded loads), in which case the next member
+ * on the ring is used.
+ */
+public class ServerGroup {
+
+    /** Points per member on the ring, more points spread the keys more evenly */
+    private static final int POINTS_PER_MEMBER = 64;
+
+    /** Fraction a member may be fuller than the candidates as a whole before it is skipped */
+    private static final double BALANCE_FACTOR = 0.25;
+
+    private final String name;
+
+    /** The members in the configured order, which is also the order they are scaled out in */
+    private final List<String> members;
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    /**
+     * @param name the name of the group
+     * @param members the names of the member servers, in the order they are scaled out in
+     */
+    public ServerGroup(String name, List<String> members) {
+        this.name = name;
+        this.members = List.copyOf(members);
+
+        for (String member : this.members) {
+            for (int point = 0; point < POINTS_PER_MEMBER; point++) {
+                ring.put(hash(member + "#" + point), member);
+            }
+        }
+    }
+
+    /**
+     * @return the name of the group
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the names of the member servers, in the order they are scaled out in
+     */
+    public List<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * Selects the member for a key among the given candidates. Walks the
+     * ring clockwise from the hash of the key and takes the first candidate
+     * whose fill (players / max players) is below the bound. The bound is
+     * the fill of the candidates as a whole (counting the joining player)
+     * plus the balance factor, so a key keeps its member until that member
+     * gets noticeably fuller than the others.
+     *
+     * @param key the key to select a member for, e.g. a party id
+     * @param isCandidate whether a member may be selected
+     * @param playerCount the amount of players on a member
+     * @param capacity the maximum amount of players of a member
+     * @return the selected member, or null if there are no candidates
+     */
+    public String select(String key, Predicate<String> isCandidate, ToIntFunction<String> playerCount, ToIntFunction<String> capacity) {
+        Map<String, Double> fills = new HashMap<>();
+        int totalPlayers = 0;
+        int totalCapacity = 0;
+        for (String member : members) {
+            if (isCandidate.test(member)) {
+                int players = playerCount.applyAsInt(member);
+                int maxPlayers = Math.max(1, capacity.applyAsInt(member));
+
+                fills.put(member, (double) players / maxPlayers);
+                totalPlayers += players;
+                totalCapacity += maxPlayers;
+            }
+        }
+
+        // Guard - Nothing to select from
+        if (fills.isEmpty()) {
+            return null;
+        }
+
+        double bound = (double) (totalPlayers + 1) / totalCapacity * (1 + BALANCE_FACTOR);
+
+        // Walk the ring once, starting at the key
+        long keyHash = hash(key);
+        for (SortedMap<Long, String> part : List.of(ring.tailMap(keyHash, true), ring.headMap(keyHash, false))) {
+            for (String member : part.values()) {
+                Double fill = fills.get(member);
+                if (fill != null && fill < bound) {
+                    return member;
+                }
+            }
+        }
+
+        // Unreachable with a positive balance factor, but fall back to the least filled member
+        return Collections.min(fills.entrySet(), Map.Entry.comparingByValue()).getKey();
+    }
+
+    /**
+     * 64 bit FNV-1a, followed by a finalizer so similar keys (member#0,
+     * member#1, ...) end up far apart on the ring.
+     *
+     * @param key the key to hash
+     * @return the position of the key on the ring
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
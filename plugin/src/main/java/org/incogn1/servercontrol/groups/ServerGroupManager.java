@@ -0,0 +1,235 @@
+package org.incogn1.servercontrol.groups;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import org.incogn1.servercontrol.boot.BootCircuitBreaker;
+import org.incogn1.servercontrol.boot.CircuitOpenException;
+import org.incogn1.servercontrol.health.HealthMonitor;
+import org.incogn1.servercontrol.health.ServerStatusCache;
+import org.incogn1.servercontrol.scripts.MissingScriptException;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Picks the server a player joining a group is sent to, and starts
+ * more members of a group before its online members fill up.
+ * <p>
+ * Selecting a member never pings. Whether a member is online comes from
+ * the ServerStatusCache (kept up to date by the health monitor), the
+ * amount of players from the proxy itself and the maximum amount of
+ * players from the last ping of the health monitor.
+ */
+public class ServerGroupManager {
+
+    /**
+     * The member a player should join.
+     *
+     * @param serverName the name of the member
+     * @param online whether the member is online, if not the player has
+     *               to wait for it to boot up
+     */
+    public record Selection(String serverName, boolean online) {
+    }
+
+    private final Map<String, ServerGroup> groups = new LinkedHashMap<>();
+
+    private final double fillThreshold;
+
+    private final int defaultMaxPlayers;
+
+    /**
+     * @param groupMembers the names of the member servers per group, in the order they are scaled out in
+     * @param fillThreshold the fill (0 - 1) above which all online members must be
+     *                      before another member is started
+     * @param defaultMaxPlayers the maximum amount of players of members that have
+     *                          not reported it yet
+     */
+    public ServerGroupManager(Map<String, List<String>> groupMembers, double fillThreshold, int defaultMaxPlayers) {
+        this.fillThreshold = fillThreshold;
+        this.defaultMaxPlayers = Math.max(1, defaultMaxPlayers);
+
+        groupMembers.forEach((name, members) -> groups.put(name, new ServerGroup(name, members)));
+    }
+
+    /**
+     * @param groupName the name of the group
+     * @return the group, or null if no group with that name is configured
+     */
+    public ServerGroup getGroup(String groupName) {
+        return groups.get(groupName);
+    }
+
+    /**
+     * @return the names of all configured groups
+     */
+    public Set<String> getGroupNames() {
+        return Collections.unmodifiableSet(groups.keySet());
+    }
+
+    /**
+     * Selects the member of the group a player should join. Online members
+     * below the fill threshold are preferred, then any online member with
+     * room left. If no member is online, the member that is booting up or
+     * the next member that can be started is returned.
+     * <p>
+     * If all online members are above the fill threshold after this join,
+     * the next offline member is started in the background.
+     *
+     * @param group the group to join
+     * @param key the key that decides the member among equally suited
+     *            members, players with the same key join the same member
+     * @return the member to join, or null if no member can be joined or started
+     */
+    public Selection select(ServerGroup group, String key) {
+        String selected = group.select(
+            key,
+            member -> isOnline(member) && getFill(member) < fillThreshold,
+            this::getPlayerCount,
+            this::getCapacity
+        );
+
+        if (selected == null) {
+            selected = group.select(
+                key,
+                member -> isOnline(member) && getPlayerCount(member) < getCapacity(member),
+                this::getPlayerCount,
+                this::getCapacity
+            );
+        }
+
+        if (selected != null) {
+            scaleOutIfNeeded(group, selected);
+
+            return new Selection(selected, true);
+        }
+
+        // No room online -> wait for a member that is booting up
+        for (String member : group.getMembers()) {
+            if (serverManager.getServerBootingState(member)) {
+                return new Selection(member, false);
+            }
+        }
+
+        // Nothing booting -> wait for the next member to start
+        String nextMember = getNextOfflineMember(group, false);
+
+        return nextMember != null ? new Selection(nextMember, false) : null;
+    }
+
+    /**
+     * Starts the next offline member if every online member is at or above
+     * the fill threshold, counting the player that is joining. Only one
+     * member of a group is started at a time.
+     *
+     * @param group the group
+     * @param selected the member the joining player is sent to
+     */
+    private void scaleOutIfNeeded(ServerGroup group, String selected) {
+        for (String member : group.getMembers()) {
+
+            // Guard - Already scaling out
+            if (serverManager.getServerBootingState(member)) {
+                return;
+            }
+
+            // Guard - Room left on an online member
+            if (isOnline(member)) {
+                int players = getPlayerCount(member) + (member.equals(selected) ? 1 : 0);
+                if ((double) players / getCapacity(member) < fillThreshold) {
+                    return;
+                }
+            }
+        }
+
+        String nextMember = getNextOfflineMember(group, true);
+
+        // Guard - Every member is running already
+        if (nextMember == null) {
+            return;
+        }
+
+        logger.info("All online servers of group {} are filling up, starting {}.", group.getName(), nextMember);
+
+        pluginExecutors.blocking().execute(() -> {
+            try {
+                serverManager.startServer(nextMember);
+            } catch (MissingScriptException e) {
+                logger.warn("Could not start {} for group {}, no startup script is defined for it.", nextMember, group.getName());
+            } catch (CircuitOpenException e) {
+                logger.warn("Not starting {} for group {}, it failed to boot too often recently.", nextMember, group.getName());
+            } catch (IOException e) {
+                logger.warn("Could not start {} for group {}. {}", nextMember, group.getName(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * @param group the group
+     * @param knownOfflineOnly whether to skip members whose state is not known
+     *                         yet, so a running server is never started twice
+     * @return the first member in the configured order that is offline and
+     *         can be started, or null if there is none
+     */
+    private String getNextOfflineMember(ServerGroup group, boolean knownOfflineOnly) {
+        for (String member : group.getMembers()) {
+            if (serverManager.getServer(member) == null || isOnline(member)) {
+                continue;
+            }
+
+            if (serverStopper.isStopping(member) || bootCircuitBreaker.getState(member) == BootCircuitBreaker.State.OPEN) {
+                continue;
+            }
+
+            if (knownOfflineOnly && serverStatusCache.peek(member) == null) {
+                continue;
+            }
+
+            return member;
+        }
+
+        return null;
+    }
+
+    /**
+     * A member counts as online if it was online when it was last checked
+     * or if players are on it. Members that are booting up or being stopped
+     * do not take players.
+     *
+     * @param member the name of the member
+     * @return true if players can be sent to the member right away
+     */
+    private boolean isOnline(String member) {
+        RegisteredServer server = serverManager.getServer(member);
+
+        // Guard - Member must be registered
+        if (server == null) {
+            return false;
+        }
+
+        if (serverManager.getServerBootingState(member) || serverStopper.isStopping(member)) {
+            return false;
+        }
+
+        ServerStatusCache.Status status = serverStatusCache.peek(member);
+
+        return (status != null && status.online()) || !server.getPlayersConnected().isEmpty();
+    }
+
+    private int getPlayerCount(String member) {
+        RegisteredServer server = serverManager.getServer(member);
+
+        return server != null ? server.getPlayersConnected().size() : 0;
+    }
+
+    private int getCapacity(String member) {
+        HealthMonitor.ServerHealth health = healthMonitor.get(member);
+
+        return health != null && health.maxPlayers() > 0 ? health.maxPlayers() : defaultMaxPlayers;
+    }
+
+    private double getFill(String member) {
+        return (double) getPlayerCount(member) / getCapacity(member);
+    }
+}
@@ -0,0 +1,226 @@
+package org.incogn1.servercontrol.health;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerPing;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.incogn1.servercontrol.boot.BootCircuitBreaker;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Pings every registered server in the background and keeps the details
+ * of the last answer, so commands can show the state of the whole network
+ * right away instead of pinging every server themselves.
+ * <p>
+ * A round pings all servers with a limited amount of pings in flight at
+ * once. The time between rounds is varied randomly, so proxies started at
+ * the same time do not keep pinging the servers at the same moment.
+ */
+public class HealthMonitor {
+
+    /**
+     * The state of a server as shown to users.
+     */
+    public enum State {
+        ONLINE,
+        OFFLINE,
+        BOOTING,
+        /** Starts are rejected because the server failed to boot too often */
+        BLOCKED,
+        /** Not checked yet */
+        UNKNOWN
+    }
+
+    /**
+     * The outcome of the last ping of a server.
+     *
+     * @param online whether the server answered
+     * @param latencyMillis the round trip time of the ping, or -1 if it failed
+     * @param playersOnline the amount of players on the server, or -1 if unknown
+     * @param maxPlayers the maximum amount of players, or -1 if unknown
+     * @param version the version name the server reported, or an empty string
+     * @param motd the MOTD as plain text, or an empty string
+     * @param checkedAt when the server was pinged
+     */
+    public record ServerHealth(
+            boolean online,
+            long latencyMillis,
+            int playersOnline,
+            int maxPlayers,
+            String version,
+            String motd,
+            Instant checkedAt) {
+    }
+
+    private final boolean enabled;
+    private final long intervalMillis;
+    private final double jitter;
+    private final int maxConcurrency;
+    private final long timeoutMillis;
+
+    private final Map<String, ServerHealth> healthByServer = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ServerControl-HealthMonitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Starts pinging the servers, if enabled.
+     *
+     * @param enabled whether to ping the servers at all
+     * @param intervalMillis the average time between two rounds
+     * @param jitter the fraction (0 - 1) the time between rounds is varied by
+     * @param maxConcurrency the maximum amount of pings in flight at once
+     * @param timeoutMillis the time after which a ping counts as failed
+     */
+    public HealthMonitor(boolean enabled, long intervalMillis, double jitter, int maxConcurrency, long timeoutMillis) {
+        this.enabled = enabled;
+        this.intervalMillis = Math.max(1000, intervalMillis);
+        this.jitter = Math.min(1, Math.max(0, jitter));
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.timeoutMillis = timeoutMillis;
+
+        // First round right away, so the status is known shortly after startup
+        if (enabled) {
+            scheduler.execute(this::runRound);
+        }
+    }
+
+    /**
+     * @return whether the servers are pinged in the background
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param serverName the name of the server
+     * @return the outcome of the last ping, or null if the server has not been pinged yet
+     */
+    public ServerHealth get(String serverName) {
+        return healthByServer.get(serverName);
+    }
+
+    /**
+     * Combines the last ping with the boot-up process and circuit breaker
+     * of the server. Never pings.
+     *
+     * @param serverName the name of the server
+     * @return the state to show for the server
+     */
+    public State getState(String serverName) {
+        if (serverManager.getServerBootingState(serverName)) {
+            return State.BOOTING;
+        }
+
+        if (bootCircuitBreaker.getState(serverName) == BootCircuitBreaker.State.OPEN) {
+            return State.BLOCKED;
+        }
+
+        ServerHealth health = healthByServer.get(serverName);
+        if (health == null) {
+            return State.UNKNOWN;
+        }
+
+        return health.online() ? State.ONLINE : State.OFFLINE;
+    }
+
+    /**
+     * Stops pinging the servers.
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Pings every registered server and schedules the next round once done.
+     */
+    private void runRound() {
+        try {
+            pingAll();
+        } catch (Exception e) {
+            logger.error("Failed to check the health of the servers. {}", e.getMessage());
+            scheduleNextRound();
+        }
+    }
+
+    private void pingAll() {
+        List<RegisteredServer> servers = new ArrayList<>(proxy.getAllServers());
+
+        // Forget unregistered servers
+        Set<String> serverNames = new HashSet<>();
+        for (RegisteredServer server : servers) {
+            serverNames.add(server.getServerInfo().getName());
+        }
+        healthByServer.keySet().retainAll(serverNames);
+
+        // Every chain pings the next server once its previous ping has finished
+        AtomicInteger nextIndex = new AtomicInteger();
+        CompletableFuture<?>[] chains = new CompletableFuture<?>[Math.min(maxConcurrency, servers.size())];
+        for (int i = 0; i < chains.length; i++) {
+            chains[i] = pingNext(servers, nextIndex);
+        }
+
+        CompletableFuture.allOf(chains).whenComplete((ignore, e) -> scheduleNextRound());
+    }
+
+    private CompletableFuture<Void> pingNext(List<RegisteredServer> servers, AtomicInteger nextIndex) {
+        int index = nextIndex.getAndIncrement();
+        if (index >= servers.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return ping(servers.get(index)).thenCompose(ignore -> pingNext(servers, nextIndex));
+    }
+
+    private CompletableFuture<Void> ping(RegisteredServer server) {
+        String serverName = server.getServerInfo().getName();
+        long startNanos = System.nanoTime();
+
+        // The ServerManager records the ping and updates the status cache
+        return serverManager.pingServer(server, timeoutMillis).handle((answer, e) -> {
+            ServerHealth health = answer == null ? offline() : toHealth(answer, System.nanoTime() - startNanos);
+            healthByServer.put(serverName, health);
+
+            return null;
+        });
+    }
+
+    private void scheduleNextRound() {
+        long delayMillis = (long) (intervalMillis * (1 + jitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1)));
+
+        try {
+            scheduler.schedule(this::runRound, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignore) {} // Shut down
+    }
+
+    private static ServerHealth offline() {
+        return new ServerHealth(false, -1, -1, -1, "", "", Instant.now());
+    }
+
+    private static ServerHealth toHealth(ServerPing ping, long roundTripNanos) {
+        int playersOnline = ping.getPlayers().map(ServerPing.Players::getOnline).orElse(-1);
+        int maxPlayers = ping.getPlayers().map(ServerPing.Players::getMax).orElse(-1);
+        String version = ping.getVersion() != null ? ping.getVersion().getName() : "";
+        String motd = ping.getDescriptionComponent() != null
+            ? PlainTextComponentSerializer.plainText().serialize(ping.getDescriptionComponent())
+            : "";
+
+        return new ServerHealth(
+            true,
+            TimeUnit.NANOSECONDS.toMillis(roundTripNanos),
+            playersOnline,
+            maxPlayers,
+            version,
+            motd,
+            Instant.now()
+        );
+    }
+}
@@ -0,0 +1,133 @@
+package org.incogn1.servercontrol.health;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.incogn1.servercontrol.ServerControl.pluginExecutors;
+import static org.incogn1.servercontrol.ServerControl.serverManager;
+
+/**
+ * Remembers the last known online state of every server, so callers that
+ * only need a recent answer do not have to ping the server themselves.
+ * <p>
+ * Every online check done by the ServerManager updates the cache. Entries
+ * older than the maximum age are refreshed in the background, at most one
+ * refresh per server at a time.
+ */
+public class ServerStatusCache {
+
+    /**
+     * @param online whether the server answered
+     * @param checkedAt when the server was checked
+     */
+    public record Status(boolean online, Instant checkedAt) {}
+
+    private final long maxAgeMillis;
+
+    private final Map<String, Status> statuses = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Boolean>> refreshes = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxAgeMillis the age after which a status is considered stale
+     */
+    public ServerStatusCache(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Stores the outcome of an online check.
+     *
+     * @param serverName the name of the checked server
+     * @param online whether the server answered
+     */
+    public void update(String serverName, boolean online) {
+        statuses.put(serverName, new Status(online, Instant.now()));
+    }
+
+    /**
+     * Gets the last known status of a server, starting a background
+     * refresh if it is missing or stale.
+     *
+     * @param serverName the name of the server
+     * @return the last known status, or null if the server has not been checked yet
+     */
+    public Status get(String serverName) {
+        Status status = statuses.get(serverName);
+
+        if (status == null || isStale(status)) {
+            refresh(serverName);
+        }
+
+        return status;
+    }
+
+    /**
+     * Gets the last known status of a server without ever checking
+     * it, for paths that run too often to start refreshes.
+     *
+     * @param serverName the name of the server
+     * @return the last known status, or null if the server has not been checked yet
+     */
+    public Status peek(String serverName) {
+        return statuses.get(serverName);
+    }
+
+    /**
+     * Gets the status of a server, checking it first if the known
+     * status is missing or stale.
+     *
+     * @param serverName the name of the server
+     * @return a CompletableFuture that returns a status no older than the maximum age
+     */
+    public CompletableFuture<Status> getFresh(String serverName) {
+        Status status = statuses.get(serverName);
+        if (status != null && !isStale(status)) {
+            return CompletableFuture.completedFuture(status);
+        }
+
+        return refresh(serverName).thenApply(online -> statuses.get(serverName));
+    }
+
+    /**
+     * Checks the server in the background. Joins the refresh that is
+     * already running for the server, if any.
+     *
+     * @param serverName the name of the server
+     * @return a CompletableFuture that returns whether the server is online
+     */
+    public CompletableFuture<Boolean> refresh(String serverName) {
+        CompletableFuture<Boolean> refresh = new CompletableFuture<>();
+
+        // Guard - Only one refresh per server at a time
+        CompletableFuture<Boolean> running = refreshes.putIfAbsent(serverName, refresh);
+        if (running != null) {
+            return running;
+        }
+
+        // Also covers a check that could not be submitted, so the server can be refreshed again later
+        refresh.whenComplete((online, e) -> refreshes.remove(serverName, refresh));
+
+        try {
+            CompletableFuture
+                .supplyAsync(() -> serverManager.getServerOnlineState(serverName), pluginExecutors.blocking())
+                .whenComplete((online, e) -> {
+                    if (e != null) {
+                        refresh.completeExceptionally(e);
+                    } else {
+                        refresh.complete(online);
+                    }
+                });
+        } catch (RejectedExecutionException e) {
+            refresh.completeExceptionally(e);
+        }
+
+        return refresh;
+    }
+
+    private boolean isStale(Status status) {
+        return status.checkedAt().plusMillis(maxAgeMillis).isBefore(Instant.now());
+    }
+}
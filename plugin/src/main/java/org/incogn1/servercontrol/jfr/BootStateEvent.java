@@ -0,0 +1,21 @@
+package org.incogn1.servercontrol.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A server boot has moved to another state.
+ */
+@Name("org.incogn1.servercontrol.BootState")
+@Label("Boot State Change")
+@Description("A server boot has moved to another state")
+@Category({ "ServerControl", "Boots" })
+@StackTrace(false)
+public class BootStateEvent extends Event {
+
+    @Label("Server")
+    public String server;
+
+    @Label("State")
+    @Description("REQUESTED, QUEUED, STARTED, FOLLOWING_REMOTE, RESUMED, ONLINE or FAILED")
+    public String state;
+}
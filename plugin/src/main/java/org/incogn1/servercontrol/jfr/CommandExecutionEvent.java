@@ -0,0 +1,26 @@
+package org.incogn1.servercontrol.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Execution of a /sc subcommand.
+ */
+@Name("org.incogn1.servercontrol.CommandExecution")
+@Label("Command Execution")
+@Description("Execution of a ServerControl subcommand")
+@Category({ "ServerControl", "Commands" })
+@Threshold("1 ms")
+@StackTrace(false)
+public class CommandExecutionEvent extends Event {
+
+    @Label("Subcommand")
+    public String subcommand;
+
+    @Label("Arguments")
+    @Description("All arguments, including the subcommand")
+    public String arguments;
+
+    @Label("Source")
+    @Description("The name of the player running the command, or console")
+    public String source;
+}
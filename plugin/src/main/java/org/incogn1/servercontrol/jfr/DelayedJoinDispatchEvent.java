@@ -0,0 +1,24 @@
+package org.incogn1.servercontrol.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Players waiting for a server have been sent to it.
+ */
+@Name("org.incogn1.servercontrol.DelayedJoinDispatch")
+@Label("Delayed Join Dispatch")
+@Description("Players waiting for a server to come online have been sent to it")
+@Category({ "ServerControl", "Boots" })
+@StackTrace(false)
+public class DelayedJoinDispatchEvent extends Event {
+
+    @Label("Server")
+    public String server;
+
+    @Label("Waiting Players")
+    public int waitingPlayers;
+
+    @Label("Connected Players")
+    @Description("Waiting players that were still online and have been sent to the server")
+    public int connectedPlayers;
+}
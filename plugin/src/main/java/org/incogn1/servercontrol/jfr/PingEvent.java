@@ -0,0 +1,33 @@
+package org.incogn1.servercontrol.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A check whether a server is online, either with the probe
+ * engine or with a Velocity ping.
+ */
+@Name("org.incogn1.servercontrol.Ping")
+@Label("Server Ping")
+@Description("A check whether a server is online")
+@Category({ "ServerControl", "Pings" })
+@StackTrace(false)
+public class PingEvent extends Event {
+
+    @Label("Server")
+    public String server;
+
+    @Label("Address")
+    public String address;
+
+    @Label("Method")
+    @Description("probe or ping")
+    public String method;
+
+    @Label("Result")
+    @Description("ONLINE, REFUSED, TIMEOUT or ERROR for probes, ONLINE or FAILED for pings")
+    public String result;
+
+    @Label("Round Trip Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long roundTrip;
+}
@@ -0,0 +1,143 @@
+package org.incogn1.servercontrol.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.incogn1.servercontrol.ServerControl.logger;
+
+/**
+ * Starts on-demand Java Flight Recorder recordings, which include the
+ * ServerControl events next to the regular JVM events. Only one
+ * recording can run at a time.
+ */
+public class ProfilingManager {
+
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path recordingsDirectory;
+
+    private Recording activeRecording;
+    private Path activeRecordingPath;
+    private Consumer<Path> activeOnFinished;
+
+    /**
+     * @param recordingsDirectory the directory recordings are written to
+     */
+    public ProfilingManager(Path recordingsDirectory) {
+        this.recordingsDirectory = recordingsDirectory;
+    }
+
+    /**
+     * @return whether the JVM supports flight recordings
+     */
+    public boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    /**
+     * @return whether a recording is currently running
+     */
+    public synchronized boolean isRecording() {
+        return activeRecording != null;
+    }
+
+    /**
+     * Starts a recording that is stopped and written to disk after the
+     * given amount of time.
+     *
+     * @param seconds the duration of the recording
+     * @param configurationName the JFR settings to use, e.g. "default" or "profile"
+     * @param onFinished called with the path of the recording once it has been
+     *        written, or with null if writing it failed
+     * @return the path the recording will be written to
+     *
+     * @throws IllegalStateException if a recording is already running
+     */
+    public synchronized Path start(long seconds, String configurationName, Consumer<Path> onFinished) throws IOException, ParseException {
+
+        // Guard - Only one recording at a time
+        if (activeRecording != null) {
+            throw new IllegalStateException("A recording is already running");
+        }
+
+        Files.createDirectories(recordingsDirectory);
+        Path path = recordingsDirectory.resolve("servercontrol-" + LocalDateTime.now().format(FILE_NAME_FORMAT) + ".jfr");
+
+        Recording recording = new Recording(Configuration.getConfiguration(configurationName));
+        recording.setName("ServerControl");
+        recording.setDestination(path);
+        recording.setToDisk(true);
+        recording.start();
+
+        activeRecording = recording;
+        activeRecordingPath = path;
+        activeOnFinished = onFinished;
+
+        CompletableFuture.runAsync(
+            () -> stop(recording),
+            CompletableFuture.delayedExecutor(seconds, TimeUnit.SECONDS)
+        );
+
+        return path;
+    }
+
+    /**
+     * Stops the running recording early, writing what has been
+     * recorded so far. Used when the proxy shuts down.
+     */
+    public void stopActiveRecording() {
+        Recording recording;
+        synchronized (this) {
+            recording = activeRecording;
+        }
+
+        if (recording != null) {
+            stop(recording);
+        }
+    }
+
+    /**
+     * Stops the recording, writes it to its destination and calls
+     * the callback given when it was started. Does nothing if the
+     * recording has already been stopped.
+     */
+    private void stop(Recording recording) {
+        Path path;
+        Consumer<Path> onFinished;
+        synchronized (this) {
+
+            // Guard - Recording must still be running
+            if (activeRecording != recording) {
+                return;
+            }
+
+            path = activeRecordingPath;
+            onFinished = activeOnFinished;
+            activeRecording = null;
+            activeRecordingPath = null;
+            activeOnFinished = null;
+        }
+
+        try {
+            recording.stop();
+        } catch (IllegalStateException e) {
+            logger.error("Failed to write flight recording {}. {}", path, e.getMessage());
+            path = null;
+        } finally {
+            recording.close();
+        }
+
+        onFinished.accept(path);
+    }
+}
@@ -0,0 +1,24 @@
+package org.incogn1.servercontrol.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A script process has exited. The duration of the event is the
+ * time the script was running.
+ */
+@Name("org.incogn1.servercontrol.ScriptExit")
+@Label("Script Exit")
+@Description("A script process has exited, lasting from spawn to exit")
+@Category({ "ServerControl", "Scripts" })
+@StackTrace(false)
+public class ScriptExitEvent extends Event {
+
+    @Label("Script")
+    public String script;
+
+    @Label("Process Id")
+    public long pid;
+
+    @Label("Exit Code")
+    public int exitCode;
+}
@@ -0,0 +1,20 @@
+package org.incogn1.servercontrol.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A script process has been started.
+ */
+@Name("org.incogn1.servercontrol.ScriptSpawn")
+@Label("Script Spawn")
+@Description("A script process has been started")
+@Category({ "ServerControl", "Scripts" })
+@StackTrace(false)
+public class ScriptSpawnEvent extends Event {
+
+    @Label("Script")
+    public String script;
+
+    @Label("Process Id")
+    public long pid;
+}
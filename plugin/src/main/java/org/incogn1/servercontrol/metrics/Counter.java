@@ -0,0 +1,35 @@
+package org.incogn1.servercontrol.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count. Increments are striped across
+ * cells, so concurrent updates from many threads do not contend.
+ */
+public class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * Adds one to the count.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Adds the given amount to the count.
+     *
+     * @param amount the amount to add, must not be negative
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * @return the current count
+     */
+    public long get() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,182 @@
+package org.incogn1.servercontrol.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * Holds all metrics of the plugin and renders them in the Prometheus
+ * text exposition format.
+ * <p>
+ * Metrics are identified by their name and label values. Looking up a
+ * metric creates it on first use; callers on hot paths should look up
+ * their metrics once and keep the returned instances, so recording a
+ * value does not need a lookup at all.
+ */
+public class MetricsRegistry {
+
+    /** Quantiles exported for every latency recorder */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    /** Metric families by name, sorted for a stable output */
+    private final Map<String, Family<?>> families = new ConcurrentSkipListMap<>();
+
+    /**
+     * Gets or creates a counter.
+     *
+     * @param name the name of the metric, should end in _total
+     * @param help a description of the metric
+     * @param labels alternating label names and values
+     * @return the counter
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return getFamily(name, help, "counter", Counter.class).getOrCreate(labels, ignore -> new Counter());
+    }
+
+    /**
+     * Gets or creates a latency recorder, exported as a summary in seconds.
+     *
+     * @param name the name of the metric, should end in _seconds
+     * @param help a description of the metric
+     * @param labels alternating label names and values
+     * @return the latency recorder
+     */
+    public LatencyRecorder latency(String name, String help, String... labels) {
+        return getFamily(name, help, "summary", LatencyRecorder.class).getOrCreate(labels, ignore -> new LatencyRecorder());
+    }
+
+    /**
+     * Registers a gauge whose value is read when the metrics are
+     * exported. Registering the same gauge again replaces it.
+     *
+     * @param name the name of the metric
+     * @param help a description of the metric
+     * @param supplier supplies the current value
+     * @param labels alternating label names and values
+     */
+    public void gauge(String name, String help, DoubleSupplier supplier, String... labels) {
+        getFamily(name, help, "gauge", DoubleSupplier.class).children.put(formatLabels(labels), supplier);
+    }
+
+    /**
+     * Renders all metrics in the Prometheus text exposition format.
+     *
+     * @return the rendered metrics
+     */
+    public String toPrometheusText() {
+        StringBuilder output = new StringBuilder();
+
+        for (Family<?> family : families.values()) {
+            output.append("# HELP ").append(family.name).append(' ').append(escapeHelp(family.help)).append('\n');
+            output.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+
+            family.children.forEach((labels, metric) -> {
+                if (metric instanceof Counter counter) {
+                    appendSample(output, family.name, labels, counter.get());
+                } else if (metric instanceof DoubleSupplier gauge) {
+                    appendSample(output, family.name, labels, gauge.getAsDouble());
+                } else if (metric instanceof LatencyRecorder recorder) {
+                    for (double quantile : QUANTILES) {
+                        String quantileLabels = addLabel(labels, "quantile", String.valueOf(quantile));
+                        appendSample(output, family.name, quantileLabels, recorder.getQuantileNanos(quantile) / NANOS_PER_SECOND);
+                    }
+                    appendSample(output, family.name + "_sum", labels, recorder.getSumNanos() / NANOS_PER_SECOND);
+                    appendSample(output, family.name + "_count", labels, recorder.getCount());
+                }
+            });
+        }
+
+        return output.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Family<T> getFamily(String name, String help, String type, Class<T> metricClass) {
+        Family<?> family = families.computeIfAbsent(name, ignore -> new Family<>(name, help, type));
+
+        // Guard - A name can only be used for one type of metric
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+
+        return (Family<T>) family;
+    }
+
+    private static void appendSample(StringBuilder output, String name, String labels, double value) {
+        output.append(name).append(labels).append(' ');
+
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            output.append((long) value);
+        } else {
+            output.append(value);
+        }
+
+        output.append('\n');
+    }
+
+    /**
+     * @param labels alternating label names and values
+     * @return the labels in exposition format, e.g. {server="lobby"},
+     *         or an empty string if there are no labels
+     */
+    private static String formatLabels(String... labels) {
+        if (labels.length == 0) {
+            return "";
+        }
+
+        // Guard - Every label needs a value
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be given as name and value pairs");
+        }
+
+        StringBuilder formatted = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                formatted.append(',');
+            }
+            formatted.append(labels[i]).append("=\"").append(escapeLabelValue(labels[i + 1])).append('"');
+        }
+
+        return formatted.append('}').toString();
+    }
+
+    private static String addLabel(String labels, String name, String value) {
+        String label = name + "=\"" + escapeLabelValue(value) + "\"";
+
+        if (labels.isEmpty()) {
+            return "{" + label + "}";
+        }
+
+        return labels.substring(0, labels.length() - 1) + "," + label + "}";
+    }
+
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static final class Family<T> {
+        final String name;
+        final String help;
+        final String type;
+
+        /** Metrics by their formatted labels */
+        final Map<String, T> children = new ConcurrentHashMap<>();
+
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        T getOrCreate(String[] labels, Function<String, T> factory) {
+            return children.computeIfAbsent(formatLabels(labels), factory);
+        }
+    }
+}
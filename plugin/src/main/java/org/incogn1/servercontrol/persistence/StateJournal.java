@@ -0,0 +1,302 @@
+package org.incogn1.servercontrol.persistence;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+import static org.incogn1.servercontrol.ServerControl.logger;
+
+/**
+ * Append-only journal of state changes, used to survive proxy restarts.
+ * <p>
+ * Every record is a single line: the CRC32C checksum of the payload (hex)
+ * followed by the payload, which is the record type and its fields,
+ * separated by tabs. Records are written in batches by a single writer
+ * thread, so appending never blocks the calling thread on disk IO.
+ * <p>
+ * When replaying, reading stops at the first record that is incomplete
+ * or has a wrong checksum, as that can only be the result of a crash
+ * during a write.
+ * <p>
+ * Once enough records have been appended, the journal is compacted:
+ * a snapshot of the current state is written to a temporary file which
+ * then atomically replaces the journal.
+ */
+public class StateJournal {
+
+    private static final String FIELD_SEPARATOR = "\t";
+
+    /** Maximum amount of records written (and synced) in one go */
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final Path journalPath;
+    private final int compactionThreshold;
+    private final Supplier<List<Record>> snapshotSupplier;
+
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private FileChannel channel;
+    private int recordsSinceCompaction = 0;
+
+    /**
+     * A single journal record.
+     *
+     * @param type the type of the record, e.g. "JOIN_SET"
+     * @param fields the fields of the record, must not contain tabs or line breaks
+     */
+    public record Record(String type, String... fields) {
+    }
+
+    /**
+     * Marker placed in the queue to request a flush, completed
+     * once every record before it has been written and synced.
+     */
+    private record FlushRequest(CompletableFuture<Void> future) {
+    }
+
+    /**
+     * @param journalPath the path of the journal file
+     * @param compactionThreshold the amount of appended records after which
+     *        the journal is compacted
+     * @param snapshotSupplier supplies the records that represent the
+     *        current state, used when compacting
+     */
+    public StateJournal(Path journalPath, int compactionThreshold, Supplier<List<Record>> snapshotSupplier) throws IOException {
+        this.journalPath = journalPath;
+        this.compactionThreshold = Math.max(1, compactionThreshold);
+        this.snapshotSupplier = snapshotSupplier;
+
+        Files.createDirectories(journalPath.getParent());
+        this.channel = openChannel();
+
+        this.writerThread = new Thread(this::runWriter, "ServerControl-StateJournal");
+        this.writerThread.setDaemon(true);
+    }
+
+    /**
+     * Reads all valid records from the journal file.
+     *
+     * @return the records in the order they were written
+     */
+    public List<Record> replay() throws IOException {
+        List<Record> records = new ArrayList<>();
+
+        if (!Files.exists(journalPath)) {
+            return records;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Record record = parseLine(line);
+
+                // Guard - Stop at the first damaged record
+                if (record == null) {
+                    logger.warn("State journal contains a damaged record after {} valid records, ignoring the rest.", records.size());
+                    break;
+                }
+
+                records.add(record);
+            }
+        }
+
+        return records;
+    }
+
+    /**
+     * Starts the writer thread. Records appended before this call are
+     * written once it has started.
+     */
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * Queues a record to be written to the journal.
+     *
+     * @param type the type of the record
+     * @param fields the fields of the record
+     */
+    public void append(String type, String... fields) {
+        queue.add(new Record(type, fields));
+    }
+
+    /**
+     * Requests the journal to be compacted as soon as possible.
+     */
+    public void compact() {
+        queue.add(Boolean.TRUE);
+    }
+
+    /**
+     * Writes all queued records and stops the writer thread.
+     */
+    public void close() {
+
+        // Guard - Nothing to flush if the writer never started
+        if (!writerThread.isAlive()) {
+            return;
+        }
+
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        queue.add(new FlushRequest(flushed));
+
+        try {
+            flushed.get();
+        } catch (Exception ignore) {}
+
+        writerThread.interrupt();
+    }
+
+    // -----
+    //  Writer thread
+    // -----
+
+    private void runWriter() {
+        List<Object> batch = new ArrayList<>();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            try {
+                writeBatch(batch);
+            } catch (IOException e) {
+                logger.error("Failed to write to the state journal. {}", e.getMessage());
+            }
+
+            batch.clear();
+        }
+
+        try {
+            channel.close();
+        } catch (IOException ignore) {}
+    }
+
+    private void writeBatch(List<Object> batch) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        List<FlushRequest> flushRequests = new ArrayList<>();
+        boolean compactionRequested = false;
+
+        for (Object entry : batch) {
+            if (entry instanceof Record record) {
+                lines.append(formatLine(record)).append('\n');
+                recordsSinceCompaction++;
+            } else if (entry instanceof FlushRequest flushRequest) {
+                flushRequests.add(flushRequest);
+            } else {
+                compactionRequested = true;
+            }
+        }
+
+        try {
+            if (!lines.isEmpty()) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+
+            if (compactionRequested || recordsSinceCompaction >= compactionThreshold) {
+                writeSnapshot();
+            }
+        } finally {
+            for (FlushRequest flushRequest : flushRequests) {
+                flushRequest.future.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Replaces the journal with a snapshot of the current state.
+     */
+    private void writeSnapshot() throws IOException {
+        Path tempPath = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+
+        StringBuilder lines = new StringBuilder();
+        for (Record record : snapshotSupplier.get()) {
+            lines.append(formatLine(record)).append('\n');
+        }
+
+        try (FileChannel tempChannel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                tempChannel.write(buffer);
+            }
+            tempChannel.force(true);
+        }
+
+        channel.close();
+        Files.move(tempPath, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = openChannel();
+
+        recordsSinceCompaction = 0;
+    }
+
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // -----
+    //  Record encoding
+    // -----
+
+    private static String formatLine(Record record) {
+        StringBuilder payload = new StringBuilder(record.type());
+        for (String field : record.fields()) {
+            payload.append(FIELD_SEPARATOR).append(field);
+        }
+
+        return Long.toHexString(checksum(payload.toString())) + " " + payload;
+    }
+
+    /**
+     * @return the parsed record, or null if the line is damaged
+     */
+    private static Record parseLine(String line) {
+        int separator = line.indexOf(' ');
+        if (separator <= 0) {
+            return null;
+        }
+
+        String payload = line.substring(separator + 1);
+        try {
+            if (Long.parseLong(line.substring(0, separator), 16) != checksum(payload)) {
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        String[] parts = payload.split(FIELD_SEPARATOR, -1);
+        String[] fields = new String[parts.length - 1];
+        System.arraycopy(parts, 1, fields, 0, fields.length);
+
+        return new Record(parts[0], fields);
+    }
+
+    private static long checksum(String payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,390 @@
+package org.incogn1.servercontrol.probe;
+
+import org.incogn1.servercontrol.ServerControl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks whether backend servers are reachable using non-blocking TCP
+ * connects, all driven by a single selector thread.
+ * <p>
+ * A refused connection is reported as soon as the kernel reports it,
+ * instead of waiting for a ping timeout. Optionally, a minimal Server
+ * List Ping handshake is sent after connecting, so that a port that is
+ * bound but not yet serving (e.g. during world loading) is not counted
+ * as online.
+ * <p>
+ * The amount of probes in flight is limited using AIMD: every answered
+ * probe increases the limit a little, every timed out probe halves it.
+ */
+public class ProbeEngine {
+
+    /** Protocol version sent in the handshake, -1 is accepted by every server for status requests */
+    private static final int HANDSHAKE_PROTOCOL_VERSION = -1;
+
+    /** Next state sent in the handshake, 1 means status */
+    private static final int HANDSHAKE_NEXT_STATE_STATUS = 1;
+
+    private final int minConcurrency;
+    private final int maxConcurrency;
+
+    private final Selector selector;
+    private final Thread selectorThread;
+    private volatile boolean running = true;
+
+    /** Probes submitted by other threads, drained by the selector thread */
+    private final Queue<Probe> submittedProbes = new ConcurrentLinkedQueue<>();
+
+    /** Probes waiting for a free concurrency slot (selector thread only) */
+    private final Deque<Probe> pendingProbes = new ArrayDeque<>();
+
+    /** Probes with an open connection (selector thread only) */
+    private final List<Probe> inFlightProbes = new ArrayList<>();
+
+    /** Current AIMD concurrency limit (selector thread only) */
+    private double concurrencyLimit;
+
+    public ProbeEngine(int minConcurrency, int maxConcurrency) throws IOException {
+        this.minConcurrency = Math.max(1, minConcurrency);
+        this.maxConcurrency = Math.max(this.minConcurrency, maxConcurrency);
+        this.concurrencyLimit = this.minConcurrency;
+
+        this.selector = Selector.open();
+        this.selectorThread = new Thread(this::run, "ServerControl-ProbeEngine");
+        this.selectorThread.setDaemon(true);
+        this.selectorThread.start();
+    }
+
+    /**
+     * Probes the given address.
+     *
+     * @param address the address of the backend server
+     * @param handshake whether to send a Server List Ping handshake
+     *        after connecting and wait for the server to answer it
+     * @param timeoutMillis the maximum time the probe may take,
+     *        including the time spent waiting for a free slot
+     * @return a CompletableFuture that completes with the result of
+     *         the probe. It never completes exceptionally.
+     */
+    public CompletableFuture<ProbeResult> probe(InetSocketAddress address, boolean handshake, long timeoutMillis) {
+        CompletableFuture<ProbeResult> future = new CompletableFuture<>();
+
+        // Guard - Engine must still be running
+        if (!running) {
+            future.complete(new ProbeResult(address, ProbeResult.Status.ERROR, -1));
+            return future;
+        }
+
+        // Velocity keeps server addresses unresolved, the channel needs a resolved one
+        InetSocketAddress resolvedAddress = address;
+        if (address.isUnresolved()) {
+            resolvedAddress = new InetSocketAddress(address.getHostString(), address.getPort());
+        }
+
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000;
+        Probe probe = new Probe(address, resolvedAddress, handshake, deadline, future);
+        submittedProbes.add(probe);
+        selector.wakeup();
+
+        // The engine may have shut down after the guard above. If the selector
+        // thread did not take the probe before draining, nobody else will complete it.
+        if (!running && submittedProbes.remove(probe)) {
+            future.complete(new ProbeResult(address, ProbeResult.Status.ERROR, -1));
+        }
+
+        return future;
+    }
+
+    /**
+     * Stops the selector thread. Probes that are still pending or in
+     * flight are completed with an ERROR status.
+     */
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    // -----
+    //  Selector thread
+    // -----
+
+    private void run() {
+        while (running) {
+            try {
+                startPendingProbes();
+
+                selector.select(getSelectTimeoutMillis());
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    handleKey(key);
+                }
+
+                expireProbes();
+            } catch (Exception e) {
+                ServerControl.logger.error("Unexpected error in the probe engine. {}", e.getMessage());
+            }
+        }
+
+        // Fail everything that is left, probes submitted from now on are failed by probe()
+        Probe submitted;
+        while ((submitted = submittedProbes.poll()) != null) {
+            pendingProbes.add(submitted);
+        }
+        for (Probe probe : new ArrayList<>(inFlightProbes)) {
+            complete(probe, ProbeResult.Status.ERROR);
+        }
+        for (Probe probe : pendingProbes) {
+            completeFuture(probe, new ProbeResult(probe.address, ProbeResult.Status.ERROR, -1));
+        }
+        pendingProbes.clear();
+
+        try {
+            selector.close();
+        } catch (IOException ignore) {}
+    }
+
+    /**
+     * Opens connections for pending probes until the concurrency
+     * limit has been reached.
+     */
+    private void startPendingProbes() {
+        Probe submitted;
+        while ((submitted = submittedProbes.poll()) != null) {
+            pendingProbes.add(submitted);
+        }
+
+        while (!pendingProbes.isEmpty() && inFlightProbes.size() < (int) concurrencyLimit) {
+            Probe probe = pendingProbes.poll();
+            inFlightProbes.add(probe);
+            probe.startNanos = System.nanoTime();
+
+            try {
+                SocketChannel channel = SocketChannel.open();
+                probe.channel = channel;
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+                if (channel.connect(probe.resolvedAddress)) {
+                    probe.key = channel.register(selector, 0, probe);
+                    onConnected(probe);
+                } else {
+                    probe.key = channel.register(selector, SelectionKey.OP_CONNECT, probe);
+                }
+            } catch (ConnectException e) {
+                complete(probe, ProbeResult.Status.REFUSED);
+            } catch (Exception e) {
+                complete(probe, ProbeResult.Status.ERROR);
+            }
+        }
+    }
+
+    private void handleKey(SelectionKey key) {
+        Probe probe = (Probe) key.attachment();
+
+        // Guard - Probe might have been completed already
+        if (!key.isValid() || probe.future.isDone()) {
+            return;
+        }
+
+        try {
+            if (key.isConnectable()) {
+                probe.channel.finishConnect();
+                onConnected(probe);
+            } else if (key.isWritable()) {
+                probe.channel.write(probe.buffer);
+                if (!probe.buffer.hasRemaining()) {
+                    probe.buffer = ByteBuffer.allocate(1);
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            } else if (key.isReadable()) {
+                int read = probe.channel.read(probe.buffer);
+                if (read > 0) {
+                    complete(probe, ProbeResult.Status.ONLINE);
+                } else if (read < 0) {
+                    complete(probe, ProbeResult.Status.ERROR);
+                }
+            }
+        } catch (ConnectException e) {
+            complete(probe, ProbeResult.Status.REFUSED);
+        } catch (IOException e) {
+            complete(probe, ProbeResult.Status.ERROR);
+        }
+    }
+
+    /**
+     * Called once the TCP connection has been established. Either
+     * completes the probe or starts the handshake.
+     */
+    private void onConnected(Probe probe) {
+        if (!probe.handshake) {
+            complete(probe, ProbeResult.Status.ONLINE);
+            return;
+        }
+
+        probe.buffer = ByteBuffer.wrap(createStatusRequest(probe.address));
+        probe.key.interestOps(SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Completes every in flight or pending probe whose deadline has passed.
+     */
+    private void expireProbes() {
+        long now = System.nanoTime();
+
+        for (Probe probe : new ArrayList<>(inFlightProbes)) {
+            if (now - probe.deadlineNanos >= 0) {
+                complete(probe, ProbeResult.Status.TIMEOUT);
+            }
+        }
+
+        Iterator<Probe> pending = pendingProbes.iterator();
+        while (pending.hasNext()) {
+            Probe probe = pending.next();
+            if (now - probe.deadlineNanos >= 0) {
+                pending.remove();
+                completeFuture(probe, new ProbeResult(probe.address, ProbeResult.Status.TIMEOUT, -1));
+            }
+        }
+    }
+
+    /**
+     * @return the time until the nearest probe deadline, or 0
+     *         (wait indefinitely) if there are no probes
+     */
+    private long getSelectTimeoutMillis() {
+        long now = System.nanoTime();
+        long nearest = Long.MAX_VALUE;
+
+        for (Probe probe : inFlightProbes) {
+            nearest = Math.min(nearest, probe.deadlineNanos - now);
+        }
+        for (Probe probe : pendingProbes) {
+            nearest = Math.min(nearest, probe.deadlineNanos - now);
+        }
+
+        if (nearest == Long.MAX_VALUE) {
+            return 0;
+        }
+
+        return Math.max(1, nearest / 1_000_000 + 1);
+    }
+
+    /**
+     * Closes the connection of an in flight probe, adjusts the
+     * concurrency limit and completes the future.
+     */
+    private void complete(Probe probe, ProbeResult.Status status) {
+        inFlightProbes.remove(probe);
+
+        if (probe.channel != null) {
+            try {
+                probe.channel.close();
+            } catch (IOException ignore) {}
+        }
+
+        long roundTripNanos = -1;
+        if (status == ProbeResult.Status.ONLINE) {
+            roundTripNanos = System.nanoTime() - probe.startNanos;
+        }
+
+        // AIMD - Answers grow the limit by roughly one per round, timeouts halve it
+        if (status == ProbeResult.Status.TIMEOUT) {
+            concurrencyLimit = Math.max(minConcurrency, concurrencyLimit / 2);
+        } else {
+            concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+        }
+
+        completeFuture(probe, new ProbeResult(probe.address, status, roundTripNanos));
+    }
+
+    /**
+     * Completes the future off the selector thread, so callbacks
+     * chained by callers can never stall other probes.
+     */
+    private void completeFuture(Probe probe, ProbeResult result) {
+        ForkJoinPool.commonPool().execute(() -> probe.future.complete(result));
+    }
+
+    // -----
+    //  Server List Ping encoding
+    // -----
+
+    /**
+     * Creates a handshake packet (next state: status) directly
+     * followed by a status request packet.
+     *
+     * @param address the address of the server, sent in the handshake
+     * @return the bytes to be written to the connection
+     */
+    private static byte[] createStatusRequest(InetSocketAddress address) {
+        ByteArrayOutputStream handshake = new ByteArrayOutputStream();
+        writeVarInt(handshake, 0x00); // Packet id
+        writeVarInt(handshake, HANDSHAKE_PROTOCOL_VERSION);
+        byte[] host = address.getHostString().getBytes(StandardCharsets.UTF_8);
+        writeVarInt(handshake, host.length);
+        handshake.writeBytes(host);
+        handshake.write((address.getPort() >> 8) & 0xFF);
+        handshake.write(address.getPort() & 0xFF);
+        writeVarInt(handshake, HANDSHAKE_NEXT_STATE_STATUS);
+
+        ByteArrayOutputStream packets = new ByteArrayOutputStream();
+        writeVarInt(packets, handshake.size());
+        packets.writeBytes(handshake.toByteArray());
+
+        // Status request: length 1, packet id 0
+        writeVarInt(packets, 1);
+        writeVarInt(packets, 0x00);
+
+        return packets.toByteArray();
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * State of a single probe. Only touched by the selector
+     * thread after it has been submitted.
+     */
+    private static final class Probe {
+        final InetSocketAddress address;
+        final InetSocketAddress resolvedAddress;
+        final boolean handshake;
+        final long deadlineNanos;
+        final CompletableFuture<ProbeResult> future;
+
+        long startNanos;
+        SocketChannel channel;
+        SelectionKey key;
+        ByteBuffer buffer;
+
+        Probe(InetSocketAddress address, InetSocketAddress resolvedAddress, boolean handshake, long deadlineNanos, CompletableFuture<ProbeResult> future) {
+            this.address = address;
+            this.resolvedAddress = resolvedAddress;
+            this.handshake = handshake;
+            this.deadlineNanos = deadlineNanos;
+            this.future = future;
+        }
+    }
+}
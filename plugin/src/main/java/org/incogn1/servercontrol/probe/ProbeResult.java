@@ -0,0 +1,43 @@
+package org.incogn1.servercontrol.probe;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The outcome of a single liveness probe against a backend server.
+ *
+ * @param address the address that was probed
+ * @param status the status the probe ended with
+ * @param roundTripNanos the time between starting the connect and
+ *        receiving the answer, or -1 if the probe did not succeed
+ */
+public record ProbeResult(
+        InetSocketAddress address,
+        Status status,
+        long roundTripNanos) {
+
+    public enum Status {
+        /** The server accepted the connection (and answered the handshake if one was sent) */
+        ONLINE,
+        /** The connection was actively refused, nothing is listening on the port */
+        REFUSED,
+        /** The server did not answer before the probe deadline */
+        TIMEOUT,
+        /** Any other network error, e.g. the connection was closed before answering */
+        ERROR
+    }
+
+    /**
+     * @return true if the probed server is considered online
+     */
+    public boolean isOnline() {
+        return status == Status.ONLINE;
+    }
+
+    /**
+     * @return the round trip time in milliseconds, or -1 if
+     *         the probe did not succeed
+     */
+    public long roundTripMillis() {
+        return roundTripNanos < 0 ? -1 : roundTripNanos / 1_000_000;
+    }
+}
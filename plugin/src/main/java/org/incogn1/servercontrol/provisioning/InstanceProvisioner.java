@@ -0,0 +1,313 @@
+package org.incogn1.servercontrol.provisioning;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Creates new server instances from template directories, e.g. for
+ * minigames that need a fresh server per round.
+ * <p>
+ * Provisioning an instance reserves a name and a port, copies the
+ * template to the instances directory (see {@link TemplateCopier}),
+ * sets the port in its server.properties and registers the server with
+ * the proxy. The instance is then started like any other server, with
+ * the startup and stop scripts inside its own directory.
+ * <p>
+ * Instances only exist until the proxy restarts, their directories are
+ * left on disk.
+ */
+public class InstanceProvisioner {
+
+    /**
+     * A provisioned server.
+     *
+     * @param serverName the name the server is registered with
+     * @param template the name of the template it was created from
+     * @param directory the directory of the instance
+     * @param port the port the instance listens on
+     */
+    public record Instance(String serverName, String template, Path directory, int port) {
+    }
+
+    private final Path templatesDirectory;
+
+    private final Path instancesDirectory;
+
+    private final String startupScript;
+
+    private final String stopScript;
+
+    private final boolean deleteOnStop;
+
+    private final TemplateCopier copier;
+
+    private final PortPool portPool;
+
+    private final Map<String, Instance> instances = new ConcurrentHashMap<>();
+
+    /** Names taken by instances that are still being copied */
+    private final Set<String> reservedNames = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param templatesDirectory the directory containing a directory per template
+     * @param instancesDirectory the directory the instances are created in
+     * @param startupScript the name of the startup script inside every template
+     * @param stopScript the name of the stop script inside every template
+     * @param deleteOnStop whether to remove instances once they are stopped with /sc stop
+     * @param copier the copier for the template files
+     * @param portPool the pool the ports of the instances are taken from
+     */
+    public InstanceProvisioner(Path templatesDirectory, Path instancesDirectory, String startupScript, String stopScript, boolean deleteOnStop, TemplateCopier copier, PortPool portPool) {
+        this.templatesDirectory = templatesDirectory;
+        this.instancesDirectory = instancesDirectory;
+        this.startupScript = startupScript;
+        this.stopScript = stopScript;
+        this.deleteOnStop = deleteOnStop;
+        this.copier = copier;
+        this.portPool = portPool;
+    }
+
+    /**
+     * @param template the name of the template
+     * @return true if a directory exists for the template
+     */
+    public boolean templateExists(String template) {
+        return !template.isEmpty()
+            && !template.contains("/") && !template.contains("\\") && !template.contains("..")
+            && Files.isDirectory(templatesDirectory.resolve(template));
+    }
+
+    /**
+     * @return the names of all templates, sorted
+     */
+    public List<String> getTemplateNames() {
+        // Guard - No templates yet
+        if (!Files.isDirectory(templatesDirectory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> templates = Files.list(templatesDirectory)) {
+            return templates
+                .filter(Files::isDirectory)
+                .map(path -> path.getFileName().toString())
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * @param serverName the name of the server
+     * @return the instance, or null if the server was not provisioned
+     */
+    public Instance getInstance(String serverName) {
+        return instances.get(serverName);
+    }
+
+    /**
+     * Returns the path of the startup script of an instance, which is
+     * part of the template it was created from.
+     *
+     * @param instance the instance
+     * @return the absolute path to the startup script
+     */
+    public Path getStartupScriptPath(Instance instance) {
+        return instance.directory().resolve(startupScript);
+    }
+
+    /**
+     * Returns the path of the stop script of an instance, which is
+     * part of the template it was created from.
+     *
+     * @param instance the instance
+     * @return the absolute path to the stop script
+     */
+    public Path getStopScriptPath(Instance instance) {
+        return instance.directory().resolve(stopScript);
+    }
+
+    /**
+     * Reserves a name and a port and copies the template in the background.
+     * The server is registered with the proxy once the copy has finished,
+     * but not started.
+     *
+     * @param template the name of an existing template
+     * @return a CompletableFuture that returns the new instance, or fails
+     *         with an IOException if the template could not be copied
+     *
+     * @throws ProvisioningException if no port is free
+     */
+    public CompletableFuture<Instance> provision(String template) throws ProvisioningException {
+        String serverName = reserveName(template);
+
+        OptionalInt port = portPool.allocate(this::isPortRegistered);
+        if (port.isEmpty()) {
+            reservedNames.remove(serverName);
+            throw new ProvisioningException("No free port left in the port pool");
+        }
+
+        Instance instance = new Instance(serverName, template, instancesDirectory.resolve(serverName), port.getAsInt());
+
+        return CompletableFuture.supplyAsync(() -> {
+            long startNanos = System.nanoTime();
+
+            try {
+                TemplateCopier.Result result = copier.copy(templatesDirectory.resolve(template), instance.directory());
+                setServerPort(instance);
+
+                logger.info(
+                    "Provisioned {} from template {} in {} ms ({} files linked, {} cloned, {} copied).",
+                    serverName, template, (System.nanoTime() - startNanos) / 1_000_000,
+                    result.linkedFiles(), result.clonedFiles(), result.copiedFiles()
+                );
+            } catch (IOException e) {
+                logger.error("Failed to provision {} from template {}. {}", serverName, template, e.getMessage());
+
+                deleteDirectory(instance.directory());
+                portPool.release(instance.port());
+                reservedNames.remove(serverName);
+
+                throw new CompletionException(e);
+            }
+
+            metricsRegistry.latency(
+                "servercontrol_provision_duration_seconds",
+                "Time to copy a template to a new instance",
+                "template", template
+            ).recordSince(startNanos);
+
+            proxy.registerServer(new ServerInfo(serverName, new InetSocketAddress(portPool.getHost(), instance.port())));
+            instances.put(serverName, instance);
+            reservedNames.remove(serverName);
+
+            return instance;
+        }, pluginExecutors.blocking());
+    }
+
+    /**
+     * Removes an instance that has been stopped, if instances are
+     * deleted on stop: unregisters the server, deletes its directory
+     * and gives its port back to the pool.
+     *
+     * @param serverName the name of the stopped server
+     */
+    public void onServerStopped(String serverName) {
+        Instance instance = instances.get(serverName);
+
+        // Guard - Only provisioned instances that should be deleted
+        if (instance == null || !deleteOnStop) {
+            return;
+        }
+
+        instances.remove(serverName);
+
+        RegisteredServer server = serverManager.getServer(serverName);
+        if (server != null) {
+            proxy.unregisterServer(server.getServerInfo());
+        }
+
+        deleteDirectory(instance.directory());
+        portPool.release(instance.port());
+
+        logger.info("Removed instance {}.", serverName);
+    }
+
+    /**
+     * Stops the copy threads.
+     */
+    public void shutdown() {
+        copier.shutdown();
+    }
+
+    /**
+     * @param template the name of the template
+     * @return the first free name of the form template-number
+     */
+    private String reserveName(String template) {
+        for (int number = 1; ; number++) {
+            String serverName = template + "-" + number;
+
+            if (serverManager.getServer(serverName) != null || Files.exists(instancesDirectory.resolve(serverName))) {
+                continue;
+            }
+
+            if (reservedNames.add(serverName)) {
+                return serverName;
+            }
+        }
+    }
+
+    private boolean isPortRegistered(int port) {
+        for (RegisteredServer server : proxy.getAllServers()) {
+            if (server.getServerInfo().getAddress().getPort() == port) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Sets the port in the server.properties of the instance, if it has one.
+     * The file is replaced instead of written to, so a server.properties
+     * that was hard-linked from the template is never changed.
+     *
+     * @param instance the instance
+     */
+    private void setServerPort(Instance instance) throws IOException {
+        Path properties = instance.directory().resolve("server.properties");
+
+        // Guard - Not every server type uses server.properties
+        if (!Files.exists(properties)) {
+            return;
+        }
+
+        List<String> lines = new ArrayList<>(Files.readAllLines(properties, StandardCharsets.UTF_8));
+        lines.removeIf(line -> line.startsWith("server-port="));
+        lines.add("server-port=" + instance.port());
+
+        Path temporary = properties.resolveSibling("server.properties.tmp");
+        Files.write(temporary, lines, StandardCharsets.UTF_8);
+        Files.move(temporary, properties, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void deleteDirectory(Path directory) {
+        // Guard - Nothing to delete
+        if (!Files.exists(directory)) {
+            return;
+        }
+
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            logger.error("Failed to delete the instance directory {}. {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.incogn1.servercontrol.provisioning;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.BitSet;
+import java.util.OptionalInt;
+import java.util.function.IntPredicate;
+
+/**
+ * Hands out the ports of provisioned instances from a configured range.
+ * <p>
+ * A port is only handed out if no other instance holds it, no registered
+ * server uses it and nothing on the host is listening on it, so instances
+ * never collide with servers that were set up by hand.
+ */
+public class PortPool {
+
+    private final String host;
+
+    private final int firstPort;
+
+    private final int lastPort;
+
+    /** Bit (port - firstPort) is set while the port is held by an instance */
+    private final BitSet allocated = new BitSet();
+
+    /**
+     * @param host the host the instances listen on
+     * @param firstPort the first port of the range
+     * @param lastPort the last port of the range (inclusive)
+     */
+    public PortPool(String host, int firstPort, int lastPort) {
+        this.host = host;
+        this.firstPort = firstPort;
+        this.lastPort = lastPort;
+    }
+
+    /**
+     * Parses a port range like "30000-30100", or a single port.
+     *
+     * @param range the range from the config
+     * @return the first and last port of the range
+     *
+     * @throws IllegalArgumentException if the range is not valid
+     */
+    public static int[] parseRange(String range) {
+        String[] parts = range.trim().split("\\s*-\\s*");
+
+        try {
+            int first = Integer.parseInt(parts[0]);
+            int last = parts.length > 1 ? Integer.parseInt(parts[1]) : first;
+
+            if (parts.length > 2 || first < 1 || last > 65535 || first > last) {
+                throw new IllegalArgumentException("Invalid port range: " + range);
+            }
+
+            return new int[]{ first, last };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid port range: " + range, e);
+        }
+    }
+
+    /**
+     * Takes the lowest free port of the range.
+     *
+     * @param isUsed whether a port is already used by a registered server
+     * @return the port, or empty if every port of the range is taken
+     */
+    public synchronized OptionalInt allocate(IntPredicate isUsed) {
+        for (int index = allocated.nextClearBit(0); firstPort + index <= lastPort; index = allocated.nextClearBit(index + 1)) {
+            int port = firstPort + index;
+
+            if (isUsed.test(port) || !isBindable(port)) {
+                continue;
+            }
+
+            allocated.set(index);
+            return OptionalInt.of(port);
+        }
+
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Gives a port back to the pool.
+     *
+     * @param port the port to release
+     */
+    public synchronized void release(int port) {
+        if (port >= firstPort && port <= lastPort) {
+            allocated.clear(port - firstPort);
+        }
+    }
+
+    /**
+     * @return the host the instances listen on
+     */
+    public String getHost() {
+        return host;
+    }
+
+    private boolean isBindable(int port) {
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.setReuseAddress(false);
+            socket.bind(new InetSocketAddress(host, port));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
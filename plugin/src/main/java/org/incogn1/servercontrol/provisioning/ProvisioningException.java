@@ -0,0 +1,12 @@
+package org.incogn1.servercontrol.provisioning;
+
+/**
+ * Thrown when an instance can not be provisioned, e.g. because every
+ * port of the port pool is taken, see {@link InstanceProvisioner}.
+ */
+public class ProvisioningException extends Exception {
+
+    public ProvisioningException(String message) {
+        super(message);
+    }
+}
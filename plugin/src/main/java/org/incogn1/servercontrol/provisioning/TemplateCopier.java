@@ -0,0 +1,263 @@
+package org.incogn1.servercontrol.provisioning;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.incogn1.servercontrol.ServerControl.logger;
+
+/**
+ * Copies a template directory to a new instance directory as fast as the
+ * filesystem allows.
+ * <p>
+ * The template is walked once. Directories are created while walking,
+ * the files are handed to a pool of copy threads, so large templates are
+ * copied in parallel instead of one file at a time.
+ * <p>
+ * Read-only files (plugin jars, libraries) are hard-linked, which takes
+ * no time and no space regardless of their size. Servers must not change
+ * these files, as the change would show up in the template and in every
+ * other instance. Mutable files (worlds, configs) are cloned with
+ * {@code cp --reflink=always} (FICLONE) on filesystems supporting it,
+ * such as btrfs and XFS, so they share their blocks with the template
+ * until written to. On other filesystems, or when cp is not available,
+ * they are copied normally.
+ */
+public class TemplateCopier {
+
+    /** The maximum amount of files cloned by a single cp process */
+    private static final int MAX_FILES_PER_CLONE = 256;
+
+    /**
+     * The outcome of a copy.
+     *
+     * @param linkedFiles the amount of hard-linked files
+     * @param clonedFiles the amount of files cloned with reflink
+     * @param copiedFiles the amount of files copied normally
+     * @param copiedBytes the size of the files copied normally
+     */
+    public record Result(int linkedFiles, int clonedFiles, int copiedFiles, long copiedBytes) {
+    }
+
+    private final List<PathMatcher> readOnlyMatchers = new ArrayList<>();
+
+    private final ExecutorService copyThreads;
+
+    /** Cleared once reflink has failed, so later copies skip it right away */
+    private final AtomicBoolean reflinkAvailable;
+
+    /**
+     * @param readOnlyPatterns glob patterns, relative to the template, of the files to hard-link
+     * @param useReflink whether to try cloning mutable files with reflink
+     * @param threads the amount of files copied at the same time
+     */
+    public TemplateCopier(List<String> readOnlyPatterns, boolean useReflink, int threads) {
+        for (String pattern : readOnlyPatterns) {
+            readOnlyMatchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+        }
+
+        this.reflinkAvailable = new AtomicBoolean(useReflink && !System.getProperty("os.name").toLowerCase().startsWith("windows"));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.copyThreads = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "ServerControl-Copy-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Copies the template to the target directory, which must not exist yet.
+     * Blocks until every file has been copied.
+     *
+     * @param template the template directory
+     * @param target the directory to create
+     * @return the amount of files linked, cloned and copied
+     *
+     * @throws IOException if a file could not be copied, the target is then incomplete
+     */
+    public Result copy(Path template, Path target) throws IOException {
+        AtomicInteger linkedFiles = new AtomicInteger();
+        AtomicInteger clonedFiles = new AtomicInteger();
+        AtomicInteger copiedFiles = new AtomicInteger();
+        AtomicLong copiedBytes = new AtomicLong();
+
+        List<Future<?>> tasks = new ArrayList<>();
+
+        // Mutable files per directory, cloned together once the directory has been walked
+        Deque<List<Path>> pendingClones = new ArrayDeque<>();
+
+        IOException failure = null;
+        try {
+            Files.walkFileTree(template, new SimpleFileVisitor<>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                    Files.createDirectories(target.resolve(template.relativize(dir).toString()));
+                    pendingClones.push(new ArrayList<>());
+
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    Path relative = template.relativize(file);
+                    Path targetFile = target.resolve(relative.toString());
+
+                    if (isReadOnly(relative)) {
+                        tasks.add(copyThreads.submit(() -> {
+                            if (link(file, targetFile)) {
+                                linkedFiles.incrementAndGet();
+                            } else {
+                                copiedFiles.incrementAndGet();
+                                copiedBytes.addAndGet(attributes.size());
+                            }
+                            return null;
+                        }));
+                    } else if (reflinkAvailable.get()) {
+                        pendingClones.peek().add(file);
+                    } else {
+                        tasks.add(copyThreads.submit(() -> {
+                            Files.copy(file, targetFile, StandardCopyOption.COPY_ATTRIBUTES);
+                            copiedFiles.incrementAndGet();
+                            copiedBytes.addAndGet(attributes.size());
+                            return null;
+                        }));
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                    if (e != null) {
+                        throw e;
+                    }
+
+                    List<Path> files = pendingClones.pop();
+                    Path targetDir = target.resolve(template.relativize(dir).toString());
+
+                    for (int i = 0; i < files.size(); i += MAX_FILES_PER_CLONE) {
+                        List<Path> chunk = files.subList(i, Math.min(files.size(), i + MAX_FILES_PER_CLONE));
+                        tasks.add(copyThreads.submit(() -> {
+                            cloneOrCopy(chunk, targetDir, clonedFiles, copiedFiles, copiedBytes);
+                            return null;
+                        }));
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        // Wait for every file that was handed out, also after a failure, so nothing writes to the target anymore
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof IOException ioException
+                        ? ioException
+                        : new IOException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while copying " + template, e);
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        return new Result(linkedFiles.get(), clonedFiles.get(), copiedFiles.get(), copiedBytes.get());
+    }
+
+    /**
+     * Stops the copy threads.
+     */
+    public void shutdown() {
+        copyThreads.shutdownNow();
+    }
+
+    private boolean isReadOnly(Path relativePath) {
+        for (PathMatcher matcher : readOnlyMatchers) {
+            if (matcher.matches(relativePath)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Hard-links a file, or copies it if the template and the instance are
+     * on different filesystems (or the filesystem has no hard links).
+     *
+     * @return true if linked, false if copied
+     */
+    private boolean link(Path file, Path targetFile) throws IOException {
+        try {
+            Files.createLink(targetFile, file);
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.copy(file, targetFile, StandardCopyOption.COPY_ATTRIBUTES);
+            return false;
+        }
+    }
+
+    /**
+     * Clones the files into the target directory with a single cp process.
+     * If the filesystem does not support reflink, reflink is disabled for
+     * later copies and the files are copied normally.
+     */
+    private void cloneOrCopy(List<Path> files, Path targetDir, AtomicInteger clonedFiles, AtomicInteger copiedFiles, AtomicLong copiedBytes) throws IOException {
+        if (reflinkAvailable.get() && clone(files, targetDir)) {
+            clonedFiles.addAndGet(files.size());
+            return;
+        }
+
+        for (Path file : files) {
+            Files.copy(file, targetDir.resolve(file.getFileName().toString()), StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+            copiedFiles.incrementAndGet();
+            copiedBytes.addAndGet(Files.size(file));
+        }
+    }
+
+    private boolean clone(List<Path> files, Path targetDir) {
+        List<String> command = new ArrayList<>(List.of("cp", "--reflink=always", "--preserve=mode,timestamps", "--"));
+        for (Path file : files) {
+            command.add(file.toString());
+        }
+        command.add(targetDir.toString() + "/");
+
+        try {
+            Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+            if (process.waitFor() == 0) {
+                return true;
+            }
+        } catch (IOException e) {
+            // No cp available
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        if (reflinkAvailable.compareAndSet(true, false)) {
+            logger.info("The filesystem of the instances does not support reflink copies, copying worlds normally.");
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package org.incogn1.servercontrol.rest;
+
+import org.incogn1.servercontrol.boot.BulkStartJob;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the start jobs created through the API, so their progress can
+ * be queried by id. Only the most recent jobs are kept.
+ */
+public class ApiJobRegistry {
+
+    /** Maximum amount of jobs kept */
+    private static final int MAX_JOBS = 200;
+
+    /**
+     * @param id the id of the job
+     * @param createdAt when the job was created
+     * @param job the bulk start that does the work
+     */
+    public record ApiJob(String id, Instant createdAt, BulkStartJob job) {}
+
+    private final Map<String, ApiJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ApiJob> eldest) {
+            return size() > MAX_JOBS;
+        }
+    };
+
+    /**
+     * Registers a job under a new id.
+     *
+     * @param job the planned job
+     * @return the registered job
+     */
+    public synchronized ApiJob register(BulkStartJob job) {
+        ApiJob apiJob = new ApiJob(UUID.randomUUID().toString(), Instant.now(), job);
+        jobs.put(apiJob.id(), apiJob);
+
+        return apiJob;
+    }
+
+    /**
+     * @param id the id of the job
+     * @return the job, or null if it does not exist (anymore)
+     */
+    public synchronized ApiJob get(String id) {
+        return jobs.get(id);
+    }
+}
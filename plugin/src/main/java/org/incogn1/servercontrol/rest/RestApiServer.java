@@ -0,0 +1,369 @@
+package org.incogn1.servercontrol.rest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.incogn1.servercontrol.boot.BulkStartJob;
+import org.incogn1.servercontrol.api.event.ServerStateChange;
+import org.incogn1.servercontrol.health.ServerStatusCache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Serves the HTTP control API, which lets other tools list the servers,
+ * start them and follow their boots.
+ * <p>
+ * Endpoints, all requiring an "Authorization: Bearer [token]" header:
+ * <ul>
+ *   <li>GET /api/servers - all servers with their cached online state and boot state</li>
+ *   <li>POST /api/servers/[server]/start - starts a server (and its dependencies) as a job</li>
+ *   <li>POST /api/jobs - starts the servers in the body, e.g. {"servers": ["lobby", "hub-*"]}, as a job</li>
+ *   <li>GET /api/jobs/[id] - the progress of a job</li>
+ *   <li>GET /api/events - a Server-Sent Events stream of boot state changes and finished jobs</li>
+ * </ul>
+ * Starts go through the same bulk start as /sc start, so the boot
+ * admission, coordination and depends-on config all apply.
+ */
+public class RestApiServer {
+
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    /** Maximum size of a request body */
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final byte[] token;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SseBroadcaster broadcaster;
+    private final ApiJobRegistry jobs = new ApiJobRegistry();
+
+    private final StateChangeForwarder stateChangeForwarder = new StateChangeForwarder();
+
+    /**
+     * Starts serving the API.
+     *
+     * @param bindAddress the address to listen on
+     * @param port the port to listen on
+     * @param token the token clients have to send, must not be empty
+     * @param threads the amount of threads handling requests
+     * @param maxEventSubscribers the maximum amount of clients on the event stream
+     */
+    public RestApiServer(String bindAddress, int port, String token, int threads, int maxEventSubscribers) throws IOException {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.broadcaster = new SseBroadcaster(maxEventSubscribers, threads);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "ServerControl-Api-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.server = HttpServer.create(new InetSocketAddress(bindAddress, port), 1024);
+        server.createContext("/api/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        serverManager.getStateChanges().subscribe(stateChangeForwarder);
+    }
+
+    /**
+     * Stops serving the API and disconnects all event stream clients.
+     */
+    public void stop() {
+        stateChangeForwarder.cancel();
+        broadcaster.stop();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the broadcaster of the event stream
+     */
+    public SseBroadcaster getBroadcaster() {
+        return broadcaster;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+
+            // Guard - Token must match
+            if (!isAuthorized(exchange)) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                sendError(exchange, 401, "Missing or invalid token");
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+
+            // The event stream keeps the exchange open, so it is not closed below
+            if (method.equals("GET") && path.length == 1 && path[0].equals("events")) {
+                if (!broadcaster.subscribe(exchange)) {
+                    sendError(exchange, 503, "Too many event stream subscribers");
+                }
+                return;
+            }
+
+            try (exchange) {
+                route(exchange, method, path);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to handle API request {} {}. {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.getMessage());
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length == 1 && path[0].equals("servers")) {
+            if (method.equals("GET")) {
+                listServers(exchange);
+            } else {
+                sendError(exchange, 405, "Method not allowed");
+            }
+            return;
+        }
+
+        if (path.length == 3 && path[0].equals("servers") && path[2].equals("start")) {
+            if (method.equals("POST")) {
+                startServers(exchange, List.of(path[1]));
+            } else {
+                sendError(exchange, 405, "Method not allowed");
+            }
+            return;
+        }
+
+        if (path.length == 1 && path[0].equals("jobs")) {
+            if (method.equals("POST")) {
+                createJob(exchange);
+            } else {
+                sendError(exchange, 405, "Method not allowed");
+            }
+            return;
+        }
+
+        if (path.length == 2 && path[0].equals("jobs")) {
+            if (method.equals("GET")) {
+                getJob(exchange, path[1]);
+            } else {
+                sendError(exchange, 405, "Method not allowed");
+            }
+            return;
+        }
+
+        sendError(exchange, 404, "Not found");
+    }
+
+    /**
+     * GET /api/servers
+     */
+    private void listServers(HttpExchange exchange) throws IOException {
+        JsonArray servers = new JsonArray();
+
+        serverManager.getServers().forEach((serverName, server) -> {
+            ServerStatusCache.Status status = serverStatusCache.get(serverName);
+
+            JsonObject json = new JsonObject();
+            json.addProperty("name", serverName);
+            json.addProperty("address", String.valueOf(server.getServerInfo().getAddress()));
+            json.addProperty("online", status != null ? status.online() : null);
+            json.addProperty("checked_at", status != null ? status.checkedAt().toString() : null);
+            json.addProperty("booting", serverManager.getServerBootingState(serverName));
+            json.addProperty("queue_position", bootAdmissionController.getQueuePosition(serverName));
+            json.addProperty("delayed_joins", serverManager.getDelayedJoinsAmount(serverName));
+            servers.add(json);
+        });
+
+        JsonObject response = new JsonObject();
+        response.add("servers", servers);
+        sendJson(exchange, 200, response);
+    }
+
+    /**
+     * POST /api/jobs
+     */
+    private void createJob(HttpExchange exchange) throws IOException {
+        byte[] bytes = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+
+        // Guard - Body size limit
+        if (bytes.length > MAX_BODY_BYTES) {
+            sendError(exchange, 413, "Request body too large");
+            return;
+        }
+
+        JsonElement body;
+        try {
+            body = JsonParser.parseString(new String(bytes, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            sendError(exchange, 400, "Invalid JSON body");
+            return;
+        }
+
+        // Guard - Body must contain a list of servers
+        JsonElement servers = body != null && body.isJsonObject() ? body.getAsJsonObject().get("servers") : null;
+        if (servers == null || !servers.isJsonArray()) {
+            sendError(exchange, 400, "Body must contain a 'servers' array");
+            return;
+        }
+
+        List<String> patterns = new ArrayList<>();
+        for (JsonElement element : servers.getAsJsonArray()) {
+
+            // Guard - Every server must be a string
+            if (!element.isJsonPrimitive() || !element.getAsJsonPrimitive().isString()) {
+                sendError(exchange, 400, "The 'servers' array must only contain strings");
+                return;
+            }
+
+            patterns.add(element.getAsString());
+        }
+
+        startServers(exchange, patterns);
+    }
+
+    /**
+     * Starts the servers matching the given names or glob patterns
+     * as a new job and responds with its id.
+     */
+    private void startServers(HttpExchange exchange, List<String> patterns) throws IOException {
+        Set<String> serverNames = new LinkedHashSet<>();
+        for (String pattern : patterns) {
+            List<String> matches = serverManager.getServerNamesMatching(pattern);
+
+            // Guard - Every pattern must match a server
+            if (matches.isEmpty()) {
+                sendError(exchange, 404, "No server matches '" + pattern + "'");
+                return;
+            }
+
+            serverNames.addAll(matches);
+        }
+
+        BulkStartJob job;
+        try {
+            job = BulkStartJob.plan(null, serverNames);
+        } catch (BulkStartJob.DependencyException e) {
+            sendError(exchange, 409, e.getMessage());
+            return;
+        }
+
+        ApiJobRegistry.ApiJob apiJob = jobs.register(job);
+        job.getCompletion().thenRun(() -> broadcaster.broadcast("job", toJson(apiJob).toString()));
+        job.run();
+
+        sendJson(exchange, 202, toJson(apiJob));
+    }
+
+    /**
+     * GET /api/jobs/[id]
+     */
+    private void getJob(HttpExchange exchange, String id) throws IOException {
+        ApiJobRegistry.ApiJob apiJob = jobs.get(id);
+
+        // Guard - Job must exist
+        if (apiJob == null) {
+            sendError(exchange, 404, "Unknown job '" + id + "'");
+            return;
+        }
+
+        sendJson(exchange, 200, toJson(apiJob));
+    }
+
+    private JsonObject toJson(ApiJobRegistry.ApiJob apiJob) {
+        JsonObject servers = new JsonObject();
+        apiJob.job().getStates().forEach((serverName, state) ->
+            servers.addProperty(serverName, state.name())
+        );
+
+        JsonObject json = new JsonObject();
+        json.addProperty("id", apiJob.id());
+        json.addProperty("created_at", apiJob.createdAt().toString());
+        json.addProperty("finished", apiJob.job().getCompletion().isDone());
+        json.add("servers", servers);
+
+        return json;
+    }
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return false;
+        }
+
+        byte[] given = header.substring("Bearer ".length()).trim().getBytes(StandardCharsets.UTF_8);
+
+        return MessageDigest.isEqual(given, token);
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JsonObject json = new JsonObject();
+        json.addProperty("error", message);
+        sendJson(exchange, status, json);
+    }
+
+    private void sendJson(HttpExchange exchange, int status, JsonObject json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    /**
+     * Forwards every boot state change to the event stream.
+     */
+    private class StateChangeForwarder implements Flow.Subscriber<ServerStateChange> {
+
+        private volatile Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ServerStateChange change) {
+            JsonObject json = new JsonObject();
+            json.addProperty("server", change.serverName());
+            json.addProperty("state", change.state().name());
+            json.addProperty("time", change.timestamp().toString());
+            if (change.exitCode() != null) {
+                json.addProperty("exit_code", change.exitCode());
+            }
+
+            broadcaster.broadcast("boot", json.toString());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {}
+
+        @Override
+        public void onComplete() {}
+
+        private void cancel() {
+            Flow.Subscription subscription = this.subscription;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
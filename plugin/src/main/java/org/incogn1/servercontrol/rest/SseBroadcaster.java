@@ -0,0 +1,291 @@
+package org.incogn1.servercontrol.rest;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes events to every client following the Server-Sent Events stream.
+ * <p>
+ * Subscribed exchanges do not occupy a thread while idle. Every event is
+ * encoded once and queued per subscriber, and a small pool of writer
+ * threads drains the queues. A subscriber that falls too far behind is
+ * dropped instead of slowing down the others.
+ * <p>
+ * The HttpServer has no write timeout, so a client that stops reading
+ * blocks the writer thread in its socket write. The writer of a dropped
+ * subscriber, and of any subscriber whose write has been blocked for
+ * longer than the write timeout, is interrupted. This closes the
+ * blocking socket channel, which fails the write and frees the thread.
+ */
+public class SseBroadcaster {
+
+    /** Maximum amount of events queued for a single subscriber */
+    private static final int MAX_QUEUED_EVENTS = 256;
+
+    /** Interval between keep-alive comments, which also detect closed connections */
+    private static final long HEARTBEAT_SECONDS = 15;
+
+    private static final byte[] HEARTBEAT = ": keep-alive\n\n".getBytes(StandardCharsets.UTF_8);
+
+    /** Time a single drain of a subscriber's queue may block before the subscriber is dropped */
+    private static final long WRITE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final int maxSubscribers;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /** Subscribers whose headers are still being sent, guarded by subscribers */
+    private int pendingSubscribers = 0;
+
+    private final ExecutorService writers;
+
+    /** Queues events for all subscribers in order, off the thread that published them */
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ServerControl-ApiDispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param maxSubscribers the maximum amount of subscribers at once
+     * @param writerThreads the amount of threads writing events to subscribers
+     */
+    public SseBroadcaster(int maxSubscribers, int writerThreads) {
+        this.maxSubscribers = maxSubscribers;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(Math.max(1, writerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "ServerControl-ApiEvents-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        dispatcher.scheduleAtFixedRate(() -> {
+            interruptBlockedWriters();
+            broadcast(HEARTBEAT);
+        }, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Sends the event stream headers and keeps the exchange open until
+     * the client disconnects or the broadcaster is stopped. Returns
+     * right away, so the calling thread can handle other requests.
+     *
+     * @param exchange the exchange of the stream request
+     * @return false if the maximum amount of subscribers has been reached,
+     *         in which case nothing has been sent yet
+     */
+    public boolean subscribe(HttpExchange exchange) throws IOException {
+        Subscriber subscriber = new Subscriber(exchange);
+
+        // Guard - Subscriber limit, checked and taken at once so concurrent subscribes can not pass it
+        synchronized (subscribers) {
+            if (subscribers.size() + pendingSubscribers >= maxSubscribers) {
+                return false;
+            }
+
+            pendingSubscribers++;
+        }
+
+        // Events are only queued once the headers are out, the body can not be written before them
+        boolean headersSent = false;
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            headersSent = true;
+        } finally {
+            synchronized (subscribers) {
+                pendingSubscribers--;
+                if (headersSent) {
+                    subscribers.add(subscriber);
+                }
+            }
+        }
+
+        subscriber.enqueue("retry: 3000\n\n".getBytes(StandardCharsets.UTF_8));
+
+        return true;
+    }
+
+    /**
+     * Sends an event to all subscribers. Returns right away, the event
+     * is queued for the subscribers in the background.
+     *
+     * @param event the event name
+     * @param data the event data, must not contain line breaks
+     */
+    public void broadcast(String event, String data) {
+        byte[] message = ("event: " + event + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+
+        try {
+            dispatcher.execute(() -> broadcast(message));
+        } catch (RejectedExecutionException ignore) {} // Stopped
+    }
+
+    /**
+     * @return the amount of connected subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Disconnects all subscribers and stops the writer threads.
+     */
+    public void stop() {
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+    }
+
+    private void broadcast(byte[] message) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(message);
+        }
+    }
+
+    private void interruptBlockedWriters() {
+        long now = System.nanoTime();
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.interruptWriterIfBlocked(now);
+        }
+    }
+
+    /**
+     * A single connected client with its own queue of encoded events.
+     */
+    private class Subscriber {
+
+        private final HttpExchange exchange;
+        private final OutputStream output;
+
+        private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+
+        /** Whether a writer is draining (or about to drain) the queue */
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        /** Whether the subscriber fell too far behind and is being closed */
+        private volatile boolean dropped;
+
+        /** The thread draining the queue right now, guarded by this */
+        private Thread writer;
+
+        /** When the current drain started (System.nanoTime), guarded by this */
+        private long writeStartedNanos;
+
+        private Subscriber(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.output = exchange.getResponseBody();
+        }
+
+        private void enqueue(byte[] message) {
+
+            // Guard - Already being closed
+            if (dropped) {
+                return;
+            }
+
+            // Guard - Drop subscribers that can not keep up, a writer blocked on them is freed
+            if (queued.incrementAndGet() > MAX_QUEUED_EVENTS) {
+                drop();
+                return;
+            }
+
+            queue.add(message);
+            scheduleDrain();
+        }
+
+        /**
+         * Closes the subscriber from a writer thread. A writer that is
+         * blocked on the client is interrupted, which fails its write.
+         */
+        private void drop() {
+            dropped = true;
+
+            synchronized (this) {
+                if (writer != null) {
+                    writer.interrupt();
+                }
+            }
+
+            scheduleDrain();
+        }
+
+        private void interruptWriterIfBlocked(long now) {
+            synchronized (this) {
+                if (writer != null && now - writeStartedNanos > WRITE_TIMEOUT_NANOS) {
+                    dropped = true;
+                    writer.interrupt();
+                }
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            synchronized (this) {
+                writer = Thread.currentThread();
+                writeStartedNanos = System.nanoTime();
+            }
+
+            try {
+
+                // Guard - Dropped, close instead of writing
+                if (dropped) {
+                    close();
+                    return;
+                }
+
+                byte[] message;
+                while ((message = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    output.write(message);
+                }
+                output.flush();
+            } catch (IOException e) {
+                close();
+                return;
+            } finally {
+                synchronized (this) {
+                    writer = null;
+                }
+
+                // An interrupt meant for this drain must not reach the next task of the pool
+                Thread.interrupted();
+                draining.set(false);
+            }
+
+            // A message may have been queued after the last poll, or the subscriber dropped during the drain
+            if (dropped || !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void close() {
+            subscribers.remove(this);
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.incogn1.servercontrol.scripts;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.incogn1.servercontrol.ServerControl.pluginExecutors;
+
+/**
+ * Keeps track of the processes a startup script launched, so a server
+ * that crashes during its boot is noticed right away instead of once
+ * the startup timeout has passed.
+ * <p>
+ * Startup scripts usually launch the server and exit. Once the script
+ * has exited its children can not be found through it anymore, so its
+ * descendants are collected while it runs. Those are only trusted if at
+ * least one of them outlived the script: a script that daemonizes the
+ * server (e.g. through screen -dm) may only leave short-lived helpers in
+ * the samples, which says nothing about the detached server. Scripts can
+ * also write the pid of the server to the file in the SERVERCONTROL_PIDFILE
+ * environment variable, which is the reliable option for scripts that
+ * exit right after launching the server.
+ */
+public class ProcessTreeWatcher {
+
+    /** Time between two collections of the descendants of a running script */
+    private static final long SAMPLE_INTERVAL_MILLIS = 100;
+
+    private final Path pidFile;
+
+    /** The launched processes found so far, excluding the script itself */
+    private final Set<ProcessHandle> processes = ConcurrentHashMap.newKeySet();
+
+    /** Whether a pid has been read from the pid file */
+    private volatile boolean pidFileRead;
+
+    /** Whether the process in the pid file had already exited when it was read */
+    private volatile boolean pidFileProcessGone;
+
+    /** Whether a collected descendant was still running when the script exited */
+    private volatile boolean outlivedScript;
+
+    /**
+     * @param pidFile the file the script may write the pid of the server to
+     */
+    public ProcessTreeWatcher(Path pidFile) {
+        this.pidFile = pidFile;
+    }
+
+    /**
+     * Starts collecting the descendants of the script process until it exits.
+     *
+     * @param script the process running the startup script
+     */
+    public void watch(Process script) {
+        pluginExecutors.startThread("ServerControl-ProcessWatch-" + script.pid(), () -> {
+            while (script.isAlive()) {
+                script.descendants().forEach(processes::add);
+
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+
+            outlivedScript = processes.stream().anyMatch(ProcessTreeWatcher::isRunning);
+        });
+    }
+
+    /**
+     * @return true if any launched process is known, either from the
+     *         pid file or from the descendants that outlived the script
+     */
+    public boolean hasProcesses() {
+        readPidFile();
+
+        return pidFileRead || outlivedScript;
+    }
+
+    /**
+     * Checks whether all known launched processes have exited. Processes
+     * started by the known processes in the meantime are picked up first.
+     * A server whose pid was written to the pid file but had already exited
+     * when it was read counts as exited, whatever else the script left behind.
+     *
+     * @return true if processes are known and none of them is alive
+     */
+    public boolean hasExited() {
+
+        // Guard - Nothing known, so nothing can be said about the server
+        if (!hasProcesses()) {
+            return false;
+        }
+
+        // Guard - The server from the pid file crashed before it was even read
+        if (pidFileProcessGone) {
+            return true;
+        }
+
+        for (ProcessHandle process : processes) {
+            if (isRunning(process)) {
+                process.descendants().forEach(processes::add);
+            }
+        }
+
+        return processes.stream().noneMatch(ProcessTreeWatcher::isRunning);
+    }
+
+    /**
+     * Removes the pid file, so a stale pid is never read by a later boot.
+     */
+    public void deletePidFile() {
+        try {
+            Files.deleteIfExists(pidFile);
+        } catch (IOException ignore) {}
+    }
+
+    /**
+     * Orphaned processes are adopted by pid 1, which does not always reap
+     * them (e.g. a proxy running as pid 1 in a container). Those zombies
+     * count as alive for ProcessHandle, so on Linux their state is read
+     * from /proc as well.
+     *
+     * @param process the process to check
+     * @return true if the process is alive and not a zombie
+     */
+    private static boolean isRunning(ProcessHandle process) {
+        if (!process.isAlive()) {
+            return false;
+        }
+
+        try {
+            String stat = Files.readString(Path.of("/proc", String.valueOf(process.pid()), "stat"));
+
+            // Format: pid (command) state ..., the command may contain spaces and parentheses
+            int commandEnd = stat.lastIndexOf(')');
+            return commandEnd < 0 || commandEnd + 2 >= stat.length() || stat.charAt(commandEnd + 2) != 'Z';
+        } catch (IOException | RuntimeException e) {
+            return true; // No /proc, e.g. on Windows
+        }
+    }
+
+    /**
+     * Adds the process from the pid file, if the script has written it.
+     */
+    private void readPidFile() {
+
+        // Guard - Only read once
+        if (pidFileRead) {
+            return;
+        }
+
+        try {
+            if (!Files.exists(pidFile)) {
+                return;
+            }
+
+            String content = Files.readString(pidFile).trim();
+            if (content.isEmpty()) {
+                return;
+            }
+
+            Optional<ProcessHandle> process = ProcessHandle.of(Long.parseLong(content));
+            process.ifPresentOrElse(processes::add, () -> pidFileProcessGone = true);
+            pidFileRead = true;
+        } catch (IOException | NumberFormatException ignore) {} // Not written (completely) yet
+    }
+}
@@ -0,0 +1,139 @@
+package org.incogn1.servercontrol.scripts;
+
+import dev.dejvokep.boostedyaml.route.Route;
+import org.incogn1.servercontrol.ServerControl;
+import org.incogn1.servercontrol.jfr.ScriptExitEvent;
+import org.incogn1.servercontrol.jfr.ScriptSpawnEvent;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+public class ScriptManager {
+
+    /**
+     * Runs a predefined script
+     *
+     * @param scriptPath the path to the script file, relative to the resources root for this plugin
+     * @return a CompletableFuture that returns the exit code of the script as an integer
+     *
+     * @throws MissingScriptException when the script file could not be found
+     */
+    public CompletableFuture<Integer> runScript(Path scriptPath) throws MissingScriptException, IOException {
+        return runScript(scriptPath, Map.of());
+    }
+
+    /**
+     * Runs a predefined script with additional environment variables
+     *
+     * @param scriptPath the path to the script file, relative to the resources root for this plugin
+     * @param environment variables to add to the environment of the proxy for the script
+     * @return a CompletableFuture that returns the exit code of the script as an integer
+     *
+     * @throws MissingScriptException when the script file could not be found
+     */
+    public CompletableFuture<Integer> runScript(Path scriptPath, Map<String, String> environment) throws MissingScriptException, IOException {
+        return runScript(scriptPath, environment, process -> {});
+    }
+
+    /**
+     * Runs a predefined script with additional environment variables
+     *
+     * @param scriptPath the path to the script file, relative to the resources root for this plugin
+     * @param environment variables to add to the environment of the proxy for the script
+     * @param onStarted called with the process of the script right after it has been started
+     * @return a CompletableFuture that returns the exit code of the script as an integer
+     *
+     * @throws MissingScriptException when the script file could not be found
+     */
+    public CompletableFuture<Integer> runScript(Path scriptPath, Map<String, String> environment, Consumer<Process> onStarted) throws MissingScriptException, IOException {
+
+        Path fullPath = ServerControl.dataDirectory.resolve(scriptPath);
+        Path parentDir = fullPath.getParent();
+        String fileName = fullPath.getFileName().toString();
+
+        // Guard - Script file must exist
+        if (!Files.exists(fullPath)) {
+            throw new MissingScriptException();
+        }
+
+        String execution = ServerControl.config.getString(Route.from("scripts", "execution")).replace("%scriptFile%", fileName);
+
+        // Build environment, null inherits the environment of the proxy
+        String[] envp = null;
+        if (!environment.isEmpty()) {
+            Map<String, String> fullEnvironment = new HashMap<>(System.getenv());
+            fullEnvironment.putAll(environment);
+
+            envp = fullEnvironment.entrySet().stream()
+                    .map(entry -> entry.getKey() + "=" + entry.getValue())
+                    .toArray(String[]::new);
+        }
+
+        // Build and execute process
+        ScriptExitEvent exitEvent = new ScriptExitEvent();
+        exitEvent.begin();
+        Process process = Runtime.getRuntime().exec(execution, envp, parentDir.toFile());
+        onStarted.accept(process);
+
+        ScriptSpawnEvent spawnEvent = new ScriptSpawnEvent();
+        if (spawnEvent.shouldCommit()) {
+            spawnEvent.script = scriptPath.toString();
+            spawnEvent.pid = process.pid();
+            spawnEvent.commit();
+        }
+
+        // Redirect output if enabled in config
+        boolean useOutputRedirect = ServerControl.config.getBoolean(Route.from("scripts", "use-output-redirect"));
+        if (useOutputRedirect) {
+            redirectOutput(process.getInputStream(), "SCRIPT-OUT", process.pid());
+            redirectOutput(process.getErrorStream(), "SCRIPT-ERR", process.pid());
+        }
+
+        // No thread waits for the process, the exit is handled on the blocking executor
+        return process.onExit().thenApplyAsync(exitedProcess -> {
+            int exitCode = exitedProcess.exitValue();
+
+            exitEvent.end();
+            if (exitEvent.shouldCommit()) {
+                exitEvent.script = scriptPath.toString();
+                exitEvent.pid = exitedProcess.pid();
+                exitEvent.exitCode = exitCode;
+                exitEvent.commit();
+            }
+
+            ServerControl.metricsRegistry.counter(
+                    "servercontrol_script_exits_total",
+                    "Finished script runs by exit code",
+                    "script", fileName,
+                    "exit_code", String.valueOf(exitCode)
+            ).increment();
+
+            return exitCode;
+        }, ServerControl.pluginExecutors.blocking());
+    }
+
+    /**
+     * Redirects the output of a program to the velocity logger instance
+     *
+     * @param inputStream InputStream that should be redirected
+     * @param prefix a descriptive prefix that is printed out in front of every line of redirected output
+     * @param pid the process id of the program, used in the name of the reading thread
+     */
+    private void redirectOutput(InputStream inputStream, String prefix, long pid) {
+        ServerControl.pluginExecutors.startThread("ServerControl-" + prefix + "-" + pid, () -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    ServerControl.logger.info("[{}] {}", prefix, line);
+                }
+            } catch (IOException e) {
+                ServerControl.logger.error("Error reading script output stream. {}", e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,253 @@
+package org.incogn1.servercontrol.service;
+
+import com.velocitypowered.api.proxy.ConnectionRequestBuilder;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import org.incogn1.servercontrol.api.*;
+import org.incogn1.servercontrol.api.event.ServerStateChange;
+import org.incogn1.servercontrol.boot.BulkStartJob;
+import org.incogn1.servercontrol.boot.CircuitOpenException;
+import org.incogn1.servercontrol.scripts.MissingScriptException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Implements the public API on top of the ServerManager, so plugins
+ * get the same boot-up process as the /sc commands without going
+ * through command parsing.
+ */
+public class ServerControlApiService implements ServerControlApi {
+
+    @Override
+    public CompletableFuture<Boolean> ensureRunning(String serverName) {
+
+        // Guard - Server must be registered
+        if (serverManager.getServer(serverName) == null) {
+            return CompletableFuture.failedFuture(unknownServer(serverName));
+        }
+
+        // Already booting -> wait for that boot
+        CompletableFuture<Boolean> boot = serverManager.awaitBoot(serverName);
+        if (boot != null) {
+            return boot.copy();
+        }
+
+        return CompletableFuture
+            .supplyAsync(() -> serverManager.getServerOnlineState(serverName), pluginExecutors.blocking())
+            .thenCompose(online -> online ? CompletableFuture.completedFuture(true) : startServer(serverName));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> awaitReady(String serverName, Duration timeout) {
+
+        // Guard - Server must be registered
+        if (serverManager.getServer(serverName) == null) {
+            return CompletableFuture.failedFuture(unknownServer(serverName));
+        }
+
+        // Subscribe before checking, so a boot finishing in between is not missed
+        ReadyWaiter waiter = new ReadyWaiter(serverName);
+        serverManager.getStateChanges().subscribe(waiter);
+
+        CompletableFuture<Boolean> boot = serverManager.awaitBoot(serverName);
+        if (boot != null) {
+            boot.thenAccept(waiter.ready::complete);
+        } else {
+            CompletableFuture
+                .supplyAsync(() -> serverManager.getServerOnlineState(serverName), pluginExecutors.blocking())
+                .thenAccept(online -> {
+                    if (online) {
+                        waiter.ready.complete(true);
+                    }
+                });
+        }
+
+        return waiter.ready
+            .completeOnTimeout(false, timeout.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((online, e) -> waiter.cancel());
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, Boolean>> connectWhenReady(Collection<Player> players, String serverName) {
+        List<Player> toConnect = List.copyOf(players);
+
+        return ensureRunning(serverName).thenCompose(online -> {
+            Map<UUID, CompletableFuture<Boolean>> connections = new LinkedHashMap<>();
+            RegisteredServer server = serverManager.getServer(serverName);
+
+            for (Player player : toConnect) {
+                if (!online || server == null) {
+                    connections.put(player.getUniqueId(), CompletableFuture.completedFuture(false));
+                    continue;
+                }
+
+                connections.put(
+                    player.getUniqueId(),
+                    player.createConnectionRequest(server).connect()
+                        .thenApply(ConnectionRequestBuilder.Result::isSuccessful)
+                        .exceptionally(e -> false)
+                );
+            }
+
+            return CompletableFuture
+                .allOf(connections.values().toArray(new CompletableFuture[0]))
+                .thenApply(ignore -> {
+                    Map<UUID, Boolean> results = new LinkedHashMap<>();
+                    connections.forEach((playerId, connection) -> results.put(playerId, connection.join()));
+
+                    return results;
+                });
+        });
+    }
+
+    @Override
+    public CompletableFuture<ServerStatus> status(String serverName) {
+
+        // Guard - Server must be registered
+        if (serverManager.getServer(serverName) == null) {
+            return CompletableFuture.failedFuture(unknownServer(serverName));
+        }
+
+        return serverStatusCache.getFresh(serverName).thenApply(status -> new ServerStatus(
+            serverName,
+            status.online(),
+            status.checkedAt(),
+            serverManager.getServerBootingState(serverName),
+            bootAdmissionController.getQueuePosition(serverName),
+            serverManager.getDelayedJoinsAmount(serverName)
+        ));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, StartResult>> bulkStart(Collection<String> serverNames) {
+        Set<String> matchedNames = new LinkedHashSet<>();
+        for (String pattern : serverNames) {
+            List<String> matches = serverManager.getServerNamesMatching(pattern);
+
+            // Guard - Every pattern must match a server
+            if (matches.isEmpty()) {
+                return CompletableFuture.failedFuture(unknownServer(pattern));
+            }
+
+            matchedNames.addAll(matches);
+        }
+
+        BulkStartJob job;
+        try {
+            job = BulkStartJob.plan(null, matchedNames);
+        } catch (BulkStartJob.DependencyException e) {
+            return CompletableFuture.failedFuture(new ServerStartException(String.join(", ", matchedNames), e.getMessage(), e));
+        }
+
+        return job.run().thenApply(ignore -> {
+            Map<String, StartResult> results = new LinkedHashMap<>();
+            job.getStates().forEach((serverName, state) ->
+                results.put(serverName, state == BulkStartJob.State.ONLINE
+                    ? StartResult.ONLINE
+                    : state == BulkStartJob.State.SKIPPED ? StartResult.SKIPPED : StartResult.FAILED)
+            );
+
+            return results;
+        });
+    }
+
+    @Override
+    public Flow.Publisher<ServerStateChange> stateChanges() {
+        return serverManager.getStateChanges();
+    }
+
+    /**
+     * Starts a server that is not booting yet and waits for its boot.
+     *
+     * @param serverName the name of the server
+     * @return a CompletableFuture that returns whether the server came online
+     */
+    private CompletableFuture<Boolean> startServer(String serverName) {
+        try {
+            serverManager.startServer(serverName);
+        } catch (MissingScriptException e) {
+            return CompletableFuture.failedFuture(new ServerStartException(serverName, "No startup script found for server " + serverName, e));
+        } catch (CircuitOpenException e) {
+            return CompletableFuture.failedFuture(new ServerStartException(serverName, e.getMessage(), e));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new ServerStartException(serverName, "The startup script of server " + serverName + " could not be run", e));
+        }
+
+        // Boot may already have finished
+        CompletableFuture<Boolean> boot = serverManager.awaitBoot(serverName);
+        if (boot == null) {
+            return CompletableFuture.supplyAsync(() -> serverManager.getServerOnlineState(serverName), pluginExecutors.blocking());
+        }
+
+        return boot.copy();
+    }
+
+    private static IllegalArgumentException unknownServer(String serverName) {
+        return new IllegalArgumentException("No server registered as '" + serverName + "'");
+    }
+
+    /**
+     * Completes once a server comes online or its boot fails.
+     */
+    private static class ReadyWaiter implements Flow.Subscriber<ServerStateChange> {
+
+        private final String serverName;
+        private final CompletableFuture<Boolean> ready = new CompletableFuture<>();
+
+        private volatile Flow.Subscription subscription;
+
+        private ReadyWaiter(String serverName) {
+            this.serverName = serverName;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+
+            // Guard - Already finished before subscribing completed
+            if (ready.isDone()) {
+                subscription.cancel();
+                return;
+            }
+
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ServerStateChange change) {
+            if (!change.serverName().equals(serverName)) {
+                return;
+            }
+
+            if (change.state() == BootState.ONLINE) {
+                ready.complete(true);
+            } else if (change.state() == BootState.FAILED) {
+                ready.complete(false);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            ready.complete(false);
+        }
+
+        @Override
+        public void onComplete() {
+            ready.complete(false);
+        }
+
+        private void cancel() {
+            Flow.Subscription subscription = this.subscription;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,486 @@
+package org.incogn1.servercontrol.stop;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.player.ServerPreConnectEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import dev.dejvokep.boostedyaml.route.Route;
+import org.incogn1.servercontrol.provisioning.InstanceProvisioner;
+import org.incogn1.servercontrol.scripts.MissingScriptException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.incogn1.servercontrol.ServerControl.*;
+
+/**
+ * Stops and restarts servers without disconnecting the players on them.
+ * <p>
+ * Before the stop script of a server is run, its players are moved to
+ * the fallback server in batches, with a pause between batches so the
+ * fallback is not hit by every player at once. The stop script runs once
+ * the server is empty or the drain timeout has passed.
+ * <p>
+ * For a restart, the drained players and the players already waiting to
+ * join the server stay in its delayed join list, so they are all sent
+ * back once the server is online again. Connections to a server that is
+ * being stopped are denied in the meantime.
+ */
+public class ServerStopper {
+
+    public enum Mode {
+        STOP,
+        RESTART
+    }
+
+    private final String fallbackServerName;
+
+    private final int drainBatchSize;
+
+    private final long drainBatchIntervalMillis;
+
+    private final long drainTimeoutMillis;
+
+    private final long stopTimeoutMillis;
+
+    /** Servers currently being stopped, and whether they are started again after */
+    private final Map<String, Mode> stoppingServers = new ConcurrentHashMap<>();
+
+    /**
+     * @param fallbackServerName the server players are moved to while their
+     *                           server stops, or null/empty to not move them
+     * @param drainBatchSize the amount of players moved at once
+     * @param drainBatchIntervalMillis the time between two batches of moved players
+     * @param drainTimeoutMillis the maximum time to wait for the server to become empty
+     * @param stopTimeoutMillis the maximum time to wait for the server to go offline
+     *                          after the stop script has finished
+     */
+    public ServerStopper(String fallbackServerName, int drainBatchSize, long drainBatchIntervalMillis, long drainTimeoutMillis, long stopTimeoutMillis) {
+        this.fallbackServerName = fallbackServerName;
+        this.drainBatchSize = Math.max(1, drainBatchSize);
+        this.drainBatchIntervalMillis = drainBatchIntervalMillis;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        this.stopTimeoutMillis = stopTimeoutMillis;
+    }
+
+    /**
+     * @param serverName the name of the server
+     * @return true if the server is being stopped or restarted
+     */
+    public boolean isStopping(String serverName) {
+        return stoppingServers.containsKey(serverName);
+    }
+
+    /**
+     * Drains and stops the server in the background, and starts it again
+     * for a restart. The source is told about every step.
+     *
+     * @param serverName the name of the server to stop
+     * @param mode whether to start the server again once it is offline
+     * @param source the source that receives notifications
+     */
+    public void stop(String serverName, Mode mode, CommandSource source) {
+        RegisteredServer server = serverManager.getServer(serverName);
+
+        // Guard - Script file must exist
+        if (!Files.exists(dataDirectory.resolve(getServerStopScriptPath(serverName)))) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_stop.no_script_defined",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+            return;
+        }
+
+        // Guard - A boot-up process would start the server again right away
+        if (serverManager.getServerBootingState(serverName)) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_stop.booting",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+            return;
+        }
+
+        // Guard - Server must be online
+        if (!serverManager.getServerOnlineState(serverName)) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_stop.not_online",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+            return;
+        }
+
+        // Guard - Server should not already be stopping
+        if (stoppingServers.putIfAbsent(serverName, mode) != null) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_stop.already_stopping",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+            return;
+        }
+
+        // Players waiting for a server that will not come back are told so
+        if (mode == Mode.STOP) {
+            for (UUID playerId : serverManager.getDelayedJoinsByServer().getOrDefault(serverName, List.of())) {
+                proxy.getPlayer(playerId).ifPresent(player -> sendStoppingMessage(player, serverName));
+            }
+            serverManager.cancelDelayedJoins(serverName);
+        }
+
+        pluginExecutors.blocking().execute(() -> runStop(server, mode, source));
+    }
+
+    /**
+     * Drains the server, runs its stop script and waits for it to go
+     * offline. Runs on a blocking thread.
+     *
+     * @param server the server to stop
+     * @param mode whether to start the server again once it is offline
+     * @param source the source that receives notifications
+     */
+    private void runStop(RegisteredServer server, Mode mode, CommandSource source) {
+        String serverName = server.getServerInfo().getName();
+        boolean stopped = false;
+
+        try {
+            drain(server, mode, source);
+
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_stop.stopping",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+
+            stopped = runStopScript(serverName);
+        } catch (MissingScriptException e) {
+            logger.error("Could not stop server {}, its stop script was removed.", serverName);
+        } catch (IOException e) {
+            logger.error("Stop script for {} failed to execute due to IOException. See error details below. \n{}", serverName, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Stopping server {} was interrupted.", serverName);
+        } catch (Exception e) {
+            logger.error("Stopping server {} failed. {}", serverName, e.getMessage());
+        } finally {
+            stoppingServers.remove(serverName);
+        }
+
+        // ---
+        // Case A - Server did not stop -> Players held for the restart are sent back if it is still online
+        // ---
+        if (!stopped) {
+            if (mode == Mode.RESTART) {
+                returnHeldPlayers(server);
+            }
+
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_stop.failed",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+            return;
+        }
+
+        serverStatusCache.update(serverName, false);
+        logger.info("Server {} has been stopped.", serverName);
+
+        // ---
+        // Case B - Stopped
+        // ---
+        if (mode == Mode.STOP) {
+            source.sendMessage(
+                translationsManager.translateAsMiniMessage(
+                    "server_stop.stopped",
+                    Map.of(
+                        "server", serverName
+                    )
+                )
+            );
+
+            // Provisioned instances are not needed anymore
+            instanceProvisioner.onServerStopped(serverName);
+            return;
+        }
+
+        // ---
+        // Case C - Stopped for a restart -> Start again, waiting players join once it is online
+        // ---
+        serverManager.startServerWithNotify(serverName, source);
+    }
+
+    /**
+     * Sends the players held for a restart that failed back to the server
+     * if it is still online, and tells them otherwise.
+     *
+     * @param server the server that failed to restart
+     */
+    private void returnHeldPlayers(RegisteredServer server) {
+        String serverName = server.getServerInfo().getName();
+
+        List<UUID> heldPlayerIds = serverManager.getDelayedJoinsByServer().getOrDefault(serverName, List.of());
+
+        // Guard - Nobody is waiting for the server
+        if (heldPlayerIds.isEmpty()) {
+            return;
+        }
+
+        serverManager.cancelDelayedJoins(serverName);
+        boolean isOnline = serverManager.getServerOnlineState(serverName);
+
+        for (UUID playerId : heldPlayerIds) {
+            proxy.getPlayer(playerId).ifPresent(player -> {
+                player.sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        isOnline ? "server_stop.restart_failed_return" : "server_stop.restart_failed",
+                        Map.of(
+                            "server", serverName
+                        )
+                    )
+                );
+
+                if (isOnline) {
+                    player.createConnectionRequest(server).connectWithIndication();
+                }
+            });
+        }
+    }
+
+    /**
+     * Moves the players on the server to the fallback server in batches
+     * and waits until the server is empty or the drain timeout has passed.
+     *
+     * @param server the server to drain
+     * @param mode whether the players are sent back after a restart
+     * @param source the source that receives notifications
+     */
+    private void drain(RegisteredServer server, Mode mode, CommandSource source) throws InterruptedException {
+        String serverName = server.getServerInfo().getName();
+        long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+
+        List<Player> players = new ArrayList<>(server.getPlayersConnected());
+
+        // Guard - Nothing to drain
+        if (players.isEmpty()) {
+            return;
+        }
+
+        RegisteredServer fallbackServer = getFallbackServer(serverName);
+
+        // Guard - Without a fallback the players are disconnected by the stop script
+        if (fallbackServer == null) {
+            logger.warn("No fallback server to move the {} player(s) on {} to, they will be disconnected when it stops.", players.size(), serverName);
+            return;
+        }
+
+        source.sendMessage(
+            translationsManager.translateAsMiniMessage(
+                "server_stop.draining",
+                Map.of(
+                    "server", serverName,
+                    "players", String.valueOf(players.size()),
+                    "fallback", fallbackServer.getServerInfo().getName()
+                )
+            )
+        );
+
+        for (int i = 0; i < players.size(); i += drainBatchSize) {
+            if (i > 0) {
+                Thread.sleep(drainBatchIntervalMillis);
+            }
+
+            List<CompletableFuture<?>> moves = new ArrayList<>();
+            for (Player player : players.subList(i, Math.min(players.size(), i + drainBatchSize))) {
+                player.sendMessage(
+                    translationsManager.translateAsMiniMessage(
+                        mode == Mode.RESTART ? "server_stop.moved_restart" : "server_stop.moved_stop",
+                        Map.of(
+                            "server", serverName,
+                            "fallback", fallbackServer.getServerInfo().getName()
+                        )
+                    )
+                );
+
+                if (mode == Mode.RESTART) {
+                    serverManager.setDelayedPlayerJoin(player, serverName);
+                }
+
+                moves.add(player.createConnectionRequest(fallbackServer).connect());
+            }
+
+            // Wait for the batch to arrive before moving the next one
+            try {
+                CompletableFuture.allOf(moves.toArray(CompletableFuture[]::new))
+                    .get(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | TimeoutException ignore) {}
+        }
+
+        // Wait for the moves to finish, players that fail to move are disconnected by the stop script
+        while (!server.getPlayersConnected().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(Math.min(500, Math.max(1, deadline - System.currentTimeMillis())));
+        }
+
+        if (!server.getPlayersConnected().isEmpty()) {
+            logger.warn("{} player(s) could not be moved off {} within the drain timeout.", server.getPlayersConnected().size(), serverName);
+        }
+    }
+
+    /**
+     * Runs the stop script and waits for the server to go offline.
+     *
+     * @param serverName the name of the server to stop
+     * @return true if the server went offline
+     *
+     * @throws MissingScriptException if the stop script for the server does not exist
+     */
+    private boolean runStopScript(String serverName) throws MissingScriptException, IOException, InterruptedException {
+        int exitCode = scriptManager.runScript(
+            getServerStopScriptPath(serverName),
+            Map.of("SERVERCONTROL_SERVER", serverName)
+        ).join();
+
+        // Guard - Script must succeed
+        if (exitCode != 0) {
+            logger.error("Stop script for {} failed with code {}.", serverName, exitCode);
+            return false;
+        }
+
+        long pollingDelay = config.getLong(Route.from("server-startup", "polling-delay")) * 1000;
+        long timeout = System.currentTimeMillis() + stopTimeoutMillis;
+
+        while (serverManager.getServerOnlineState(serverName)) {
+            if (System.currentTimeMillis() >= timeout) {
+                logger.error("The server {} was still online {} seconds after its stop script finished.", serverName, stopTimeoutMillis / 1000);
+                return false;
+            }
+
+            Thread.sleep(Math.min(pollingDelay, Math.max(1, timeout - System.currentTimeMillis())));
+        }
+
+        return true;
+    }
+
+    /**
+     * Denies connections to servers that are being stopped. For a restart,
+     * the player is added to the delayed join list instead, so they are
+     * sent to the server once it is online again.
+     */
+    @Subscribe(priority = PostOrder.LATE)
+    public void onServerPreConnect(ServerPreConnectEvent event) {
+
+        // Guard - Another plugin may have denied the connection already
+        if (!event.getResult().isAllowed()) {
+            return;
+        }
+
+        RegisteredServer target = event.getResult().getServer().orElse(event.getOriginalServer());
+        String serverName = target.getServerInfo().getName();
+
+        Mode mode = stoppingServers.get(serverName);
+
+        // Guard - Server must be stopping
+        if (mode == null) {
+            return;
+        }
+
+        Player player = event.getPlayer();
+
+        // Denying the first connection of a player would disconnect them
+        if (player.getCurrentServer().isEmpty()) {
+            RegisteredServer fallbackServer = getFallbackServer(serverName);
+            if (fallbackServer == null) {
+                return;
+            }
+
+            event.setResult(ServerPreConnectEvent.ServerResult.allowed(fallbackServer));
+        } else {
+            event.setResult(ServerPreConnectEvent.ServerResult.denied());
+        }
+
+        holdForServer(player, serverName);
+    }
+
+    /**
+     * Handles a player that wants to join a server that is being stopped.
+     *
+     * @param player the player
+     * @param serverName the name of the server being stopped
+     */
+    public void holdForServer(Player player, String serverName) {
+        if (stoppingServers.get(serverName) == Mode.RESTART) {
+            serverManager.setDelayedPlayerJoin(player, serverName);
+        } else {
+            sendStoppingMessage(player, serverName);
+        }
+    }
+
+    /**
+     * Returns the path to the stop script for the given server
+     *
+     * @param serverName the name of the server
+     * @return a Path to the stop script relative to the
+     *         'scripts' directory, or the absolute path to the
+     *         stop script inside a provisioned instance.
+     */
+    public Path getServerStopScriptPath(String serverName) {
+        InstanceProvisioner.Instance instance = instanceProvisioner.getInstance(serverName);
+        if (instance != null) {
+            return instanceProvisioner.getStopScriptPath(instance);
+        }
+
+        String scriptFilePattern = config.getString(Route.from("server-stop", "script-pattern"));
+        String scriptFile = scriptFilePattern.replaceAll("%server%", serverName);
+
+        return Paths.get(SCRIPTS_DIR, scriptFile);
+    }
+
+    private void sendStoppingMessage(CommandSource source, String serverName) {
+        source.sendMessage(
+            translationsManager.translateAsMiniMessage(
+                "server_stop.join_stopping",
+                Map.of(
+                    "server", serverName
+                )
+            )
+        );
+    }
+
+    /**
+     * @param serverName the name of the server being stopped
+     * @return the fallback server, or null if none is configured, it does
+     *         not exist or it is the server being stopped
+     */
+    private RegisteredServer getFallbackServer(String serverName) {
+        if (fallbackServerName == null || fallbackServerName.isEmpty() || fallbackServerName.equals(serverName)) {
+            return null;
+        }
+
+        return serverManager.getServer(fallbackServerName);
+    }
+}
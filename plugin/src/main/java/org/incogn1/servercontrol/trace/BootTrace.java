@@ -0,0 +1,135 @@
+package org.incogn1.servercontrol.trace;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timeline of a single server boot, from the request until the last
+ * waiting player has been connected.
+ */
+public class BootTrace {
+
+    /** Maximum time to wait for pending player connections before a trace counts as complete */
+    private static final long PENDING_TIMEOUT_SECONDS = 30;
+
+    /** Maximum amount of steps kept per trace, so a long polling phase can not grow it unbounded */
+    private static final int MAX_STEPS = 500;
+
+    public enum StepType {
+        REQUESTED,
+        QUEUED,
+        ADMITTED,
+        FOLLOWING_REMOTE,
+        RESUMED,
+        SCRIPT_SPAWNED,
+        SCRIPT_EXITED,
+        PROCESS_EXITED,
+        POLL,
+        REMOTE_READY,
+        ONLINE,
+        FAILED,
+        JOIN_CONNECT
+    }
+
+    /**
+     * A single step in the timeline.
+     *
+     * @param offsetNanos the time since the start of the boot
+     * @param type the type of the step
+     * @param detail additional information, can be empty
+     */
+    public record Step(long offsetNanos, StepType type, String detail) {
+    }
+
+    private final String serverName;
+    private final Instant startTime = Instant.now();
+    private final long startNanos = System.nanoTime();
+
+    private final List<Step> steps = new ArrayList<>();
+    private final List<CompletableFuture<?>> pending = new ArrayList<>();
+    private int droppedSteps = 0;
+    private Boolean online = null;
+
+    BootTrace(String serverName) {
+        this.serverName = serverName;
+    }
+
+    /**
+     * Adds a step to the timeline.
+     *
+     * @param type the type of the step
+     * @param detail additional information, can be empty
+     */
+    public synchronized void addStep(StepType type, String detail) {
+        if (steps.size() >= MAX_STEPS) {
+            droppedSteps++;
+            return;
+        }
+
+        steps.add(new Step(System.nanoTime() - startNanos, type, detail));
+    }
+
+    /**
+     * Keeps the trace open until the given operation has completed,
+     * e.g. a player connection that adds a step once done.
+     *
+     * @param future the operation to wait for
+     */
+    public synchronized void trackPending(CompletableFuture<?> future) {
+        pending.add(future);
+    }
+
+    /**
+     * @return the name of the booted server
+     */
+    public String getServerName() {
+        return serverName;
+    }
+
+    /**
+     * @return the wall clock time the boot was requested
+     */
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return a copy of the steps so far
+     */
+    public synchronized List<Step> getSteps() {
+        return new ArrayList<>(steps);
+    }
+
+    /**
+     * @return the amount of steps that were not kept because the trace was full
+     */
+    public synchronized int getDroppedSteps() {
+        return droppedSteps;
+    }
+
+    /**
+     * @return true if the server came online, false if the boot
+     *         failed, or null if the boot has not finished yet
+     */
+    public synchronized Boolean getOutcome() {
+        return online;
+    }
+
+    /**
+     * Marks the boot as finished.
+     *
+     * @param online whether the server came online
+     * @return a CompletableFuture that completes once all pending
+     *         operations have completed (or timed out)
+     */
+    synchronized CompletableFuture<Void> finish(boolean online) {
+        this.online = online;
+
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]))
+            .orTimeout(PENDING_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .exceptionally(ignore -> null);
+    }
+}
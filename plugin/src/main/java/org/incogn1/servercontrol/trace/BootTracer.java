@@ -0,0 +1,167 @@
+package org.incogn1.servercontrol.trace;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.incogn1.servercontrol.ServerControl.logger;
+
+/**
+ * Keeps the timelines of the most recent server boots in a ring of fixed
+ * size, optionally appending every finished timeline to a JSON lines file.
+ */
+public class BootTracer {
+
+    private final int capacity;
+    private final Path exportFile;
+
+    /** Recent traces of all servers, oldest first, guarded by itself */
+    private final Deque<BootTrace> traces = new ArrayDeque<>();
+
+    /** Traces of the boots currently in progress, by server name */
+    private final Map<String, BootTrace> activeTraces = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity the amount of traces to keep, 0 disables tracing
+     * @param exportFile the file finished traces are appended to, or null
+     *        to not export traces
+     */
+    public BootTracer(int capacity, Path exportFile) {
+        this.capacity = Math.max(0, capacity);
+        this.exportFile = exportFile;
+    }
+
+    /**
+     * Starts the trace of a new boot, replacing any trace still
+     * active for the server.
+     *
+     * @param serverName the name of the booted server
+     */
+    public void begin(String serverName) {
+
+        // Guard - Tracing must be enabled
+        if (capacity == 0) {
+            return;
+        }
+
+        BootTrace trace = new BootTrace(serverName);
+        activeTraces.put(serverName, trace);
+
+        synchronized (traces) {
+            traces.addLast(trace);
+            while (traces.size() > capacity) {
+                traces.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * Adds a step to the active trace of the server. Does nothing
+     * if there is no active trace for the server.
+     *
+     * @param serverName the name of the server
+     * @param type the type of the step
+     * @param detail additional information, can be empty
+     */
+    public void addStep(String serverName, BootTrace.StepType type, String detail) {
+        BootTrace trace = activeTraces.get(serverName);
+        if (trace != null) {
+            trace.addStep(type, detail);
+        }
+    }
+
+    /**
+     * Gets the active trace of the server.
+     *
+     * @param serverName the name of the server
+     * @return the trace, or null if the server is not being traced
+     */
+    public BootTrace getActive(String serverName) {
+        return activeTraces.get(serverName);
+    }
+
+    /**
+     * Finishes the active trace of the server, exporting it once
+     * its pending player connections have completed.
+     *
+     * @param serverName the name of the server
+     * @param online whether the server came online
+     */
+    public void finish(String serverName, boolean online) {
+        BootTrace trace = activeTraces.remove(serverName);
+
+        // Guard - Server must be traced
+        if (trace == null) {
+            return;
+        }
+
+        trace.addStep(online ? BootTrace.StepType.ONLINE : BootTrace.StepType.FAILED, "");
+        trace.finish(online).thenRun(() -> export(trace));
+    }
+
+    /**
+     * Gets the most recent traces of a server.
+     *
+     * @param serverName the name of the server
+     * @param amount the maximum amount of traces to return
+     * @return the traces, newest first
+     */
+    public List<BootTrace> getRecent(String serverName, int amount) {
+        List<BootTrace> recent = new ArrayList<>();
+
+        synchronized (traces) {
+            Iterator<BootTrace> iterator = traces.descendingIterator();
+            while (iterator.hasNext() && recent.size() < amount) {
+                BootTrace trace = iterator.next();
+                if (trace.getServerName().equals(serverName)) {
+                    recent.add(trace);
+                }
+            }
+        }
+
+        return recent;
+    }
+
+    /**
+     * Appends the trace to the export file as a single JSON line.
+     */
+    private void export(BootTrace trace) {
+
+        // Guard - Export must be enabled
+        if (exportFile == null) {
+            return;
+        }
+
+        JsonArray steps = new JsonArray();
+        for (BootTrace.Step step : trace.getSteps()) {
+            JsonObject stepJson = new JsonObject();
+            stepJson.addProperty("offset_ms", step.offsetNanos() / 1_000_000d);
+            stepJson.addProperty("type", step.type().name());
+            stepJson.addProperty("detail", step.detail());
+            steps.add(stepJson);
+        }
+
+        JsonObject json = new JsonObject();
+        json.addProperty("server", trace.getServerName());
+        json.addProperty("start", trace.getStartTime().toString());
+        json.addProperty("online", trace.getOutcome());
+        json.addProperty("dropped_steps", trace.getDroppedSteps());
+        json.add("steps", steps);
+
+        synchronized (this) {
+            try {
+                Files.createDirectories(exportFile.getParent());
+                Files.writeString(exportFile, json + "\n", StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                logger.error("Failed to export the boot trace of server {}. {}", trace.getServerName(), e.getMessage());
+            }
+        }
+    }
+}
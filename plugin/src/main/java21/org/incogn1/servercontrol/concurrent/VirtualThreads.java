@@ -0,0 +1,38 @@
+package org.incogn1.servercontrol.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads. This is the Java 21 version, placed in
+ * META-INF/versions/21 of the multi-release jar.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * @return whether virtual threads can be used
+     */
+    static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * @param namePrefix the prefix of the thread names, followed by a counter
+     * @return an executor that runs every task on a new virtual thread
+     */
+    static ExecutorService newExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 1).factory());
+    }
+
+    /**
+     * Starts the task on a new virtual thread.
+     *
+     * @param name the name of the thread
+     * @param task the task to run
+     */
+    static void start(String name, Runnable task) {
+        Thread.ofVirtual().name(name).start(task);
+    }
+}
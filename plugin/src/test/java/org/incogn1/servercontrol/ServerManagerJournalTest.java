@@ -0,0 +1,100 @@
+package org.incogn1.servercontrol;
+
+import dev.dejvokep.boostedyaml.YamlDocument;
+import org.incogn1.servercontrol.concurrent.PluginExecutors;
+import org.incogn1.servercontrol.persistence.StateJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Restarts the proxy twice in a row. There is no proxy in these tests, so
+ * the resume tasks stop before touching any state, just like a proxy that
+ * restarts again before the restored boots got to be resumed.
+ */
+class ServerManagerJournalTest {
+
+    private static final String CONFIG =
+        "persistence:\n" +
+        "  enabled: true\n" +
+        "  compaction-threshold: 1000\n";
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ServerControl.logger = NOPLogger.NOP_LOGGER;
+        ServerControl.proxy = null;
+        ServerControl.dataDirectory = directory;
+        ServerControl.config = YamlDocument.create(new ByteArrayInputStream(CONFIG.getBytes(StandardCharsets.UTF_8)));
+        ServerControl.pluginExecutors = new PluginExecutors(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ServerControl.pluginExecutors.shutdown();
+    }
+
+    @Test
+    void restoredBootsSurviveCompaction() throws IOException {
+        UUID lobbyPlayer = UUID.randomUUID();
+        UUID otherLobbyPlayer = UUID.randomUUID();
+        UUID hubPlayer = UUID.randomUUID();
+        UUID survivalPlayer = UUID.randomUUID();
+        UUID lobbySource = UUID.randomUUID();
+
+        StateJournal journal = openJournal();
+        journal.start();
+        journal.append("BOOT_REQUESTED", "lobby");
+        journal.append("BOOT_STARTED", "lobby");
+        journal.append("JOIN_SET", lobbyPlayer.toString(), "lobby");
+        journal.append("JOIN_SET", otherLobbyPlayer.toString(), "lobby");
+        journal.append("LISTEN_SET", lobbySource.toString(), "lobby");
+        journal.append("BOOT_REQUESTED", "hub");
+        journal.append("JOIN_SET", hubPlayer.toString(), "hub");
+        journal.append("BOOT_REQUESTED", "survival");
+        journal.append("JOIN_SET", survivalPlayer.toString(), "survival");
+        journal.append("BOOT_FINISHED", "survival");
+        journal.close();
+
+        // First restart compacts the journal before resuming the boots
+        ServerManager firstRestart = new ServerManager();
+        firstRestart.restoreState();
+        firstRestart.closeStateJournal();
+
+        assertTrue(hasRecord(openJournal().replay(), "BOOT_STARTED", "lobby"));
+        assertTrue(hasRecord(openJournal().replay(), "BOOT_REQUESTED", "hub"));
+        assertFalse(hasRecord(openJournal().replay(), "BOOT_STARTED", "hub"));
+
+        // Second restart still finds the boots and everyone waiting for them
+        ServerManager secondRestart = new ServerManager();
+        secondRestart.restoreState();
+        secondRestart.closeStateJournal();
+
+        assertEquals(2, secondRestart.getDelayedJoinsAmount("lobby"));
+        assertEquals(1, secondRestart.getDelayedJoinsAmount("hub"));
+        assertEquals(0, secondRestart.getDelayedJoinsAmount("survival"));
+        assertEquals(1, secondRestart.getListeningSourcesAmount());
+        assertTrue(hasRecord(openJournal().replay(), "BOOT_STARTED", "lobby"));
+    }
+
+    private StateJournal openJournal() throws IOException {
+        return new StateJournal(directory.resolve(ServerControl.STATE_JOURNAL_FILE), 1000, List::of);
+    }
+
+    private static boolean hasRecord(List<StateJournal.Record> records, String type, String serverName) {
+        return records.stream().anyMatch(record -> record.type().equals(type) && record.fields()[0].equals(serverName));
+    }
+}
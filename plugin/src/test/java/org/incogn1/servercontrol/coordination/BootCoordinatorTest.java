@@ -0,0 +1,109 @@
+package org.incogn1.servercontrol.coordination;
+
+import org.incogn1.servercontrol.ServerControl;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BootCoordinatorTest {
+
+    private static final long LEASE_MILLIS = 60;
+
+    @BeforeAll
+    static void setUpLogger() {
+        ServerControl.logger = NOPLogger.NOP_LOGGER;
+    }
+
+    @Test
+    void localLeasesAreNotRenewed() throws InterruptedException {
+        CountingBackend backend = new CountingBackend(false);
+        BootCoordinator coordinator = new BootCoordinator(backend, "proxy", LEASE_MILLIS);
+
+        assertTrue(coordinator.acquire("lobby").isPresent());
+        Thread.sleep(LEASE_MILLIS * 3);
+
+        assertEquals(0, backend.renewals.get());
+        coordinator.shutdown();
+    }
+
+    @Test
+    void expiringLeasesAreRenewedUntilFinished() throws InterruptedException {
+        CountingBackend backend = new CountingBackend(true);
+        BootCoordinator coordinator = new BootCoordinator(backend, "proxy", LEASE_MILLIS);
+
+        assertTrue(coordinator.acquire("lobby").isPresent());
+        Thread.sleep(LEASE_MILLIS * 3);
+        assertTrue(backend.renewals.get() > 0);
+
+        coordinator.finish("lobby", true);
+        int renewalsAfterFinish = backend.renewals.get();
+        Thread.sleep(LEASE_MILLIS * 2);
+
+        assertEquals(renewalsAfterFinish, backend.renewals.get());
+        coordinator.shutdown();
+    }
+
+    @Test
+    void outdatedReadyNotificationsAreIgnored() throws InterruptedException {
+        CountingBackend backend = new CountingBackend(false);
+        BootCoordinator coordinator = new BootCoordinator(backend, "proxy", LEASE_MILLIS);
+
+        backend.listener.onReady("lobby", 5, true);
+        assertEquals(Boolean.TRUE, coordinator.awaitReadySignal("lobby", 100));
+
+        backend.listener.onReady("lobby", 4, false);
+        assertNull(coordinator.awaitReadySignal("lobby", 100));
+
+        coordinator.shutdown();
+    }
+
+    @Test
+    void heldLeaseIsAvailableUntilFinished() {
+        BootCoordinator coordinator = new BootCoordinator(new LocalCoordinationBackend(), "proxy", LEASE_MILLIS);
+
+        Optional<BootLease> lease = coordinator.acquire("lobby");
+        assertEquals(lease, coordinator.getLease("lobby"));
+
+        coordinator.finish("lobby", true);
+        assertTrue(coordinator.getLease("lobby").isEmpty());
+
+        coordinator.shutdown();
+    }
+
+    /**
+     * Grants every lock and counts the renewals.
+     */
+    private static final class CountingBackend extends LocalCoordinationBackend {
+
+        private final boolean requiresRenewal;
+
+        private final AtomicInteger renewals = new AtomicInteger();
+
+        private ReadyListener listener;
+
+        private CountingBackend(boolean requiresRenewal) {
+            this.requiresRenewal = requiresRenewal;
+        }
+
+        @Override
+        public boolean requiresRenewal() {
+            return requiresRenewal;
+        }
+
+        @Override
+        public boolean renew(String serverName, String ownerId, long token, long leaseMillis) {
+            renewals.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public void subscribeReady(ReadyListener listener) {
+            this.listener = listener;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.incogn1.servercontrol.coordination;
+
+import org.incogn1.servercontrol.ServerControl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The behaviour every {@link CoordinationBackend} shared between proxies
+ * must have. Each test plays two proxies, with a backend instance each.
+ */
+abstract class CoordinationBackendContractTest {
+
+    private static final String SERVER = "lobby";
+
+    private final List<CoordinationBackend> backends = new ArrayList<>();
+
+    /**
+     * @return a new backend instance, sharing its state with every other
+     *         instance created during the same test
+     */
+    abstract CoordinationBackend createBackend() throws Exception;
+
+    /**
+     * Waits until the given amount of backends are subscribed to boot
+     * notifications, so a notification published right after is received.
+     */
+    abstract void awaitSubscriptions(int amount) throws Exception;
+
+    @BeforeAll
+    static void setUpLogger() {
+        ServerControl.logger = NOPLogger.NOP_LOGGER;
+    }
+
+    @AfterEach
+    void closeBackends() {
+        backends.forEach(CoordinationBackend::close);
+    }
+
+    CoordinationBackend proxy() throws Exception {
+        CoordinationBackend backend = createBackend();
+        backends.add(backend);
+
+        return backend;
+    }
+
+    @Test
+    void acquireFailsWhileAnotherProxyHoldsTheLock() throws Exception {
+        CoordinationBackend first = proxy();
+        CoordinationBackend second = proxy();
+
+        assertTrue(first.tryAcquire(SERVER, "first", 10_000) > 0);
+        assertEquals(-1, second.tryAcquire(SERVER, "second", 10_000));
+    }
+
+    @Test
+    void locksOfDifferentServersAreIndependent() throws Exception {
+        CoordinationBackend first = proxy();
+        CoordinationBackend second = proxy();
+
+        assertTrue(first.tryAcquire(SERVER, "first", 10_000) > 0);
+        assertTrue(second.tryAcquire("survival", "second", 10_000) > 0);
+    }
+
+    @Test
+    void releasedLockCanBeAcquiredWithAHigherToken() throws Exception {
+        CoordinationBackend first = proxy();
+        CoordinationBackend second = proxy();
+
+        long firstToken = first.tryAcquire(SERVER, "first", 10_000);
+        first.release(SERVER, "first", firstToken);
+
+        long secondToken = second.tryAcquire(SERVER, "second", 10_000);
+        assertTrue(secondToken > firstToken, "fencing token must increase, got " + firstToken + " then " + secondToken);
+    }
+
+    @Test
+    void lockExpiresWhenNotRenewed() throws Exception {
+        CoordinationBackend first = proxy();
+        CoordinationBackend second = proxy();
+
+        long firstToken = first.tryAcquire(SERVER, "first", 200);
+        Thread.sleep(400);
+
+        long secondToken = second.tryAcquire(SERVER, "second", 10_000);
+        assertTrue(secondToken > firstToken, "expired lock must be acquirable with a higher token");
+    }
+
+    @Test
+    void renewKeepsTheLock() throws Exception {
+        CoordinationBackend first = proxy();
+        CoordinationBackend second = proxy();
+
+        long token = first.tryAcquire(SERVER, "first", 500);
+        Thread.sleep(300);
+        assertTrue(first.renew(SERVER, "first", token, 500));
+        Thread.sleep(300);
+
+        // Past the original expiry, but within the renewed one
+        assertEquals(-1, second.tryAcquire(SERVER, "second", 10_000));
+    }
+
+    @Test
+    void staleHolderCanNotRenewOrReleaseTheNewLock() throws Exception {
+        CoordinationBackend first = proxy();
+        CoordinationBackend second = proxy();
+        CoordinationBackend third = proxy();
+
+        long staleToken = first.tryAcquire(SERVER, "first", 200);
+        Thread.sleep(400);
+        long currentToken = second.tryAcquire(SERVER, "second", 10_000);
+        assertTrue(currentToken > staleToken);
+
+        assertFalse(first.renew(SERVER, "first", staleToken, 10_000));
+        first.release(SERVER, "first", staleToken);
+
+        assertEquals(-1, third.tryAcquire(SERVER, "third", 10_000), "stale release must not free the current lock");
+        assertTrue(second.renew(SERVER, "second", currentToken, 10_000));
+    }
+
+    @Test
+    void readyNotificationReachesOtherProxies() throws Exception {
+        CoordinationBackend publisher = proxy();
+        CoordinationBackend subscriber = proxy();
+
+        CompletableFuture<String> received = new CompletableFuture<>();
+        subscriber.subscribeReady((serverName, token, online) -> received.complete(serverName + " " + token + " " + online));
+        awaitSubscriptions(1);
+
+        long token = publisher.tryAcquire(SERVER, "publisher", 10_000);
+        publisher.publishReady(SERVER, token, true);
+
+        assertEquals(SERVER + " " + token + " true", received.get(5, TimeUnit.SECONDS));
+    }
+}
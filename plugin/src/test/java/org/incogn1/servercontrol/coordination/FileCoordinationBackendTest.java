@@ -0,0 +1,21 @@
+package org.incogn1.servercontrol.coordination;
+
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+class FileCoordinationBackendTest extends CoordinationBackendContractTest {
+
+    @TempDir
+    Path directory;
+
+    @Override
+    CoordinationBackend createBackend() throws Exception {
+        return new FileCoordinationBackend(directory, 20);
+    }
+
+    @Override
+    void awaitSubscriptions(int amount) {
+        // The ready log is tailed from its size at the time of subscribing
+    }
+}
@@ -0,0 +1,68 @@
+package org.incogn1.servercontrol.coordination;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisCoordinationBackendTest extends CoordinationBackendContractTest {
+
+    private static final String PASSWORD = "secret";
+
+    private static final String KEY_PREFIX = "test:";
+
+    private static final int TIMEOUT_MILLIS = 300;
+
+    private RedisStandIn redis;
+
+    @BeforeEach
+    void startRedis() throws IOException {
+        redis = new RedisStandIn(PASSWORD);
+    }
+
+    @AfterEach
+    void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @Override
+    CoordinationBackend createBackend() {
+        return new RedisCoordinationBackend("127.0.0.1", redis.getPort(), PASSWORD, KEY_PREFIX, TIMEOUT_MILLIS);
+    }
+
+    @Override
+    void awaitSubscriptions(int amount) throws InterruptedException {
+        assertTrue(redis.awaitSubscriptions(KEY_PREFIX + "ready", amount), "subscription was not made");
+    }
+
+    @Test
+    void hangingServerTimesOutLikeAnUnreachableOne() throws Exception {
+        CoordinationBackend backend = proxy();
+        assertTrue(backend.tryAcquire("lobby", "first", 10_000) > 0);
+
+        redis.setUnresponsive(true);
+
+        long startNanos = System.nanoTime();
+        assertThrows(IOException.class, () -> backend.tryAcquire("survival", "first", 10_000));
+        long tookMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        assertTrue(tookMillis < TIMEOUT_MILLIS * 5, "command took " + tookMillis + " ms");
+
+        // The connection with the late reply is discarded, the next command gets its own reply
+        redis.setUnresponsive(false);
+        assertTrue(backend.tryAcquire("creative", "first", 10_000) > 0);
+    }
+
+    @Test
+    void wrongPasswordIsAnError() {
+        CoordinationBackend backend = new RedisCoordinationBackend("127.0.0.1", redis.getPort(), "wrong", KEY_PREFIX, TIMEOUT_MILLIS);
+
+        try {
+            assertThrows(IOException.class, () -> backend.tryAcquire("lobby", "first", 10_000));
+        } finally {
+            backend.close();
+        }
+    }
+}
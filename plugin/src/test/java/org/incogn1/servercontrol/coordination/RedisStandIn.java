@@ -0,0 +1,300 @@
+package org.incogn1.servercontrol.coordination;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A local stand-in for a Redis server, speaking just enough of RESP2 for
+ * {@link RedisCoordinationBackend}: AUTH, PING, GET, INCR, SET with NX
+ * and PX, the renew and release scripts through EVAL, PUBLISH and
+ * SUBSCRIBE. Keys expire like in Redis.
+ * <p>
+ * The stand-in can be made unresponsive, in which case it keeps reading
+ * commands but never replies, like a Redis server that hangs.
+ */
+class RedisStandIn implements Closeable {
+
+    private final ServerSocket serverSocket;
+
+    private final String password;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private final Map<String, List<OutputStream>> subscriptions = new ConcurrentHashMap<>();
+
+    private final List<Socket> clients = new CopyOnWriteArrayList<>();
+
+    private volatile boolean unresponsive = false;
+
+    /**
+     * @param password the password clients must send with AUTH, or null for none
+     */
+    RedisStandIn(String password) throws IOException {
+        this.serverSocket = new ServerSocket(0);
+        this.password = password;
+
+        Thread acceptor = new Thread(this::accept, "RedisStandIn-Acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    void setUnresponsive(boolean unresponsive) {
+        this.unresponsive = unresponsive;
+    }
+
+    /**
+     * Waits until the given amount of subscriptions to the channel exist.
+     *
+     * @param channel the channel
+     * @param amount the amount of subscriptions to wait for
+     * @return true if they exist, false if they did not within 5 seconds
+     */
+    boolean awaitSubscriptions(String channel, int amount) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (subscriptions.getOrDefault(channel, List.of()).size() < amount) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket client : clients) {
+            client.close();
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                clients.add(client);
+
+                Thread handler = new Thread(() -> handle(client), "RedisStandIn-Client");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket client) {
+        OutputStream output;
+        try {
+            output = new BufferedOutputStream(client.getOutputStream());
+        } catch (IOException e) {
+            return;
+        }
+
+        try (client) {
+            InputStream input = new BufferedInputStream(client.getInputStream());
+            boolean authenticated = password == null;
+
+            List<String> command;
+            while ((command = readCommand(input)) != null) {
+                if (unresponsive) {
+                    continue;
+                }
+
+                String name = command.get(0).toUpperCase(Locale.ROOT);
+
+                if (name.equals("AUTH")) {
+                    authenticated = command.get(1).equals(password);
+                    write(output, authenticated ? "+OK\r\n" : "-WRONGPASS invalid password\r\n");
+                    continue;
+                }
+
+                if (!authenticated) {
+                    write(output, "-NOAUTH Authentication required\r\n");
+                    continue;
+                }
+
+                if (name.equals("SUBSCRIBE")) {
+                    subscriptions.computeIfAbsent(command.get(1), ignore -> new CopyOnWriteArrayList<>()).add(output);
+                    write(output, array(bulk("subscribe"), bulk(command.get(1)), ":1\r\n"));
+                    continue;
+                }
+
+                write(output, execute(name, command));
+            }
+        } catch (IOException ignore) {
+            // Client disconnected
+        } finally {
+            subscriptions.values().forEach(outputs -> outputs.remove(output));
+        }
+    }
+
+    private String execute(String name, List<String> command) {
+        switch (name) {
+            case "PING":
+                return "+PONG\r\n";
+            case "GET": {
+                String value = get(command.get(1));
+                return value == null ? "$-1\r\n" : bulk(value);
+            }
+            case "INCR": {
+                synchronized (entries) {
+                    String value = get(command.get(1));
+                    long incremented = (value == null ? 0 : Long.parseLong(value)) + 1;
+                    entries.put(command.get(1), new Entry(String.valueOf(incremented), Long.MAX_VALUE));
+                    return ":" + incremented + "\r\n";
+                }
+            }
+            case "SET":
+                return set(command);
+            case "EVAL":
+                return eval(command);
+            case "PUBLISH":
+                return ":" + publish(command.get(1), command.get(2)) + "\r\n";
+            default:
+                return "-ERR unknown command '" + name + "'\r\n";
+        }
+    }
+
+    /**
+     * SET key value [NX] [PX milliseconds]
+     */
+    private String set(List<String> command) {
+        boolean onlyIfAbsent = false;
+        long expiresAt = Long.MAX_VALUE;
+
+        for (int i = 3; i < command.size(); i++) {
+            String option = command.get(i).toUpperCase(Locale.ROOT);
+            if (option.equals("NX")) {
+                onlyIfAbsent = true;
+            } else if (option.equals("PX")) {
+                expiresAt = System.currentTimeMillis() + Long.parseLong(command.get(++i));
+            }
+        }
+
+        synchronized (entries) {
+            if (onlyIfAbsent && get(command.get(1)) != null) {
+                return "$-1\r\n";
+            }
+
+            entries.put(command.get(1), new Entry(command.get(2), expiresAt));
+            return "+OK\r\n";
+        }
+    }
+
+    /**
+     * Runs the compare-and-expire or compare-and-delete script of the
+     * backend: EVAL script 1 key expectedValue [milliseconds]
+     */
+    private String eval(List<String> command) {
+        String script = command.get(1);
+        String key = command.get(3);
+        String expected = command.get(4);
+
+        synchronized (entries) {
+            if (!expected.equals(get(key))) {
+                return ":0\r\n";
+            }
+
+            if (script.contains("pexpire")) {
+                entries.put(key, new Entry(expected, System.currentTimeMillis() + Long.parseLong(command.get(5))));
+            } else if (script.contains("del")) {
+                entries.remove(key);
+            } else {
+                return "-ERR unsupported script\r\n";
+            }
+
+            return ":1\r\n";
+        }
+    }
+
+    private int publish(String channel, String message) {
+        List<OutputStream> outputs = subscriptions.getOrDefault(channel, List.of());
+
+        for (OutputStream output : outputs) {
+            try {
+                write(output, array(bulk("message"), bulk(channel), bulk(message)));
+            } catch (IOException ignore) {}
+        }
+
+        return outputs.size();
+    }
+
+    private String get(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+
+            return entry.value;
+        }
+    }
+
+    private static List<String> readCommand(InputStream input) throws IOException {
+        int type = input.read();
+        if (type == -1) {
+            return null;
+        }
+        if (type != '*') {
+            throw new IOException("Expected an array, got " + (char) type);
+        }
+
+        int length = Integer.parseInt(readLine(input));
+        List<String> arguments = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            input.read(); // '$'
+            int size = Integer.parseInt(readLine(input));
+            arguments.add(new String(input.readNBytes(size), StandardCharsets.UTF_8));
+            readLine(input);
+        }
+
+        return arguments;
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        StringBuilder line = new StringBuilder();
+
+        int current;
+        while ((current = input.read()) != -1 && current != '\r') {
+            line.append((char) current);
+        }
+        input.read(); // '\n'
+
+        return line.toString();
+    }
+
+    private static void write(OutputStream output, String reply) throws IOException {
+        synchronized (output) {
+            output.write(reply.getBytes(StandardCharsets.UTF_8));
+            output.flush();
+        }
+    }
+
+    private static String bulk(String value) {
+        return "$" + value.getBytes(StandardCharsets.UTF_8).length + "\r\n" + value + "\r\n";
+    }
+
+    private static String array(String... elements) {
+        return "*" + elements.length + "\r\n" + String.join("", elements);
+    }
+
+    private record Entry(String value, long expiresAt) {
+    }
+}
@@ -0,0 +1,37 @@
+package org.incogn1.servercontrol.health;
+
+import org.incogn1.servercontrol.ServerControl;
+import org.incogn1.servercontrol.concurrent.PluginExecutors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerStatusCacheTest {
+
+    @BeforeEach
+    void setUp() {
+        ServerControl.pluginExecutors = new PluginExecutors(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ServerControl.pluginExecutors.shutdown();
+    }
+
+    @Test
+    void rejectedRefreshDoesNotBlockLaterRefreshes() {
+        ServerStatusCache cache = new ServerStatusCache(1000);
+        ServerControl.pluginExecutors.shutdown();
+
+        CompletableFuture<Boolean> rejected = cache.refresh("lobby");
+        assertTrue(rejected.isCompletedExceptionally());
+
+        CompletableFuture<Boolean> next = cache.refresh("lobby");
+        assertNotSame(rejected, next);
+        assertTrue(next.isDone());
+    }
+}
@@ -0,0 +1,23 @@
+package org.incogn1.servercontrol.api;
+
+/**
+ * The states the boot-up process of a server goes through.
+ */
+public enum BootState {
+    /** A boot of the server was requested on this proxy */
+    REQUESTED,
+    /** The boot waits for the boot admission controller */
+    QUEUED,
+    /** Another proxy is booting the server, this proxy waits for it */
+    FOLLOWING_REMOTE,
+    /** A boot from before a proxy restart was picked up again */
+    RESUMED,
+    /** The startup script has been spawned */
+    STARTED,
+    /** The startup script has exited */
+    SCRIPT_EXITED,
+    /** The server came online */
+    ONLINE,
+    /** The boot failed or timed out */
+    FAILED
+}
@@ -0,0 +1,96 @@
+package org.incogn1.servercontrol.api;
+
+import com.velocitypowered.api.proxy.Player;
+import org.incogn1.servercontrol.api.event.ServerStateChange;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Lets other plugins start servers and wait for them, using the same
+ * boot-up process as the /sc commands (boot queue, coordination with
+ * other proxies, dependencies, notifications).
+ * <p>
+ * Get the instance with ServerControlApi.get() once ServerControl has
+ * been loaded, e.g. by declaring a dependency on the "servercontrol"
+ * plugin. Boot state changes are also fired as Velocity events, see
+ * the org.incogn1.servercontrol.api.event package.
+ * <p>
+ * Futures complete exceptionally with an IllegalArgumentException when
+ * a server is not registered, and with a ServerStartException when a
+ * server can not be started.
+ */
+public interface ServerControlApi {
+
+    /**
+     * @return the API of the loaded ServerControl plugin
+     *
+     * @throws IllegalStateException if ServerControl is not loaded (yet)
+     */
+    static ServerControlApi get() {
+        return ServerControlProvider.get();
+    }
+
+    /**
+     * Starts the server if it is not online or booting already.
+     *
+     * @param serverName the name of the server
+     * @return a CompletableFuture that returns true once the server is online,
+     *         or false if its boot failed
+     */
+    CompletableFuture<Boolean> ensureRunning(String serverName);
+
+    /**
+     * Waits for the server to be online, without starting it. Boots
+     * started in the meantime (by anyone) are waited for as well.
+     *
+     * @param serverName the name of the server
+     * @param timeout the maximum time to wait
+     * @return a CompletableFuture that returns true if the server is (or came)
+     *         online, or false if a boot failed or the timeout passed
+     */
+    CompletableFuture<Boolean> awaitReady(String serverName, Duration timeout);
+
+    /**
+     * Makes sure the server is running and connects the players to it
+     * once it is online.
+     *
+     * @param players the players to connect
+     * @param serverName the name of the server
+     * @return a CompletableFuture that returns, per player UUID, whether the
+     *         player was connected. All false if the server did not come online.
+     */
+    CompletableFuture<Map<UUID, Boolean>> connectWhenReady(Collection<Player> players, String serverName);
+
+    /**
+     * Gets the state of the server. Uses the last known online state
+     * if it is recent enough, checks the server otherwise.
+     *
+     * @param serverName the name of the server
+     * @return a CompletableFuture that returns the status of the server
+     */
+    CompletableFuture<ServerStatus> status(String serverName);
+
+    /**
+     * Starts the servers, together with the servers they depend on.
+     * Servers are only started once their dependencies are online.
+     *
+     * @param serverNames the names of the servers, glob patterns such as hub-* are allowed
+     * @return a CompletableFuture that returns the outcome per server once all
+     *         servers (including dependencies) have finished
+     */
+    CompletableFuture<Map<String, StartResult>> bulkStart(Collection<String> serverNames);
+
+    /**
+     * Gets a stream of all boot state changes. Every subscriber has a buffer
+     * of Flow.defaultBufferSize() changes, changes published while it is full
+     * are not delivered to that subscriber.
+     *
+     * @return the publisher of boot state changes
+     */
+    Flow.Publisher<ServerStateChange> stateChanges();
+}
@@ -0,0 +1,36 @@
+package org.incogn1.servercontrol.api;
+
+/**
+ * Holds the API instance of the loaded ServerControl plugin. Velocity has
+ * no service registry, so the plugin registers its implementation here
+ * when it is constructed.
+ */
+public final class ServerControlProvider {
+
+    private static volatile ServerControlApi instance;
+
+    private ServerControlProvider() {}
+
+    /**
+     * @return the registered API
+     *
+     * @throws IllegalStateException if ServerControl is not loaded (yet)
+     */
+    public static ServerControlApi get() {
+        ServerControlApi api = instance;
+        if (api == null) {
+            throw new IllegalStateException("ServerControl is not loaded");
+        }
+
+        return api;
+    }
+
+    /**
+     * Only to be called by ServerControl itself.
+     *
+     * @param api the implementation to register, or null to unregister it
+     */
+    public static void register(ServerControlApi api) {
+        instance = api;
+    }
+}
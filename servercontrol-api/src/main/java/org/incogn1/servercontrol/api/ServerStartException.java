@@ -0,0 +1,23 @@
+package org.incogn1.servercontrol.api;
+
+/**
+ * Thrown (as the cause of a failed future) when ServerControl can not
+ * start a server, e.g. because it has no startup script or its
+ * dependencies can not be resolved.
+ */
+public class ServerStartException extends RuntimeException {
+
+    private final String serverName;
+
+    public ServerStartException(String serverName, String message, Throwable cause) {
+        super(message, cause);
+        this.serverName = serverName;
+    }
+
+    /**
+     * @return the name of the server that could not be started
+     */
+    public String getServerName() {
+        return serverName;
+    }
+}
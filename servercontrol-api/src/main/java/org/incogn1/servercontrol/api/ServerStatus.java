@@ -0,0 +1,22 @@
+package org.incogn1.servercontrol.api;
+
+import java.time.Instant;
+
+/**
+ * A snapshot of the state of a server.
+ *
+ * @param serverName the name of the server
+ * @param online whether the server answered its last check
+ * @param checkedAt when the server was last checked
+ * @param booting whether the server is in boot-up process
+ * @param queuePosition the position of the boot in the boot queue,
+ *        or 0 if the boot is not queued
+ * @param delayedJoins the amount of players waiting to join the server
+ */
+public record ServerStatus(
+        String serverName,
+        boolean online,
+        Instant checkedAt,
+        boolean booting,
+        int queuePosition,
+        int delayedJoins) {}
@@ -0,0 +1,13 @@
+package org.incogn1.servercontrol.api;
+
+/**
+ * The outcome for a single server of a bulk start.
+ */
+public enum StartResult {
+    /** The server was already online or came online */
+    ONLINE,
+    /** The server did not come online */
+    FAILED,
+    /** The server was not started because one of its dependencies failed */
+    SKIPPED
+}
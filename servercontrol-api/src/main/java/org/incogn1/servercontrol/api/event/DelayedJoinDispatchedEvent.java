@@ -0,0 +1,39 @@
+package org.incogn1.servercontrol.api.event;
+
+import com.velocitypowered.api.proxy.Player;
+
+import java.util.List;
+
+/**
+ * Fired when the players waiting for a server are being connected
+ * to it, once it has come online.
+ */
+public final class DelayedJoinDispatchedEvent {
+
+    private final String serverName;
+    private final List<Player> players;
+
+    public DelayedJoinDispatchedEvent(String serverName, List<Player> players) {
+        this.serverName = serverName;
+        this.players = List.copyOf(players);
+    }
+
+    /**
+     * @return the name of the server
+     */
+    public String getServerName() {
+        return serverName;
+    }
+
+    /**
+     * @return the players that are being connected
+     */
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    @Override
+    public String toString() {
+        return "DelayedJoinDispatchedEvent{serverName=" + serverName + ", players=" + players.size() + "}";
+    }
+}
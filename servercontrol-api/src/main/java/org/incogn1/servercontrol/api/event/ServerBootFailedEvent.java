@@ -0,0 +1,26 @@
+package org.incogn1.servercontrol.api.event;
+
+/**
+ * Fired when the boot of a server failed, either because the startup
+ * script failed or because the server did not come online in time.
+ */
+public final class ServerBootFailedEvent {
+
+    private final String serverName;
+
+    public ServerBootFailedEvent(String serverName) {
+        this.serverName = serverName;
+    }
+
+    /**
+     * @return the name of the server
+     */
+    public String getServerName() {
+        return serverName;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerBootFailedEvent{serverName=" + serverName + "}";
+    }
+}
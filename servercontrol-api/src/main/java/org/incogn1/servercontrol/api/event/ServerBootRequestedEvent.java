@@ -0,0 +1,26 @@
+package org.incogn1.servercontrol.api.event;
+
+/**
+ * Fired when a boot of a server is requested on this proxy, before it
+ * has been admitted or its startup script has run.
+ */
+public final class ServerBootRequestedEvent {
+
+    private final String serverName;
+
+    public ServerBootRequestedEvent(String serverName) {
+        this.serverName = serverName;
+    }
+
+    /**
+     * @return the name of the server
+     */
+    public String getServerName() {
+        return serverName;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerBootRequestedEvent{serverName=" + serverName + "}";
+    }
+}
@@ -0,0 +1,35 @@
+package org.incogn1.servercontrol.api.event;
+
+/**
+ * Fired when the startup script of a server has exited. An exit code
+ * of 0 means the server is being polled until it comes online.
+ */
+public final class ServerBootScriptExitedEvent {
+
+    private final String serverName;
+    private final int exitCode;
+
+    public ServerBootScriptExitedEvent(String serverName, int exitCode) {
+        this.serverName = serverName;
+        this.exitCode = exitCode;
+    }
+
+    /**
+     * @return the name of the server
+     */
+    public String getServerName() {
+        return serverName;
+    }
+
+    /**
+     * @return the exit code of the startup script
+     */
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerBootScriptExitedEvent{serverName=" + serverName + ", exitCode=" + exitCode + "}";
+    }
+}
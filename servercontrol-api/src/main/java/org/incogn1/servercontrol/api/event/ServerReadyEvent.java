@@ -0,0 +1,27 @@
+package org.incogn1.servercontrol.api.event;
+
+/**
+ * Fired when a booting server has come online. The players waiting
+ * for it have already been sent to it at this point, see
+ * DelayedJoinDispatchedEvent.
+ */
+public final class ServerReadyEvent {
+
+    private final String serverName;
+
+    public ServerReadyEvent(String serverName) {
+        this.serverName = serverName;
+    }
+
+    /**
+     * @return the name of the server
+     */
+    public String getServerName() {
+        return serverName;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerReadyEvent{serverName=" + serverName + "}";
+    }
+}
@@ -0,0 +1,21 @@
+package org.incogn1.servercontrol.api.event;
+
+import org.incogn1.servercontrol.api.BootState;
+
+import java.time.Instant;
+
+/**
+ * A change in the boot-up process of a server, as published by
+ * ServerControlApi#stateChanges.
+ *
+ * @param serverName the name of the server
+ * @param state the new state of the boot
+ * @param timestamp when the state changed
+ * @param exitCode the exit code of the startup script, only set
+ *        for SCRIPT_EXITED
+ */
+public record ServerStateChange(
+        String serverName,
+        BootState state,
+        Instant timestamp,
+        Integer exitCode) {}